@@ -0,0 +1,63 @@
+/**
+ * 
+ */
+package gui;
+
+import java.io.IOException;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * Interface ArduinoDevice - Abstraktion der Kommunikation mit dem Arduino
+ * (Token-Austausch und Impulszaehler der Motoren)...
+ * <p>
+ * Implementierungen:
+ * <ul>
+ *  <li>ArduinoI2CDevice - Zugriff auf den Arduino ueber den I2C-Bus (ArduinoI2C)</li>
+ *  <li>ArduinoFrameDevice - Token-Austausch als eine kombinierte I2C-Transaktion</li>
+ *  <li>SimulatedArduino - Simulation im Prozess (z.B. zum Test auf x86-Linux)</li>
+ * </ul>
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public interface ArduinoDevice
+{
+    /**
+     * write(long token, ArduinoI2C.Status status) - token und Status an den Arduino senden...
+     * @param token die unteren 4 Byte werden uebertragen
+     * @param status Status der Kommunikation
+     * @throws IOException
+     */
+    public void write(long token, ArduinoI2C.Status status) throws IOException;
+    
+    /**
+     * read(ArduinoResponse response) - Antwort des Arduino lesen...
+     * <p>
+     * Die Antwort wird in das uebergebene (wiederverwendbare) Objekt 
+     * <code>response</code> eingetragen.
+     * </p>
+     * @param response nimmt die Antwort auf
+     * @throws IOException
+     */
+    public void read(ArduinoResponse response) throws IOException;
+    
+    /**
+     * exchange(long token, ArduinoI2C.Status status, ArduinoResponse response) - 
+     * Token-Austausch eines Regelzyklus: token und Status senden, Antwort lesen...
+     * <p>
+     * Standard: write() gefolgt von read(), d.h. zwei Bus-Transaktionen. 
+     * Implementierungen mit einer kombinierten Transaktion (vgl. ArduinoFrameDevice)
+     * ueberschreiben die Methode.
+     * </p>
+     * @param token die unteren 4 Byte werden uebertragen
+     * @param status Status der Kommunikation
+     * @param response nimmt die Antwort auf
+     * @throws IOException
+     */
+    public default void exchange(long token, ArduinoI2C.Status status, ArduinoResponse response) throws IOException
+    {
+        write(token, status);
+        read(response);
+    }
+}
@@ -0,0 +1,325 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pi4j.io.i2c.I2CDevice;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * ArduinoFrameDevice - Token-Austausch mit dem Arduino als eine kombinierte
+ * I2C-Transaktion (Schreiben, Repeated-Start, Lesen)...
+ * <p>
+ * Bisher erfordert jeder Regelzyklus zwei Bus-Transaktionen (ArduinoI2C.write()
+ * und ArduinoI2C.read()) zuzueglich der Bearbeitungszeit auf dem Arduino. Mit
+ * Protokollversion 1 werden Anforderung und Antwort als Frames fester Laenge
+ * (little endian, CRC-8 Polynom 0x07) in einer Transaktion
+ * (I2CDevice.read(writeBuffer, ..., readBuffer, ...)) uebertragen:
+ * <pre>
+ *   Anforderung (8 Byte): [0] COMMAND_EXCHANGE bzw. COMMAND_HELLO
+ *                         [1] Version
+ *                         [2] Status (ArduinoI2C.Status.ordinal())
+ *                         [3..6] token (uint32)
+ *                         [7] CRC-8 ueber [0..6]
+ *   Antwort (15 Byte):    [0] Version
+ *                         [1] Status (ArduinoI2C.Status.ordinal())
+ *                         [2..5] token (uint32)
+ *                         [6..9] Impulse Motor A (int32)
+ *                         [10..13] Impulse Motor B (int32)
+ *                         [14] CRC-8 ueber [0..13]
+ * </pre>
+ * </p>
+ * <p>
+ * Die Version wird bei jedem Start (Status INITIAL) mit COMMAND_HELLO ausgehandelt.
+ * Antwortet der Arduino nicht mit einem gueltigen Frame (z.B. aeltere Firmware),
+ * erfolgt die Kommunikation bis zum naechsten Start ueber das bisherige Protokoll
+ * (legacy, i.d.R. ArduinoI2CDevice). Ein Frame mit falscher Pruefsumme liefert
+ * den Status ERROR, der Regelzyklus stoppt dann die Motoren.
+ * </p>
+ * <p>
+ * Die Puffer werden einmalig angelegt, exchange() wird ausschliesslich im Thread
+ * des Regelzyklus beauftragt.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class ArduinoFrameDevice implements ArduinoDevice
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ArduinoFrameDevice.class);
+
+    /**
+     * PROTOCOL_VERSION = 1 - hoechste unterstuetzte Protokollversion
+     */
+    public final static int PROTOCOL_VERSION = 1;
+
+    /**
+     * COMMAND_EXCHANGE = 0xC5 - Kennung der Anforderung zum Token-Austausch
+     */
+    private final static int COMMAND_EXCHANGE = 0xC5;
+
+    /**
+     * COMMAND_HELLO = 0xC6 - Kennung der Anforderung zur Aushandlung der Version
+     */
+    private final static int COMMAND_HELLO = 0xC6;
+
+    /**
+     * REQUEST_LENGTH = 8 - Laenge der Anforderung in Byte
+     */
+    final static int REQUEST_LENGTH = 8;
+
+    /**
+     * RESPONSE_LENGTH = 15 - Laenge der Antwort in Byte
+     */
+    final static int RESPONSE_LENGTH = 15;
+
+    /**
+     * STATUS - ArduinoI2C.Status.values(), Zuordnung des Status-Byte
+     */
+    private final static ArduinoI2C.Status[] STATUS = ArduinoI2C.Status.values();
+
+    /**
+     * device - I2C-Device des Arduino
+     */
+    private final I2CDevice device;
+
+    /**
+     * legacy - bisheriges Protokoll (Rueckfall)
+     */
+    private final ArduinoDevice legacy;
+
+    /**
+     * maxVersion - hoechste zugelassene Version (Konfiguration)
+     */
+    private final int maxVersion;
+
+    /**
+     * version - ausgehandelte Version (0: bisheriges Protokoll)
+     */
+    private volatile int version = 0;
+
+    /**
+     * requestBuffer, responseBuffer - Puffer der Frames
+     */
+    private final byte[] requestBuffer = new byte[REQUEST_LENGTH];
+    private final byte[] responseBuffer = new byte[RESPONSE_LENGTH];
+
+    /**
+     * crcErrors - Anzahl der Antworten mit falscher Pruefsumme
+     */
+    private volatile long crcErrors = 0L;
+
+    /**
+     * ArduinoFrameDevice(I2CDevice device, ArduinoDevice legacy, int maxVersion)
+     * @param device I2C-Device des Arduino
+     * @param legacy bisheriges Protokoll (Rueckfall)
+     * @param maxVersion hoechste zugelassene Version (0: immer bisheriges Protokoll)
+     */
+    public ArduinoFrameDevice(I2CDevice device, ArduinoDevice legacy, int maxVersion)
+    {
+        this.device = Objects.requireNonNull(device, "device must not be null!");
+        this.legacy = Objects.requireNonNull(legacy, "legacy must not be null!");
+        this.maxVersion = Math.max(0, Math.min(PROTOCOL_VERSION, maxVersion));
+    }
+
+    @Override
+    public void write(long token, ArduinoI2C.Status status) throws IOException
+    {
+        this.legacy.write(token, status);
+    }
+
+    @Override
+    public void read(ArduinoResponse response) throws IOException
+    {
+        this.legacy.read(response);
+    }
+
+    /**
+     * exchange(...) - Token-Austausch in einer Transaktion (bzw. ueber das
+     * bisherige Protokoll, falls keine Version ausgehandelt wurde)...
+     */
+    @Override
+    public void exchange(long token, ArduinoI2C.Status status, ArduinoResponse response) throws IOException
+    {
+        if (ArduinoI2C.Status.INITIAL == status)
+        {
+            negotiate();
+        }
+        if (this.version == 0)
+        {
+            this.legacy.exchange(token, status, response);
+            return;
+        }
+        final byte[] request = this.requestBuffer;
+        encodeRequest(request, COMMAND_EXCHANGE, this.version, status, token);
+        transfer(request, this.responseBuffer);
+        if (!decodeResponse(this.responseBuffer, response))
+        {
+            this.crcErrors++;
+            // Antwort verwerfen, der Regelzyklus wertet ERROR aus...
+            response.set(token, ArduinoI2C.Status.ERROR, 0, 0, 0);
+        }
+    }
+
+    /**
+     * negotiate() - Aushandlung der Version mit COMMAND_HELLO...
+     * <p>
+     * Der Arduino antwortet mit der hoechsten von ihm unterstuetzten Version
+     * &lt;= der angefragten Version. Ohne gueltige Antwort gilt Version 0.
+     * </p>
+     */
+    private void negotiate()
+    {
+        int negotiated = 0;
+        if (this.maxVersion > 0)
+        {
+            try
+            {
+                encodeRequest(this.requestBuffer, COMMAND_HELLO, this.maxVersion, ArduinoI2C.Status.NOP, 0L);
+                transfer(this.requestBuffer, this.responseBuffer);
+                final byte[] buffer = this.responseBuffer;
+                final int offered = buffer[0] & 0xFF;
+                if (crc8(buffer, RESPONSE_LENGTH - 1) == (buffer[RESPONSE_LENGTH - 1] & 0xFF)
+                 && offered > 0 && offered <= this.maxVersion)
+                {
+                    negotiated = offered;
+                }
+            }
+            catch (IOException exception)
+            {
+                // Aeltere Firmware: Rueckfall auf das bisherige Protokoll...
+                logger.debug("negotiate(): " + exception.toString());
+            }
+        }
+        if (negotiated != this.version)
+        {
+            logger.info("Protokollversion Arduino: " + negotiated + ((negotiated == 0)? " (bisheriges Protokoll)" : ""));
+        }
+        this.version = negotiated;
+    }
+
+    /**
+     * transfer(byte[] request, byte[] response) - kombinierte Transaktion
+     * (Schreiben, Repeated-Start, Lesen)...
+     * @param request Anforderung
+     * @param response nimmt die Antwort auf
+     * @throws IOException bei Fehler auf dem Bus bzw. unvollstaendiger Antwort
+     */
+    private void transfer(byte[] request, byte[] response) throws IOException
+    {
+        final int count = this.device.read(request, 0, request.length, response, 0, response.length);
+        if (count != response.length)
+        {
+            throw new IOException("Antwort unvollstaendig: " + count + " von " + response.length + " Byte");
+        }
+    }
+
+    /**
+     * encodeRequest(...) - Anforderung in buffer eintragen...
+     * @param buffer Puffer (REQUEST_LENGTH)
+     * @param command COMMAND_EXCHANGE oder COMMAND_HELLO
+     * @param version Version
+     * @param status Status
+     * @param token die unteren 4 Byte werden uebertragen
+     */
+    static void encodeRequest(byte[] buffer, int command, int version, ArduinoI2C.Status status, long token)
+    {
+        buffer[0] = (byte)command;
+        buffer[1] = (byte)version;
+        buffer[2] = (byte)status.ordinal();
+        putInt(buffer, 3, (int)token);
+        buffer[7] = (byte)crc8(buffer, 7);
+    }
+
+    /**
+     * decodeResponse(byte[] buffer, ArduinoResponse response) - Antwort aus
+     * buffer in response eintragen...
+     * @param buffer Puffer (RESPONSE_LENGTH)
+     * @param response nimmt die Antwort auf
+     * @return true, falls Pruefsumme und Status gueltig sind
+     */
+    static boolean decodeResponse(byte[] buffer, ArduinoResponse response)
+    {
+        if (crc8(buffer, RESPONSE_LENGTH - 1) != (buffer[RESPONSE_LENGTH - 1] & 0xFF))
+        {
+            return false;
+        }
+        final int status = buffer[1] & 0xFF;
+        if (status >= STATUS.length)
+        {
+            return false;
+        }
+        response.set(getInt(buffer, 2) & 0xFFFFFFFFL,
+                     STATUS[status],
+                     0,
+                     getInt(buffer, 6),
+                     getInt(buffer, 10));
+        return true;
+    }
+
+    /**
+     * putInt(byte[] buffer, int offset, int value) - 4 Byte little endian
+     */
+    private static void putInt(byte[] buffer, int offset, int value)
+    {
+        buffer[offset]     = (byte)value;
+        buffer[offset + 1] = (byte)(value >>> 8);
+        buffer[offset + 2] = (byte)(value >>> 16);
+        buffer[offset + 3] = (byte)(value >>> 24);
+    }
+
+    /**
+     * getInt(byte[] buffer, int offset) - 4 Byte little endian
+     */
+    private static int getInt(byte[] buffer, int offset)
+    {
+        return (buffer[offset] & 0xFF)
+             | ((buffer[offset + 1] & 0xFF) << 8)
+             | ((buffer[offset + 2] & 0xFF) << 16)
+             | ((buffer[offset + 3] & 0xFF) << 24);
+    }
+
+    /**
+     * crc8(byte[] buffer, int length) - CRC-8 (Polynom 0x07, Startwert 0x00)
+     * ueber buffer[0..length-1]...
+     * @return Pruefsumme (0 ... 255)
+     */
+    static int crc8(byte[] buffer, int length)
+    {
+        int crc = 0;
+        for (int index = 0; index < length; index++)
+        {
+            crc ^= buffer[index] & 0xFF;
+            for (int bit = 0; bit < 8; bit++)
+            {
+                crc = ((crc & 0x80) != 0)? ((crc << 1) ^ 0x07) & 0xFF : (crc << 1) & 0xFF;
+            }
+        }
+        return crc;
+    }
+
+    /**
+     * @return ausgehandelte Version (0: bisheriges Protokoll)
+     */
+    public int getVersion()
+    {
+        return this.version;
+    }
+
+    /**
+     * @return Anzahl der Antworten mit falscher Pruefsumme
+     */
+    public long getCrcErrors()
+    {
+        return this.crcErrors;
+    }
+}
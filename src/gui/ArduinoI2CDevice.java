@@ -0,0 +1,50 @@
+/**
+ * 
+ */
+package gui;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * ArduinoI2CDevice - Implementierung von ArduinoDevice ueber den I2C-Bus,
+ * die Kommunikation erfolgt mit der Hilfsklasse ArduinoI2C...
+ * 
+ * @author Detlef Tribius
+ *
+ */
+public class ArduinoI2CDevice implements ArduinoDevice
+{
+    /**
+     * arduinoI2C - Referenz auf die Hilfsklasse zur Kommunikation mit dem Arduino
+     */
+    private final ArduinoI2C arduinoI2C;
+    
+    /**
+     * ArduinoI2CDevice(ArduinoI2C arduinoI2C)
+     * @param arduinoI2C
+     */
+    public ArduinoI2CDevice(ArduinoI2C arduinoI2C)
+    {
+        this.arduinoI2C = Objects.requireNonNull(arduinoI2C, "arduinoI2C must not be null!");
+    }
+    
+    @Override
+    public void write(long token, ArduinoI2C.Status status) throws IOException
+    {
+        this.arduinoI2C.write(token, status);
+    }
+
+    @Override
+    public void read(ArduinoResponse response) throws IOException
+    {
+        final ArduinoI2C.DataRequest request = this.arduinoI2C.read();
+        response.set(request.getToken(), 
+                     request.getStatus(), 
+                     request.getValue(), 
+                     request.getNumberMA(), 
+                     request.getNumberMB());
+    }
+}
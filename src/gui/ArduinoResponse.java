@@ -0,0 +1,120 @@
+/**
+ * 
+ */
+package gui;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * ArduinoResponse - Antwort des Arduino (token, Status, Impulszaehler)...
+ * <p>
+ * Das Objekt ist veraenderlich und wird im Regelzyklus wiederverwendet,
+ * damit pro Zyklus kein neues Objekt angelegt werden muss.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class ArduinoResponse
+{
+    /**
+     * token - vom Arduino erhaltener token
+     */
+    private long token = 0L;
+    
+    /**
+     * status - vom Arduino erhaltener Status
+     */
+    private ArduinoI2C.Status status = ArduinoI2C.Status.NOP;
+    
+    /**
+     * value - 4 Byte-Variante der Daten vom Arduino
+     */
+    private int value = 0;
+    
+    /**
+     * numberMA - Anzahl Impulse Motor A
+     */
+    private int numberMA = 0;
+    
+    /**
+     * numberMB - Anzahl Impulse Motor B
+     */
+    private int numberMB = 0;
+    
+    /**
+     * set(...) - alle Attribute setzen...
+     * @param token
+     * @param status
+     * @param value
+     * @param numberMA
+     * @param numberMB
+     */
+    public void set(long token, ArduinoI2C.Status status, int value, int numberMA, int numberMB)
+    {
+        this.token = token;
+        this.status = status;
+        this.value = value;
+        this.numberMA = numberMA;
+        this.numberMB = numberMB;
+    }
+
+    /**
+     * @return the token
+     */
+    public final long getToken()
+    {
+        return this.token;
+    }
+
+    /**
+     * @return the status
+     */
+    public final ArduinoI2C.Status getStatus()
+    {
+        return this.status;
+    }
+
+    /**
+     * @return the value
+     */
+    public final int getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * @return the numberMA
+     */
+    public final int getNumberMA()
+    {
+        return this.numberMA;
+    }
+
+    /**
+     * @return the numberMB
+     */
+    public final int getNumberMB()
+    {
+        return this.numberMB;
+    }
+    
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.token)
+                                  .append(" ")
+                                  .append(this.status)
+                                  .append(" ")
+                                  .append(this.value)
+                                  .append(" ")
+                                  .append(this.numberMA)
+                                  .append(" ")
+                                  .append(this.numberMB)
+                                  .append("]")
+                                  .toString();
+    }
+}
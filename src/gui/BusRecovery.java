@@ -0,0 +1,274 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * BusRecovery - Zustandsautomat zur selbsttaetigen Wiederaufnahme der
+ * Kommunikation mit dem Arduino nach einem Busfehler...
+ * <p>
+ * Zustaende:
+ * <pre>
+ *   OK      - Kommunikation fehlerfrei
+ *   HOLD    - nach einem Fehler: Motoren stehen, Wartezeit (Backoff) bis zum naechsten Versuch
+ *   RESYNC  - Versuch: der token wird vom Arduino uebernommen, erst nach stableCycles
+ *             aufeinanderfolgenden konsistenten Antworten gilt die Kommunikation wieder als OK
+ *   FAILED  - maxAttempts Versuche ohne Erfolg, erst ein Start (reset()) beginnt neu
+ * </pre>
+ * Die Wartezeit verdoppelt sich je Versuch von backoffNanos bis hoechstens
+ * maxBackoffNanos. Jede Fehlerfolge (OK -&gt; HOLD ... -&gt; OK) zaehlt als ein
+ * "burst", die Dauer bis zur Wiederaufnahme wird in recoveryStats erfasst.
+ * </p>
+ * <p>
+ * Der Zustand wird ausschliesslich im Thread des Regelzyklus veraendert,
+ * die Zaehler koennen aus anderen Threads gelesen werden.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class BusRecovery
+{
+    /**
+     * backoffNanos - erste Wartezeit in ns
+     */
+    private final long backoffNanos;
+
+    /**
+     * maxBackoffNanos - groesste Wartezeit in ns
+     */
+    private final long maxBackoffNanos;
+
+    /**
+     * maxAttempts - maximale Anzahl der Versuche je Fehlerfolge (0: unbegrenzt)
+     */
+    private final int maxAttempts;
+
+    /**
+     * stableCycles - Anzahl konsistenter Antworten bis zur Wiederaufnahme
+     */
+    private final int stableCycles;
+
+    /**
+     * state - aktueller Zustand
+     */
+    private volatile State state = State.OK;
+
+    /**
+     * attempt - Nummer des Versuchs in der aktuellen Fehlerfolge
+     */
+    private int attempt = 0;
+
+    /**
+     * holdUntilNanos - Ende der Wartezeit (System.nanoTime())
+     */
+    private long holdUntilNanos = 0L;
+
+    /**
+     * burstStartNanos - Beginn der aktuellen Fehlerfolge (System.nanoTime())
+     */
+    private long burstStartNanos = 0L;
+
+    /**
+     * successes - Anzahl konsistenter Antworten im Zustand RESYNC
+     */
+    private int successes = 0;
+
+    /**
+     * bursts, failures, recoveries - Zaehler (Fehlerfolgen, Fehler, Wiederaufnahmen)
+     */
+    private volatile long bursts = 0L;
+    private volatile long failures = 0L;
+    private volatile long recoveries = 0L;
+
+    /**
+     * recoveryStats - Dauer vom ersten Fehler bis zur Wiederaufnahme
+     */
+    private final RunningStats recoveryStats = new RunningStats("recovery");
+
+    /**
+     * BusRecovery(long backoffNanos, long maxBackoffNanos, int maxAttempts, int stableCycles)
+     * @param backoffNanos erste Wartezeit in ns
+     * @param maxBackoffNanos groesste Wartezeit in ns
+     * @param maxAttempts maximale Anzahl der Versuche je Fehlerfolge (0: unbegrenzt)
+     * @param stableCycles Anzahl konsistenter Antworten bis zur Wiederaufnahme (&gt;= 1)
+     */
+    public BusRecovery(long backoffNanos, long maxBackoffNanos, int maxAttempts, int stableCycles)
+    {
+        this.backoffNanos = Math.max(0L, backoffNanos);
+        this.maxBackoffNanos = Math.max(this.backoffNanos, maxBackoffNanos);
+        this.maxAttempts = Math.max(0, maxAttempts);
+        this.stableCycles = Math.max(1, stableCycles);
+    }
+
+    /**
+     * reset() - Neubeginn (z.B. beim Start), die Zaehler bleiben erhalten...
+     */
+    public void reset()
+    {
+        this.state = State.OK;
+        this.attempt = 0;
+        this.successes = 0;
+    }
+
+    /**
+     * onFailure(long now) - Busfehler bzw. inkonsistente Antwort...
+     * @param now Zeitpunkt (System.nanoTime())
+     */
+    public void onFailure(long now)
+    {
+        this.failures++;
+        if (State.FAILED == this.state)
+        {
+            return;
+        }
+        if (State.OK == this.state)
+        {
+            this.bursts++;
+            this.burstStartNanos = now;
+            this.attempt = 0;
+        }
+        this.attempt++;
+        this.successes = 0;
+        if (this.maxAttempts > 0 && this.attempt > this.maxAttempts)
+        {
+            this.state = State.FAILED;
+            return;
+        }
+        // Wartezeit verdoppeln, begrenzt auf maxBackoffNanos...
+        final int shift = Math.min(this.attempt - 1, 62);
+        final long backoff = (this.backoffNanos > (this.maxBackoffNanos >> shift))? this.maxBackoffNanos
+                                                                                   : (this.backoffNanos << shift);
+        this.holdUntilNanos = now + backoff;
+        this.state = State.HOLD;
+    }
+
+    /**
+     * isReady(long now) - darf im Zyklus kommuniziert werden? Nach Ablauf der
+     * Wartezeit erfolgt der Uebergang HOLD -&gt; RESYNC...
+     * @param now Zeitpunkt (System.nanoTime())
+     * @return true in den Zustaenden OK und RESYNC
+     */
+    public boolean isReady(long now)
+    {
+        final State state = this.state;
+        if (State.HOLD == state && now - this.holdUntilNanos >= 0L)
+        {
+            this.state = State.RESYNC;
+            return true;
+        }
+        return (State.OK == state) || (State.RESYNC == state);
+    }
+
+    /**
+     * isRecovering() - laeuft eine Fehlerbehandlung?
+     * @return true ausser im Zustand OK
+     */
+    public boolean isRecovering()
+    {
+        return State.OK != this.state;
+    }
+
+    /**
+     * onResync(long now, boolean isConsistent) - gueltige Antwort im Zustand RESYNC...
+     * @param now Zeitpunkt (System.nanoTime())
+     * @param isConsistent token der Antwort passt zum gesendeten token
+     * @return true, falls die Kommunikation wieder aufgenommen ist (Zustand OK)
+     */
+    public boolean onResync(long now, boolean isConsistent)
+    {
+        this.successes = isConsistent? (this.successes + 1) : 0;
+        if (this.successes < this.stableCycles)
+        {
+            return false;
+        }
+        this.state = State.OK;
+        this.attempt = 0;
+        this.successes = 0;
+        this.recoveries++;
+        this.recoveryStats.add(now - this.burstStartNanos);
+        return true;
+    }
+
+    /**
+     * @return the state
+     */
+    public State getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * @return Anzahl der Fehlerfolgen
+     */
+    public long getBursts()
+    {
+        return this.bursts;
+    }
+
+    /**
+     * @return Anzahl der Fehler
+     */
+    public long getFailures()
+    {
+        return this.failures;
+    }
+
+    /**
+     * @return Anzahl der Wiederaufnahmen
+     */
+    public long getRecoveries()
+    {
+        return this.recoveries;
+    }
+
+    /**
+     * @return Dauer vom ersten Fehler bis zur Wiederaufnahme
+     */
+    public RunningStats getRecoveryStats()
+    {
+        return this.recoveryStats;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.state)
+                                  .append(" bursts=")
+                                  .append(this.bursts)
+                                  .append(" failures=")
+                                  .append(this.failures)
+                                  .append(" recoveries=")
+                                  .append(this.recoveries)
+                                  .append(" ")
+                                  .append(this.recoveryStats.toString())
+                                  .append("]")
+                                  .toString();
+    }
+
+    /**
+     * State - Zustand der Fehlerbehandlung
+     */
+    public enum State
+    {
+        /**
+         * OK - Kommunikation fehlerfrei
+         */
+        OK,
+        /**
+         * HOLD - Wartezeit nach einem Fehler
+         */
+        HOLD,
+        /**
+         * RESYNC - Versuch der Wiederaufnahme
+         */
+        RESYNC,
+        /**
+         * FAILED - Versuche erschoepft
+         */
+        FAILED;
+    }
+}
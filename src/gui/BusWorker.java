@@ -0,0 +1,371 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * BusWorker - fuehrt die Bus-Transaktionen eines Regelzyklus in einem eigenen
+ * Thread aus (Pipeline-Betrieb, vgl. Model)...
+ * <p>
+ * Ein Auftrag besteht aus zwei Schritten:
+ * <ol>
+ *  <li>Token-Austausch mit dem Arduino (submitExchange()),</li>
+ *  <li>Ausgabe der Stellgroessen an den Motortreiber (postPwm()).</li>
+ * </ol>
+ * Waehrend der Token-Austausch laeuft, berechnet der Regelzyklus die
+ * Stellgroessen aus der Antwort des vorherigen Auftrags und uebergibt sie
+ * mit postPwm(). Die Stellgroessen wirken damit einen Zyklus spaeter als im
+ * sequentiellen Betrieb.
+ * </p>
+ * <p>
+ * Es ist immer hoechstens ein Auftrag in Bearbeitung. Die Uebergabe erfolgt
+ * ueber volatile Auftragsnummern (submitted, posted, completed),
+ * die Daten werden vor der jeweiligen Auftragsnummer geschrieben. Die Antwort
+ * (getResponse()) und die Zeitstempel duerfen erst nach await() und nur bis
+ * zum naechsten submitExchange() gelesen werden.
+ * </p>
+ * <p>
+ * Mit cancelPwm() wird die Ausgabe des laufenden Auftrags verworfen, der
+ * BusWorker gibt dann nach dem Token-Austausch 0 an beide Motoren aus (z.B.
+ * bei Stop oder wenn der Token-Austausch nicht rechtzeitig endet).
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class BusWorker
+{
+    /**
+     * logger...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(BusWorker.class);
+
+    /**
+     * JOIN_TIMEOUT_MILLIS = 1000L - maximale Wartezeit beim Beenden des Threads...
+     */
+    private final static long JOIN_TIMEOUT_MILLIS = 1000L;
+
+    /**
+     * PARK_NANOS = 10_000_000L - maximale Wartezeit je Durchlauf beim Warten auf einen 
+     * Schritt (jeder Schritt weckt den wartenden Thread mit unpark())...
+     */
+    private final static long PARK_NANOS = 10_000_000L;
+
+    /**
+     * arduinoDevice - Kommunikation mit dem Arduino
+     */
+    private final ArduinoDevice arduinoDevice;
+
+    /**
+     * motorDriver - Ausgabe der Stellgroessen
+     */
+    private final MotorDriver motorDriver;
+
+    /**
+     * thread...
+     */
+    private final Thread thread;
+
+    /**
+     * running - Kennung, der Thread soll laufen...
+     */
+    private volatile boolean running = false;
+
+    /**
+     * waiter - Thread, der in await() wartet (der Regelzyklus)
+     */
+    private volatile Thread waiter = null;
+
+    /**
+     * submitted, posted, completed - Auftragsnummern der Schritte...
+     */
+    private volatile long submitted = 0L;
+    private volatile long posted = 0L;
+    private volatile long completed = 0L;
+
+    /**
+     * cancelled - Auftragsnummer, deren Stellgroessen verworfen werden (vgl. cancelPwm())
+     */
+    private volatile long cancelled = 0L;
+
+    /**
+     * token, status - Daten des Token-Austauschs (vom Regelzyklus)
+     */
+    private long token = 0L;
+    private ArduinoI2C.Status status = ArduinoI2C.Status.NOP;
+
+    /**
+     * pwmMA, pwmMB - Stellgroessen (vom Regelzyklus)
+     */
+    private float pwmMA = 0.0F;
+    private float pwmMB = 0.0F;
+
+    /**
+     * response - Antwort des Arduino (vom BusWorker)
+     */
+    private final ArduinoResponse response = new ArduinoResponse();
+
+    /**
+     * failure - Fehler des Auftrags (null: ohne Fehler)
+     */
+    private IOException failure = null;
+
+    /**
+     * exchangeStartNanos, exchangeEndNanos, pwmDoneNanos - Zeitstempel des Auftrags
+     */
+    private long exchangeStartNanos = 0L;
+    private long exchangeEndNanos = 0L;
+    private long pwmDoneNanos = 0L;
+
+    /**
+     * BusWorker(String name, ArduinoDevice arduinoDevice, MotorDriver motorDriver)
+     * @param name Name des Threads
+     * @param arduinoDevice Kommunikation mit dem Arduino
+     * @param motorDriver Ausgabe der Stellgroessen
+     */
+    public BusWorker(String name, ArduinoDevice arduinoDevice, MotorDriver motorDriver)
+    {
+        this.arduinoDevice = Objects.requireNonNull(arduinoDevice, "arduinoDevice must not be null!");
+        this.motorDriver = Objects.requireNonNull(motorDriver, "motorDriver must not be null!");
+        this.thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                runWorker();
+            }
+        }, name);
+        this.thread.setPriority(Thread.MAX_PRIORITY);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * start() - Thread starten...
+     */
+    public void start()
+    {
+        this.running = true;
+        this.thread.start();
+    }
+
+    /**
+     * stop() - Thread beenden, es wird maximal JOIN_TIMEOUT_MILLIS gewartet...
+     */
+    public void stop()
+    {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+        try
+        {
+            this.thread.join(JOIN_TIMEOUT_MILLIS);
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+        logger.debug(this.thread.getName() + " beendet: " + this.completed + " Auftraege");
+    }
+
+    /**
+     * isIdle() - kein Auftrag in Bearbeitung...
+     * @return true, falls der letzte Auftrag abgeschlossen ist
+     */
+    public boolean isIdle()
+    {
+        return this.completed == this.submitted;
+    }
+
+    /**
+     * await(long timeoutNanos) - auf den Abschluss des laufenden Auftrags warten...
+     * @param timeoutNanos maximale Wartezeit in ns
+     * @return true, falls kein Auftrag mehr in Bearbeitung ist
+     */
+    public boolean await(long timeoutNanos)
+    {
+        if (isIdle())
+        {
+            return true;
+        }
+        final long deadline = System.nanoTime() + timeoutNanos;
+        this.waiter = Thread.currentThread();
+        try
+        {
+            while (!isIdle())
+            {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L || !this.running)
+                {
+                    return false;
+                }
+                LockSupport.parkNanos(this, Math.min(remaining, PARK_NANOS));
+            }
+            return true;
+        }
+        finally
+        {
+            this.waiter = null;
+        }
+    }
+
+    /**
+     * submitExchange(long token, ArduinoI2C.Status status) - neuen Auftrag mit
+     * dem Token-Austausch beginnen (nur nach await() == true)...
+     * @param token die unteren 4 Byte werden uebertragen
+     * @param status Status der Kommunikation
+     */
+    public void submitExchange(long token, ArduinoI2C.Status status)
+    {
+        this.token = token;
+        this.status = status;
+        this.submitted = this.submitted + 1L;
+        LockSupport.unpark(this.thread);
+    }
+
+    /**
+     * postPwm(float pwmMA, float pwmMB) - Stellgroessen des laufenden Auftrags
+     * uebergeben, die Ausgabe erfolgt nach dem Token-Austausch...
+     * @param pwmMA
+     * @param pwmMB
+     */
+    public void postPwm(float pwmMA, float pwmMB)
+    {
+        this.pwmMA = pwmMA;
+        this.pwmMB = pwmMB;
+        this.posted = this.submitted;
+        LockSupport.unpark(this.thread);
+    }
+
+    /**
+     * cancelPwm() - Stellgroessen des laufenden Auftrags verwerfen, nach dem
+     * Token-Austausch wird 0 ausgegeben...
+     * <p>
+     * Hat der BusWorker die Stellgroessen bereits ausgegeben, bleibt dies ohne
+     * Wirkung, der Aufrufer gibt dann nach await() selbst 0 aus.
+     * </p>
+     */
+    public void cancelPwm()
+    {
+        this.cancelled = this.submitted;
+        LockSupport.unpark(this.thread);
+    }
+
+    /**
+     * runWorker() - Schleife des Threads...
+     */
+    private void runWorker()
+    {
+        long job = 0L;
+        while (this.running)
+        {
+            if (this.submitted == job)
+            {
+                LockSupport.parkNanos(this, PARK_NANOS);
+                continue;
+            }
+            job = this.submitted;
+
+            // 1.) Token-Austausch...
+            this.exchangeStartNanos = System.nanoTime();
+            try
+            {
+                this.arduinoDevice.exchange(this.token, this.status, this.response);
+                this.failure = null;
+            }
+            catch (IOException exception)
+            {
+                this.failure = exception;
+            }
+            this.exchangeEndNanos = System.nanoTime();
+
+            // 2.) Auf die Stellgroessen warten und ausgeben...
+            while (this.running && this.posted != job && this.cancelled != job)
+            {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            final boolean isCancelled = (this.cancelled == job);
+            try
+            {
+                this.motorDriver.setPwmMA(isCancelled? 0.0F : this.pwmMA);
+                this.motorDriver.setPwmMB(isCancelled? 0.0F : this.pwmMB);
+            }
+            catch (IOException exception)
+            {
+                if (this.failure == null)
+                {
+                    this.failure = exception;
+                }
+            }
+            this.pwmDoneNanos = System.nanoTime();
+            this.completed = job;
+            final Thread waiter = this.waiter;
+            if (waiter != null)
+            {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+
+    /**
+     * @return Antwort des Arduino (nach await())
+     */
+    public ArduinoResponse getResponse()
+    {
+        return this.response;
+    }
+
+    /**
+     * @return Fehler des Auftrags (nach await(), null: ohne Fehler)
+     */
+    public IOException getFailure()
+    {
+        return this.failure;
+    }
+
+    /**
+     * @return gesendeter token des Auftrags
+     */
+    public long getToken()
+    {
+        return this.token;
+    }
+
+    /**
+     * @return gesendeter Status des Auftrags
+     */
+    public ArduinoI2C.Status getStatus()
+    {
+        return this.status;
+    }
+
+    /**
+     * @return Beginn des Token-Austauschs (System.nanoTime(), nach await())
+     */
+    public long getExchangeStartNanos()
+    {
+        return this.exchangeStartNanos;
+    }
+
+    /**
+     * @return Ende des Token-Austauschs (System.nanoTime(), nach await())
+     */
+    public long getExchangeEndNanos()
+    {
+        return this.exchangeEndNanos;
+    }
+
+    /**
+     * @return Ende der Ausgabe der Stellgroessen (System.nanoTime(), nach await())
+     */
+    public long getPwmDoneNanos()
+    {
+        return this.pwmDoneNanos;
+    }
+}
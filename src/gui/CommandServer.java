@@ -0,0 +1,616 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CommandServer - Bedienung und Telemetrie ueber ein kompaktes binaeres
+ * Protokoll auf TCP (statt ueber die Oberflaeche)...
+ * <p>
+ * Jede Nachricht (in beiden Richtungen) besteht aus einem Kopf mit Kennung
+ * (1 Byte) und Laenge der Nutzdaten (2 Byte) sowie den Nutzdaten (big endian,
+ * Zeichenketten mit DataOutputStream.writeUTF()):
+ * <pre>
+ *   Client -&gt; Server                         Server -&gt; Client
+ *   0x01 START                               0x80 ACK       u8 Kennung, u8 Ergebnis (0: OK), utf Meldung
+ *   0x02 STOP                                0x81 TELEMETRY i64 counter, i64 cycleTimeNanos, i32 token,
+ *   0x03 RESET                                              u8 status, i64 numberSetPoint, i64 numberMA,
+ *   0x10 DESTINATION  f64 Umdrehungen                       i64 numberMB, f64 outputMA, f64 outputMB,
+ *   0x11 ENHANCEMENT  f64 Verstaerkung                      f32 velocityMA, f32 velocityMB,
+ *   0x12 MAX_VALUES   f64 MA, f64 MB                        i64 verlorene Zyklen (seit SUBSCRIBE)
+ *   0x13 CONTROL      u8 0/1
+ *   0x14 SYNC         u8 0/1
+ *   0x15 STRATEGY     utf Name
+ *   0x20 SUBSCRIBE    u16 n (jeder n-te Zyklus, 0: Ende)
+ *   0x21 STATUS       (Antwort: ein TELEMETRY mit dem letzten Zyklus)
+ * </pre>
+ * Jedes Kommando wird mit ACK beantwortet (STATUS zusaetzlich mit TELEMETRY).
+ * </p>
+ * <p>
+ * Je Client gibt es einen Thread fuer die Kommandos und (ab SUBSCRIBE) einen
+ * Thread fuer die Telemetrie. Die Telemetrie wird mit einem eigenen
+ * TelemetryRing.Consumer gelesen, ein langsamer Client verliert Zyklen, haelt
+ * aber den Regelzyklus nicht auf. Die Kommandos aller Clients werden
+ * nacheinander ausgefuehrt.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class CommandServer
+{
+    /**
+     * logger...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(CommandServer.class);
+
+    /**
+     * Kennungen Client -&gt; Server...
+     */
+    public final static int START = 0x01;
+    public final static int STOP = 0x02;
+    public final static int RESET = 0x03;
+    public final static int DESTINATION = 0x10;
+    public final static int ENHANCEMENT = 0x11;
+    public final static int MAX_VALUES = 0x12;
+    public final static int CONTROL = 0x13;
+    public final static int SYNC = 0x14;
+    public final static int STRATEGY = 0x15;
+    public final static int SUBSCRIBE = 0x20;
+    public final static int STATUS = 0x21;
+
+    /**
+     * Kennungen Server -&gt; Client...
+     */
+    public final static int ACK = 0x80;
+    public final static int TELEMETRY = 0x81;
+
+    /**
+     * ACK_OK = 0, ACK_ERROR = 1 - Ergebnis im ACK
+     */
+    public final static int ACK_OK = 0;
+    public final static int ACK_ERROR = 1;
+
+    /**
+     * TELEMETRY_SIZE = 77 - Laenge der Nutzdaten von TELEMETRY
+     */
+    public final static int TELEMETRY_SIZE = 77;
+
+    /**
+     * MAX_CLIENTS = 8 - maximale Anzahl gleichzeitiger Clients
+     */
+    private final static int MAX_CLIENTS = 8;
+
+    /**
+     * TELEMETRY_INTERVAL_MILLIS = 20L - Intervall, in dem die Telemetrie gesendet wird
+     */
+    private final static long TELEMETRY_INTERVAL_MILLIS = 20L;
+
+    /**
+     * model...
+     */
+    private final Model model;
+
+    /**
+     * serverSocket...
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * acceptThread - nimmt die Verbindungen an
+     */
+    private final Thread acceptThread;
+
+    /**
+     * clients - offene Verbindungen
+     */
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    /**
+     * clientCount - laufende Nummer der Clients (Namen der Threads)
+     */
+    private final AtomicInteger clientCount = new AtomicInteger(0);
+
+    /**
+     * commandLock - die Kommandos aller Clients werden nacheinander ausgefuehrt
+     * (ohne Ein-/Ausgabe auf den Sockets)
+     */
+    private final Object commandLock = new Object();
+
+    /**
+     * running...
+     */
+    private volatile boolean running = false;
+
+    /**
+     * CommandServer(Model model, int port)
+     * @param model
+     * @param port Port der Verbindungen
+     * @throws IOException falls der Port nicht belegt werden kann
+     */
+    public CommandServer(Model model, int port) throws IOException
+    {
+        this.model = Objects.requireNonNull(model, "model must not be null!");
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(new InetSocketAddress(port));
+        this.acceptThread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                runAccept();
+            }
+        }, "command-server");
+        this.acceptThread.setDaemon(true);
+    }
+
+    /**
+     * start()...
+     */
+    public void start()
+    {
+        this.running = true;
+        this.acceptThread.start();
+        logger.info("CommandServer: Port " + getPort());
+    }
+
+    /**
+     * stop() - alle Verbindungen schliessen...
+     */
+    public void stop()
+    {
+        this.running = false;
+        try
+        {
+            this.serverSocket.close();
+        }
+        catch (IOException exception)
+        {
+            logger.debug(exception.toString());
+        }
+        for (Client client : this.clients)
+        {
+            client.close();
+        }
+        logger.debug("CommandServer beendet.");
+    }
+
+    /**
+     * getPort()
+     * @return belegter Port
+     */
+    public int getPort()
+    {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * runAccept() - Schleife des acceptThread...
+     */
+    private void runAccept()
+    {
+        while (this.running)
+        {
+            try
+            {
+                final Socket socket = this.serverSocket.accept();
+                if (this.clients.size() >= MAX_CLIENTS)
+                {
+                    logger.warn("CommandServer: zu viele Clients, " + socket.getRemoteSocketAddress() + " abgewiesen");
+                    socket.close();
+                    continue;
+                }
+                socket.setTcpNoDelay(true);
+                final Client client = new Client(socket, "command-client-" + this.clientCount.incrementAndGet());
+                this.clients.add(client);
+                client.start();
+            }
+            catch (IOException exception)
+            {
+                if (this.running)
+                {
+                    logger.error(exception.toString(), exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * execute(int command, DataInputStream payload, Client client) - ein Kommando ausfuehren...
+     * @param command Kennung
+     * @param payload Nutzdaten
+     * @param client
+     * @return Meldung fuer das ACK
+     * @throws IOException falls die Nutzdaten nicht passen
+     * @throws IllegalArgumentException falls das Kommando unbekannt bzw. ein Wert ungueltig ist
+     */
+    private String execute(int command, DataInputStream payload, Client client) throws IOException
+    {
+        synchronized (this.commandLock)
+        {
+            switch (command)
+            {
+                case START:
+                    this.model.doStart();
+                    return "start";
+                case STOP:
+                    this.model.doStop();
+                    return "stop";
+                case RESET:
+                    this.model.doReset();
+                    return "reset";
+                case DESTINATION:
+                    this.model.setDestination(toBigDecimal(payload.readDouble()));
+                    return Long.toString(this.model.getNumberSetPoint());
+                case ENHANCEMENT:
+                {
+                    final BigDecimal enhancement = toBigDecimal(payload.readDouble()).setScale(Model.SCALE_ENHANCEMENT, BigDecimal.ROUND_HALF_UP);
+                    this.model.setProperty(Model.ENHANCEMENT_KEY, enhancement);
+                    return enhancement.toPlainString();
+                }
+                case MAX_VALUES:
+                {
+                    final BigDecimal maxValueMA = toBigDecimal(payload.readDouble()).setScale(Model.SCALE_MX_MAX_VALUE, BigDecimal.ROUND_HALF_UP);
+                    final BigDecimal maxValueMB = toBigDecimal(payload.readDouble()).setScale(Model.SCALE_MX_MAX_VALUE, BigDecimal.ROUND_HALF_UP);
+                    this.model.setProperty(Model.MAX_VALUE_MA_KEY, maxValueMA);
+                    this.model.setProperty(Model.MAX_VALUE_MB_KEY, maxValueMB);
+                    return maxValueMA + " " + maxValueMB;
+                }
+                case CONTROL:
+                    this.model.setProperty(Model.CONTROL_KEY, Boolean.valueOf(payload.readUnsignedByte() != 0));
+                    return "control";
+                case SYNC:
+                    this.model.setProperty(Model.SYNC_KEY, Boolean.valueOf(payload.readUnsignedByte() != 0));
+                    return "sync";
+                case STRATEGY:
+                {
+                    final String name = payload.readUTF();
+                    if (!this.model.selectControlStrategy(name))
+                    {
+                        throw new IllegalArgumentException(name + " unbekannt");
+                    }
+                    return name;
+                }
+                case SUBSCRIBE:
+                    return client.subscribe(payload.readUnsignedShort());
+                case STATUS:
+                    // TELEMETRY sendet runCommands() nach dem Verlassen von commandLock...
+                    return "status";
+                default:
+                    throw new IllegalArgumentException("Kennung 0x" + Integer.toHexString(command) + " unbekannt");
+            }
+        }
+    }
+
+    /**
+     * toBigDecimal(double value)
+     * @throws IllegalArgumentException bei NaN bzw. Infinity
+     */
+    private static BigDecimal toBigDecimal(double value)
+    {
+        if (Double.isNaN(value) || Double.isInfinite(value))
+        {
+            throw new IllegalArgumentException(value + " ungueltig");
+        }
+        return BigDecimal.valueOf(value);
+    }
+
+    /**
+     * Client - eine Verbindung...
+     */
+    private final class Client implements TelemetryRing.Handler
+    {
+        /**
+         * socket...
+         */
+        private final Socket socket;
+
+        /**
+         * input...
+         */
+        private final DataInputStream input;
+
+        /**
+         * output - gemeinsam fuer ACK und TELEMETRY, Zugriff nur synchronized (output)
+         */
+        private final DataOutputStream output;
+
+        /**
+         * name - Name der Threads
+         */
+        private final String name;
+
+        /**
+         * decimation - jeder n-te Zyklus wird gesendet (0: keine Telemetrie)
+         */
+        private volatile int decimation = 0;
+
+        /**
+         * consumer - Leseposition im TelemetryRing (ab SUBSCRIBE)
+         */
+        private volatile TelemetryRing.Consumer consumer = null;
+
+        /**
+         * telemetryThread - sendet die Telemetrie (ab dem ersten SUBSCRIBE)
+         */
+        private Thread telemetryThread = null;
+
+        /**
+         * skipped - Anzahl der seit dem letzten gesendeten Zyklus ausgelassenen Zyklen
+         */
+        private int skipped = 0;
+
+        /**
+         * record - Kopie fuer STATUS
+         */
+        private final CycleRecord record = new CycleRecord();
+
+        /**
+         * Client(Socket socket, String name)
+         */
+        private Client(Socket socket, String name) throws IOException
+        {
+            this.socket = socket;
+            this.name = name;
+            this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /**
+         * start() - Thread fuer die Kommandos starten...
+         */
+        private void start()
+        {
+            final Thread thread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    runCommands();
+                }
+            }, this.name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * runCommands() - Kommandos lesen und ausfuehren, bis die Verbindung endet...
+         */
+        private void runCommands()
+        {
+            logger.info("CommandServer: " + this.socket.getRemoteSocketAddress() + " verbunden");
+            try
+            {
+                while (true)
+                {
+                    final int command = this.input.readUnsignedByte();
+                    final byte[] payload = new byte[this.input.readUnsignedShort()];
+                    this.input.readFully(payload);
+                    int result = ACK_OK;
+                    String message;
+                    try
+                    {
+                        message = execute(command, new DataInputStream(new ByteArrayInputStream(payload)), this);
+                    }
+                    catch (EOFException exception)
+                    {
+                        result = ACK_ERROR;
+                        message = "Nutzdaten zu kurz";
+                    }
+                    catch (IllegalArgumentException exception)
+                    {
+                        result = ACK_ERROR;
+                        message = exception.getMessage();
+                    }
+                    if (STATUS == command && ACK_OK == result)
+                    {
+                        // Ausserhalb von commandLock: ein Client, der nicht liest, 
+                        // haelt nur den eigenen Thread auf...
+                        sendStatus();
+                    }
+                    sendAck(command, result, message);
+                }
+            }
+            catch (EOFException | SocketException exception)
+            {
+                // Verbindung beendet...
+            }
+            catch (IOException exception)
+            {
+                logger.error(exception.toString(), exception);
+            }
+            finally
+            {
+                close();
+            }
+            logger.info("CommandServer: " + this.socket.getRemoteSocketAddress() + " getrennt");
+        }
+
+        /**
+         * subscribe(int decimation) - Telemetrie ein- bzw. ausschalten...
+         * @param decimation jeder n-te Zyklus (0: keine Telemetrie)
+         * @return Meldung fuer das ACK
+         */
+        private String subscribe(int decimation)
+        {
+            if (decimation > 0)
+            {
+                this.consumer = CommandServer.this.model.getTelemetryRing().newConsumer();
+                this.skipped = 0;
+            }
+            this.decimation = decimation;
+            if (decimation > 0 && this.telemetryThread == null)
+            {
+                this.telemetryThread = new Thread(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        runTelemetry();
+                    }
+                }, this.name + "-telemetry");
+                this.telemetryThread.setDaemon(true);
+                this.telemetryThread.start();
+            }
+            return "subscribe " + decimation;
+        }
+
+        /**
+         * runTelemetry() - in festem Intervall alle neuen Zyklen senden...
+         */
+        private void runTelemetry()
+        {
+            final long intervalNanos = TimeUnit.MILLISECONDS.toNanos(TELEMETRY_INTERVAL_MILLIS);
+            try
+            {
+                while (!this.socket.isClosed())
+                {
+                    final TelemetryRing.Consumer consumer = this.consumer;
+                    if (this.decimation > 0 && consumer != null && consumer.drain(this, Integer.MAX_VALUE) > 0)
+                    {
+                        synchronized (this.output)
+                        {
+                            this.output.flush();
+                        }
+                    }
+                    LockSupport.parkNanos(this, intervalNanos);
+                }
+            }
+            catch (IOException | RuntimeException exception)
+            {
+                logger.debug(this.name + ": " + exception.toString());
+                close();
+            }
+        }
+
+        /**
+         * onRecord(CycleRecord record) - jeden n-ten Zyklus senden (ohne flush())...
+         */
+        @Override
+        public void onRecord(CycleRecord record)
+        {
+            final int decimation = this.decimation;
+            if (decimation <= 0 || ++this.skipped < decimation)
+            {
+                return;
+            }
+            this.skipped = 0;
+            try
+            {
+                writeTelemetry(record, this.consumer.getOverrunCount());
+            }
+            catch (IOException exception)
+            {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        /**
+         * sendStatus() - letzten Zyklus als TELEMETRY senden...
+         * @throws IOException
+         */
+        private void sendStatus() throws IOException
+        {
+            CommandServer.this.model.getTelemetryRing().readLatest(this.record);
+            final TelemetryRing.Consumer consumer = this.consumer;
+            writeTelemetry(this.record, (consumer != null)? consumer.getOverrunCount() : 0L);
+        }
+
+        /**
+         * writeTelemetry(CycleRecord record, long lost) - TELEMETRY schreiben...
+         */
+        private void writeTelemetry(CycleRecord record, long lost) throws IOException
+        {
+            final DataOutputStream output = this.output;
+            synchronized (output)
+            {
+                output.writeByte(TELEMETRY);
+                output.writeShort(TELEMETRY_SIZE);
+                output.writeLong(record.getCounter());
+                output.writeLong(record.getCycleTimeNanos());
+                output.writeInt((int)record.getToken());
+                output.writeByte(record.getStatus().ordinal());
+                output.writeLong(record.getNumberSetPoint());
+                output.writeLong(record.getNumberMA());
+                output.writeLong(record.getNumberMB());
+                output.writeDouble(record.getOutputMA());
+                output.writeDouble(record.getOutputMB());
+                output.writeFloat((float)record.getVelocityMA());
+                output.writeFloat((float)record.getVelocityMB());
+                output.writeLong(lost);
+            }
+        }
+
+        /**
+         * sendAck(int command, int result, String message) - ACK schreiben und senden...
+         */
+        private void sendAck(int command, int result, String message) throws IOException
+        {
+            final String text = (message != null)? message : "";
+            final DataOutputStream output = this.output;
+            synchronized (output)
+            {
+                output.writeByte(ACK);
+                // Laenge: Kennung, Ergebnis, Laenge der Meldung (2 Byte) und Meldung (modified UTF-8)...
+                output.writeShort(2 + 2 + utfLength(text));
+                output.writeByte(command);
+                output.writeByte(result);
+                output.writeUTF(text);
+                output.flush();
+            }
+        }
+
+        /**
+         * close() - Verbindung schliessen...
+         */
+        private void close()
+        {
+            CommandServer.this.clients.remove(this);
+            try
+            {
+                this.socket.close();
+            }
+            catch (IOException exception)
+            {
+                logger.debug(exception.toString());
+            }
+        }
+    }
+
+    /**
+     * utfLength(String text) - Laenge von text in modified UTF-8 (vgl. DataOutputStream.writeUTF())...
+     */
+    private static int utfLength(String text)
+    {
+        int length = 0;
+        for (int index = 0; index < text.length(); index++)
+        {
+            final char c = text.charAt(index);
+            length += (c >= 0x0001 && c <= 0x007F)? 1 : ((c > 0x07FF)? 3 : 2);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * ControlInput - Eingangsgroessen eines Regelgesetzes (vgl. ControlStrategy)
+ * als primitive Werte...
+ * <p>
+ * Das Objekt ist veraenderlich und wird im Regelzyklus wiederverwendet,
+ * entsprechend ControlOutput.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class ControlInput
+{
+    /**
+     * numberSetPoint - Fuehrungsgroesse der Lage in Impulsen (abgetastete Bahnplanung)
+     */
+    private long numberSetPoint = 0L;
+
+    /**
+     * numberMA - Lage Motor A in Impulsen
+     */
+    private long numberMA = 0L;
+
+    /**
+     * numberMB - Lage Motor B in Impulsen
+     */
+    private long numberMB = 0L;
+
+    /**
+     * maxValueMA - Grenzwert der Stellgroesse Motor A
+     */
+    private double maxValueMA = 0.0;
+
+    /**
+     * maxValueMB - Grenzwert der Stellgroesse Motor B
+     */
+    private double maxValueMB = 0.0;
+
+    /**
+     * sampleTimeNanos - Zeit seit der vorherigen ausgewerteten Antwort des Arduino
+     * in ns (Beginn des Token-Austauschs, dt des Regelgesetzes)...
+     * <p>
+     * Entfallen Zyklen (Ueberlauf des BusWorker, Fehlerbehandlung, zusammengefasste
+     * Anstoesse), ist sampleTimeNanos entsprechend groesser als die Zykluszeit.
+     * 0L: keine vorherige Antwort.
+     * </p>
+     */
+    private long sampleTimeNanos = 0L;
+
+    /**
+     * referenceVelocity - Geschwindigkeit der Bahnplanung in Impulse/s (z.B. fuer eine Vorsteuerung)
+     */
+    private double referenceVelocity = 0.0;
+
+    /**
+     * referenceAcceleration - Beschleunigung der Bahnplanung in Impulse/s^2
+     */
+    private double referenceAcceleration = 0.0;
+
+    /**
+     * estimatedMA, estimatedMB - geschaetzte Lage in Impulsen (vgl. VelocityEstimator)
+     */
+    private double estimatedMA = 0.0;
+    private double estimatedMB = 0.0;
+
+    /**
+     * velocityMA, velocityMB - geschaetzte Geschwindigkeit in Impulse/s (vgl. VelocityEstimator)
+     */
+    private double velocityMA = 0.0;
+    private double velocityMB = 0.0;
+
+    /**
+     * set(...) - alle Attribute setzen...
+     * @param numberSetPoint
+     * @param numberMA
+     * @param numberMB
+     * @param maxValueMA
+     * @param maxValueMB
+     * @param sampleTimeNanos
+     * @param referenceVelocity
+     * @param referenceAcceleration
+     */
+    public void set(long numberSetPoint,
+                    long numberMA,
+                    long numberMB,
+                    double maxValueMA,
+                    double maxValueMB,
+                    long sampleTimeNanos,
+                    double referenceVelocity,
+                    double referenceAcceleration)
+    {
+        this.numberSetPoint = numberSetPoint;
+        this.numberMA = numberMA;
+        this.numberMB = numberMB;
+        this.maxValueMA = maxValueMA;
+        this.maxValueMB = maxValueMB;
+        this.sampleTimeNanos = sampleTimeNanos;
+        this.referenceVelocity = referenceVelocity;
+        this.referenceAcceleration = referenceAcceleration;
+    }
+
+    /**
+     * setEstimate(...) - geschaetzte Lage und Geschwindigkeit setzen...
+     * @param estimatedMA
+     * @param velocityMA
+     * @param estimatedMB
+     * @param velocityMB
+     */
+    public void setEstimate(double estimatedMA,
+                            double velocityMA,
+                            double estimatedMB,
+                            double velocityMB)
+    {
+        this.estimatedMA = estimatedMA;
+        this.velocityMA = velocityMA;
+        this.estimatedMB = estimatedMB;
+        this.velocityMB = velocityMB;
+    }
+
+    /**
+     * @return the numberSetPoint
+     */
+    public final long getNumberSetPoint()
+    {
+        return this.numberSetPoint;
+    }
+
+    /**
+     * @return the numberMA
+     */
+    public final long getNumberMA()
+    {
+        return this.numberMA;
+    }
+
+    /**
+     * @return the numberMB
+     */
+    public final long getNumberMB()
+    {
+        return this.numberMB;
+    }
+
+    /**
+     * @return the maxValueMA
+     */
+    public final double getMaxValueMA()
+    {
+        return this.maxValueMA;
+    }
+
+    /**
+     * @return the maxValueMB
+     */
+    public final double getMaxValueMB()
+    {
+        return this.maxValueMB;
+    }
+
+    /**
+     * @return the sampleTimeNanos
+     */
+    public final long getSampleTimeNanos()
+    {
+        return this.sampleTimeNanos;
+    }
+
+    /**
+     * @return the referenceVelocity
+     */
+    public final double getReferenceVelocity()
+    {
+        return this.referenceVelocity;
+    }
+
+    /**
+     * @return the referenceAcceleration
+     */
+    public final double getReferenceAcceleration()
+    {
+        return this.referenceAcceleration;
+    }
+
+    /**
+     * @return the estimatedMA
+     */
+    public final double getEstimatedMA()
+    {
+        return this.estimatedMA;
+    }
+
+    /**
+     * @return the estimatedMB
+     */
+    public final double getEstimatedMB()
+    {
+        return this.estimatedMB;
+    }
+
+    /**
+     * @return the velocityMA
+     */
+    public final double getVelocityMA()
+    {
+        return this.velocityMA;
+    }
+
+    /**
+     * @return the velocityMB
+     */
+    public final double getVelocityMB()
+    {
+        return this.velocityMB;
+    }
+
+    /**
+     * String toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.numberSetPoint)
+                                  .append(" ")
+                                  .append(this.numberMA)
+                                  .append(" ")
+                                  .append(this.numberMB)
+                                  .append(" ")
+                                  .append(this.maxValueMA)
+                                  .append(" ")
+                                  .append(this.maxValueMB)
+                                  .append(" ")
+                                  .append(this.sampleTimeNanos)
+                                  .append("]")
+                                  .toString();
+    }
+}
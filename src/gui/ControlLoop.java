@@ -0,0 +1,353 @@
+/**
+ *
+ */
+package gui;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Die Klasse ControlLoop fuehrt den Regelzyklus in einem eigenen Thread aus.
+ * <p>
+ * Der Regelzyklus (Kommunikation mit dem Arduino, Regelalgorithmus,
+ * Ausgabe an den MotorDriverHAT) laeuft damit nicht mehr im Event-Thread
+ * von pi4j. Der GPIO-Listener stoesst den Zyklus ueber <code>trigger()</code>
+ * nur noch an (Mode.TRIGGERED), alternativ taktet sich der Thread selbst
+ * mit fester Rate (Mode.FIXED_RATE).
+ * </p>
+ * <p>
+ * Ueberlaeufe werden gezaehlt:
+ * <ul>
+ *  <li>overrunCount - Anstoss waehrend der vorherige Zyklus noch laeuft bzw.
+ *      verpasster Takt bei fester Rate</li>
+ *  <li>coalescedCount - Anstoss verworfen, da bereits ein Anstoss ansteht</li>
+ * </ul>
+ * </p>
+ *
+ * @author Detlef Tribius
+ */
+public class ControlLoop
+{
+    /**
+     * logger...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ControlLoop.class);
+
+    /**
+     * JOIN_TIMEOUT_MILLIS = 1000L - maximale Wartezeit beim Beenden des Threads...
+     */
+    private final static long JOIN_TIMEOUT_MILLIS = 1000L;
+
+    /**
+     * mode - Art der Taktung (TRIGGERED oder FIXED_RATE)
+     */
+    private final Mode mode;
+
+    /**
+     * periodNanos - Taktdauer in ns bei Mode.FIXED_RATE...
+     */
+    private final long periodNanos;
+
+    /**
+     * cycle - der eigentliche Regelzyklus...
+     */
+    private final Runnable cycle;
+
+    /**
+     * thread - Thread des Regelzyklus...
+     */
+    private final Thread thread;
+
+    /**
+     * running - Kennung, der Thread soll laufen...
+     */
+    private volatile boolean running = false;
+
+    /**
+     * busy - Kennung, ein Zyklus wird gerade ausgefuehrt...
+     */
+    private volatile boolean busy = false;
+
+    /**
+     * pending - Kennung, es steht ein Anstoss an...
+     */
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+
+    /**
+     * triggerCount - Anzahl der Anstoesse ueber trigger()...
+     */
+    private final AtomicLong triggerCount = new AtomicLong(0L);
+
+    /**
+     * cycleCount - Anzahl der ausgefuehrten Zyklen...
+     */
+    private final AtomicLong cycleCount = new AtomicLong(0L);
+
+    /**
+     * overrunCount - Anzahl der Ueberlaeufe...
+     */
+    private final AtomicLong overrunCount = new AtomicLong(0L);
+
+    /**
+     * coalescedCount - Anzahl der verworfenen Anstoesse...
+     */
+    private final AtomicLong coalescedCount = new AtomicLong(0L);
+
+    /**
+     * ControlLoop(String name, Mode mode, long periodNanos, int priority, Runnable cycle)
+     * @param name Name des Threads
+     * @param mode Art der Taktung
+     * @param periodNanos Taktdauer in ns (nur bei Mode.FIXED_RATE relevant)
+     * @param priority Prioritaet des Threads (Thread.MIN_PRIORITY ... Thread.MAX_PRIORITY)
+     * @param cycle der Regelzyklus
+     */
+    public ControlLoop(String name, Mode mode, long periodNanos, int priority, Runnable cycle)
+    {
+        this.mode = (mode != null)? mode : Mode.TRIGGERED;
+        if (Mode.FIXED_RATE == this.mode && periodNanos <= 0L)
+        {
+            throw new IllegalArgumentException("periodNanos must be > 0 for FIXED_RATE!");
+        }
+        this.periodNanos = periodNanos;
+        this.cycle = java.util.Objects.requireNonNull(cycle, "cycle must not be null!");
+        this.thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (Mode.FIXED_RATE == ControlLoop.this.mode)
+                {
+                    runFixedRate();
+                }
+                else
+                {
+                    runTriggered();
+                }
+            }
+        }, name);
+        this.thread.setPriority(Math.max(Thread.MIN_PRIORITY, Math.min(Thread.MAX_PRIORITY, priority)));
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * start() - Thread starten...
+     */
+    public void start()
+    {
+        this.running = true;
+        this.thread.start();
+        logger.debug("ControlLoop gestartet: " + this.mode + ", Prioritaet=" + this.thread.getPriority());
+    }
+
+    /**
+     * stop() - Thread beenden, es wird maximal JOIN_TIMEOUT_MILLIS gewartet...
+     */
+    public void stop()
+    {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+        try
+        {
+            this.thread.join(JOIN_TIMEOUT_MILLIS);
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+        logger.debug("ControlLoop beendet: " + toString());
+    }
+
+    /**
+     * trigger() - Anstoss eines Zyklus (z.B. aus dem GPIO-Listener)...
+     * <p>
+     * Die Methode kehrt sofort zurueck, der Zyklus selbst laeuft im
+     * Thread des ControlLoop.
+     * </p>
+     */
+    public void trigger()
+    {
+        this.triggerCount.incrementAndGet();
+        if (this.busy)
+        {
+            this.overrunCount.incrementAndGet();
+        }
+        if (this.pending.getAndSet(true))
+        {
+            // Es stand bereits ein Anstoss an, dieser wird nicht erneut gezaehlt...
+            this.coalescedCount.incrementAndGet();
+            return;
+        }
+        LockSupport.unpark(this.thread);
+    }
+
+    /**
+     * runTriggered() - Schleife bei Mode.TRIGGERED...
+     */
+    private void runTriggered()
+    {
+        while (this.running)
+        {
+            if (!this.pending.getAndSet(false))
+            {
+                LockSupport.park(this);
+                continue;
+            }
+            runCycle();
+        }
+    }
+
+    /**
+     * runFixedRate() - Schleife bei Mode.FIXED_RATE...
+     * <p>
+     * Verpasste Takte werden nicht nachgeholt, sondern als Ueberlauf gezaehlt.
+     * </p>
+     */
+    private void runFixedRate()
+    {
+        long deadline = System.nanoTime() + this.periodNanos;
+        while (this.running)
+        {
+            final long waitNanos = deadline - System.nanoTime();
+            if (waitNanos > 0L)
+            {
+                LockSupport.parkNanos(this, waitNanos);
+                continue;
+            }
+            this.triggerCount.incrementAndGet();
+            runCycle();
+            deadline += this.periodNanos;
+            final long lateNanos = System.nanoTime() - deadline;
+            if (lateNanos > 0L)
+            {
+                // Zyklus hat laenger als eine Taktdauer gedauert...
+                final long missed = lateNanos / this.periodNanos + 1L;
+                this.overrunCount.addAndGet(missed);
+                deadline += missed * this.periodNanos;
+            }
+        }
+    }
+
+    /**
+     * runCycle() - einen Zyklus ausfuehren, Fehler werden protokolliert,
+     * beenden aber nicht den Thread...
+     */
+    private void runCycle()
+    {
+        this.busy = true;
+        try
+        {
+            this.cycle.run();
+        }
+        catch (RuntimeException exception)
+        {
+            logger.error(exception.toString(), exception);
+        }
+        finally
+        {
+            this.busy = false;
+            this.cycleCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the mode
+     */
+    public final Mode getMode()
+    {
+        return this.mode;
+    }
+
+    /**
+     * @return the periodNanos
+     */
+    public final long getPeriodNanos()
+    {
+        return this.periodNanos;
+    }
+
+    /**
+     * @return the triggerCount
+     */
+    public final long getTriggerCount()
+    {
+        return this.triggerCount.get();
+    }
+
+    /**
+     * @return the cycleCount
+     */
+    public final long getCycleCount()
+    {
+        return this.cycleCount.get();
+    }
+
+    /**
+     * @return the overrunCount
+     */
+    public final long getOverrunCount()
+    {
+        return this.overrunCount.get();
+    }
+
+    /**
+     * @return the coalescedCount
+     */
+    public final long getCoalescedCount()
+    {
+        return this.coalescedCount.get();
+    }
+
+    /**
+     * toHertz(long periodNanos) - Umrechnung Taktdauer in Frequenz (Hz)...
+     * @param periodNanos
+     * @return rate in Hz
+     */
+    public static double toHertz(long periodNanos)
+    {
+        return (periodNanos > 0L)? ((double)TimeUnit.SECONDS.toNanos(1L) / periodNanos) : 0.0;
+    }
+
+    /**
+     * String toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.mode)
+                                  .append(" triggers=")
+                                  .append(getTriggerCount())
+                                  .append(" cycles=")
+                                  .append(getCycleCount())
+                                  .append(" overruns=")
+                                  .append(getOverrunCount())
+                                  .append(" coalesced=")
+                                  .append(getCoalescedCount())
+                                  .append("]")
+                                  .toString();
+    }
+
+    /**
+     * Mode - Art der Taktung
+     * <ul>
+     *  <li>TRIGGERED - Anstoss von aussen ueber trigger() (z.B. GPIO-Flanke)</li>
+     *  <li>FIXED_RATE - Eigentaktung mit fester Rate</li>
+     * </ul>
+     */
+    public enum Mode
+    {
+        /**
+         * TRIGGERED - Anstoss ueber trigger()...
+         */
+        TRIGGERED,
+        /**
+         * FIXED_RATE - Eigentaktung...
+         */
+        FIXED_RATE;
+    }
+}
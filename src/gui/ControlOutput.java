@@ -0,0 +1,111 @@
+/**
+ * 
+ */
+package gui;
+
+/**
+ * ControlOutput - Reglerausgang als primitive Werte...
+ * <p>
+ * Das Objekt ist veraenderlich und wird im Regelzyklus wiederverwendet.
+ * Der Regler traegt seine Ergebnisse ein, damit im Regelzyklus keine 
+ * Objekte angelegt werden muessen. Die Umwandlung in BigDecimal erfolgt 
+ * erst zur Anzeige (vgl. Data).
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class ControlOutput
+{
+    /**
+     * diffValueMA - Regel-Differenz Motor A (in Impulsen)
+     */
+    private long diffValueMA = 0L;
+    
+    /**
+     * diffValueMB - Regel-Differenz Motor B (in Impulsen)
+     */
+    private long diffValueMB = 0L;
+    
+    /**
+     * outputMA - Stellgroesse Motor A, Bereich -1.0 ... 0.0 ... +1.0
+     */
+    private double outputMA = 0.0;
+    
+    /**
+     * outputMB - Stellgroesse Motor B, Bereich -1.0 ... 0.0 ... +1.0
+     */
+    private double outputMB = 0.0;
+    
+    /**
+     * set(long diffValueMA, long diffValueMB, double outputMA, double outputMB) - alle Attribute setzen...
+     * @param diffValueMA
+     * @param diffValueMB
+     * @param outputMA
+     * @param outputMB
+     */
+    public void set(long diffValueMA, long diffValueMB, double outputMA, double outputMB)
+    {
+        this.diffValueMA = diffValueMA;
+        this.diffValueMB = diffValueMB;
+        this.outputMA = outputMA;
+        this.outputMB = outputMB;
+    }
+    
+    /**
+     * clear() - Ruecksetzen aller Attribute...
+     */
+    public void clear()
+    {
+        set(0L, 0L, 0.0, 0.0);
+    }
+
+    /**
+     * @return the diffValueMA
+     */
+    public final long getDiffValueMA()
+    {
+        return this.diffValueMA;
+    }
+
+    /**
+     * @return the diffValueMB
+     */
+    public final long getDiffValueMB()
+    {
+        return this.diffValueMB;
+    }
+
+    /**
+     * @return the outputMA
+     */
+    public final double getOutputMA()
+    {
+        return this.outputMA;
+    }
+
+    /**
+     * @return the outputMB
+     */
+    public final double getOutputMB()
+    {
+        return this.outputMB;
+    }
+    
+    /**
+     * String toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.diffValueMA)
+                                  .append(" ")
+                                  .append(this.diffValueMB)
+                                  .append(" ")
+                                  .append(this.outputMA)
+                                  .append(" ")
+                                  .append(this.outputMB)
+                                  .append("]")
+                                  .toString();
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ *
+ */
+package gui;
+
+import java.math.BigDecimal;
+
+/**
+ * Interface ControlStrategy - Regelgesetz, das vom Model in jedem Regelzyklus
+ * beauftragt wird (z.B. P-, PI-, PID-Regler...).
+ * <p>
+ * Die Implementierungen werden im Model registriert (vgl. Model.registerControlStrategy())
+ * und koennen zur Laufzeit ausgetauscht werden. Der Austausch erfolgt immer zwischen
+ * zwei Regelzyklen im Thread des Regelzyklus, die Lage der Motoren (numberMA/numberMB)
+ * bleibt dabei erhalten.
+ * </p>
+ * <p>
+ * doControl() und reset() werden ausschliesslich im Thread des Regelzyklus beauftragt
+ * und duerfen keine Objekte anlegen. setEnhancement() kann aus einem anderen Thread
+ * (z.B. der View) kommen.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public interface ControlStrategy
+{
+    /**
+     * getName() - Name zur Auswahl in der View (eindeutig)
+     * @return Name
+     */
+    public String getName();
+
+    /**
+     * setEnhancement(BigDecimal enhancement) - Reglerverstaerkung aus der View...
+     * @param enhancement
+     */
+    public void setEnhancement(BigDecimal enhancement);
+
+    /**
+     * reset() - interne Zustandsgroessen (z.B. Integrator) zuruecksetzen,
+     * wird vor der Uebernahme als aktives Regelgesetz beauftragt...
+     */
+    public void reset();
+
+    /**
+     * doControl(ControlInput input, ControlOutput output) - Regelalgorithmus...
+     * @param input Sollwert, Istwerte, Grenzwerte und Zykluszeit
+     * @param output nimmt den Reglerausgang auf
+     */
+    public void doControl(ControlInput input, ControlOutput output);
+}
@@ -110,7 +110,8 @@ public class Controller implements ActionListener
         }
         if (source instanceof JComboBox<?>)
         {
-            final BigDecimal value = (BigDecimal)((JComboBox<?>)source).getSelectedItem();
+            // Auswahl vom Typ BigDecimal (Grenzwerte, Verstaerkung) bzw. String (Regelgesetz)...
+            final Object value = ((JComboBox<?>)source).getSelectedItem();
             logger.debug("actionPerformed(): " + event.getActionCommand() + " " + name + " " + ((value != null)? value : ""));
             this.model.setProperty(name, value);
             return;
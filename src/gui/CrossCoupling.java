@@ -0,0 +1,93 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * CrossCoupling - Gleichlaufregelung der Motoren MA und MB durch Kreuzkopplung...
+ * <p>
+ * Zu den Stellgroessen des aktiven Regelgesetzes (vgl. ControlStrategy) wird
+ * ein Anteil proportional zur Lagedifferenz der Motoren addiert:
+ * <pre>
+ *   es = numberMA - numberMB
+ *   outputMA = outputMA - kc * es
+ *   outputMB = outputMB + kc * es
+ * </pre>
+ * Der vorauslaufende Motor wird gebremst, der nachlaufende beschleunigt,
+ * d.h. beide erreichen den Sollwert gemeinsam.
+ * </p>
+ * <p>
+ * Die Kopplung aendert nie die Drehrichtung und setzt keinen stehenden Motor
+ * in Bewegung: Die Geber liefern Impulse ohne Drehrichtung, die Richtung ergibt
+ * sich im Model aus dem Vorzeichen der Stellgroesse. Der vorauslaufende Motor
+ * wird deshalb hoechstens bis zum Stillstand (0.0) gebremst.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class CrossCoupling
+{
+    /**
+     * gain - Kopplungsverstaerkung kc (Stellgroesse pro Impuls Lagedifferenz)
+     */
+    private volatile double gain;
+
+    /**
+     * CrossCoupling(double gain)
+     * @param gain Kopplungsverstaerkung kc (Stellgroesse pro Impuls Lagedifferenz)
+     */
+    public CrossCoupling(double gain)
+    {
+        setGain(gain);
+    }
+
+    /**
+     * setGain(double gain)
+     * @param gain Kopplungsverstaerkung kc (&gt;= 0.0)
+     */
+    public void setGain(double gain)
+    {
+        this.gain = Math.max(0.0, gain);
+    }
+
+    /**
+     * @return the gain
+     */
+    public double getGain()
+    {
+        return this.gain;
+    }
+
+    /**
+     * apply(ControlInput input, ControlOutput output) - Kopplungsanteil auf
+     * den Reglerausgang output aufschalten...
+     * @param input Istwerte und Grenzwerte
+     * @param output Reglerausgang, wird veraendert
+     */
+    public void apply(ControlInput input, ControlOutput output)
+    {
+        final double term = this.gain * (input.getNumberMA() - input.getNumberMB());
+        output.set(output.getDiffValueMA(),
+                   output.getDiffValueMB(),
+                   couple(output.getOutputMA(), -term, input.getMaxValueMA()),
+                   couple(output.getOutputMB(), +term, input.getMaxValueMB()));
+    }
+
+    /**
+     * couple(double output, double term, double maxValue) - Kopplungsanteil aufschalten,
+     * ohne Umkehr der Drehrichtung...
+     * @param output Stellgroesse des Regelgesetzes
+     * @param term Kopplungsanteil
+     * @param maxValue Grenzwert
+     * @return Stellgroesse (begrenzt und gerundet)
+     */
+    static double couple(double output, double term, double maxValue)
+    {
+        final double value = output + term;
+        if (output == 0.0 || Math.signum(value) != Math.signum(output))
+        {
+            return 0.0;
+        }
+        return PositionController.round(PositionController.limit(value, maxValue));
+    }
+}
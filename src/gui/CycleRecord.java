@@ -0,0 +1,573 @@
+/**
+ *
+ */
+package gui;
+
+import java.math.BigDecimal;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * CycleRecord - Zustandsgroessen eines Regelzyklus als primitive Werte...
+ * <p>
+ * Die Objekte werden einmalig angelegt und im Regelzyklus wiederverwendet
+ * (vgl. Model), d.h. der Regelzyklus traegt seine Werte jeweils in einen
+ * vorhandenen CycleRecord ein. Erst wenn ein Verbraucher (z.B. die View)
+ * die Daten anfordert, wird mit <code>toData()</code> ein unveraenderliches
+ * Data-Objekt erzeugt.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class CycleRecord
+{
+    /**
+     * FLAG_CONTROL = 1 - im Zyklus wurde das Regelgesetz beauftragt
+     */
+    public final static int FLAG_CONTROL = 1;
+
+    /**
+     * FLAG_CONTROLLED = 2 - Regelung eingeschaltet (sonst Stellgroessen 0.0)
+     */
+    public final static int FLAG_CONTROLLED = 2;
+
+    /**
+     * FLAG_SYNCHRONIZED = 4 - Gleichlauf (Kreuzkopplung) eingeschaltet
+     */
+    public final static int FLAG_SYNCHRONIZED = 4;
+
+    /**
+     * STRATEGY_NAMES - Namen der Regelgesetze, der Index ist die Kennung
+     * strategyId im Satz (0: keines bzw. unbekannt, vgl. ReplayEngine)
+     */
+    private final static String[] STRATEGY_NAMES = {"",
+                                                    PositionController.NAME,
+                                                    PidController.NAME,
+                                                    RelayAutotuner.NAME};
+
+    /**
+     * counter - Taktzaehler
+     */
+    private long counter = 0L;
+
+    /**
+     * timestampNanos - Zeitpunkt des Zyklus (System.nanoTime())
+     */
+    private long timestampNanos = 0L;
+
+    /**
+     * cycleTimeNanos - Zykluszeit in ns
+     */
+    private long cycleTimeNanos = 0L;
+
+    /**
+     * token - Kennung der Nachricht zwischen Raspi und Arduino
+     */
+    private long token = 0L;
+
+    /**
+     * status - Status der Kommunikation mit dem Arduino
+     */
+    private ArduinoI2C.Status status = ArduinoI2C.Status.NOP;
+
+    /**
+     * totalMA - Impulszaehler Motor A (vom Arduino)
+     */
+    private long totalMA = 0L;
+
+    /**
+     * totalMB - Impulszaehler Motor B (vom Arduino)
+     */
+    private long totalMB = 0L;
+
+    /**
+     * numberSetPoint - Fuehrungsgroesse der Lage in Impulsen (Sollwert bzw. abgetastete Bahnplanung)
+     */
+    private long numberSetPoint = 0L;
+
+    /**
+     * numberMA - Lage Motor A in Impulsen
+     */
+    private long numberMA = 0L;
+
+    /**
+     * numberMB - Lage Motor B in Impulsen
+     */
+    private long numberMB = 0L;
+
+    /**
+     * outputMA - Stellgroesse Motor A
+     */
+    private double outputMA = 0.0;
+
+    /**
+     * outputMB - Stellgroesse Motor B
+     */
+    private double outputMB = 0.0;
+
+    /**
+     * estimatedMA, estimatedMB - geschaetzte Lage in Impulsen (vgl. VelocityEstimator)
+     */
+    private double estimatedMA = 0.0;
+    private double estimatedMB = 0.0;
+
+    /**
+     * velocityMA, velocityMB - geschaetzte Geschwindigkeit in Impulse/s (vgl. VelocityEstimator)
+     */
+    private double velocityMA = 0.0;
+    private double velocityMB = 0.0;
+
+    /**
+     * flags - Kennungen des Zyklus (FLAG_CONTROL, FLAG_CONTROLLED, FLAG_SYNCHRONIZED)
+     */
+    private int flags = 0;
+
+    /**
+     * maxValueMA, maxValueMB - Grenzwerte der Stellgroessen (nur mit FLAG_CONTROL)
+     */
+    private double maxValueMA = 0.0;
+    private double maxValueMB = 0.0;
+
+    /**
+     * referenceVelocity, referenceAcceleration - Geschwindigkeit und Beschleunigung
+     * der Bahnplanung (nur mit FLAG_CONTROL)
+     */
+    private double referenceVelocity = 0.0;
+    private double referenceAcceleration = 0.0;
+
+    /**
+     * sampleTimeNanos - Zeit seit der vorherigen ausgewerteten Antwort des Arduino
+     * in ns (dt des Regelgesetzes, nur mit FLAG_CONTROL)
+     */
+    private long sampleTimeNanos = 0L;
+
+    /**
+     * strategyId - Kennung des aktiven Regelgesetzes (vgl. getStrategyId(), nur mit FLAG_CONTROL)
+     */
+    private int strategyId = 0;
+
+    /**
+     * enhancement - eingestellte Reglerverstaerkung (vgl. Model.setEnhancement(), nur mit FLAG_CONTROL)
+     */
+    private double enhancement = 0.0;
+
+    /**
+     * set(...) - alle Attribute setzen...
+     * @param counter
+     * @param timestampNanos
+     * @param cycleTimeNanos
+     * @param token
+     * @param status
+     * @param totalMA
+     * @param totalMB
+     * @param numberSetPoint
+     * @param numberMA
+     * @param numberMB
+     * @param outputMA
+     * @param outputMB
+     */
+    public void set(long counter,
+                    long timestampNanos,
+                    long cycleTimeNanos,
+                    long token,
+                    ArduinoI2C.Status status,
+                    long totalMA,
+                    long totalMB,
+                    long numberSetPoint,
+                    long numberMA,
+                    long numberMB,
+                    double outputMA,
+                    double outputMB)
+    {
+        this.counter = counter;
+        this.timestampNanos = timestampNanos;
+        this.cycleTimeNanos = cycleTimeNanos;
+        this.token = token;
+        this.status = status;
+        this.totalMA = totalMA;
+        this.totalMB = totalMB;
+        this.numberSetPoint = numberSetPoint;
+        this.numberMA = numberMA;
+        this.numberMB = numberMB;
+        this.outputMA = outputMA;
+        this.outputMB = outputMB;
+    }
+
+    /**
+     * setEstimate(...) - geschaetzte Lage und Geschwindigkeit setzen...
+     * @param estimatedMA
+     * @param velocityMA
+     * @param estimatedMB
+     * @param velocityMB
+     */
+    public void setEstimate(double estimatedMA,
+                            double velocityMA,
+                            double estimatedMB,
+                            double velocityMB)
+    {
+        this.estimatedMA = estimatedMA;
+        this.velocityMA = velocityMA;
+        this.estimatedMB = estimatedMB;
+        this.velocityMB = velocityMB;
+    }
+
+    /**
+     * setControl(...) - Kennungen und die weiteren Eingangsgroessen des Regelgesetzes
+     * setzen (zur Wiederholung, vgl. ReplayEngine)...
+     * @param flags
+     * @param sampleTimeNanos
+     * @param maxValueMA
+     * @param maxValueMB
+     * @param referenceVelocity
+     * @param referenceAcceleration
+     */
+    public void setControl(int flags,
+                           long sampleTimeNanos,
+                           double maxValueMA,
+                           double maxValueMB,
+                           double referenceVelocity,
+                           double referenceAcceleration)
+    {
+        this.flags = flags;
+        this.sampleTimeNanos = sampleTimeNanos;
+        this.maxValueMA = maxValueMA;
+        this.maxValueMB = maxValueMB;
+        this.referenceVelocity = referenceVelocity;
+        this.referenceAcceleration = referenceAcceleration;
+    }
+
+    /**
+     * setStrategy(int strategyId, double enhancement) - aktives Regelgesetz und
+     * Verstaerkung setzen (zur Wiederholung, vgl. ReplayEngine)...
+     * @param strategyId Kennung des Regelgesetzes (vgl. getStrategyId(String name))
+     * @param enhancement Reglerverstaerkung
+     */
+    public void setStrategy(int strategyId, double enhancement)
+    {
+        this.strategyId = strategyId;
+        this.enhancement = enhancement;
+    }
+
+    /**
+     * getStrategyId(String name) - Kennung eines Regelgesetzes zur Aufzeichnung...
+     * @param name Name des Regelgesetzes (vgl. ControlStrategy.getName())
+     * @return Kennung (0: unbekannt)
+     */
+    public static int getStrategyId(String name)
+    {
+        for (int index = 1; index < STRATEGY_NAMES.length; index++)
+        {
+            if (STRATEGY_NAMES[index].equals(name))
+            {
+                return index;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * getStrategyName(int strategyId) - Name des Regelgesetzes zur Kennung...
+     * @param strategyId Kennung (vgl. getStrategyId(String name))
+     * @return Name oder null (0 bzw. unbekannt)
+     */
+    public static String getStrategyName(int strategyId)
+    {
+        return (strategyId > 0 && strategyId < STRATEGY_NAMES.length)? STRATEGY_NAMES[strategyId] : null;
+    }
+
+    /**
+     * copyFrom(CycleRecord other) - alle Attribute von other uebernehmen...
+     * @param other
+     */
+    public void copyFrom(CycleRecord other)
+    {
+        set(other.counter,
+            other.timestampNanos,
+            other.cycleTimeNanos,
+            other.token,
+            other.status,
+            other.totalMA,
+            other.totalMB,
+            other.numberSetPoint,
+            other.numberMA,
+            other.numberMB,
+            other.outputMA,
+            other.outputMB);
+        setEstimate(other.estimatedMA,
+                    other.velocityMA,
+                    other.estimatedMB,
+                    other.velocityMB);
+        setControl(other.flags,
+                   other.sampleTimeNanos,
+                   other.maxValueMA,
+                   other.maxValueMB,
+                   other.referenceVelocity,
+                   other.referenceAcceleration);
+        setStrategy(other.strategyId,
+                    other.enhancement);
+    }
+
+    /**
+     * toData() - liefert eine (unveraenderliche) Momentaufnahme zur Anzeige...
+     * @return Data
+     */
+    public Data toData()
+    {
+        return new Data(this.counter,
+                        toBigDecimalSeconds(this.cycleTimeNanos, Model.SCALE_CYCLE_TIME),
+                        this.token,
+                        this.numberMA,
+                        this.numberMB,
+                        this.outputMA,
+                        this.outputMB);
+    }
+
+    /**
+     * toBigDecimalSeconds(long nanos, int scale) - liefert die Anzahl der Sekunden
+     * <p>
+     * Werte unterhalb der Darstellungsgenauigkeit werden zu BigDecimal.ZERO.
+     * </p>
+     * @param nanos Dauer in ns
+     * @param scale Anzahl der Nachkommastellen
+     * @return Sekunden
+     */
+    static BigDecimal toBigDecimalSeconds(long nanos, int scale)
+    {
+        final BigDecimal result = BigDecimal.valueOf(nanos, 9).setScale(scale, BigDecimal.ROUND_HALF_UP);
+        return (result.compareTo(BigDecimal.ONE.movePointLeft(scale)) < 0)? BigDecimal.ZERO : result;
+    }
+
+    /**
+     * @return the counter
+     */
+    public final long getCounter()
+    {
+        return this.counter;
+    }
+
+    /**
+     * @return the timestampNanos
+     */
+    public final long getTimestampNanos()
+    {
+        return this.timestampNanos;
+    }
+
+    /**
+     * @return the cycleTimeNanos
+     */
+    public final long getCycleTimeNanos()
+    {
+        return this.cycleTimeNanos;
+    }
+
+    /**
+     * @return the token
+     */
+    public final long getToken()
+    {
+        return this.token;
+    }
+
+    /**
+     * @return the status
+     */
+    public final ArduinoI2C.Status getStatus()
+    {
+        return this.status;
+    }
+
+    /**
+     * @return the totalMA
+     */
+    public final long getTotalMA()
+    {
+        return this.totalMA;
+    }
+
+    /**
+     * @return the totalMB
+     */
+    public final long getTotalMB()
+    {
+        return this.totalMB;
+    }
+
+    /**
+     * @return the numberSetPoint
+     */
+    public final long getNumberSetPoint()
+    {
+        return this.numberSetPoint;
+    }
+
+    /**
+     * @return the numberMA
+     */
+    public final long getNumberMA()
+    {
+        return this.numberMA;
+    }
+
+    /**
+     * @return the numberMB
+     */
+    public final long getNumberMB()
+    {
+        return this.numberMB;
+    }
+
+    /**
+     * @return the outputMA
+     */
+    public final double getOutputMA()
+    {
+        return this.outputMA;
+    }
+
+    /**
+     * @return the outputMB
+     */
+    public final double getOutputMB()
+    {
+        return this.outputMB;
+    }
+
+    /**
+     * @return the estimatedMA
+     */
+    public final double getEstimatedMA()
+    {
+        return this.estimatedMA;
+    }
+
+    /**
+     * @return the estimatedMB
+     */
+    public final double getEstimatedMB()
+    {
+        return this.estimatedMB;
+    }
+
+    /**
+     * @return the velocityMA
+     */
+    public final double getVelocityMA()
+    {
+        return this.velocityMA;
+    }
+
+    /**
+     * @return the velocityMB
+     */
+    public final double getVelocityMB()
+    {
+        return this.velocityMB;
+    }
+
+    /**
+     * @return the flags
+     */
+    public final int getFlags()
+    {
+        return this.flags;
+    }
+
+    /**
+     * isFlag(int flag)
+     * @param flag z.B. FLAG_CONTROL
+     * @return true, falls flag gesetzt ist
+     */
+    public final boolean isFlag(int flag)
+    {
+        return (this.flags & flag) != 0;
+    }
+
+    /**
+     * @return the maxValueMA
+     */
+    public final double getMaxValueMA()
+    {
+        return this.maxValueMA;
+    }
+
+    /**
+     * @return the maxValueMB
+     */
+    public final double getMaxValueMB()
+    {
+        return this.maxValueMB;
+    }
+
+    /**
+     * @return the referenceVelocity
+     */
+    public final double getReferenceVelocity()
+    {
+        return this.referenceVelocity;
+    }
+
+    /**
+     * @return the referenceAcceleration
+     */
+    public final double getReferenceAcceleration()
+    {
+        return this.referenceAcceleration;
+    }
+
+    /**
+     * @return the sampleTimeNanos
+     */
+    public final long getSampleTimeNanos()
+    {
+        return this.sampleTimeNanos;
+    }
+
+    /**
+     * @return the strategyId
+     */
+    public final int getStrategyId()
+    {
+        return this.strategyId;
+    }
+
+    /**
+     * @return the enhancement
+     */
+    public final double getEnhancement()
+    {
+        return this.enhancement;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken... (z.B. Logging)
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.counter)
+                                  .append(" ")
+                                  .append(this.cycleTimeNanos)
+                                  .append(" ")
+                                  .append(Data.getTokenAsString(this.token))
+                                  .append(" ")
+                                  .append(this.status)
+                                  .append(" ")
+                                  .append(this.numberSetPoint)
+                                  .append(" ")
+                                  .append(this.numberMA)
+                                  .append(" ")
+                                  .append(this.numberMB)
+                                  .append(" ")
+                                  .append(this.outputMA)
+                                  .append(" ")
+                                  .append(this.outputMB)
+                                  .append(" ")
+                                  .append(Math.round(this.velocityMA * 10.0) / 10.0)
+                                  .append(" ")
+                                  .append(Math.round(this.velocityMB * 10.0) / 10.0)
+                                  .append("]")
+                                  .toString();
+    }
+}
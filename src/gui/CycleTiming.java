@@ -0,0 +1,180 @@
+/**
+ *
+ */
+package gui;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CycleTiming - Zeitverhalten des Regelzyklus (auf Basis System.nanoTime())...
+ * <p>
+ * Je Zyklus werden erfasst:
+ * <ul>
+ *  <li>period - Periode, Abstand zum Beginn des vorherigen Zyklus (zusaetzlich
+ *      Jitter als Standardabweichung)</li>
+ *  <li>execution - Ausfuehrungszeit von doCycle()</li>
+ *  <li>lateness - Ueberschreitung der Frist (deadlineNanos) durch die
+ *      Ausfuehrungszeit, nur bei einer Fristverletzung (deadline miss)</li>
+ * </ul>
+ * Alle Werte werden in LogHistogram (feste Groesse) gezaehlt und als
+ * p50/p99/p99.9/max ausgegeben. Die Frist ist in der Regel die nominelle
+ * Periode, d.h. ein Zyklus, der laenger dauert, verzoegert den naechsten.
+ * </p>
+ * <p>
+ * record() wird nur vom Regelzyklus beauftragt. Das Zuruecksetzen (je Lauf)
+ * wird mit requestReset() angefordert und im naechsten record() ausgefuehrt.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class CycleTiming
+{
+    /**
+     * deadlineNanos - Frist der Ausfuehrungszeit in ns (0: ohne Fristpruefung)
+     */
+    private final long deadlineNanos;
+
+    /**
+     * period, execution, lateness - Histogramme...
+     */
+    private final LogHistogram period = new LogHistogram("period");
+    private final LogHistogram execution = new LogHistogram("execution");
+    private final LogHistogram lateness = new LogHistogram("lateness");
+
+    /**
+     * periodMean, periodSquares - Mittelwert und Summe der quadratischen Abweichungen 
+     * der Periode (Welford, nur der Regelzyklus schreibt)...
+     */
+    private volatile double periodMean = 0.0;
+    private volatile double periodSquares = 0.0;
+
+    /**
+     * misses - Anzahl der Fristverletzungen
+     */
+    private final AtomicLong misses = new AtomicLong(0L);
+
+    /**
+     * resetRequested - Kennung, vor dem naechsten record() zuruecksetzen...
+     */
+    private volatile boolean resetRequested = false;
+
+    /**
+     * CycleTiming(long deadlineNanos)
+     * @param deadlineNanos Frist der Ausfuehrungszeit in ns (0: ohne Fristpruefung)
+     */
+    public CycleTiming(long deadlineNanos)
+    {
+        this.deadlineNanos = Math.max(0L, deadlineNanos);
+    }
+
+    /**
+     * record(long periodNanos, long executionNanos) - Werte eines Zyklus erfassen...
+     * @param periodNanos Periode in ns (&lt;= 0: erster Zyklus, wird nicht erfasst)
+     * @param executionNanos Ausfuehrungszeit in ns
+     */
+    public void record(long periodNanos, long executionNanos)
+    {
+        if (this.resetRequested)
+        {
+            this.resetRequested = false;
+            this.period.reset();
+            this.execution.reset();
+            this.lateness.reset();
+            this.misses.set(0L);
+            this.periodMean = 0.0;
+            this.periodSquares = 0.0;
+        }
+        if (periodNanos > 0L)
+        {
+            this.period.record(periodNanos);
+            final double delta = periodNanos - this.periodMean;
+            final double mean = this.periodMean + delta / this.period.getCount();
+            this.periodSquares += delta * (periodNanos - mean);
+            this.periodMean = mean;
+        }
+        this.execution.record(executionNanos);
+        if (this.deadlineNanos > 0L && executionNanos > this.deadlineNanos)
+        {
+            this.misses.incrementAndGet();
+            this.lateness.record(executionNanos - this.deadlineNanos);
+        }
+    }
+
+    /**
+     * requestReset() - alle Werte im naechsten Zyklus verwerfen (z.B. beim Start)...
+     */
+    public void requestReset()
+    {
+        this.resetRequested = true;
+    }
+
+    /**
+     * @return Frist in ns
+     */
+    public long getDeadlineNanos()
+    {
+        return this.deadlineNanos;
+    }
+
+    /**
+     * @return Histogramm der Periode
+     */
+    public LogHistogram getPeriod()
+    {
+        return this.period;
+    }
+
+    /**
+     * getPeriodJitterNanos() - Standardabweichung der Periode
+     * @return Jitter in ns
+     */
+    public double getPeriodJitterNanos()
+    {
+        final long count = this.period.getCount();
+        return (count > 1L)? Math.sqrt(this.periodSquares / (count - 1L)) : 0.0;
+    }
+
+    /**
+     * @return Histogramm der Ausfuehrungszeit
+     */
+    public LogHistogram getExecution()
+    {
+        return this.execution;
+    }
+
+    /**
+     * @return Histogramm der Fristueberschreitung (nur Fristverletzungen)
+     */
+    public LogHistogram getLateness()
+    {
+        return this.lateness;
+    }
+
+    /**
+     * @return Anzahl der Fristverletzungen
+     */
+    public long getMisses()
+    {
+        return this.misses.get();
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append(this.period.toString())
+                                  .append(" jitter=")
+                                  .append(Math.round(getPeriodJitterNanos() / 1000.0))
+                                  .append("us ")
+                                  .append(this.execution.toString())
+                                  .append(" deadline=")
+                                  .append(this.deadlineNanos / 1000L)
+                                  .append("us misses=")
+                                  .append(getMisses())
+                                  .append(" ")
+                                  .append(this.lateness.toString())
+                                  .toString();
+    }
+}
@@ -0,0 +1,520 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * DashboardServer - Anzeige des Regelzyklus im Browser (statt ueber Swing)...
+ * <p>
+ * Unter http://&lt;host&gt;:&lt;port&gt;/ wird die statische Seite dashboard.html
+ * ausgeliefert, unter /events werden die Zustandsgroessen als Server-Sent Events
+ * (text/event-stream, je Ereignis ein JSON-Objekt) gesendet. Die Seite zeigt
+ * Sollwert und Istwerte sowie die Stellgroessen beider Motoren als Verlauf.
+ * </p>
+ * <p>
+ * Jeder Betrachter liest mit einem eigenen TelemetryRing.Consumer jeweils den
+ * zuletzt veroeffentlichten Zyklus (pollLatest()), und zwar hoechstens mit der
+ * angeforderten Rate (/events?rate=&lt;Hz&gt;, 1..MAX_RATE). Der Regelzyklus
+ * schreibt nur in den TelemetryRing, die Anzahl der Betrachter hat darauf
+ * keinen Einfluss.
+ * </p>
+ * <p>
+ * Ist im Model eine TelemetryHistory eingerichtet, liefert /history den Verlauf
+ * der letzten Sekunden (?seconds=&lt;s&gt;) mit hoechstens ?points=&lt;n&gt;
+ * Werten je Kanal als JSON, wahlweise Minimum/Maximum je Spalte (mode=minmax)
+ * oder die Punkte einer Linie nach LTTB (mode=lttb, Zeit relativ zum neuesten
+ * Zyklus in s).
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class DashboardServer
+{
+    /**
+     * logger...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(DashboardServer.class);
+
+    /**
+     * PAGE = "dashboard.html" - statische Seite (Resource neben dieser Klasse)
+     */
+    public final static String PAGE = "dashboard.html";
+
+    /**
+     * EVENTS_PATH = "/events" - Pfad der Server-Sent Events
+     */
+    public final static String EVENTS_PATH = "/events";
+
+    /**
+     * HISTORY_PATH = "/history" - Pfad des Verlaufs (TelemetryHistory)
+     */
+    public final static String HISTORY_PATH = "/history";
+
+    /**
+     * MAX_POINTS = 4096 - maximale Anzahl der Werte je Kanal in /history
+     */
+    public final static int MAX_POINTS = 4096;
+
+    /**
+     * DEFAULT_RATE = 20 - Vorgabe der Rate in Hz
+     */
+    public final static int DEFAULT_RATE = 20;
+
+    /**
+     * MAX_RATE = 50 - maximale Rate in Hz je Betrachter
+     */
+    public final static int MAX_RATE = 50;
+
+    /**
+     * MAX_VIEWERS = 16 - maximale Anzahl gleichzeitiger Betrachter (je Betrachter ein Thread)
+     */
+    private final static int MAX_VIEWERS = 16;
+
+    /**
+     * KEEP_ALIVE_NANOS - Kommentarzeile, falls so lange kein neuer Zyklus vorlag
+     * (Erkennen getrennter Betrachter)
+     */
+    private final static long KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(15L);
+
+    /**
+     * model - Quelle der Zustandsgroessen
+     */
+    private final Model model;
+
+    /**
+     * server - HttpServer des JDK
+     */
+    private final HttpServer server;
+
+    /**
+     * executor - Threads des HttpServer (Betrachter belegen ihren Thread bis zum Ende)
+     */
+    private final ExecutorService executor;
+
+    /**
+     * page - Inhalt von dashboard.html
+     */
+    private final byte[] page;
+
+    /**
+     * viewers - Anzahl der aktuellen Betrachter
+     */
+    private final AtomicInteger viewers = new AtomicInteger(0);
+
+    /**
+     * running...
+     */
+    private volatile boolean running = false;
+
+    /**
+     * DashboardServer(Model model, int port)
+     * @param model Quelle der Zustandsgroessen
+     * @param port Port des HttpServer
+     * @throws IOException falls die Seite fehlt bzw. der Port nicht belegt werden kann
+     */
+    public DashboardServer(Model model, int port) throws IOException
+    {
+        this.model = Objects.requireNonNull(model, "model must not be null!");
+        this.page = readPage();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                handlePage(exchange);
+            }
+        });
+        this.server.createContext(EVENTS_PATH, new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                handleEvents(exchange);
+            }
+        });
+        this.server.createContext(HISTORY_PATH, new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                handleHistory(exchange);
+            }
+        });
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        this.executor = Executors.newCachedThreadPool(new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                final Thread thread = new Thread(runnable, "dashboard-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.server.setExecutor(this.executor);
+    }
+
+    /**
+     * start() - HttpServer starten...
+     */
+    public void start()
+    {
+        this.running = true;
+        this.server.start();
+        logger.info("DashboardServer: http://" + this.server.getAddress().getHostString() + ":" + getPort() + "/");
+    }
+
+    /**
+     * stop() - HttpServer beenden (Betrachter werden getrennt)...
+     */
+    public void stop()
+    {
+        this.running = false;
+        this.server.stop(0);
+        this.executor.shutdownNow();
+        logger.debug("DashboardServer beendet.");
+    }
+
+    /**
+     * getPort()
+     * @return belegter Port
+     */
+    public int getPort()
+    {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * handlePage(HttpExchange exchange) - dashboard.html ausliefern...
+     * @param exchange
+     * @throws IOException
+     */
+    private void handlePage(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            final String path = exchange.getRequestURI().getPath();
+            if (!"/".equals(path) && !("/" + PAGE).equals(path))
+            {
+                exchange.sendResponseHeaders(404, -1L);
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod()))
+            {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                exchange.sendResponseHeaders(405, -1L);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, this.page.length);
+            try (OutputStream output = exchange.getResponseBody())
+            {
+                output.write(this.page);
+            }
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    /**
+     * handleEvents(HttpExchange exchange) - Zustandsgroessen als Server-Sent Events
+     * senden, bis der Betrachter die Verbindung trennt...
+     * @param exchange
+     * @throws IOException
+     */
+    private void handleEvents(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            if (!"GET".equals(exchange.getRequestMethod()))
+            {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                exchange.sendResponseHeaders(405, -1L);
+                return;
+            }
+            if (this.viewers.incrementAndGet() > MAX_VIEWERS)
+            {
+                this.viewers.decrementAndGet();
+                exchange.sendResponseHeaders(503, -1L);
+                return;
+            }
+            try
+            {
+                stream(exchange, getParameter(exchange.getRequestURI().getQuery(), "rate", DEFAULT_RATE, 1, MAX_RATE));
+            }
+            catch (IOException exception)
+            {
+                // Betrachter hat die Verbindung getrennt...
+                logger.debug("DashboardServer: " + exchange.getRemoteAddress() + " " + exception.toString());
+            }
+            finally
+            {
+                this.viewers.decrementAndGet();
+            }
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    /**
+     * stream(HttpExchange exchange, int rate) - Schleife eines Betrachters...
+     * @param exchange
+     * @param rate Rate in Hz
+     * @throws IOException falls die Verbindung getrennt wurde
+     */
+    private void stream(HttpExchange exchange, int rate) throws IOException
+    {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        // Laenge 0: chunked, d.h. unbegrenzt...
+        exchange.sendResponseHeaders(200, 0L);
+        logger.info("DashboardServer: " + exchange.getRemoteAddress() + " verbunden (" + rate + " Hz)");
+
+        final TelemetryRing.Consumer consumer = this.model.getTelemetryRing().newConsumer();
+        final CycleRecord record = new CycleRecord();
+        final StringBuilder builder = new StringBuilder(256);
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1L) / rate;
+        final OutputStream output = exchange.getResponseBody();
+        output.write(("retry: 2000\n\n").getBytes(StandardCharsets.UTF_8));
+        output.flush();
+        long lastSent = System.nanoTime();
+        while (this.running)
+        {
+            final long next = System.nanoTime() + intervalNanos;
+            if (consumer.pollLatest(record))
+            {
+                builder.setLength(0);
+                toEvent(builder, record);
+                output.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+                output.flush();
+                lastSent = System.nanoTime();
+            }
+            else if (System.nanoTime() - lastSent > KEEP_ALIVE_NANOS)
+            {
+                output.write(":\n\n".getBytes(StandardCharsets.UTF_8));
+                output.flush();
+                lastSent = System.nanoTime();
+            }
+            final long remaining = next - System.nanoTime();
+            if (remaining > 0L)
+            {
+                LockSupport.parkNanos(this, remaining);
+            }
+            if (Thread.interrupted())
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * toEvent(StringBuilder builder, CycleRecord record) - ein Ereignis
+     * (data: {...} und Leerzeile)...
+     */
+    static void toEvent(StringBuilder builder, CycleRecord record)
+    {
+        builder.append("data: {\"counter\":").append(record.getCounter())
+               .append(",\"cycleTime\":").append(record.getCycleTimeNanos() / 1_000L)
+               .append(",\"status\":\"").append(record.getStatus()).append('"')
+               .append(",\"setPoint\":").append(record.getNumberSetPoint())
+               .append(",\"numberMA\":").append(record.getNumberMA())
+               .append(",\"numberMB\":").append(record.getNumberMB())
+               .append(",\"outputMA\":").append(record.getOutputMA())
+               .append(",\"outputMB\":").append(record.getOutputMB())
+               .append(",\"velocityMA\":").append(finite(record.getVelocityMA()))
+               .append(",\"velocityMB\":").append(finite(record.getVelocityMB()))
+               .append("}\n\n");
+    }
+
+    /**
+     * finite(double value) - JSON kennt weder NaN noch Infinity...
+     */
+    private static double finite(double value)
+    {
+        return (Double.isNaN(value) || Double.isInfinite(value))? 0.0 : value;
+    }
+
+    /**
+     * handleHistory(HttpExchange exchange) - Verlauf aus der TelemetryHistory...
+     * @param exchange
+     * @throws IOException
+     */
+    private void handleHistory(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            final TelemetryHistory history = this.model.getTelemetryHistory();
+            if (history == null || !HISTORY_PATH.equals(exchange.getRequestURI().getPath()))
+            {
+                exchange.sendResponseHeaders(404, -1L);
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod()))
+            {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                exchange.sendResponseHeaders(405, -1L);
+                return;
+            }
+            final String query = exchange.getRequestURI().getQuery();
+            final int seconds = getParameter(query, "seconds", 600, 1, Integer.MAX_VALUE);
+            final int points = getParameter(query, "points", 600, 3, MAX_POINTS);
+            final boolean isLttb = (query != null) && query.contains("mode=lttb");
+            final byte[] body = history(history, seconds, points, isLttb).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody())
+            {
+                output.write(body);
+            }
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    /**
+     * history(TelemetryHistory history, int seconds, int points, boolean isLttb) - JSON des Verlaufs...
+     * @return JSON
+     */
+    static String history(TelemetryHistory history, int seconds, int points, boolean isLttb)
+    {
+        final long to = history.getCount();
+        final long newest = history.getTimestampNanos(to - 1L);
+        final long from = (to > 0L)? history.indexAt(newest - TimeUnit.SECONDS.toNanos(seconds)) : 0L;
+        final double[] first = new double[points];
+        final double[] second = new double[points];
+        final StringBuilder builder = new StringBuilder(64 * 1024);
+        builder.append("{\"from\":").append(from)
+               .append(",\"to\":").append(to)
+               .append(",\"fromSeconds\":").append((history.getTimestampNanos(from) - newest) * 1.0e-9)
+               .append(",\"mode\":\"").append(isLttb? "lttb" : "minmax").append('"');
+        for (TelemetryHistory.Channel channel : TelemetryHistory.Channel.values())
+        {
+            builder.append(",\"").append(channel.name()).append("\":{");
+            if (isLttb)
+            {
+                final int count = history.lttb(channel, from, to, points, first, second);
+                // x: Index des Zyklus -> Zeit relativ zum neuesten Zyklus (in s)...
+                for (int index = 0; index < count; index++)
+                {
+                    first[index] = (history.getTimestampNanos(Math.round(first[index])) - newest) * 1.0e-9;
+                }
+                array(builder.append("\"t\":"), first, count);
+                array(builder.append(",\"y\":"), second, count);
+            }
+            else
+            {
+                final int level = history.minMax(channel, from, to, points, first, second);
+                builder.append("\"level\":").append(level);
+                array(builder.append(",\"min\":"), first, points);
+                array(builder.append(",\"max\":"), second, points);
+            }
+            builder.append('}');
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * array(StringBuilder builder, double[] values, int count) - JSON-Array (NaN als null)...
+     */
+    private static void array(StringBuilder builder, double[] values, int count)
+    {
+        builder.append('[');
+        for (int index = 0; index < count; index++)
+        {
+            if (index > 0)
+            {
+                builder.append(',');
+            }
+            if (Double.isNaN(values[index]) || Double.isInfinite(values[index]))
+            {
+                builder.append("null");
+            }
+            else
+            {
+                builder.append(values[index]);
+            }
+        }
+        builder.append(']');
+    }
+
+    /**
+     * getParameter(String query, String name, int defaultValue, int min, int max) -
+     * ganzzahliger Parameter &lt;name&gt;=&lt;Wert&gt; der Abfrage...
+     * @param query Abfrage (ggf. null)
+     * @return Wert in min..max, defaultValue ohne (gueltige) Angabe
+     */
+    static int getParameter(String query, String name, int defaultValue, int min, int max)
+    {
+        if (query != null)
+        {
+            final String prefix = name + "=";
+            for (String parameter : query.split("&"))
+            {
+                if (parameter.startsWith(prefix))
+                {
+                    try
+                    {
+                        return Math.max(min, Math.min(max, Integer.parseInt(parameter.substring(prefix.length()).trim())));
+                    }
+                    catch (NumberFormatException exception)
+                    {
+                        return defaultValue;
+                    }
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * readPage() - dashboard.html aus dem classpath lesen...
+     * @return Inhalt
+     * @throws IOException falls die Seite fehlt
+     */
+    private static byte[] readPage() throws IOException
+    {
+        try (InputStream inputStream = DashboardServer.class.getResourceAsStream(PAGE))
+        {
+            if (inputStream == null)
+            {
+                throw new IOException(PAGE + " nicht gefunden!");
+            }
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(16384);
+            final byte[] buffer = new byte[4096];
+            int length;
+            while ((length = inputStream.read(buffer)) > 0)
+            {
+                outputStream.write(buffer, 0, length);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+}
@@ -131,6 +131,38 @@ public class Data implements Comparable<Data>
         this.outputMB = (outputMB != null)? outputMB : BigDecimal.ZERO.setScale(SCALE_OUTPUT);
     }
     
+    /**
+     * Data(long counter, BigDecimal cycleTime, long token, long numberMA, long numberMB, double outputMA, double outputMB) - 
+     * Konstruktor mit den Stellgroessen als double...
+     * <p>
+     * Die Stellgroessen werden hier (zur Anzeige) auf SCALE_OUTPUT Nachkommastellen 
+     * gerundet in BigDecimal umgewandelt.
+     * </p>
+     * @param counter - Zaehler, keine weitere funktionale Bedeutung
+     * @param cycleTime - Zyklusdauer (Regelalgorithmus erfolgt getaktet, T ist Zyklusdauer)
+     * @param token - Kennung wird zwischen Arduino und Raspberry ausgetauscht
+     * @param numberMA - Lageinformation Motor A
+     * @param numberMB - Lageinformation Motor B
+     * @param outputMA - Stellgroesse zum Motor A
+     * @param outputMB - Stellgroesse zum Motor B
+     */
+    public Data(long counter, 
+                BigDecimal cycleTime, 
+                long token,
+                long numberMA, 
+                long numberMB,
+                double outputMA,
+                double outputMB)
+    {
+        this(counter, 
+             cycleTime, 
+             token, 
+             numberMA, 
+             numberMB, 
+             BigDecimal.valueOf(outputMA).setScale(SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP), 
+             BigDecimal.valueOf(outputMB).setScale(SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP));
+    }
+    
     /**
      * @return the counter
      */
@@ -253,7 +285,7 @@ public class Data implements Comparable<Data>
      */
     public static String getTokenAsString(long token)
     {
-        return Long.toHexString((token & 0xffffffff)).toUpperCase(); 
+        return Long.toHexString((token & 0xFFFFFFFFL)).toUpperCase(); 
     }
 
     /**
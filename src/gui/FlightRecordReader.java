@@ -0,0 +1,144 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * FlightRecordReader - liest die Saetze der Segmentdateien des FlightRecorder
+ * der Reihe nach (z.B. fuer die ReplayEngine)...
+ * <p>
+ * Die Segmente werden nacheinander eingeblendet (MappedByteBuffer), gelesen
+ * wird je Segment die im Kopf eingetragene Anzahl gueltiger Saetze.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class FlightRecordReader
+{
+    /**
+     * files - Segmentdateien in der Reihenfolge der Aufzeichnung
+     */
+    private final List<File> files;
+
+    /**
+     * fileIndex - Index des naechsten Segments in files
+     */
+    private int fileIndex = 0;
+
+    /**
+     * buffer - aktuelles Segment (null: noch keines bzw. gelesen)
+     */
+    private MappedByteBuffer buffer = null;
+
+    /**
+     * count, index - Anzahl der gueltigen Saetze und naechster Satz im aktuellen Segment
+     */
+    private long count = 0L;
+    private long index = 0L;
+
+    /**
+     * FlightRecordReader(List&lt;File&gt; files)
+     * @param files Segmentdateien in der Reihenfolge der Aufzeichnung (vgl. listSegments())
+     */
+    public FlightRecordReader(List<File> files)
+    {
+        this.files = new ArrayList<>(Objects.requireNonNull(files, "files must not be null!"));
+    }
+
+    /**
+     * listSegments(File file) - Segmentdateien zu file...
+     * @param file Segmentdatei oder Verzeichnis
+     * @return file selbst bzw. alle Segmentdateien des Verzeichnisses, nach Namen
+     *         (d.h. Beginn des Laufs und Nummer des Segments) sortiert
+     */
+    public static List<File> listSegments(File file)
+    {
+        if (!file.isDirectory())
+        {
+            return Collections.singletonList(file);
+        }
+        final File[] segments = file.listFiles(new FileFilter()
+        {
+            @Override
+            public boolean accept(File candidate)
+            {
+                return candidate.isFile() && candidate.getName().endsWith(FlightRecorder.SUFFIX);
+            }
+        });
+        if (segments == null)
+        {
+            return Collections.emptyList();
+        }
+        Arrays.sort(segments);
+        return Arrays.asList(segments);
+    }
+
+    /**
+     * next(CycleRecord record) - naechsten Satz lesen...
+     * @param record nimmt die Werte auf
+     * @return false, falls alle Saetze gelesen sind
+     * @throws IOException falls ein Segment nicht gelesen werden kann oder kein
+     *         Segment des FlightRecorder (in dieser Version) ist
+     */
+    public boolean next(CycleRecord record) throws IOException
+    {
+        while (this.buffer == null || this.index >= this.count)
+        {
+            if (this.fileIndex >= this.files.size())
+            {
+                this.buffer = null;
+                return false;
+            }
+            open(this.files.get(this.fileIndex++));
+        }
+        FlightRecorder.decode(this.buffer, (int)(FlightRecorder.HEADER_SIZE + this.index * FlightRecorder.RECORD_SIZE), record);
+        this.index++;
+        return true;
+    }
+
+    /**
+     * open(File file) - Segment einblenden und den Kopf pruefen...
+     * @param file
+     * @throws IOException
+     */
+    private void open(File file) throws IOException
+    {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"))
+        {
+            final long size = randomAccessFile.length();
+            if (size < FlightRecorder.HEADER_SIZE)
+            {
+                throw new IOException(file + ": kein Segment des FlightRecorder!");
+            }
+            this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0L, size);
+        }
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (this.buffer.getInt(0) != FlightRecorder.MAGIC)
+        {
+            throw new IOException(file + ": kein Segment des FlightRecorder!");
+        }
+        if (this.buffer.getInt(4) != FlightRecorder.VERSION
+            || this.buffer.getInt(8) != FlightRecorder.HEADER_SIZE
+            || this.buffer.getInt(12) != FlightRecorder.RECORD_SIZE)
+        {
+            throw new IOException(file + ": Version " + this.buffer.getInt(4) + " wird nicht unterstuetzt!");
+        }
+        // Anzahl der gueltigen Saetze, hoechstens so viele, wie in die Datei passen...
+        final long capacity = (this.buffer.capacity() - FlightRecorder.HEADER_SIZE) / FlightRecorder.RECORD_SIZE;
+        this.count = Math.max(0L, Math.min(this.buffer.getLong(FlightRecorder.COUNT_OFFSET), capacity));
+        this.index = 0L;
+    }
+}
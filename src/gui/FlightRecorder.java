@@ -0,0 +1,390 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * FlightRecorder - zeichnet die Zustandsgroessen jedes Regelzyklus binaer in
+ * Segmentdateien auf (memory-mapped, nur anhaengend)...
+ * <p>
+ * Je Zyklus wird ein Satz fester Laenge (RECORD_SIZE = 184 Byte, little endian)
+ * geschrieben, vgl. encode(). Eine Segmentdatei besteht aus einem Kopf
+ * (HEADER_SIZE = 64 Byte) und Platz fuer recordsPerSegment Saetze, sie wird beim
+ * Anlegen in voller Groesse eingeblendet (MappedByteBuffer). Das Schreiben eines
+ * Satzes ist damit ein Kopieren in den Speicher, das Betriebssystem schreibt
+ * die Seiten im Hintergrund zurueck.
+ * </p>
+ * <p>
+ * Kopf eines Segments:
+ * <pre>
+ *   0  int   MAGIC ("FREC")
+ *   4  int   VERSION
+ *   8  int   HEADER_SIZE
+ *  12  int   RECORD_SIZE
+ *  16  int   Nummer des Segments (ab 0)
+ *  20  int   recordsPerSegment (Kapazitaet)
+ *  24  long  Beginn (System.currentTimeMillis())
+ *  32  long  Beginn (System.nanoTime(), Bezug der timestampNanos)
+ *  40  long  Anzahl der gueltigen Saetze (wird nach jedem Satz fortgeschrieben)
+ * </pre>
+ * Ist ein Segment voll, wird das naechste angelegt (Rotation). Bei maxSegments &gt; 0
+ * wird jeweils das aelteste Segment dieses Laufs geloescht.
+ * </p>
+ * <p>
+ * Der FlightRecorder ist ein TelemetryRing.Handler und wird ueber einen
+ * TelemetryDrainer ausserhalb des Regelzyklus betrieben. Nach einem Fehler
+ * (z.B. Datentraeger voll) wird die Aufzeichnung beendet, der Regelzyklus
+ * laeuft weiter.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class FlightRecorder implements TelemetryRing.Handler
+{
+    /**
+     * logger...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(FlightRecorder.class);
+
+    /**
+     * MAGIC - Kennung einer Segmentdatei ("FREC")
+     */
+    public final static int MAGIC = 0x46524543;
+
+    /**
+     * VERSION = 4 - Version des Formats (2: mit den Eingangsgroessen des Regelgesetzes,
+     * 3: mit dem Abtastintervall sampleTimeNanos, 4: mit Regelgesetz und Verstaerkung)
+     */
+    public final static int VERSION = 4;
+
+    /**
+     * HEADER_SIZE = 64 - Laenge des Kopfes in Byte
+     */
+    public final static int HEADER_SIZE = 64;
+
+    /**
+     * RECORD_SIZE = 184 - Laenge eines Satzes in Byte
+     */
+    public final static int RECORD_SIZE = 184;
+
+    /**
+     * Offsets im Kopf...
+     */
+    final static int SEGMENT_OFFSET = 16;
+    final static int CAPACITY_OFFSET = 20;
+    final static int START_MILLIS_OFFSET = 24;
+    final static int START_NANOS_OFFSET = 32;
+    final static int COUNT_OFFSET = 40;
+
+    /**
+     * SUFFIX = ".rec" - Endung der Segmentdateien
+     */
+    public final static String SUFFIX = ".rec";
+
+    /**
+     * STATUS - ArduinoI2C.Status.values() (Kodierung ueber ordinal())
+     */
+    private final static ArduinoI2C.Status[] STATUS = ArduinoI2C.Status.values();
+
+    /**
+     * directory - Verzeichnis der Segmentdateien
+     */
+    private final File directory;
+
+    /**
+     * recordsPerSegment - Anzahl der Saetze je Segment
+     */
+    private final int recordsPerSegment;
+
+    /**
+     * maxSegments - maximale Anzahl der Segmente dieses Laufs (0: unbegrenzt)
+     */
+    private final int maxSegments;
+
+    /**
+     * prefix - Beginn der Dateinamen (mit Datum und Uhrzeit des Laufs)
+     */
+    private final String prefix;
+
+    /**
+     * files - Segmentdateien dieses Laufs (aelteste zuerst)
+     */
+    private final Deque<File> files = new ArrayDeque<>();
+
+    /**
+     * buffer - aktuelles Segment (eingeblendet)
+     */
+    private MappedByteBuffer buffer = null;
+
+    /**
+     * segment - Nummer des aktuellen Segments
+     */
+    private int segment = -1;
+
+    /**
+     * count - Anzahl der Saetze im aktuellen Segment
+     */
+    private int count = 0;
+
+    /**
+     * recordCount - Anzahl aller geschriebenen Saetze
+     */
+    private volatile long recordCount = 0L;
+
+    /**
+     * failed - Kennung, Aufzeichnung nach einem Fehler beendet
+     */
+    private volatile boolean failed = false;
+
+    /**
+     * FlightRecorder(File directory, int recordsPerSegment, int maxSegments)
+     * @param directory Verzeichnis der Segmentdateien (wird ggf. angelegt)
+     * @param recordsPerSegment Anzahl der Saetze je Segment (&gt;= 1)
+     * @param maxSegments maximale Anzahl der Segmente dieses Laufs (0: unbegrenzt)
+     * @throws IOException falls das Verzeichnis nicht angelegt werden kann
+     */
+    public FlightRecorder(File directory, int recordsPerSegment, int maxSegments) throws IOException
+    {
+        this.directory = Objects.requireNonNull(directory, "directory must not be null!");
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Verzeichnis " + directory + " kann nicht angelegt werden!");
+        }
+        // Obergrenze: ein Segment muss mit einem MappedByteBuffer (int) adressierbar sein...
+        this.recordsPerSegment = Math.max(1, Math.min(recordsPerSegment, (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE));
+        this.maxSegments = Math.max(0, maxSegments);
+        this.prefix = "flight-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + "-";
+    }
+
+    /**
+     * onRecord(CycleRecord record) - Satz in das aktuelle Segment schreiben,
+     * ggf. vorher das naechste Segment anlegen...
+     */
+    @Override
+    public void onRecord(CycleRecord record)
+    {
+        if (this.failed)
+        {
+            return;
+        }
+        try
+        {
+            if (this.buffer == null || this.count >= this.recordsPerSegment)
+            {
+                rotate();
+            }
+            encode(record, this.buffer, HEADER_SIZE + this.count * RECORD_SIZE);
+            this.count++;
+            this.buffer.putLong(COUNT_OFFSET, this.count);
+            this.recordCount++;
+        }
+        catch (IOException | RuntimeException exception)
+        {
+            this.failed = true;
+            logger.error("FlightRecorder: Aufzeichnung beendet, " + exception.toString(), exception);
+            closeSegment();
+        }
+    }
+
+    /**
+     * close() - aktuelles Segment abschliessen (nach dem Beenden des TelemetryDrainer)...
+     */
+    public void close()
+    {
+        closeSegment();
+        logger.debug("FlightRecorder beendet: " + toString());
+    }
+
+    /**
+     * rotate() - aktuelles Segment abschliessen, naechstes Segment anlegen und
+     * ggf. das aelteste Segment loeschen...
+     * @throws IOException
+     */
+    private void rotate() throws IOException
+    {
+        closeSegment();
+        this.segment++;
+        final File file = new File(this.directory, String.format("%s%05d%s", this.prefix, this.segment, SUFFIX));
+        final long size = HEADER_SIZE + (long)this.recordsPerSegment * RECORD_SIZE;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"))
+        {
+            randomAccessFile.setLength(size);
+            // Der MappedByteBuffer bleibt auch nach dem Schliessen der Datei gueltig...
+            this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, size);
+        }
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.buffer.putInt(0, MAGIC);
+        this.buffer.putInt(4, VERSION);
+        this.buffer.putInt(8, HEADER_SIZE);
+        this.buffer.putInt(12, RECORD_SIZE);
+        this.buffer.putInt(SEGMENT_OFFSET, this.segment);
+        this.buffer.putInt(CAPACITY_OFFSET, this.recordsPerSegment);
+        this.buffer.putLong(START_MILLIS_OFFSET, System.currentTimeMillis());
+        this.buffer.putLong(START_NANOS_OFFSET, System.nanoTime());
+        this.buffer.putLong(COUNT_OFFSET, 0L);
+        this.count = 0;
+        this.files.addLast(file);
+        logger.debug("FlightRecorder: " + file);
+
+        if (this.maxSegments > 0 && this.files.size() > this.maxSegments)
+        {
+            final File oldest = this.files.removeFirst();
+            if (!oldest.delete())
+            {
+                logger.warn("FlightRecorder: " + oldest + " kann nicht geloescht werden!");
+            }
+        }
+    }
+
+    /**
+     * closeSegment() - aktuelles Segment auf den Datentraeger schreiben...
+     */
+    private void closeSegment()
+    {
+        if (this.buffer != null)
+        {
+            this.buffer.force();
+            this.buffer = null;
+        }
+    }
+
+    /**
+     * encode(CycleRecord record, ByteBuffer buffer, int offset) - Satz ab offset
+     * schreiben (absolute Adressierung, buffer in ByteOrder.LITTLE_ENDIAN)...
+     * <pre>
+     *   0 counter          8 timestampNanos   16 cycleTimeNanos   24 token
+     *  32 totalMA         40 totalMB          48 numberSetPoint   56 numberMA
+     *  64 numberMB        72 outputMA         80 outputMB         88 estimatedMA
+     *  96 velocityMA     104 estimatedMB     112 velocityMB      120 status (ordinal, int)
+     * 124 flags (int)    128 maxValueMA      136 maxValueMB      144 referenceVelocity
+     * 152 referenceAcceleration                160 sampleTimeNanos 168 enhancement
+     * 176 strategyId (int)                     180 (frei)
+     * </pre>
+     * @param record
+     * @param buffer
+     * @param offset
+     */
+    static void encode(CycleRecord record, ByteBuffer buffer, int offset)
+    {
+        buffer.putLong(offset, record.getCounter());
+        buffer.putLong(offset + 8, record.getTimestampNanos());
+        buffer.putLong(offset + 16, record.getCycleTimeNanos());
+        buffer.putLong(offset + 24, record.getToken());
+        buffer.putLong(offset + 32, record.getTotalMA());
+        buffer.putLong(offset + 40, record.getTotalMB());
+        buffer.putLong(offset + 48, record.getNumberSetPoint());
+        buffer.putLong(offset + 56, record.getNumberMA());
+        buffer.putLong(offset + 64, record.getNumberMB());
+        buffer.putDouble(offset + 72, record.getOutputMA());
+        buffer.putDouble(offset + 80, record.getOutputMB());
+        buffer.putDouble(offset + 88, record.getEstimatedMA());
+        buffer.putDouble(offset + 96, record.getVelocityMA());
+        buffer.putDouble(offset + 104, record.getEstimatedMB());
+        buffer.putDouble(offset + 112, record.getVelocityMB());
+        buffer.putInt(offset + 120, (record.getStatus() != null)? record.getStatus().ordinal() : 0);
+        buffer.putInt(offset + 124, record.getFlags());
+        buffer.putDouble(offset + 128, record.getMaxValueMA());
+        buffer.putDouble(offset + 136, record.getMaxValueMB());
+        buffer.putDouble(offset + 144, record.getReferenceVelocity());
+        buffer.putDouble(offset + 152, record.getReferenceAcceleration());
+        buffer.putLong(offset + 160, record.getSampleTimeNanos());
+        buffer.putDouble(offset + 168, record.getEnhancement());
+        buffer.putInt(offset + 176, record.getStrategyId());
+        buffer.putInt(offset + 180, 0);
+    }
+
+    /**
+     * decode(ByteBuffer buffer, int offset, CycleRecord record) - Satz ab offset
+     * lesen (Gegenstueck zu encode())...
+     * @param buffer
+     * @param offset
+     * @param record nimmt die Werte auf
+     */
+    static void decode(ByteBuffer buffer, int offset, CycleRecord record)
+    {
+        final int status = buffer.getInt(offset + 120);
+        record.set(buffer.getLong(offset),
+                   buffer.getLong(offset + 8),
+                   buffer.getLong(offset + 16),
+                   buffer.getLong(offset + 24),
+                   (status >= 0 && status < STATUS.length)? STATUS[status] : ArduinoI2C.Status.ERROR,
+                   buffer.getLong(offset + 32),
+                   buffer.getLong(offset + 40),
+                   buffer.getLong(offset + 48),
+                   buffer.getLong(offset + 56),
+                   buffer.getLong(offset + 64),
+                   buffer.getDouble(offset + 72),
+                   buffer.getDouble(offset + 80));
+        record.setEstimate(buffer.getDouble(offset + 88),
+                           buffer.getDouble(offset + 96),
+                           buffer.getDouble(offset + 104),
+                           buffer.getDouble(offset + 112));
+        record.setControl(buffer.getInt(offset + 124),
+                          buffer.getLong(offset + 160),
+                          buffer.getDouble(offset + 128),
+                          buffer.getDouble(offset + 136),
+                          buffer.getDouble(offset + 144),
+                          buffer.getDouble(offset + 152));
+        record.setStrategy(buffer.getInt(offset + 176),
+                           buffer.getDouble(offset + 168));
+    }
+
+    /**
+     * @return Anzahl aller geschriebenen Saetze
+     */
+    public long getRecordCount()
+    {
+        return this.recordCount;
+    }
+
+    /**
+     * @return true, falls die Aufzeichnung nach einem Fehler beendet wurde
+     */
+    public boolean isFailed()
+    {
+        return this.failed;
+    }
+
+    /**
+     * @return the directory
+     */
+    public File getDirectory()
+    {
+        return this.directory;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.directory)
+                                  .append(" segments=")
+                                  .append(this.segment + 1)
+                                  .append(" records=")
+                                  .append(this.recordCount)
+                                  .append(this.failed? " failed" : "")
+                                  .append("]")
+                                  .toString();
+    }
+}
@@ -0,0 +1,338 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HeadlessMain - Start ohne Oberflaeche (z.B. als Dienst auf dem Raspi)...
+ * <p>
+ * Es werden nur das Model und der Regelzyklus angelegt, SwingWindow, View und
+ * Controller entfallen (es werden keine AWT-/Swing-Klassen geladen). Die
+ * Einstellungen stammen aus der Datei system.properties, optional ergaenzt um
+ * eine als Argument angegebene Datei, die Bedienung erfolgt ueber Kommandos
+ * zeilenweise von der Standardeingabe (vgl. execute()).
+ * </p>
+ * <p>
+ * Beim Beenden (Kommando quit, Ende der JVM z.B. durch SIGTERM) wird ueber
+ * einen Shutdown-Hook Model.shutdown() beauftragt, d.h. die Motoren werden
+ * angehalten.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class HeadlessMain
+{
+    /**
+     * logger...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(HeadlessMain.class);
+
+    /**
+     * HEADLESS_ENHANCEMENT_KEY = "headlessEnhancement" - Key in der properties-Datei,
+     * Reglerverstaerkung beim Start ohne Oberflaeche...
+     */
+    public final static String HEADLESS_ENHANCEMENT_KEY = "headlessEnhancement";
+
+    /**
+     * HEADLESS_MAX_VALUE_KEY = "headlessMaxValue" - Key in der properties-Datei,
+     * Grenzwert der Stellgroessen beider Motoren beim Start ohne Oberflaeche...
+     */
+    public final static String HEADLESS_MAX_VALUE_KEY = "headlessMaxValue";
+
+    /**
+     * HEADLESS_CONTROL_KEY = "headlessControl" - Key in der properties-Datei,
+     * Regelung eingeschaltet (true/false)...
+     */
+    public final static String HEADLESS_CONTROL_KEY = "headlessControl";
+
+    /**
+     * HEADLESS_SYNC_KEY = "headlessSync" - Key in der properties-Datei,
+     * Gleichlauf eingeschaltet (true/false)...
+     */
+    public final static String HEADLESS_SYNC_KEY = "headlessSync";
+
+    /**
+     * HEADLESS_DESTINATION_KEY = "headlessDestination" - Key in der properties-Datei,
+     * erster Sollwert in Umdrehungen...
+     */
+    public final static String HEADLESS_DESTINATION_KEY = "headlessDestination";
+
+    /**
+     * HEADLESS_AUTO_START_KEY = "headlessAutoStart" - Key in der properties-Datei,
+     * true: Start der Kommunikation ohne Kommando start...
+     */
+    public final static String HEADLESS_AUTO_START_KEY = "headlessAutoStart";
+
+    /**
+     * HELP - Uebersicht der Kommandos
+     */
+    private final static String HELP = "start | stop | reset | dest <Umdrehungen> | gain <Verstaerkung> | max <Grenzwert> [<Grenzwert MB>]"
+                                     + " | control on|off | sync on|off | strategy <Name> | profile <Art> | autotune [result] | status | stats | quit";
+
+    /**
+     * model...
+     */
+    private final Model model;
+
+    /**
+     * isShutdown - Kennung, Model.shutdown() ist beauftragt
+     */
+    private final AtomicBoolean isShutdown = new AtomicBoolean(false);
+
+    /**
+     * main()-Funktionalitaet...
+     * @param args optional: Datei mit weiteren Einstellungen (ueberschreibt system.properties)
+     */
+    public static void main(String[] args)
+    {
+        // Keine Anzeige, AWT wird nicht initialisiert...
+        System.setProperty("java.awt.headless", "true");
+
+        final java.util.Properties properties = new java.util.Properties();
+        try (InputStream inputStream = HeadlessMain.class.getResourceAsStream(SwingMain.PROPERTIES_FILE))
+        {
+            properties.load(inputStream);
+        }
+        catch (Exception exception)
+        {
+            // Wenn kein Zugriff auf die Property-Datei, dann Applikation beenden!
+            System.err.println("Can't read the properties file '" + SwingMain.PROPERTIES_FILE + "'! ");
+            System.exit(0);
+        }
+        if (args.length > 0)
+        {
+            try (InputStream inputStream = new FileInputStream(args[0]))
+            {
+                properties.load(inputStream);
+            }
+            catch (IOException exception)
+            {
+                System.err.println("Can't read the properties file '" + args[0] + "'! ");
+                System.exit(0);
+            }
+        }
+
+        final HeadlessMain headlessMain = new HeadlessMain(properties);
+        headlessMain.readCommands(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * HeadlessMain(Properties properties) - Model anlegen, Einstellungen uebernehmen
+     * und ggf. starten...
+     * @param properties Systemeinstellungen
+     */
+    public HeadlessMain(java.util.Properties properties)
+    {
+        this.model = new Model(properties);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                shutdown();
+            }
+        }, "shutdown"));
+
+        // Einstellungen, die sonst ueber die View erfolgen...
+        final BigDecimal maxValue = Model.getBigDecimalProperty(properties, HEADLESS_MAX_VALUE_KEY, BigDecimal.ONE)
+                                         .setScale(Model.SCALE_MX_MAX_VALUE, BigDecimal.ROUND_HALF_UP);
+        this.model.setProperty(Model.MAX_VALUE_MA_KEY, maxValue);
+        this.model.setProperty(Model.MAX_VALUE_MB_KEY, maxValue);
+        this.model.setProperty(Model.ENHANCEMENT_KEY, Model.getBigDecimalProperty(properties, HEADLESS_ENHANCEMENT_KEY, BigDecimal.ONE)
+                                                           .setScale(Model.SCALE_ENHANCEMENT, BigDecimal.ROUND_HALF_UP));
+        this.model.setProperty(Model.CONTROL_KEY, Boolean.valueOf(Model.getBooleanProperty(properties, HEADLESS_CONTROL_KEY, true)));
+        this.model.setProperty(Model.SYNC_KEY, Boolean.valueOf(Model.getBooleanProperty(properties, HEADLESS_SYNC_KEY, false)));
+        // Ohne (gueltigen) Eintrag keine Zielvorgabe...
+        final BigDecimal destination = Model.getBigDecimalProperty(properties, HEADLESS_DESTINATION_KEY, null);
+        if (destination != null)
+        {
+            this.model.setDestination(destination);
+        }
+        if (Model.getBooleanProperty(properties, HEADLESS_AUTO_START_KEY, false))
+        {
+            this.model.doStart();
+        }
+        logger.info("HeadlessMain gestartet, Kommandos: " + HELP);
+    }
+
+    /**
+     * readCommands(BufferedReader reader) - Kommandos zeilenweise ausfuehren, bis
+     * quit oder das Ende der Eingabe (dann laeuft der Regelzyklus bis zum Ende
+     * der JVM weiter, z.B. als Dienst mit &lt;/dev/null)...
+     * @param reader
+     */
+    private void readCommands(BufferedReader reader)
+    {
+        try
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                final String reply = execute(line);
+                if (reply != null)
+                {
+                    System.out.println(reply);
+                }
+                if (this.isShutdown.get())
+                {
+                    System.exit(0);
+                }
+            }
+        }
+        catch (IOException exception)
+        {
+            logger.error(exception.toString(), exception);
+        }
+        logger.info("Ende der Eingabe, Regelzyklus laeuft weiter...");
+        while (true)
+        {
+            try
+            {
+                Thread.sleep(Long.MAX_VALUE);
+            }
+            catch (InterruptedException exception)
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * execute(String line) - ein Kommando ausfuehren...
+     * @param line Kommando mit Argumenten (durch Leerzeichen getrennt)
+     * @return Antwort (OK ... bzw. ERR ...), null bei einer leeren Zeile
+     */
+    public String execute(String line)
+    {
+        final String[] words = line.trim().split("\\s+");
+        if (words[0].isEmpty() || words[0].startsWith("#"))
+        {
+            return null;
+        }
+        final String command = words[0].toLowerCase(Locale.ROOT);
+        try
+        {
+            switch (command)
+            {
+                case "start":
+                    this.model.doStart();
+                    return "OK";
+                case "stop":
+                    this.model.doStop();
+                    return "OK";
+                case "reset":
+                    this.model.doReset();
+                    return "OK";
+                case "dest":
+                    this.model.setDestination(new BigDecimal(argument(words, 1)));
+                    return "OK " + this.model.getNumberSetPoint();
+                case "gain":
+                    this.model.setProperty(Model.ENHANCEMENT_KEY, new BigDecimal(argument(words, 1)).setScale(Model.SCALE_ENHANCEMENT, BigDecimal.ROUND_HALF_UP));
+                    return "OK " + this.model.getEnhancement();
+                case "max":
+                {
+                    final BigDecimal maxValueMA = new BigDecimal(argument(words, 1)).setScale(Model.SCALE_MX_MAX_VALUE, BigDecimal.ROUND_HALF_UP);
+                    final BigDecimal maxValueMB = (words.length > 2)? new BigDecimal(words[2]).setScale(Model.SCALE_MX_MAX_VALUE, BigDecimal.ROUND_HALF_UP) : maxValueMA;
+                    this.model.setProperty(Model.MAX_VALUE_MA_KEY, maxValueMA);
+                    this.model.setProperty(Model.MAX_VALUE_MB_KEY, maxValueMB);
+                    return "OK " + maxValueMA + " " + maxValueMB;
+                }
+                case "control":
+                    this.model.setProperty(Model.CONTROL_KEY, Boolean.valueOf(onOff(argument(words, 1))));
+                    return "OK";
+                case "sync":
+                    this.model.setProperty(Model.SYNC_KEY, Boolean.valueOf(onOff(argument(words, 1))));
+                    return "OK";
+                case "strategy":
+                    return this.model.selectControlStrategy(argument(words, 1))? "OK" : ("ERR " + words[1] + " unbekannt");
+                case "profile":
+                    this.model.setMotionProfileType(MotionProfile.Type.valueOf(argument(words, 1).toUpperCase(Locale.ROOT)));
+                    return "OK " + this.model.getMotionProfileType();
+                case "autotune":
+                    if (words.length > 1 && "result".equalsIgnoreCase(words[1]))
+                    {
+                        return "OK " + this.model.getRelayAutotuner().toString();
+                    }
+                    return this.model.selectControlStrategy(RelayAutotuner.NAME)? "OK" : ("ERR " + RelayAutotuner.NAME + " unbekannt");
+                case "status":
+                    return "OK " + this.model.getI2cStatus() + " " + this.model.getControlStrategy().getName() + " " + this.model.getData();
+                case "stats":
+                    return "OK " + this.model.getCycleStatistics();
+                case "quit":
+                    shutdown();
+                    return "OK";
+                case "help":
+                    return "OK " + HELP;
+                default:
+                    return "ERR " + words[0] + " unbekannt, " + HELP;
+            }
+        }
+        catch (IllegalArgumentException exception)
+        {
+            // auch NumberFormatException...
+            return "ERR " + exception.getMessage();
+        }
+    }
+
+    /**
+     * shutdown() - Model.shutdown() (nur einmal, vgl. Shutdown-Hook)...
+     */
+    private void shutdown()
+    {
+        if (this.isShutdown.compareAndSet(false, true))
+        {
+            this.model.doStop();
+            this.model.shutdown();
+        }
+    }
+
+    /**
+     * argument(String[] words, int index)
+     * @return words[index]
+     * @throws IllegalArgumentException falls das Argument fehlt
+     */
+    private static String argument(String[] words, int index)
+    {
+        if (index >= words.length)
+        {
+            throw new IllegalArgumentException(words[0] + ": Argument fehlt");
+        }
+        return words[index];
+    }
+
+    /**
+     * onOff(String value)
+     * @return true bei on/true/1, false bei off/false/0
+     * @throws IllegalArgumentException sonst
+     */
+    private static boolean onOff(String value)
+    {
+        switch (value.toLowerCase(Locale.ROOT))
+        {
+            case "on":
+            case "true":
+            case "1":
+                return true;
+            case "off":
+            case "false":
+            case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException(value + ": on/off erwartet");
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/**
+ *
+ */
+package gui;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LogHistogram - Histogramm fester Groesse mit logarithmischen Klassen
+ * (z.B. fuer Zeiten in ns)...
+ * <p>
+ * Werte &lt; 128 werden exakt gezaehlt, darueber ist jede Zweierpotenz in
+ * SUB_BUCKETS = 128 gleich breite Klassen geteilt, d.h. der relative Fehler
+ * eines Perzentils ist hoechstens 1/128 (&lt; 0.8%). Der gesamte Wertebereich
+ * von long benoetigt damit BUCKETS = 7296 Zaehler (ca. 57 KB), record() legt 
+ * keine Objekte an.
+ * </p>
+ * <p>
+ * record() wird von einem Thread (dem Regelzyklus) beauftragt, gelesen wird
+ * aus beliebigen Threads. Ein reset() waehrend record() kann einzelne Werte
+ * verlieren.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class LogHistogram
+{
+    /**
+     * SUB_BUCKET_BITS = 7 - 2^7 = 128 Klassen je Zweierpotenz
+     */
+    private final static int SUB_BUCKET_BITS = 7;
+
+    /**
+     * SUB_BUCKETS = 128 - Klassen je Zweierpotenz
+     */
+    private final static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * BUCKETS - Anzahl der Klassen fuer den Wertebereich 0 ... Long.MAX_VALUE
+     */
+    final static int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * name - Bezeichnung zu Protokollzwecken
+     */
+    private final String name;
+
+    /**
+     * counts - Zaehler je Klasse
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * count - Anzahl aller Werte
+     */
+    private final AtomicLong count = new AtomicLong(0L);
+
+    /**
+     * sum - Summe aller Werte (fuer den Mittelwert)
+     */
+    private final AtomicLong sum = new AtomicLong(0L);
+
+    /**
+     * min - kleinster Wert
+     */
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * max - groesster Wert
+     */
+    private final AtomicLong max = new AtomicLong(0L);
+
+    /**
+     * LogHistogram(String name)
+     * @param name Bezeichnung zu Protokollzwecken
+     */
+    public LogHistogram(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * record(long value) - Wert zaehlen (negative Werte zaehlen als 0)...
+     * @param value
+     */
+    public void record(long value)
+    {
+        final long v = Math.max(0L, value);
+        this.counts.incrementAndGet(indexOf(v));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(v);
+        if (v < this.min.get())
+        {
+            this.min.set(v);
+        }
+        if (v > this.max.get())
+        {
+            this.max.set(v);
+        }
+    }
+
+    /**
+     * reset() - alle Zaehler zuruecksetzen...
+     */
+    public void reset()
+    {
+        for (int index = 0; index < BUCKETS; index++)
+        {
+            this.counts.set(index, 0L);
+        }
+        this.count.set(0L);
+        this.sum.set(0L);
+        this.min.set(Long.MAX_VALUE);
+        this.max.set(0L);
+    }
+
+    /**
+     * indexOf(long value) - Klasse des Wertes (value &gt;= 0)...
+     * @param value
+     * @return Index 0 ... BUCKETS - 1
+     */
+    static int indexOf(long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int)value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int)(value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * upperBoundOf(int index) - groesster Wert der Klasse index...
+     * @param index
+     * @return obere Grenze (einschliesslich)
+     */
+    static long upperBoundOf(int index)
+    {
+        if (index < SUB_BUCKETS)
+        {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long mantissa = (index % SUB_BUCKETS) + SUB_BUCKETS;
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final long upper = ((mantissa + 1L) << shift) - 1L;
+        // Oberste Klasse: Ueberlauf auf Long.MAX_VALUE begrenzen...
+        return (upper < 0L)? Long.MAX_VALUE : upper;
+    }
+
+    /**
+     * getValueAtPercentile(double percentile) - Wert, unter dem percentile Prozent
+     * der Werte liegen (obere Grenze der Klasse, hoechstens max)...
+     * @param percentile 0.0 ... 100.0
+     * @return Wert (0, falls keine Werte)
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        final long total = this.count.get();
+        if (total <= 0L)
+        {
+            return 0L;
+        }
+        final double p = Math.max(0.0, Math.min(100.0, percentile));
+        final long rank = Math.max(1L, (long)Math.ceil(p / 100.0 * total));
+        long sum = 0L;
+        for (int index = 0; index < BUCKETS; index++)
+        {
+            sum += this.counts.get(index);
+            if (sum >= rank)
+            {
+                return Math.min(upperBoundOf(index), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    /**
+     * @return Anzahl aller Werte
+     */
+    public long getCount()
+    {
+        return this.count.get();
+    }
+
+    /**
+     * @return Summe aller Werte
+     */
+    public long getSum()
+    {
+        return this.sum.get();
+    }
+
+    /**
+     * @return kleinster Wert (0, falls keine Werte)
+     */
+    public long getMin()
+    {
+        final long min = this.min.get();
+        return (min == Long.MAX_VALUE)? 0L : min;
+    }
+
+    /**
+     * @return Mittelwert (0.0, falls keine Werte)
+     */
+    public double getMean()
+    {
+        final long count = this.count.get();
+        return (count > 0L)? ((double)this.sum.get() / count) : 0.0;
+    }
+
+    /**
+     * @return groesster Wert
+     */
+    public long getMax()
+    {
+        return this.max.get();
+    }
+
+    /**
+     * @return the name
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken, Werte (ns) in ns bzw. us...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append(this.name)
+                                  .append(" [n=")
+                                  .append(getCount())
+                                  .append(" min=")
+                                  .append(formatNanos(getMin()))
+                                  .append(" avg=")
+                                  .append(formatNanos(Math.round(getMean())))
+                                  .append(" p50=")
+                                  .append(formatNanos(getValueAtPercentile(50.0)))
+                                  .append(" p99=")
+                                  .append(formatNanos(getValueAtPercentile(99.0)))
+                                  .append(" p99.9=")
+                                  .append(formatNanos(getValueAtPercentile(99.9)))
+                                  .append(" max=")
+                                  .append(formatNanos(getMax()))
+                                  .append("]")
+                                  .toString();
+    }
+
+    /**
+     * formatNanos(long nanos) - Dauer lesbar: unter 10us in ns, sonst in us...
+     * @param nanos Dauer in ns
+     * @return z.B. "850ns" oder "5013us"
+     */
+    static String formatNanos(long nanos)
+    {
+        return (nanos < 10_000L)? (nanos + "ns") : ((nanos / 1000L) + "us");
+    }
+}
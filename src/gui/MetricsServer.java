@@ -0,0 +1,351 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * MetricsServer - stellt die Kenngroessen des Regelzyklus im Textformat von
+ * Prometheus unter http://&lt;host&gt;:&lt;port&gt;/metrics bereit (auf Basis
+ * des HttpServer des JDK)...
+ * <p>
+ * Die Zustandsgroessen (counter, cycleTime, token, numberMA/MB, outputMA/MB...)
+ * stammen aus einer Kopie des zuletzt veroeffentlichten CycleRecord
+ * (TelemetryRing.readLatest()), d.h. sie gehoeren immer zum selben Zyklus.
+ * Zaehler und Histogramme werden ohne Sperre gelesen, der Regelzyklus wird
+ * durch eine Abfrage nicht aufgehalten.
+ * </p>
+ * <p>
+ * Die Abfragen werden nacheinander im Thread des HttpServer bearbeitet.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class MetricsServer
+{
+    /**
+     * logger...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+
+    /**
+     * PATH = "/metrics" - Pfad der Abfrage
+     */
+    public final static String PATH = "/metrics";
+
+    /**
+     * CONTENT_TYPE - Textformat von Prometheus (Version 0.0.4)
+     */
+    private final static String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * PREFIX = "raspberry_" - Praefix aller Kenngroessen
+     */
+    private final static String PREFIX = "raspberry_";
+
+    /**
+     * model - Quelle der Kenngroessen
+     */
+    private final Model model;
+
+    /**
+     * server - HttpServer des JDK
+     */
+    private final HttpServer server;
+
+    /**
+     * MetricsServer(Model model, int port)
+     * @param model Quelle der Kenngroessen
+     * @param port Port der Abfrage
+     * @throws IOException falls der Port nicht belegt werden kann
+     */
+    public MetricsServer(Model model, int port) throws IOException
+    {
+        this.model = Objects.requireNonNull(model, "model must not be null!");
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.createContext(PATH, new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                handleMetrics(exchange);
+            }
+        });
+        // Bearbeitung im Thread des HttpServer...
+        this.server.setExecutor(null);
+    }
+
+    /**
+     * start() - HttpServer starten...
+     */
+    public void start()
+    {
+        this.server.start();
+        logger.info("MetricsServer: http://" + this.server.getAddress().getHostString() + ":" + getPort() + PATH);
+    }
+
+    /**
+     * stop() - HttpServer beenden (laufende Abfragen werden abgebrochen)...
+     */
+    public void stop()
+    {
+        this.server.stop(0);
+        logger.debug("MetricsServer beendet.");
+    }
+
+    /**
+     * getPort()
+     * @return belegter Port
+     */
+    public int getPort()
+    {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * handleMetrics(HttpExchange exchange) - Bearbeitung einer Abfrage...
+     * @param exchange
+     * @throws IOException
+     */
+    private void handleMetrics(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            final String method = exchange.getRequestMethod();
+            if (!PATH.equals(exchange.getRequestURI().getPath()))
+            {
+                exchange.sendResponseHeaders(404, -1L);
+                return;
+            }
+            if (!"GET".equals(method) && !"HEAD".equals(method))
+            {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1L);
+                return;
+            }
+            final byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(method))
+            {
+                exchange.sendResponseHeaders(200, -1L);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody())
+            {
+                output.write(body);
+            }
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    /**
+     * scrape() - alle Kenngroessen im Textformat von Prometheus...
+     * @return Text
+     */
+    String scrape()
+    {
+        final StringBuilder builder = new StringBuilder(8192);
+
+        // 1.) Zustandsgroessen des zuletzt veroeffentlichten Zyklus...
+        final CycleRecord record = new CycleRecord();
+        final long sequence = this.model.getTelemetryRing().readLatest(record);
+        header(builder, "telemetry_records_total", "counter", "Anzahl der veroeffentlichten Regelzyklen");
+        sample(builder, "telemetry_records_total", null, sequence + 1L);
+        if (sequence >= 0L)
+        {
+            header(builder, "counter", "gauge", "Zaehler des Regelzyklus");
+            sample(builder, "counter", null, record.getCounter());
+            header(builder, "cycle_time_seconds", "gauge", "Periode des letzten Regelzyklus");
+            sample(builder, "cycle_time_seconds", null, toSeconds(record.getCycleTimeNanos()));
+            header(builder, "token", "gauge", "token der Kommunikation mit dem Arduino");
+            sample(builder, "token", null, record.getToken());
+            header(builder, "set_point", "gauge", "Sollwert (Impulse)");
+            sample(builder, "set_point", null, record.getNumberSetPoint());
+            header(builder, "number", "gauge", "Istwert (Impulse)");
+            sample(builder, "number", "motor=\"MA\"", record.getNumberMA());
+            sample(builder, "number", "motor=\"MB\"", record.getNumberMB());
+            header(builder, "total", "gauge", "Impulse seit Start");
+            sample(builder, "total", "motor=\"MA\"", record.getTotalMA());
+            sample(builder, "total", "motor=\"MB\"", record.getTotalMB());
+            header(builder, "output", "gauge", "Stellgroesse");
+            sample(builder, "output", "motor=\"MA\"", record.getOutputMA());
+            sample(builder, "output", "motor=\"MB\"", record.getOutputMB());
+            header(builder, "velocity", "gauge", "geschaetzte Geschwindigkeit (Impulse/s)");
+            sample(builder, "velocity", "motor=\"MA\"", record.getVelocityMA());
+            sample(builder, "velocity", "motor=\"MB\"", record.getVelocityMB());
+        }
+
+        // 2.) Status der Kommunikation und Uebergaenge...
+        final ArduinoI2C.Status[] states = ArduinoI2C.Status.values();
+        final ArduinoI2C.Status current = this.model.getI2cStatus();
+        header(builder, "i2c_status", "gauge", "Status der Kommunikation mit dem Arduino (1: aktueller Status)");
+        for (ArduinoI2C.Status state : states)
+        {
+            sample(builder, "i2c_status", "status=\"" + state + "\"", (state == current)? 1L : 0L);
+        }
+        header(builder, "i2c_status_transitions_total", "counter", "Uebergaenge des Status der Kommunikation");
+        for (ArduinoI2C.Status from : states)
+        {
+            for (ArduinoI2C.Status to : states)
+            {
+                if (from != to)
+                {
+                    sample(builder, "i2c_status_transitions_total",
+                           "from=\"" + from + "\",to=\"" + to + "\"",
+                           this.model.getI2cTransitions(from, to));
+                }
+            }
+        }
+
+        // 3.) Fehlerzaehler...
+        final BusRecovery busRecovery = this.model.getBusRecovery();
+        header(builder, "bus_failures_total", "counter", "Busfehler bzw. inkonsistente Antworten");
+        sample(builder, "bus_failures_total", null, busRecovery.getFailures());
+        header(builder, "bus_failure_bursts_total", "counter", "Fehlerfolgen");
+        sample(builder, "bus_failure_bursts_total", null, busRecovery.getBursts());
+        header(builder, "bus_recoveries_total", "counter", "Wiederaufnahmen der Kommunikation");
+        sample(builder, "bus_recoveries_total", null, busRecovery.getRecoveries());
+        header(builder, "bus_recovery_state", "gauge", "Zustand der Fehlerbehandlung (1: aktueller Zustand)");
+        final BusRecovery.State recoveryState = busRecovery.getState();
+        for (BusRecovery.State state : BusRecovery.State.values())
+        {
+            sample(builder, "bus_recovery_state", "state=\"" + state + "\"", (state == recoveryState)? 1L : 0L);
+        }
+        header(builder, "bus_overruns", "gauge", "ausgelassene Zyklen im Pipeline-Betrieb seit Start");
+        sample(builder, "bus_overruns", null, this.model.getBusOverruns());
+        header(builder, "crc_errors_total", "counter", "Antworten des Arduino mit falscher Pruefsumme");
+        sample(builder, "crc_errors_total", null, this.model.getCrcErrors());
+        final ControlLoop controlLoop = this.model.getControlLoop();
+        if (controlLoop != null)
+        {
+            header(builder, "control_loop_overruns_total", "counter", "Ueberschreitungen der Periode im ControlLoop");
+            sample(builder, "control_loop_overruns_total", null, controlLoop.getOverrunCount());
+            header(builder, "control_loop_coalesced_total", "counter", "zusammengefasste Anstoesse im ControlLoop");
+            sample(builder, "control_loop_coalesced_total", null, controlLoop.getCoalescedCount());
+        }
+
+        // 4.) Zeitverhalten (Histogramme)...
+        final CycleTiming cycleTiming = this.model.getCycleTiming();
+        header(builder, "deadline_misses", "gauge", "Fristverletzungen seit Start");
+        sample(builder, "deadline_misses", null, cycleTiming.getMisses());
+        summary(builder, "cycle_period_seconds", "Periode des Regelzyklus seit Start", cycleTiming.getPeriod());
+        header(builder, "cycle_jitter_seconds", "gauge", "Standardabweichung der Periode seit Start");
+        sample(builder, "cycle_jitter_seconds", null, cycleTiming.getPeriodJitterNanos() * 1.0e-9);
+        summary(builder, "cycle_execution_seconds", "Ausfuehrungszeit des Regelzyklus seit Start", cycleTiming.getExecution());
+        summary(builder, "cycle_lateness_seconds", "Fristueberschreitung des Regelzyklus seit Start", cycleTiming.getLateness());
+        final PhaseTimers phaseTimers = this.model.getPhaseTimers();
+        header(builder, "cycle_phase_seconds", "summary", "Dauer der Phasen des Regelzyklus seit Start");
+        for (PhaseTimers.Phase phase : PhaseTimers.Phase.values())
+        {
+            quantiles(builder, "cycle_phase_seconds", "phase=\"" + phase.name().toLowerCase() + "\"", phaseTimers.getHistogram(phase));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * header(StringBuilder builder, String name, String type, String help) - HELP- und TYPE-Zeile...
+     */
+    private static void header(StringBuilder builder, String name, String type, String help)
+    {
+        builder.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * sample(StringBuilder builder, String name, String labels, long value) - eine Zeile...
+     */
+    private static void sample(StringBuilder builder, String name, String labels, long value)
+    {
+        name(builder, name, labels).append(value).append('\n');
+    }
+
+    /**
+     * sample(StringBuilder builder, String name, String labels, double value) - eine Zeile...
+     */
+    private static void sample(StringBuilder builder, String name, String labels, double value)
+    {
+        name(builder, name, labels).append(format(value)).append('\n');
+    }
+
+    /**
+     * name(StringBuilder builder, String name, String labels) - Name mit Labels...
+     */
+    private static StringBuilder name(StringBuilder builder, String name, String labels)
+    {
+        builder.append(PREFIX).append(name);
+        if (labels != null)
+        {
+            builder.append('{').append(labels).append('}');
+        }
+        return builder.append(' ');
+    }
+
+    /**
+     * summary(StringBuilder builder, String name, String help, LogHistogram histogram) -
+     * Histogramm als summary (Werte in s)...
+     */
+    private static void summary(StringBuilder builder, String name, String help, LogHistogram histogram)
+    {
+        header(builder, name, "summary", help);
+        quantiles(builder, name, null, histogram);
+    }
+
+    /**
+     * quantiles(StringBuilder builder, String name, String labels, LogHistogram histogram) -
+     * Perzentile, Summe und Anzahl eines Histogramms (Werte in s)...
+     */
+    private static void quantiles(StringBuilder builder, String name, String labels, LogHistogram histogram)
+    {
+        final String prefix = (labels != null)? (labels + ",") : "";
+        sample(builder, name, prefix + "quantile=\"0.5\"", toSeconds(histogram.getValueAtPercentile(50.0)));
+        sample(builder, name, prefix + "quantile=\"0.99\"", toSeconds(histogram.getValueAtPercentile(99.0)));
+        sample(builder, name, prefix + "quantile=\"0.999\"", toSeconds(histogram.getValueAtPercentile(99.9)));
+        sample(builder, name, prefix + "quantile=\"1\"", toSeconds(histogram.getMax()));
+        sample(builder, name + "_sum", labels, toSeconds(histogram.getSum()));
+        sample(builder, name + "_count", labels, histogram.getCount());
+    }
+
+    /**
+     * toSeconds(long nanos)
+     * @param nanos Dauer in ns
+     * @return Dauer in s
+     */
+    private static double toSeconds(long nanos)
+    {
+        return nanos * 1.0e-9;
+    }
+
+    /**
+     * format(double value) - Zahl im Textformat von Prometheus...
+     */
+    private static String format(double value)
+    {
+        if (Double.isNaN(value))
+        {
+            return "NaN";
+        }
+        if (Double.isInfinite(value))
+        {
+            return (value > 0.0)? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+}
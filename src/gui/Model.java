@@ -2,18 +2,28 @@ package gui;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.time.Duration;
-import java.time.Instant;
+import java.text.DecimalFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.pi4j.io.gpio.GpioController;
 import com.pi4j.io.gpio.GpioFactory;
-import com.pi4j.io.gpio.GpioPin;
 import com.pi4j.io.gpio.GpioPinDigitalInput;
 import com.pi4j.io.gpio.GpioPinDigitalOutput;
 import com.pi4j.io.gpio.Pin;
@@ -24,6 +34,7 @@ import com.pi4j.io.gpio.RaspiPin;
 import com.pi4j.io.gpio.event.GpioPinDigitalStateChangeEvent;
 import com.pi4j.io.gpio.event.GpioPinListenerDigital;
 import com.pi4j.io.i2c.I2CBus;
+import com.pi4j.io.i2c.I2CDevice;
 import com.pi4j.io.i2c.I2CFactory;
 import com.pi4j.io.i2c.I2CFactory.UnsupportedBusNumberException;
 
@@ -96,9 +107,13 @@ public class Model
     public final static int MD_HAT_FREQUENCY = 100;
 
     /**
-     * motorDriverHAT - Referenz auf den MotorDriverHAT...
+     * motorDriver - Referenz auf die PWM-Ausgabe an die Motoren...
+     * <p>
+     * Auf dem Raspi der MotorDriverHAT (vgl. MotorDriverHATDevice), 
+     * bei Simulation die virtuellen Motoren (vgl. SimulatedMotors).
+     * </p>
      */
-    private final MotorDriverHAT motorDriverHAT;
+    private final MotorDriver motorDriver;
     
     /**
      * counter - Taktzaehler (keine weitere funktionale Bedeutung)
@@ -112,10 +127,13 @@ public class Model
     private long counter = 0L;
     
     /**
-     * cycleTime - Zykluszeit (Taktzeit der Beauftragung durch den Arduino), 
+     * cycleTimeNanos - Zykluszeit in ns (Taktzeit der Beauftragung durch den Arduino), 
      * wird durch Differenzbildung (vgl. this.past) ermittelt...
+     * <p>
+     * Die Umwandlung in BigDecimal (Sekunden) erfolgt erst zur Anzeige (vgl. CycleRecord.toData()).
+     * </p>
      */
-    private BigDecimal cycleTime = BigDecimal.ZERO;
+    private long cycleTimeNanos = 0L;
     
     /**
      * SCALE_CYCLE_TIME = 3 - Genauigikeit bei der Darstellung der Zeit 
@@ -124,14 +142,64 @@ public class Model
     public static int SCALE_CYCLE_TIME = 3;
     
     /**
-     * Instant past - der letzter Zeitstempel...
+     * long past - der letzter Zeitstempel (System.nanoTime())...
      * <p>
      * Der Takt wird durch den ArduinoI2C Uno vorgegeben. 
      * In past wird der letzte Zeitstempel abgelegt 
      * zur Bestimmung der Taktdauer T zwischen now und this.past. 
      * </p>
      */
-    private Instant past = null;
+    private long past = 0L;
+    
+    /**
+     * cycleFlags - Kennungen des aktuellen Zyklus fuer den CycleRecord 
+     * (vgl. CycleRecord.FLAG_CONTROL...)
+     */
+    private int cycleFlags = 0;
+    
+    /**
+     * hasPast - Kennung, this.past ist gesetzt (nicht bei der ersten Beauftragung)...
+     */
+    private boolean hasPast = false;
+    
+    /**
+     * telemetryRing - Ringpuffer mit vorab angelegten CycleRecord-Objekten...
+     * <p>
+     * Der Regelzyklus traegt seine Zustandsgroessen jeweils in den naechsten
+     * CycleRecord ein und veroeffentlicht ihn (ohne Sperre, ohne neue Objekte).
+     * Die Verbraucher (View, Logger...) lesen mit eigenem TelemetryRing.Consumer
+     * in ihrem Tempo, ein langsamer Verbraucher haelt den Regelzyklus nicht auf.
+     * </p>
+     */
+    private final TelemetryRing telemetryRing;
+    
+    /**
+     * telemetryLogger - protokolliert die Zustandsgroessen der Regelzyklen 
+     * (nur wenn TelemetryLogger auf DEBUG steht, sonst null)...
+     */
+    private final TelemetryDrainer telemetryLogger;
+    
+    /**
+     * flightRecorder - binaere Aufzeichnung der Regelzyklen in Segmentdateien
+     * (null: ohne flightRecorderDirectory)...
+     */
+    private final FlightRecorder flightRecorder;
+    
+    /**
+     * flightRecorderDrainer - betreibt den flightRecorder ausserhalb des Regelzyklus
+     */
+    private final TelemetryDrainer flightRecorderDrainer;
+    
+    /**
+     * telemetryHistory - Verlauf der Regelzyklen in mehreren Aufloesungen
+     * (null: ohne historyCapacity)...
+     */
+    private final TelemetryHistory telemetryHistory;
+    
+    /**
+     * telemetryHistoryDrainer - fuellt die telemetryHistory ausserhalb des Regelzyklus
+     */
+    private final TelemetryDrainer telemetryHistoryDrainer;
     
     /**
      * Referenz auf den GPIO-controller...
@@ -148,8 +216,8 @@ public class Model
     public final static int ARDUINO_ADDRESS = 0x08; 
        
     /**
-     * arduinoI2C - Referenz auf Hilfsklasse zur Kommunikation 
-     * mit dem Arduino. 
+     * arduinoDevice - Referenz auf die Kommunikation mit dem Arduino
+     * (auf dem Raspi ArduinoI2CDevice, bei Simulation SimulatedArduino). 
      * <p>
      * Raspberry ist der I2C-Master, Arduino der
      * I2C-Slave, angestossen wird die Kommunikation aber durch
@@ -157,7 +225,59 @@ public class Model
      * einstellbar).
      * </p>
      */
-    private final ArduinoI2C arduinoI2C;
+    private final ArduinoDevice arduinoDevice;
+    
+    /**
+     * arduinoResponse - nimmt die Antwort des Arduino auf, wird in 
+     * jedem Zyklus wiederverwendet...
+     */
+    private final ArduinoResponse arduinoResponse = new ArduinoResponse();
+    
+    /**
+     * isSimulation - Kennung, der Lauf erfolgt mit simuliertem Arduino und
+     * simulierten Motoren (SimulatedArduino, SimulatedMotors)...
+     * <p>
+     * Vorgabe ist die Simulation, wenn der Lauf nicht auf dem Raspi erfolgt.
+     * Der Regelzyklus laeuft dann in Eigentaktung (ControlLoop.Mode.FIXED_RATE).
+     * </p>
+     */
+    private final boolean isSimulation;
+    
+    /**
+     * SIMULATION_KEY = "simulation" - Key in der properties-Datei, 
+     * Lauf mit Simulation (true/false)
+     */
+    public final static String SIMULATION_KEY = "simulation";
+    
+    /**
+     * SIMULATION_LATENCY_KEY = "simulationLatency" - Key in der properties-Datei, 
+     * simulierte Dauer einer I2C-Transaktion in us
+     */
+    public final static String SIMULATION_LATENCY_KEY = "simulationLatency";
+    
+    /**
+     * SIMULATION_MAX_SPEED_KEY = "simulationMaxSpeed" - Key in der properties-Datei, 
+     * Geschwindigkeit der virtuellen Motoren (Impulse/s) bei PWM = 1.0
+     */
+    public final static String SIMULATION_MAX_SPEED_KEY = "simulationMaxSpeed";
+    
+    /**
+     * SIMULATION_TIME_CONSTANT_KEY = "simulationTimeConstant" - Key in der properties-Datei, 
+     * Zeitkonstante der virtuellen Motoren in ms
+     */
+    public final static String SIMULATION_TIME_CONSTANT_KEY = "simulationTimeConstant";
+    
+    /**
+     * DEFAULT_SIMULATION_MAX_SPEED = 60 - Vorgabe der Geschwindigkeit der virtuellen 
+     * Motoren (Impulse/s), entspricht bei CIRCUMFERENCE = 6 10 Umdrehungen/s
+     */
+    public final static int DEFAULT_SIMULATION_MAX_SPEED = 60;
+    
+    /**
+     * DEFAULT_SIMULATION_TIME_CONSTANT = 100 - Vorgabe der Zeitkonstanten der 
+     * virtuellen Motoren in ms
+     */
+    public final static int DEFAULT_SIMULATION_TIME_CONSTANT = 100;
     
     /**
      * i2cStatus - Status der Kommunikation mit dem Arduino
@@ -170,7 +290,18 @@ public class Model
      * </ul>
      * </p>
      */
-    private ArduinoI2C.Status i2cStatus = ArduinoI2C.Status.NOP;
+    private volatile ArduinoI2C.Status i2cStatus = ArduinoI2C.Status.NOP;
+    
+    /**
+     * I2C_STATUS - ArduinoI2C.Status.values()
+     */
+    private final static ArduinoI2C.Status[] I2C_STATUS = ArduinoI2C.Status.values();
+    
+    /**
+     * i2cTransitions - Anzahl der Uebergaenge von i2cStatus (Index: from * I2C_STATUS.length + to),
+     * vgl. setI2cStatus()
+     */
+    private final AtomicLongArray i2cTransitions = new AtomicLongArray(I2C_STATUS.length * I2C_STATUS.length);
     
     /**
      * token - Kennung zur Identifizierung von Nachrichten zwischen
@@ -198,6 +329,10 @@ public class Model
      * Die Eingabewerte werden in das Model uebertragen und finden sich unter dem Key DESTINATION_KEY
      * in der Map dataMap.
      * </p>
+     * <p>
+     * Der Wert ist immer der Text des Eingabefeldes (String im Format FORMATTED_TEXT_FIELD_PATTERN), 
+     * auch bei Vorgabe ohne View (vgl. setDestination()).
+     * </p>
      */
     public final static String DESTINATION_KEY = "destinationKey";
     
@@ -222,7 +357,194 @@ public class Model
      * numberSetPoint = CIRCUMFERENCE (d.i. Anzahl der Impulse pro Umdrehung) * destination
      * </p>
      */
-    private long numberSetPoint = 0L;
+    private volatile long numberSetPoint = 0L;
+    
+    /**
+     * motionProfile - Bahnplanung vom aktuellen Sollwert zum neuen Sollwert numberSetPoint,
+     * wird nur im Regelzyklus verwendet...
+     */
+    private final MotionProfile motionProfile = new MotionProfile();
+    
+    /**
+     * motionProfileType - Art der Bahnplanung (Vorgabe: MotionProfile.Type.STEP)
+     */
+    private volatile MotionProfile.Type motionProfileType;
+    
+    /**
+     * profileVelocity, profileAcceleration, profileJerk - Grenzen der Bahnplanung 
+     * (Impulse/s, Impulse/s^2, Impulse/s^3)
+     */
+    private final double profileVelocity;
+    private final double profileAcceleration;
+    private final double profileJerk;
+    
+    /**
+     * profileRequest - Anforderung einer neuen Bahnplanung an den Regelzyklus
+     * (PROFILE_NONE, PROFILE_FROM_REFERENCE, PROFILE_FROM_ACTUAL)...
+     */
+    private final AtomicInteger profileRequest = new AtomicInteger(PROFILE_NONE);
+    
+    /**
+     * PROFILE_NONE = 0 - keine neue Bahnplanung
+     */
+    private final static int PROFILE_NONE = 0;
+    
+    /**
+     * PROFILE_FROM_REFERENCE = 1 - neue Bahnplanung ab der aktuellen Fuehrungsgroesse
+     */
+    private final static int PROFILE_FROM_REFERENCE = 1;
+    
+    /**
+     * PROFILE_FROM_ACTUAL = 2 - neue Bahnplanung ab der aktuellen Lage der Motoren (z.B. nach Reset)
+     */
+    private final static int PROFILE_FROM_ACTUAL = 2;
+    
+    /**
+     * profileStartNanos - Beginn der aktuellen Bahnplanung (System.nanoTime())
+     */
+    private long profileStartNanos = 0L;
+    
+    /**
+     * referenceSetPoint - Fuehrungsgroesse des aktuellen Zyklus in Impulsen 
+     * (abgetastete Bahnplanung, gerundet)...
+     */
+    private long referenceSetPoint = 0L;
+    
+    /**
+     * estimatorMA, estimatorMB - Schaetzung von Lage und Geschwindigkeit 
+     * je Motor (Alpha-Beta-Filter), wird nur im Regelzyklus verwendet...
+     */
+    private final VelocityEstimator estimatorMA;
+    private final VelocityEstimator estimatorMB;
+    
+    /**
+     * estimatorReset - Anforderung an den Regelzyklus, die Schaetzung 
+     * auf die aktuelle Lage in Ruhe zu setzen (Start, Reset, Stop)...
+     */
+    private final AtomicBoolean estimatorReset = new AtomicBoolean(true);
+
+    /**
+     * runRequest - Anforderung an den Regelzyklus, die Kommunikation zu beginnen
+     * bzw. zu beenden (RUN_NONE, RUN_START, RUN_STOP), es gilt die zuletzt
+     * gestellte Anforderung...
+     * <p>
+     * doStart()/doStop() laufen im Event-Dispatch-Thread bzw. im Thread des
+     * CommandServer. i2cStatus, token, Impulszaehler und Stellgroessen setzt
+     * nur der Regelzyklus selbst (vgl. applyRunRequests()), ein laufender
+     * Zyklus kann sie damit nicht mehr ueberschreiben.
+     * </p>
+     */
+    private final AtomicInteger runRequest = new AtomicInteger(RUN_NONE);
+
+    /**
+     * RUN_NONE = 0 - keine Anforderung
+     */
+    private final static int RUN_NONE = 0;
+
+    /**
+     * RUN_START = 1 - Kommunikation beginnen (i2cStatus INITIAL)
+     */
+    private final static int RUN_START = 1;
+
+    /**
+     * RUN_STOP = 2 - Kommunikation beenden (i2cStatus NOP), Motoren anhalten
+     */
+    private final static int RUN_STOP = 2;
+
+    /**
+     * resetRequest - Anforderung an den Regelzyklus, token und Lage der Motoren
+     * zurueckzusetzen (vgl. doReset())...
+     */
+    private final AtomicBoolean resetRequest = new AtomicBoolean(false);
+
+    /**
+     * busWorker - Bus-Transaktionen im Pipeline-Betrieb (null: sequentieller Betrieb)
+     */
+    private final BusWorker busWorker;
+    
+    /**
+     * cycleTiming - Periode, Ausfuehrungszeit und Fristverletzungen des Regelzyklus
+     * (Histogramme, je Lauf zurueckgesetzt)
+     */
+    private final CycleTiming cycleTiming;
+    
+    /**
+     * phaseTimers - Dauer der Phasen des Regelzyklus (Histogramme, seit doStart())
+     */
+    private final PhaseTimers phaseTimers = new PhaseTimers();
+    
+    /**
+     * busRecovery - Fehlerbehandlung der Kommunikation mit dem Arduino
+     */
+    private final BusRecovery busRecovery;
+    
+    /**
+     * metricsServer - Kenngroessen im Textformat von Prometheus (null: ohne metricsPort)
+     */
+    private final MetricsServer metricsServer;
+    
+    /**
+     * commandServer - Kommandos und Telemetrie ueber TCP (null: ohne commandPort)
+     */
+    private final CommandServer commandServer;
+    
+    /**
+     * dashboardServer - Anzeige im Browser (null: ohne dashboardPort)
+     */
+    private final DashboardServer dashboardServer;
+    
+    /**
+     * hasBusJob - Kennung, im BusWorker liegt ein (auszuwertender) Auftrag vor...
+     */
+    private boolean hasBusJob = false;
+    
+    /**
+     * motorsHalted - Kennung, nach dem letzten Busfehler wurde 0 erfolgreich an 
+     * beide Motoren ausgegeben (sonst wird das Anhalten in jedem Zyklus wiederholt)...
+     */
+    private boolean motorsHalted = true;
+    
+    /**
+     * pwmSampleNanos - Beginn des Token-Austauschs der Antwort, aus der die zuletzt
+     * uebergebene Stellgroesse berechnet wurde (0L: keine)...
+     */
+    private long pwmSampleNanos = 0L;
+    
+    /**
+     * delayedMA, delayedMB - Stellgroesse, die im Pipeline-Betrieb erst im 
+     * uebernaechsten Intervall wirkt...
+     */
+    private double delayedMA = 0.0;
+    private double delayedMB = 0.0;
+    
+    /**
+     * lastSampleNanos - Beginn des Token-Austauschs der zuletzt ausgewerteten 
+     * Antwort (0L: keine)...
+     */
+    private long lastSampleNanos = 0L;
+    
+    /**
+     * sampleTimeNanos - Zeit zwischen den beiden zuletzt ausgewerteten Antworten
+     * (dt von Schaetzung und Regelgesetz), im Unterschied zu cycleTimeNanos 
+     * einschliesslich ausgelassener Zyklen...
+     */
+    private long sampleTimeNanos = 0L;
+    
+    /**
+     * busOverruns - Anzahl der ausgelassenen Zyklen (BusWorker nicht fertig)
+     */
+    private volatile long busOverruns = 0L;
+    
+    /**
+     * BUS_TIMEOUT_NANOS = 10ms - maximale Wartezeit auf den vorherigen Auftrag des BusWorker
+     */
+    private final static long BUS_TIMEOUT_NANOS = 10_000_000L;
+    
+    /**
+     * latencyStats - Latenz vom Beginn des Token-Austauschs bis zur Ausgabe der
+     * daraus berechneten Stellgroesse (im Pipeline-Betrieb ca. eine Periode mehr)
+     */
+    private final RunningStats latencyStats = new RunningStats("latency");
     
     /**
      * totalMA[] - totale Impuls-Zaehler-Staende Motor A
@@ -238,7 +560,7 @@ public class Model
      * controlMA[0] - historischer Wert[k-1], wichtig zur Ermittlung des VZ
      * </p>
      */
-    private BigDecimal controlMA[] = { BigDecimal.ZERO, BigDecimal.ZERO };
+    private double controlMA[] = { 0.0, 0.0 };
     
     /**
      * long numberMA - Lageinformation Motor A...
@@ -259,7 +581,7 @@ public class Model
      * controlMB[0] - historischer Wert[k-1], wichtig zur Ermittlung des VZ
      * </p>
      */
-    private BigDecimal controlMB[] = { BigDecimal.ZERO, BigDecimal.ZERO };
+    private double controlMB[] = { 0.0, 0.0 };
     
     /**
      * long numberMB - Lageinformation Motor B...
@@ -272,8 +594,11 @@ public class Model
      * <p>
      * Bereich maxValueMA (Limit): -1.0 ... 0.0 ... +1.0
      * </p>
+     * <p>
+     * Die Ablage erfolgt als double, die GUI liefert BigDecimal (vgl. MX_MAX_VALUES).
+     * </p>
      */
-    private BigDecimal maxValueMA = BigDecimal.ZERO;
+    private volatile double maxValueMA = 0.0;
     
     /**
      * maxValueMB - Maximalwert des Sollwertes fuer
@@ -281,8 +606,11 @@ public class Model
      * <p>
      * Bereich maxValueMA (Limit): -1.0 ... 0.0 ... +1.0
      * </p>
+     * <p>
+     * Die Ablage erfolgt als double, die GUI liefert BigDecimal (vgl. MX_MAX_VALUES).
+     * </p>
      */
-    private BigDecimal maxValueMB = BigDecimal.ZERO;
+    private volatile double maxValueMB = 0.0;
     
     /**
      * valueMA - Sollwert (Pwm-Vorgabe) Motor A, wird durch die GUI vorgegeben
@@ -303,23 +631,51 @@ public class Model
     /**
      * boolean isControlled - boolsche Kennung: Regelung ja/nein...
      */
-    private boolean isControlled = false;
+    private volatile boolean isControlled = false;
+    
+    /**
+     * boolean isSynchronized - boolsche Kennung: Gleichlauf (Kreuzkopplung) ja/nein...
+     */
+    private volatile boolean isSynchronized = false;
+    
+    /**
+     * crossCoupling - Gleichlaufregelung der Motoren (vgl. isSynchronized)
+     */
+    private final CrossCoupling crossCoupling;
     
     /**
      * outputMA - Stellgroesse Motor A
      * <p>
      * Bereich outputMA: -1.0 ... 0.0 ... +1.0 
      * </p>
+     * <p>
+     * Die Umwandlung in BigDecimal erfolgt erst zur Anzeige (vgl. Data).
+     * </p>
      */
-    private BigDecimal outputMA;
+    private double outputMA = 0.0;
     
     /**
      *  outputMB - Stellgroesse Motor B
      * <p>
      * Bereich outputMB: -1.0 ... 0.0 ... +1.0 
      * </p>
+     * <p>
+     * Die Umwandlung in BigDecimal erfolgt erst zur Anzeige (vgl. Data).
+     * </p>
      */
-    private BigDecimal outputMB;
+    private double outputMB = 0.0;
+    
+    /**
+     * controlOutput - nimmt den Reglerausgang auf, wird in jedem Zyklus 
+     * wiederverwendet...
+     */
+    private final ControlOutput controlOutput = new ControlOutput();
+    
+    /**
+     * controlInput - nimmt die Eingangsgroessen des Regelgesetzes auf, wird 
+     * in jedem Zyklus wiederverwendet...
+     */
+    private final ControlInput controlInput = new ControlInput();
 
     /**
      * SCALE_OUTPUT = 3 - Genauigkeit (Anzahl der Nachkommastellen) der Ausgabe an den HAT
@@ -352,6 +708,69 @@ public class Model
      */
     private final PositionController positionController = new PositionController(CIRCUMFERENCE);
     
+    /**
+     * pidController - Regelgesetz PID (wird vom relayAutotuner eingestellt)
+     */
+    private final PidController pidController;
+    
+    /**
+     * relayAutotuner - Regelgesetz "Autotune" (Relaisversuch zur Einstellung des pidController)
+     */
+    private final RelayAutotuner relayAutotuner;
+    
+    /**
+     * strategyBeforeAutotune - vor dem Relaisversuch aktives Regelgesetz, wird
+     * wieder uebernommen, wenn der Versuch scheitert (nur im Regelzyklus verwendet)...
+     */
+    private ControlStrategy strategyBeforeAutotune = this.positionController;
+    
+    /**
+     * controlStrategies - registrierte Regelgesetze, Key ist der Name (vgl. ControlStrategy.getName())
+     */
+    private final Map<String, ControlStrategy> controlStrategies = new LinkedHashMap<>();
+    
+    /**
+     * controlStrategy - aktives Regelgesetz, wird nur im Regelzyklus umgesetzt...
+     */
+    private volatile ControlStrategy controlStrategy;
+    
+    /**
+     * pendingControlStrategy - als naechstes zu uebernehmendes Regelgesetz...
+     * <p>
+     * Das Regelgesetz wird zu Beginn des naechsten Regelzyklus zurueckgesetzt 
+     * und uebernommen, d.h. der Austausch erfolgt atomar zwischen zwei Zyklen 
+     * ohne Anhalten des ControlLoop.
+     * </p>
+     */
+    private final AtomicReference<ControlStrategy> pendingControlStrategy = new AtomicReference<>();
+    
+    /**
+     * propertyExecutor - meldet einen Wechsel des Regelgesetzes im Regelzyklus 
+     * (z.B. nach dem Relaisversuch) ueber setProperty() an die View, der 
+     * Regelzyklus wartet dabei nicht auf den Monitor des Model...
+     */
+    private final ExecutorService propertyExecutor = Executors.newSingleThreadExecutor(new ThreadFactory()
+    {
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            final Thread thread = new Thread(runnable, "ModelProperties");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    
+    /**
+     * enhancement - eingestellte Reglerverstaerkung, gilt fuer alle Regelgesetze
+     */
+    private volatile BigDecimal enhancement = BigDecimal.ZERO;
+    
+    /**
+     * enhancementValue - enhancement als double zur Aufzeichnung im Regelzyklus 
+     * (BigDecimal.doubleValue() legt ggf. Objekte an)...
+     */
+    private volatile double enhancementValue = 0.0;
+    
     /**
      * Pull-Up/Pull-Down-Einstellung...
      * <p>
@@ -415,73 +834,420 @@ public class Model
     private final GpioPinDigitalInput gpioPinDigitalInputCyclePin;
 
     /**
-     * gpioPinOutputMap nimmt die GpioPinDigitalOutput-Objekte auf, 
-     * Key ist dabei jeweils der Pin_Name, z.B. "GPIO 21"...
+     * controlLoop - Referenz auf den ControlLoop...
      * <p>
-     * Verwendung: Unter dem Key 'Name des GPIO' wird die Referenz 
-     * auf den Pin abgelegt. 
-     * </p>
-     * <p>
-     * Diese Map wird im weiteren nicht verwendet, steht nur als Muster
-     * bereit...
+     * Der Regelzyklus (vgl. doCycle()) laeuft im eigenen Thread des ControlLoop.
+     * Die GPIO-Flanke vom Arduino stoesst den Zyklus nur noch an. Damit kann
+     * der Event-Thread von pi4j den Zyklus nicht mehr verzoegern.
      * </p>
      */
-    private final java.util.TreeMap<String, GpioPinDigitalOutput> gpioPinOutputMap = new java.util.TreeMap<>();
+    private final ControlLoop controlLoop;
     
     /**
-     * NAME_START_BUTTON = "startButton"
+     * CONTROL_LOOP_MODE_KEY = "controlLoopMode" - Key in der properties-Datei, 
+     * Art der Taktung des ControlLoop (TRIGGERED oder FIXED_RATE)
      */
-    public static final String NAME_START_BUTTON = "startButton";
-
+    public final static String CONTROL_LOOP_MODE_KEY = "controlLoopMode";
+    
     /**
-     * NAME_STOP_BUTTON = "stopButton"
+     * CONTROL_LOOP_RATE_KEY = "controlLoopRate" - Key in der properties-Datei,
+     * Taktrate (in Hz) bei Eigentaktung (FIXED_RATE)
      */
-    public static final String NAME_STOP_BUTTON = "stopButton";
+    public final static String CONTROL_LOOP_RATE_KEY = "controlLoopRate";
     
     /**
-     * NAME_RESET_BUTTON = "resetButton"
+     * CONTROL_LOOP_PRIORITY_KEY = "controlLoopPriority" - Key in der properties-Datei,
+     * Prioritaet des Threads des ControlLoop (1 ... 10)
      */
-    public static final String NAME_RESET_BUTTON = "resetButton";
+    public final static String CONTROL_LOOP_PRIORITY_KEY = "controlLoopPriority";
     
     /**
-     * NAME_END_BUTTON = "endButton"
+     * DEFAULT_CONTROL_LOOP_RATE = 100 - Vorgabe der Taktrate (in Hz) bei Eigentaktung
      */
-    public final static String NAME_END_BUTTON = "endButton";
+    public final static int DEFAULT_CONTROL_LOOP_RATE = 100;
     
     /**
-     * dataMap - nimmt die Eingaben auf...
-     * <p>
-     * Ablage key => Eingabe-Object
-     * </p>
+     * TELEMETRY_SLOTS_KEY = "telemetrySlots" - Key in der properties-Datei,
+     * Anzahl der Eintraege im TelemetryRing (wird auf eine Zweierpotenz aufgerundet)...
      */
-    private final java.util.TreeMap<String, Object>  dataMap = new java.util.TreeMap<>();
-
+    public final static String TELEMETRY_SLOTS_KEY = "telemetrySlots";
+    
     /**
-     * DATA_KEY = "dataKey" - Key unter dem die Data in der dataMap abgelegt werden...
-     * <p>
-     * Data umfasst die Zustandsgroessen, die in der View angezeigt werden.
-     * </p>
+     * DEFAULT_TELEMETRY_SLOTS = 1024 - Vorgabe der Anzahl der Eintraege im TelemetryRing
      */
-    public final static String DATA_KEY = "dataKey";
+    public final static int DEFAULT_TELEMETRY_SLOTS = 1024;
     
     /**
-     * MAX_VALUE_MA_KEY = "maxValueMAKey"
-     * <p>
-     * MAX_VALUE_MA_KEY referenziert die Zustandsgroesse maxValueMA
-     * </p>
+     * TELEMETRY_LOGGER_INTERVAL_MILLIS = 200L - Intervall, in dem der TelemetryLogger
+     * die neuen Eintraege protokolliert...
      */
-    public final static String MAX_VALUE_MA_KEY = "maxValueMAKey";
+    private final static long TELEMETRY_LOGGER_INTERVAL_MILLIS = 200L;
     
     /**
-     * MAX_VALUE_MB_KEY = "maxValueMBKey"
-     * <p>
-     * MAX_VALUE_MB_KEY referenziert die Zustandsgroesse maxValueMB
-     * </p>
+     * FLIGHT_RECORDER_DIRECTORY_KEY = "flightRecorderDirectory" - Key in der properties-Datei,
+     * Verzeichnis der Segmentdateien des FlightRecorder (ohne Eintrag: keine Aufzeichnung)...
      */
-    public final static String MAX_VALUE_MB_KEY = "maxValueMBKey";
+    public final static String FLIGHT_RECORDER_DIRECTORY_KEY = "flightRecorderDirectory";
     
     /**
-     * VALUE_MA_KEY = "valueMAKey"
+     * FLIGHT_RECORDER_SEGMENT_RECORDS_KEY = "flightRecorderSegmentRecords" - Key in der 
+     * properties-Datei, Anzahl der Saetze je Segmentdatei...
+     */
+    public final static String FLIGHT_RECORDER_SEGMENT_RECORDS_KEY = "flightRecorderSegmentRecords";
+    
+    /**
+     * DEFAULT_FLIGHT_RECORDER_SEGMENT_RECORDS = 65536 - Vorgabe der Anzahl der Saetze 
+     * je Segmentdatei (10 MB, bei 100 Hz knapp 11 Minuten)
+     */
+    public final static int DEFAULT_FLIGHT_RECORDER_SEGMENT_RECORDS = 65536;
+    
+    /**
+     * FLIGHT_RECORDER_MAX_SEGMENTS_KEY = "flightRecorderMaxSegments" - Key in der 
+     * properties-Datei, maximale Anzahl der Segmentdateien je Lauf (0: unbegrenzt)...
+     */
+    public final static String FLIGHT_RECORDER_MAX_SEGMENTS_KEY = "flightRecorderMaxSegments";
+    
+    /**
+     * DEFAULT_FLIGHT_RECORDER_MAX_SEGMENTS = 32 - Vorgabe der maximalen Anzahl der Segmentdateien
+     */
+    public final static int DEFAULT_FLIGHT_RECORDER_MAX_SEGMENTS = 32;
+    
+    /**
+     * FLIGHT_RECORDER_INTERVAL_MILLIS = 50L - Intervall, in dem der FlightRecorder
+     * die neuen Eintraege schreibt...
+     */
+    private final static long FLIGHT_RECORDER_INTERVAL_MILLIS = 50L;
+    
+    /**
+     * HISTORY_CAPACITY_KEY = "historyCapacity" - Key in der properties-Datei,
+     * Eintraege je Stufe der TelemetryHistory (0 bzw. ohne Eintrag: keine TelemetryHistory)...
+     */
+    public final static String HISTORY_CAPACITY_KEY = "historyCapacity";
+    
+    /**
+     * HISTORY_LEVELS_KEY = "historyLevels" - Key in der properties-Datei,
+     * Anzahl der Stufen der TelemetryHistory (je Stufe Faktor TelemetryHistory.FACTOR)...
+     */
+    public final static String HISTORY_LEVELS_KEY = "historyLevels";
+    
+    /**
+     * DEFAULT_HISTORY_LEVELS = 9 - Vorgabe der Anzahl der Stufen (mit 4096 Eintraegen
+     * je Stufe bei 100 Hz knapp 31 Tage)
+     */
+    public final static int DEFAULT_HISTORY_LEVELS = 9;
+    
+    /**
+     * HISTORY_INTERVAL_MILLIS = 50L - Intervall, in dem die TelemetryHistory
+     * die neuen Eintraege uebernimmt...
+     */
+    private final static long HISTORY_INTERVAL_MILLIS = 50L;
+    
+    /**
+     * CONTROL_STRATEGY_CONFIG_KEY = "controlStrategy" - Key in der properties-Datei,
+     * Name des Regelgesetzes beim Programmstart (Vorgabe: PositionController.NAME)...
+     */
+    public final static String CONTROL_STRATEGY_CONFIG_KEY = "controlStrategy";
+    
+    /**
+     * PID_INTEGRAL_TIME_KEY = "pidIntegralTime" - Key in der properties-Datei,
+     * Nachstellzeit Ti des PidController in ms (0: ohne I-Anteil)...
+     */
+    public final static String PID_INTEGRAL_TIME_KEY = "pidIntegralTime";
+    
+    /**
+     * DEFAULT_PID_INTEGRAL_TIME = 1000 - Vorgabe der Nachstellzeit in ms
+     */
+    public final static int DEFAULT_PID_INTEGRAL_TIME = 1000;
+    
+    /**
+     * PID_DERIVATIVE_TIME_KEY = "pidDerivativeTime" - Key in der properties-Datei,
+     * Vorhaltzeit Td des PidController in ms (0: ohne D-Anteil)...
+     */
+    public final static String PID_DERIVATIVE_TIME_KEY = "pidDerivativeTime";
+    
+    /**
+     * DEFAULT_PID_DERIVATIVE_TIME = 0 - Vorgabe der Vorhaltzeit in ms (ohne D-Anteil, vgl. PidController)
+     */
+    public final static int DEFAULT_PID_DERIVATIVE_TIME = 0;
+    
+    /**
+     * PID_DERIVATIVE_FILTER_KEY = "pidDerivativeFilter" - Key in der properties-Datei,
+     * Filterkoeffizient N des D-Anteils (Filterzeitkonstante Td/N)...
+     */
+    public final static String PID_DERIVATIVE_FILTER_KEY = "pidDerivativeFilter";
+    
+    /**
+     * DEFAULT_PID_DERIVATIVE_FILTER = 10 - Vorgabe des Filterkoeffizienten
+     */
+    public final static int DEFAULT_PID_DERIVATIVE_FILTER = 10;
+    
+    /**
+     * AUTOTUNE_HYSTERESIS_KEY = "autotuneHysteresis" - Key in der properties-Datei,
+     * Hysterese des Relais des RelayAutotuner in Impulsen...
+     */
+    public final static String AUTOTUNE_HYSTERESIS_KEY = "autotuneHysteresis";
+    
+    /**
+     * DEFAULT_AUTOTUNE_HYSTERESIS = 1.0 - Vorgabe der Hysterese in Impulsen
+     */
+    public final static double DEFAULT_AUTOTUNE_HYSTERESIS = 1.0;
+    
+    /**
+     * AUTOTUNE_AMPLITUDE_KEY = "autotuneAmplitude" - Key in der properties-Datei,
+     * Stellgroesse des Relais des RelayAutotuner (hoechstens der Grenzwert)...
+     */
+    public final static String AUTOTUNE_AMPLITUDE_KEY = "autotuneAmplitude";
+    
+    /**
+     * DEFAULT_AUTOTUNE_AMPLITUDE = 0.5 - Vorgabe der Stellgroesse des Relais
+     */
+    public final static double DEFAULT_AUTOTUNE_AMPLITUDE = 0.5;
+    
+    /**
+     * AUTOTUNE_PERIODS_KEY = "autotunePeriods" - Key in der properties-Datei,
+     * Anzahl der ausgewerteten Perioden des RelayAutotuner...
+     */
+    public final static String AUTOTUNE_PERIODS_KEY = "autotunePeriods";
+    
+    /**
+     * DEFAULT_AUTOTUNE_PERIODS = 4 - Vorgabe der Anzahl der ausgewerteten Perioden
+     */
+    public final static int DEFAULT_AUTOTUNE_PERIODS = 4;
+    
+    /**
+     * AUTOTUNE_RULE_KEY = "autotuneRule" - Key in der properties-Datei,
+     * Einstellregel des RelayAutotuner (P, PI, PID, vgl. RelayAutotuner.Rule)...
+     */
+    public final static String AUTOTUNE_RULE_KEY = "autotuneRule";
+    
+    /**
+     * SYNC_GAIN_KEY = "syncGain" - Key in der properties-Datei, Kopplungsverstaerkung
+     * der Gleichlaufregelung (Stellgroesse pro Impuls Lagedifferenz MA - MB)...
+     */
+    public final static String SYNC_GAIN_KEY = "syncGain";
+    
+    /**
+     * DEFAULT_SYNC_GAIN = 0.1 - Vorgabe der Kopplungsverstaerkung
+     */
+    public final static double DEFAULT_SYNC_GAIN = 0.1;
+    
+    /**
+     * MOTION_PROFILE_KEY = "motionProfile" - Key in der properties-Datei,
+     * Art der Bahnplanung (STEP, TRAPEZOID, S_CURVE)...
+     */
+    public final static String MOTION_PROFILE_KEY = "motionProfile";
+    
+    /**
+     * PROFILE_VELOCITY_KEY = "profileVelocity" - Key in der properties-Datei,
+     * Grenze der Geschwindigkeit der Bahnplanung in Impulse/s...
+     */
+    public final static String PROFILE_VELOCITY_KEY = "profileVelocity";
+    
+    /**
+     * DEFAULT_PROFILE_VELOCITY = 40.0 - Vorgabe der Geschwindigkeit in Impulse/s
+     */
+    public final static double DEFAULT_PROFILE_VELOCITY = 40.0;
+    
+    /**
+     * PROFILE_ACCELERATION_KEY = "profileAcceleration" - Key in der properties-Datei,
+     * Grenze der Beschleunigung der Bahnplanung in Impulse/s^2...
+     */
+    public final static String PROFILE_ACCELERATION_KEY = "profileAcceleration";
+    
+    /**
+     * DEFAULT_PROFILE_ACCELERATION = 200.0 - Vorgabe der Beschleunigung in Impulse/s^2
+     */
+    public final static double DEFAULT_PROFILE_ACCELERATION = 200.0;
+    
+    /**
+     * PROFILE_JERK_KEY = "profileJerk" - Key in der properties-Datei,
+     * Grenze des Rucks der Bahnplanung (nur S_CURVE) in Impulse/s^3...
+     */
+    public final static String PROFILE_JERK_KEY = "profileJerk";
+    
+    /**
+     * DEFAULT_PROFILE_JERK = 2000.0 - Vorgabe des Rucks in Impulse/s^3
+     */
+    public final static double DEFAULT_PROFILE_JERK = 2000.0;
+    
+    /**
+     * ARDUINO_PROTOCOL_KEY = "arduinoProtocol" - Key in der properties-Datei,
+     * hoechste Protokollversion zum Arduino (0: bisheriges Protokoll, 
+     * 1: kombinierte Transaktion, vgl. ArduinoFrameDevice)...
+     */
+    public final static String ARDUINO_PROTOCOL_KEY = "arduinoProtocol";
+    
+    /**
+     * BUS_PIPELINE_KEY = "busPipeline" - Key in der properties-Datei,
+     * true: Bus-Transaktionen im BusWorker parallel zur Berechnung 
+     * (Stellgroesse mit einem Zyklus Verzoegerung), false: sequentiell...
+     */
+    public final static String BUS_PIPELINE_KEY = "busPipeline";
+    
+    /**
+     * CYCLE_DEADLINE_KEY = "cycleDeadline" - Key in der properties-Datei,
+     * Frist der Ausfuehrungszeit eines Regelzyklus in us (Vorgabe: 
+     * nominelle Periode 1/controlLoopRate, 0: ohne Fristpruefung)...
+     */
+    public final static String CYCLE_DEADLINE_KEY = "cycleDeadline";
+    
+    /**
+     * METRICS_PORT_KEY = "metricsPort" - Key in der properties-Datei,
+     * Port des MetricsServer (http://&lt;host&gt;:&lt;port&gt;/metrics, 
+     * 0 bzw. ohne Eintrag: kein MetricsServer)...
+     */
+    public final static String METRICS_PORT_KEY = "metricsPort";
+    
+    /**
+     * COMMAND_PORT_KEY = "commandPort" - Key in der properties-Datei,
+     * Port des CommandServer (binaeres Protokoll fuer Kommandos und Telemetrie, 
+     * 0 bzw. ohne Eintrag: kein CommandServer)...
+     */
+    public final static String COMMAND_PORT_KEY = "commandPort";
+    
+    /**
+     * DASHBOARD_PORT_KEY = "dashboardPort" - Key in der properties-Datei,
+     * Port des DashboardServer (http://&lt;host&gt;:&lt;port&gt;/, 
+     * 0 bzw. ohne Eintrag: kein DashboardServer)...
+     */
+    public final static String DASHBOARD_PORT_KEY = "dashboardPort";
+    
+    /**
+     * RECOVERY_BACKOFF_KEY = "recoveryBackoff" - Key in der properties-Datei,
+     * erste Wartezeit in ms nach einem Busfehler (vgl. BusRecovery)...
+     */
+    public final static String RECOVERY_BACKOFF_KEY = "recoveryBackoff";
+    
+    /**
+     * DEFAULT_RECOVERY_BACKOFF = 10 - Vorgabe der ersten Wartezeit in ms
+     */
+    public final static int DEFAULT_RECOVERY_BACKOFF = 10;
+    
+    /**
+     * RECOVERY_MAX_BACKOFF_KEY = "recoveryMaxBackoff" - Key in der properties-Datei,
+     * groesste Wartezeit in ms (die Wartezeit verdoppelt sich je Versuch)...
+     */
+    public final static String RECOVERY_MAX_BACKOFF_KEY = "recoveryMaxBackoff";
+    
+    /**
+     * DEFAULT_RECOVERY_MAX_BACKOFF = 1000 - Vorgabe der groessten Wartezeit in ms
+     */
+    public final static int DEFAULT_RECOVERY_MAX_BACKOFF = 1000;
+    
+    /**
+     * RECOVERY_MAX_ATTEMPTS_KEY = "recoveryMaxAttempts" - Key in der properties-Datei,
+     * maximale Anzahl der Versuche je Fehlerfolge (0: unbegrenzt)...
+     */
+    public final static String RECOVERY_MAX_ATTEMPTS_KEY = "recoveryMaxAttempts";
+    
+    /**
+     * RECOVERY_STABLE_CYCLES_KEY = "recoveryStableCycles" - Key in der properties-Datei,
+     * Anzahl konsistenter Antworten bis zur Freigabe der Motoren...
+     */
+    public final static String RECOVERY_STABLE_CYCLES_KEY = "recoveryStableCycles";
+    
+    /**
+     * DEFAULT_RECOVERY_STABLE_CYCLES = 3 - Vorgabe der Anzahl konsistenter Antworten
+     */
+    public final static int DEFAULT_RECOVERY_STABLE_CYCLES = 3;
+    
+    /**
+     * SIMULATION_FAULT_RATE_KEY = "simulationFaultRate" - Key in der properties-Datei,
+     * Wahrscheinlichkeit eines simulierten Busfehlers je Antwort (nur bei Simulation)...
+     */
+    public final static String SIMULATION_FAULT_RATE_KEY = "simulationFaultRate";
+    
+    /**
+     * ESTIMATOR_ALPHA_KEY = "estimatorAlpha" - Key in der properties-Datei,
+     * Gewicht alpha der Lage im Alpha-Beta-Filter (vgl. VelocityEstimator)...
+     */
+    public final static String ESTIMATOR_ALPHA_KEY = "estimatorAlpha";
+    
+    /**
+     * DEFAULT_ESTIMATOR_ALPHA = 0.5 - Vorgabe fuer alpha
+     */
+    public final static double DEFAULT_ESTIMATOR_ALPHA = 0.5;
+    
+    /**
+     * ESTIMATOR_BETA_KEY = "estimatorBeta" - Key in der properties-Datei,
+     * Gewicht beta der Geschwindigkeit im Alpha-Beta-Filter (vgl. VelocityEstimator)...
+     */
+    public final static String ESTIMATOR_BETA_KEY = "estimatorBeta";
+    
+    /**
+     * DEFAULT_ESTIMATOR_BETA = 0.15 - Vorgabe fuer beta (etwas unter der 
+     * kritischen Daempfung alpha^2 / (2 - alpha))
+     */
+    public final static double DEFAULT_ESTIMATOR_BETA = 0.15;
+
+    /**
+     * gpioPinOutputMap nimmt die GpioPinDigitalOutput-Objekte auf, 
+     * Key ist dabei jeweils der Pin_Name, z.B. "GPIO 21"...
+     * <p>
+     * Verwendung: Unter dem Key 'Name des GPIO' wird die Referenz 
+     * auf den Pin abgelegt. 
+     * </p>
+     * <p>
+     * Diese Map wird im weiteren nicht verwendet, steht nur als Muster
+     * bereit...
+     * </p>
+     */
+    private final java.util.TreeMap<String, GpioPinDigitalOutput> gpioPinOutputMap = new java.util.TreeMap<>();
+    
+    /**
+     * NAME_START_BUTTON = "startButton"
+     */
+    public static final String NAME_START_BUTTON = "startButton";
+
+    /**
+     * NAME_STOP_BUTTON = "stopButton"
+     */
+    public static final String NAME_STOP_BUTTON = "stopButton";
+    
+    /**
+     * NAME_RESET_BUTTON = "resetButton"
+     */
+    public static final String NAME_RESET_BUTTON = "resetButton";
+    
+    /**
+     * NAME_END_BUTTON = "endButton"
+     */
+    public final static String NAME_END_BUTTON = "endButton";
+    
+    /**
+     * dataMap - nimmt die Eingaben auf...
+     * <p>
+     * Ablage key => Eingabe-Object
+     * </p>
+     */
+    private final java.util.TreeMap<String, Object>  dataMap = new java.util.TreeMap<>();
+
+    /**
+     * DATA_KEY = "dataKey" - Key unter dem die Data in der dataMap abgelegt werden...
+     * <p>
+     * Data umfasst die Zustandsgroessen, die in der View angezeigt werden.
+     * </p>
+     */
+    public final static String DATA_KEY = "dataKey";
+    
+    /**
+     * MAX_VALUE_MA_KEY = "maxValueMAKey"
+     * <p>
+     * MAX_VALUE_MA_KEY referenziert die Zustandsgroesse maxValueMA
+     * </p>
+     */
+    public final static String MAX_VALUE_MA_KEY = "maxValueMAKey";
+    
+    /**
+     * MAX_VALUE_MB_KEY = "maxValueMBKey"
+     * <p>
+     * MAX_VALUE_MB_KEY referenziert die Zustandsgroesse maxValueMB
+     * </p>
+     */
+    public final static String MAX_VALUE_MB_KEY = "maxValueMBKey";
+    
+    /**
+     * VALUE_MA_KEY = "valueMAKey"
      */
     public final static String VALUE_MA_KEY = "valueMAKey";
     
@@ -505,11 +1271,21 @@ public class Model
      */
     public final static String CONTROL_KEY = "controlKey";
 
+    /**
+     * SYNC_KEY = "syncKey" - Boolscher Schalter 'Gleichlauf'
+     */
+    public final static String SYNC_KEY = "syncKey";
+
     /**
      * ENHANCEMENT_KEY = "enhancementKey" - Combobox mit den Reglerverstaerkungen...
      */
     public final static String ENHANCEMENT_KEY = "enhancementKey";
     
+    /**
+     * CONTROL_STRATEGY_KEY = "controlStrategyKey" - Combobox mit den Regelgesetzen...
+     */
+    public final static String CONTROL_STRATEGY_KEY = "controlStrategyKey";
+    
     /**
      * GUI_STATUS_KEY = "guiStatusKey" - Im GuiStatus wird abgelegt im welchem
      * "Bedienungszustand" die Gui ist.
@@ -531,7 +1307,9 @@ public class Model
         OUTPUT_MA_KEY,
         OUTPUT_MB_KEY,
         CONTROL_KEY,
+        SYNC_KEY,
         ENHANCEMENT_KEY,
+        CONTROL_STRATEGY_KEY,
         GUI_STATUS_KEY
     };
     
@@ -654,6 +1432,16 @@ public class Model
      */
     public Model()
     {
+        this(new Properties());
+    }
+    
+    /**
+     * Model(Properties properties) - Konstruktor mit den Systemeinstellungen...
+     * @param properties Systemeinstellungen (vgl. SwingMain.PROPERTIES_FILE)
+     */
+    public Model(Properties properties)
+    {
+        Objects.requireNonNull(properties, "properties must not be null!");
         // Zuallererst: Wo erfolgt der Lauf, auf einem Raspi?
         final String os_name = System.getProperty("os.name").toLowerCase();
         final String os_arch = System.getProperty("os.arch").toLowerCase();
@@ -661,9 +1449,107 @@ public class Model
         // Kennung isRaspi setzen...
         this.isRaspi = OS_NAME_RASPI.equals(os_name) && OS_ARCH_RASPI.equals(os_arch);
         
+        // Lauf mit Simulation? Vorgabe: Simulation, wenn nicht auf dem Raspi...
+        this.isSimulation = getBooleanProperty(properties, SIMULATION_KEY, !isRaspi);
+        logger.debug("isSimulation=" + this.isSimulation);
+        
         // ...den gpioController anlegen...
         this.gpioController = isRaspi? GpioFactory.getInstance() : null;
         
+        // *** Registrieren der Regelgesetze... ***
+        registerControlStrategy(this.positionController);
+        this.pidController = new PidController(CIRCUMFERENCE,
+                                               getIntProperty(properties, PID_INTEGRAL_TIME_KEY, DEFAULT_PID_INTEGRAL_TIME) / 1000.0,
+                                               getIntProperty(properties, PID_DERIVATIVE_TIME_KEY, DEFAULT_PID_DERIVATIVE_TIME) / 1000.0,
+                                               getIntProperty(properties, PID_DERIVATIVE_FILTER_KEY, DEFAULT_PID_DERIVATIVE_FILTER));
+        registerControlStrategy(this.pidController);
+        this.relayAutotuner = new RelayAutotuner(CIRCUMFERENCE,
+                                                 getDoubleProperty(properties, AUTOTUNE_HYSTERESIS_KEY, DEFAULT_AUTOTUNE_HYSTERESIS),
+                                                 getDoubleProperty(properties, AUTOTUNE_AMPLITUDE_KEY, DEFAULT_AUTOTUNE_AMPLITUDE),
+                                                 getIntProperty(properties, AUTOTUNE_PERIODS_KEY, DEFAULT_AUTOTUNE_PERIODS),
+                                                 getEnumProperty(properties, AUTOTUNE_RULE_KEY, RelayAutotuner.Rule.class, RelayAutotuner.Rule.PI),
+                                                 this.pidController);
+        registerControlStrategy(this.relayAutotuner);
+        this.crossCoupling = new CrossCoupling(getDoubleProperty(properties, SYNC_GAIN_KEY, DEFAULT_SYNC_GAIN));
+        
+        // *** Bahnplanung... ***
+        this.motionProfileType = getEnumProperty(properties, MOTION_PROFILE_KEY, MotionProfile.Type.class, MotionProfile.Type.STEP);
+        this.profileVelocity = getDoubleProperty(properties, PROFILE_VELOCITY_KEY, DEFAULT_PROFILE_VELOCITY);
+        this.profileAcceleration = getDoubleProperty(properties, PROFILE_ACCELERATION_KEY, DEFAULT_PROFILE_ACCELERATION);
+        this.profileJerk = getDoubleProperty(properties, PROFILE_JERK_KEY, DEFAULT_PROFILE_JERK);
+        logger.debug("motionProfile=" + this.motionProfileType + " " + this.profileVelocity 
+                                                               + " " + this.profileAcceleration 
+                                                               + " " + this.profileJerk);
+        
+        // *** Schaetzung von Lage und Geschwindigkeit... ***
+        {
+            double alpha = getDoubleProperty(properties, ESTIMATOR_ALPHA_KEY, DEFAULT_ESTIMATOR_ALPHA);
+            double beta = getDoubleProperty(properties, ESTIMATOR_BETA_KEY, DEFAULT_ESTIMATOR_BETA);
+            if (!(alpha > 0.0 && alpha <= 1.0 && beta > 0.0 && beta < 4.0 - 2.0 * alpha))
+            {
+                logger.warn("estimatorAlpha/estimatorBeta ungueltig: " + alpha + "/" + beta + ", Vorgabe wird verwendet...");
+                alpha = DEFAULT_ESTIMATOR_ALPHA;
+                beta = DEFAULT_ESTIMATOR_BETA;
+            }
+            this.estimatorMA = new VelocityEstimator(alpha, beta);
+            this.estimatorMB = new VelocityEstimator(alpha, beta);
+            logger.debug("estimator=" + alpha + " " + beta);
+        }
+        {
+            final String name = properties.getProperty(CONTROL_STRATEGY_CONFIG_KEY, PositionController.NAME).trim();
+            final ControlStrategy strategy = this.controlStrategies.get(name);
+            if (strategy == null)
+            {
+                logger.error(CONTROL_STRATEGY_CONFIG_KEY + ": " + name + " unbekannt!");
+            }
+            this.controlStrategy = (strategy != null)? strategy : this.positionController;
+            logger.debug("controlStrategy=" + this.controlStrategy.getName());
+        }
+        
+        // *** Vorab-Anlegen der CycleRecord-Objekte im TelemetryRing... ***
+        this.telemetryRing = new TelemetryRing(getIntProperty(properties, TELEMETRY_SLOTS_KEY, DEFAULT_TELEMETRY_SLOTS));
+        logger.debug("TelemetryRing: " + this.telemetryRing.getCapacity() + " Eintraege");
+        this.telemetryLogger = TelemetryLogger.isEnabled()? new TelemetryDrainer("TelemetryLogger", 
+                                                                                 this.telemetryRing, 
+                                                                                 new TelemetryLogger(), 
+                                                                                 TELEMETRY_LOGGER_INTERVAL_MILLIS) 
+                                                          : null;
+        {
+            final String directory = properties.getProperty(FLIGHT_RECORDER_DIRECTORY_KEY, "").trim();
+            FlightRecorder flightRecorderLoc = null;
+            if (!directory.isEmpty())
+            {
+                try
+                {
+                    flightRecorderLoc = new FlightRecorder(new File(directory),
+                                                           getIntProperty(properties, FLIGHT_RECORDER_SEGMENT_RECORDS_KEY, DEFAULT_FLIGHT_RECORDER_SEGMENT_RECORDS),
+                                                           getIntProperty(properties, FLIGHT_RECORDER_MAX_SEGMENTS_KEY, DEFAULT_FLIGHT_RECORDER_MAX_SEGMENTS));
+                }
+                catch (IOException exception)
+                {
+                    // Ohne Aufzeichnung weiter...
+                    logger.error("FlightRecorder: " + exception.toString(), exception);
+                }
+            }
+            this.flightRecorder = flightRecorderLoc;
+            this.flightRecorderDrainer = (flightRecorderLoc != null)? new TelemetryDrainer("FlightRecorder", 
+                                                                                           this.telemetryRing, 
+                                                                                           flightRecorderLoc, 
+                                                                                           FLIGHT_RECORDER_INTERVAL_MILLIS)
+                                                                    : null;
+        }
+        {
+            final int historyCapacity = getIntProperty(properties, HISTORY_CAPACITY_KEY, 0);
+            this.telemetryHistory = (historyCapacity > 0)? new TelemetryHistory(historyCapacity, 
+                                                                                getIntProperty(properties, HISTORY_LEVELS_KEY, DEFAULT_HISTORY_LEVELS))
+                                                         : null;
+            this.telemetryHistoryDrainer = (this.telemetryHistory != null)? new TelemetryDrainer("TelemetryHistory", 
+                                                                                                 this.telemetryRing, 
+                                                                                                 this.telemetryHistory, 
+                                                                                                 HISTORY_INTERVAL_MILLIS)
+                                                                          : null;
+        }
+        
         // *** Befuellen der dataMap... ***
         // Die dataMap muss mit allen Key-Eintraegen befuellt werden, sonst 
         // ist setProperty(String key, Object newValue) unwirksam!
@@ -671,35 +1557,150 @@ public class Model
         {
             this.dataMap.put(key, null);
         }
+        this.dataMap.put(CONTROL_STRATEGY_KEY, this.controlStrategy.getName());
         
         {
-            ArduinoI2C arduinoLoc = null;
-            MotorDriverHAT motorDriverHATLoc = null;
-            try
+            ArduinoDevice arduinoLoc = null;
+            MotorDriver motorDriverLoc = null;
+            if (this.isSimulation)
             {
-                // i2cBus wird nicht in Instanzvariable abgelegt, da ueber I2CFactory erreichbar!
-                final I2CBus i2cBus = isRaspi? I2CFactory.getInstance(I2CBus.BUS_1) : null;
-                // Verbindung zum Arduino instanziieren...
-                arduinoLoc = isRaspi? (new ArduinoI2C((i2cBus != null)? i2cBus.getDevice(ARDUINO_ADDRESS) : null)) 
-                                     : null;
-                
-                // MotorDriverHAT instanziieren (auf der Adresse und mit der Frequenz)...
-                motorDriverHATLoc = isRaspi? (new MotorDriverHAT(((i2cBus != null)? i2cBus.getDevice(MD_HAT_ADDRESS) : null),
-                                                                 MD_HAT_FREQUENCY))
-                                            : null;
+                // Simulierter Arduino und virtuelle Motoren (Lauf z.B. auf x86-Linux)...
+                final SimulatedMotors motors = new SimulatedMotors(getIntProperty(properties, SIMULATION_MAX_SPEED_KEY, DEFAULT_SIMULATION_MAX_SPEED),
+                                                                   1_000_000L * getIntProperty(properties, SIMULATION_TIME_CONSTANT_KEY, DEFAULT_SIMULATION_TIME_CONSTANT));
+                arduinoLoc = new SimulatedArduino(motors, 
+                                                  1_000L * getIntProperty(properties, SIMULATION_LATENCY_KEY, 0),
+                                                  getDoubleProperty(properties, SIMULATION_FAULT_RATE_KEY, 0.0));
+                motorDriverLoc = motors;
             }
-            catch (UnsupportedBusNumberException | IOException exception)
+            else if (isRaspi)
             {
-                logger.error(exception.toString(), exception);
-                System.err.println(exception.toString());
-                System.exit(0);
-            }
-            this.arduinoI2C = arduinoLoc;
+                try
+                {
+                    // i2cBus wird nicht in Instanzvariable abgelegt, da ueber I2CFactory erreichbar!
+                    final I2CBus i2cBus = I2CFactory.getInstance(I2CBus.BUS_1);
+                    // Verbindung zum Arduino instanziieren...
+                    final I2CDevice arduinoI2CDevice = i2cBus.getDevice(ARDUINO_ADDRESS);
+                    final ArduinoDevice legacy = new ArduinoI2CDevice(new ArduinoI2C(arduinoI2CDevice));
+                    // Kombinierte Transaktion, falls die Firmware die Version unterstuetzt...
+                    final int protocolVersion = getIntProperty(properties, ARDUINO_PROTOCOL_KEY, ArduinoFrameDevice.PROTOCOL_VERSION);
+                    arduinoLoc = (protocolVersion > 0)? new ArduinoFrameDevice(arduinoI2CDevice, legacy, protocolVersion) : legacy;
+                    
+                    // MotorDriverHAT instanziieren (auf der Adresse und mit der Frequenz)...
+                    motorDriverLoc = new MotorDriverHATDevice(new MotorDriverHAT(i2cBus.getDevice(MD_HAT_ADDRESS), 
+                                                                                 MD_HAT_FREQUENCY));
+                }
+                catch (UnsupportedBusNumberException | IOException exception)
+                {
+                    logger.error(exception.toString(), exception);
+                    System.err.println(exception.toString());
+                    System.exit(0);
+                }
+            }
+            this.arduinoDevice = arduinoLoc;
             // Status der Kommunikation auf NOP und token auf 0L...
             this.i2cStatus = ArduinoI2C.Status.NOP;
             this.token = 0L;
             
-            this.motorDriverHAT = motorDriverHATLoc;
+            this.motorDriver = motorDriverLoc;
+            
+            // Pipeline-Betrieb: Bus-Transaktionen im eigenen Thread...
+            this.busWorker = ((this.arduinoDevice != null) && (this.motorDriver != null) && getBooleanProperty(properties, BUS_PIPELINE_KEY, false))
+                           ? new BusWorker("bus-worker", this.arduinoDevice, this.motorDriver) 
+                           : null;
+            logger.debug("busPipeline=" + (this.busWorker != null));
+            
+            // Fehlerbehandlung mit begrenzter, exponentiell wachsender Wartezeit...
+            this.busRecovery = new BusRecovery(1_000_000L * getIntProperty(properties, RECOVERY_BACKOFF_KEY, DEFAULT_RECOVERY_BACKOFF), 
+                                               1_000_000L * getIntProperty(properties, RECOVERY_MAX_BACKOFF_KEY, DEFAULT_RECOVERY_MAX_BACKOFF), 
+                                               getIntProperty(properties, RECOVERY_MAX_ATTEMPTS_KEY, 0), 
+                                               getIntProperty(properties, RECOVERY_STABLE_CYCLES_KEY, DEFAULT_RECOVERY_STABLE_CYCLES));
+        }
+        
+        {
+            //////////////////////////////////////////////////////////////////////////
+            // ControlLoop anlegen...
+            // Der Regelzyklus laeuft in einem eigenen Thread, der GPIO-Listener
+            // stoesst den Zyklus nur noch an (oder der Thread taktet sich selbst)...
+            // Bei Simulation gibt es keine Taktung durch den Arduino, daher Eigentaktung...
+            final ControlLoop.Mode controlLoopMode = this.isSimulation? ControlLoop.Mode.FIXED_RATE 
+                                                                      : getEnumProperty(properties, CONTROL_LOOP_MODE_KEY, 
+                                                                                        ControlLoop.Mode.class, ControlLoop.Mode.TRIGGERED);
+            final int controlLoopRate = getIntProperty(properties, CONTROL_LOOP_RATE_KEY, DEFAULT_CONTROL_LOOP_RATE);
+            final int controlLoopPriority = getIntProperty(properties, CONTROL_LOOP_PRIORITY_KEY, Thread.MAX_PRIORITY);
+            this.controlLoop = (this.arduinoDevice != null)? new ControlLoop("control-loop", 
+                                                                             controlLoopMode,
+                                                                             (controlLoopRate > 0)? (1_000_000_000L / controlLoopRate) : 0L,
+                                                                             controlLoopPriority,
+                                                                             new Runnable()
+                                                                             {
+                                                                                 @Override
+                                                                                 public void run()
+                                                                                 {
+                                                                                     doCycle();
+                                                                                 }
+                                                                             })
+                                                           : null;
+            
+            // Zeitverhalten des Regelzyklus, Frist in der Regel die nominelle Periode...
+            final int cycleDeadline = getIntProperty(properties, CYCLE_DEADLINE_KEY, (controlLoopRate > 0)? (1_000_000 / controlLoopRate) : 0);
+            this.cycleTiming = new CycleTiming(1_000L * cycleDeadline);
+        }
+        
+        {
+            // Kenngroessen des Regelzyklus fuer Prometheus (optional)...
+            final int metricsPort = getIntProperty(properties, METRICS_PORT_KEY, 0);
+            MetricsServer metricsServerLoc = null;
+            if (metricsPort > 0)
+            {
+                try
+                {
+                    metricsServerLoc = new MetricsServer(this, metricsPort);
+                }
+                catch (IOException exception)
+                {
+                    // Ohne MetricsServer weiter, der Regelzyklus ist davon unabhaengig...
+                    logger.error("MetricsServer (Port " + metricsPort + "): " + exception.toString(), exception);
+                }
+            }
+            this.metricsServer = metricsServerLoc;
+        }
+        
+        {
+            // Kommandos und Telemetrie ueber TCP (optional)...
+            final int commandPort = getIntProperty(properties, COMMAND_PORT_KEY, 0);
+            CommandServer commandServerLoc = null;
+            if (commandPort > 0)
+            {
+                try
+                {
+                    commandServerLoc = new CommandServer(this, commandPort);
+                }
+                catch (IOException exception)
+                {
+                    // Ohne CommandServer weiter, der Regelzyklus ist davon unabhaengig...
+                    logger.error("CommandServer (Port " + commandPort + "): " + exception.toString(), exception);
+                }
+            }
+            this.commandServer = commandServerLoc;
+        }
+        
+        {
+            // Anzeige im Browser (optional)...
+            final int dashboardPort = getIntProperty(properties, DASHBOARD_PORT_KEY, 0);
+            DashboardServer dashboardServerLoc = null;
+            if (dashboardPort > 0)
+            {
+                try
+                {
+                    dashboardServerLoc = new DashboardServer(this, dashboardPort);
+                }
+                catch (IOException exception)
+                {
+                    // Ohne DashboardServer weiter, der Regelzyklus ist davon unabhaengig...
+                    logger.error("DashboardServer (Port " + dashboardPort + "): " + exception.toString(), exception);
+                }
+            }
+            this.dashboardServer = dashboardServerLoc;
         }
         
         {
@@ -711,221 +1712,31 @@ public class Model
                 GpioPinDigitalInput gpioInputPin = this.gpioController.provisionDigitalInputPin(Model.GPIO_CYCLE_PIN, 
                                                                                                 Model.GPIO_CYCLE_PIN_NAME, 
                                                                                                 Model.PIN_PULL_RESISTANCE);
-                // Event-Handler (Listener) instanziieren...
-                gpioInputPin.addListener(new GpioPinListenerDigital() 
+                if ((this.controlLoop != null) && (ControlLoop.Mode.TRIGGERED == this.controlLoop.getMode()))
                 {
-                    /**
-                     * Event-Verarbeitung angestossen durch den  ArduinoI2C-Uno...
-                     * <p>
-                     * Der Handler wird in einem festen Takt durch den Arduino beauftragt.
-                     * Innerhalb des Handlers ist die Kommunikation mit dem Arduino und die
-                     * Berechnung der Regelalgorithmen vorzunehmen.
-                     * </p>
-                     */
-                    @Override
-                    public void handleGpioPinDigitalStateChangeEvent(GpioPinDigitalStateChangeEvent event)
+                    // Event-Handler (Listener) instanziieren...
+                    gpioInputPin.addListener(new GpioPinListenerDigital() 
                     {
-                        final GpioPin gpioPin = event.getPin();
-                        final String pinName = gpioPin.getName();
-                        final PinEdge pinEdge = event.getEdge();
-                        // Reaktion erfolgt an der steigenden Flanke...
-                        if (PinEdge.RISING == pinEdge)
+                        /**
+                         * Event-Verarbeitung angestossen durch den  ArduinoI2C-Uno...
+                         * <p>
+                         * Der Handler wird in einem festen Takt durch den Arduino beauftragt.
+                         * Der Handler stoesst nur den Regelzyklus im ControlLoop an, 
+                         * die Kommunikation mit dem Arduino und die Berechnung der 
+                         * Regelalgorithmen erfolgt dort (vgl. doCycle()).
+                         * </p>
+                         */
+                        @Override
+                        public void handleGpioPinDigitalStateChangeEvent(GpioPinDigitalStateChangeEvent event)
                         {
-                            //////////////////////////////////////////////////////////////////////////
-                            // Die Taktung durch den ArduinoI2C hat einen Referenzpunkt 
-                            // erreicht.
-                            // Variable now dient zur zeitlichen Einordnung des Ereignisses...
-                            // Jetzt werden die Kenngroesse der Taktung ermittelt:
-                            // - now: der jetzige Zeitpunkt, 
-                            // -      die Zeitdauer ergibt sich dann
-                            //        durch Differenzbildung zu Model.this.past...
-                            // now wird im weiteren Verlauf im Zustand Model.this.past 
-                            // abgelegt. 
-                            final Instant now = Instant.now();
-                            
-                            // Model.this.past: Zeitpunkt der letzten Taktung...
-                            if (Model.this.past == null)
-                            {
-                                // Erste Beauftragung: Model.this.past = null...
-                                Model.this.past = now;
-                            }
-                            // Model.this.cycleTime: Taktzeit aus der Differenz now - past.
-                            // Ablage der aktuell gemessenen Taktzeit in der Zustandsgroesse cycleTime...
-                            Model.this.cycleTime = toBigDecimalSeconds(Duration.between(Model.this.past, now), 
-                                                                       Model.SCALE_CYCLE_TIME); 
-                            
-                            // ...und Ablage des aktuelle Zeitpunktes...
-                            Model.this.past = now;
-                            //////////////////////////////////////////////////////////////////////////
-                            
-                            if (Model.this.dataMap.containsKey(Model.DATA_KEY))
-                            {
-                                // Die Beauftragung durch Inkrementierung des Zaehlers 
-                                // Model.this.counter 'dokumentieren'...
-                                // Die dataMap haelt die Daten zur Anzeige in der View, hier DATA_KEY => Data(),
-                                // und Data() beinhaltet den aktuellen counter (und weiteres...)
-                                
-                                // Model.this.counter inkrementieren oder zu 1L setzen...
-                                Model.this.counter = ((Model.this.counter + 1L) > 0L)? (Model.this.counter + 1L) : 1L;  
-                                
-                                final Data data = new Data(Model.this.counter, 
-                                                           Model.this.cycleTime,
-                                                           Model.this.token,
-                                                           Model.this.numberMA,
-                                                           Model.this.numberMB,
-                                                           Model.this.outputMA,
-                                                           Model.this.outputMB); 
-                                setProperty(Model.DATA_KEY, data);
-                            }
-                            else
-                            {
-                                
-                            }
-                            label:
-                            {
-                                //////////////////////////////////////////////////////////////////////////////
-                                // Es folgt die Beauftragung der Kommunikation mit dem Arduino...
-                                // 1.) Wenn statusI2C == NOP, dann keine Beauftragung...
-                                //
-                                if (ArduinoI2C.Status.NOP == Model.this.i2cStatus)
-                                {
-                                    break label;
-                                }
-                                if (ArduinoI2C.Status.INITIAL == Model.this.i2cStatus)
-                                {
-                                    // INITIAL wurde durch den Start-Button gesetzt.
-                                    // 1.) Als token 0L einstellen...
-                                    Model.this.token = 0L;
-                                    // 2.) Kommunikation beginnen...
-                                }
-                                try
-                                {
-                                    //////////////////////////////////////////////////////////////////////////
-                                    // tokenToArduino: Lokale Variable, die vier unteren Bytes 
-                                    //                 der long-Instanzvariable this.token...
-                                    final long tokenToArduino = (Model.this.token & 0xffffffff);
-                                    Model.this.arduinoI2C.write(tokenToArduino, Model.this.i2cStatus);
-                                    logger.debug("i2c-Bus: " + tokenToArduino + " gesendet...");
-                                    
-                                    ArduinoI2C.DataRequest request = Model.this.arduinoI2C.read();
-                                    logger.debug("i2c-Bus: " + request.toString() + " gelesen...");
-                                    final long tokenFromArduino = request.getToken();
-                                    final ArduinoI2C.Status statusFromArduino = request.getStatus();
-                                    // valueFromArduino beinhaltet die 4 Byte-Variante der Daten vom Arduino...
-                                    final int valueFromArduino = request.getValue();
-                                    // numberMAFromArduino: Anzahl Impulse Motor A...
-                                    final int numberMAFromArduino = request.getNumberMA();
-                                    // numberMBFromArduino: Anzahl Impulse Motor B...
-                                    final int numberMBFromArduino = request.getNumberMB();
-                                    // Der Arduino wird den token inkrementieren und als
-                                    // neuen Token zurueckschicken. Wenn die Differenz
-                                    // gleich 1L ist, kann man davon ausgehen, dass auf
-                                    // dem Arduino alles korrekt laeuft...
-                                    if ((tokenFromArduino - tokenToArduino == 1L) 
-                                     && (ArduinoI2C.Status.SUCCESS == statusFromArduino))
-                                    {
-                                        Model.this.i2cStatus = ArduinoI2C.Status.SUCCESS;
-                                        Model.this.token = (tokenFromArduino & 0xffffffff);
-                                        
-                                        // "Umschiften..."
-                                        Model.this.totalMA[0] = Model.this.totalMA[1];
-                                        Model.this.totalMA[1] = numberMAFromArduino;
-                                        Model.this.controlMA[0] = Model.this.controlMA[1];
-                                        // diffMA => Zuwachs Motor A:
-                                        final long diffMA = Model.this.totalMA[1] - Model.this.totalMA[0];
-                                                
-                                        Model.this.totalMB[0] = Model.this.totalMB[1];
-                                        Model.this.totalMB[1] = numberMBFromArduino;
-                                        Model.this.controlMB[0] = Model.this.controlMB[1];
-                                        // diffMB => Zuwachs Motor B:
-                                        final long diffMB = Model.this.totalMB[1] - Model.this.totalMB[0];
-                                        
-                                        final int signumMA = Model.this.controlMA[0].signum();
-                                        final int signumMB = Model.this.controlMB[0].signum();
-                                        
-                                        // numberMA/numberMB - absolute Lage der Motoren in Impulse:
-                                        Model.this.numberMA += signumMA * diffMA;
-                                        Model.this.numberMB += signumMB * diffMB;
-                                        
-                                        final String msg = new StringBuilder().append("Sollwert=")
-                                                                              .append(Model.this.numberSetPoint)
-                                                                              .append(", Istwerte: ")
-                                                                              .append(Model.this.numberMA)
-                                                                              .append(" ")
-                                                                              .append(Model.this.numberMB)
-                                                                              .append(", Limitierungen: ")
-                                                                              .append(Model.this.maxValueMA)
-                                                                              .append(" ")
-                                                                              .append(Model.this.maxValueMB)
-                                                                              .toString();
-                                        
-                                        logger.debug(msg);
-                                        
-                                        final PositionController.Output output = Model.this.getPositionController().doControl(Model.this.numberSetPoint,
-                                                                                                                              Model.this.numberMA, Model.this.numberMB,
-                                                                                                                              Model.this.maxValueMA, Model.this.maxValueMB);
-                                        
-                                        logger.debug("doControl(): " + output.toString());
-                                        
-                                        Model.this.outputMA = Model.this.isControlled? output.getOutputMA() : BigDecimal.ZERO.setScale(SCALE_OUTPUT);
-                                        Model.this.outputMB = Model.this.isControlled? output.getOutputMB() : BigDecimal.ZERO.setScale(SCALE_OUTPUT);
-                                        
-                                        // outputMA und outputMB merken...
-                                        Model.this.controlMA[1] = Model.this.outputMA;
-                                        Model.this.controlMB[1] = Model.this.outputMB;
-                                        
-                                        //
-                                        final float speedMA = ((Model.this.outputMA != null)? Model.this.outputMA.floatValue() : 0.0F);
-                                        final float speedMB = ((Model.this.outputMB != null)? Model.this.outputMB.floatValue() : 0.0F);
-                                        
-                                        Model.this.motorDriverHAT.setPwmMA(speedMA);
-                                        Model.this.motorDriverHAT.setPwmMB(speedMB);
-                                        
-                                    }
-                                    else
-                                    {
-                                        Model.this.i2cStatus = ArduinoI2C.Status.ERROR;
-                                        
-                                        Model.this.motorDriverHAT.setPwmMA(0.0F);
-                                        Model.this.motorDriverHAT.setPwmMB(0.0F);
-                                    }
-                                } 
-                                catch (IOException exception)
-                                {
-                                    logger.error(exception.toString(), exception);
-                                    System.err.println(exception.toString());
-                                }
-                            }
-                            //
-                            //////////////////////////////////////////////////////////////////////////
-                            
+                            // Reaktion erfolgt an der steigenden Flanke...
+                            if (PinEdge.RISING == event.getEdge())
                             {
-                                //////////////////////////////////////////////////////////////////////////////////////////////////
-                                // Testausgabe: Dauer der Bearbeitung von handleGpioPinDigitalStateChangeEvent() von 0.001 ... 0.006s
-                                // final BigDecimal duration = toBigDecimalSeconds(Duration.between(Model.this.past, Instant.now()), 
-                                //                                                 Model.SCALE_CYCLE_TIME); 
-                                // Evtl. Log-Ausgabe...
-                                // logger.debug("Dauer handleGpioPinDigitalStateChangeEvent() in s: " + duration);
-                                //////////////////////////////////////////////////////////////////////////////////////////////////
+                                Model.this.controlLoop.trigger();
                             }
-                        } // end() - (PinEdge.RISING == pinEdge).
-                    }
-                    
-                    /**
-                     * toBigDecimalSeconds(Duration duration) - liefert die Anzahl der Sekunden
-                     * <p>
-                     * Vgl. toBigDecimalSeconds() aus Duration in Java 11.
-                     * </p<
-                     * @param duration
-                     * @return
-                     */
-                    private BigDecimal toBigDecimalSeconds(Duration duration, int scale)
-                    {
-                        Objects.requireNonNull(duration, "duration must not be null!");
-                        final BigDecimal result = BigDecimal.valueOf(duration.getSeconds()).add(BigDecimal.valueOf(duration.getNano(), 9)).setScale(scale,  BigDecimal.ROUND_HALF_UP);
-                        return (result.compareTo(BigDecimal.ONE.movePointLeft(scale)) < 0)? BigDecimal.ZERO : result;   
-                    }
-                });
+                        }
+                    });
+                }
                 this.gpioPinDigitalInputCyclePin = gpioInputPin;
                 // Ablage eines "leeren (Default-)" Data-Objektes in der dataMap...
                 // Dem Key Model.DATA_KEY wird beispielsweise das Value Long.valueOf(0L) zugeordnet.
@@ -968,204 +1779,1192 @@ public class Model
         // Einige Daten initial setzen...
         setProperty(CONTROL_KEY, Boolean.FALSE);
         setProperty(GUI_STATUS_KEY, GuiStatus.INIT);
+        
+        if (this.telemetryLogger != null)
+        {
+            this.telemetryLogger.start();
+        }
+        
+        if (this.flightRecorderDrainer != null)
+        {
+            this.flightRecorderDrainer.start();
+        }
+        
+        if (this.telemetryHistoryDrainer != null)
+        {
+            this.telemetryHistoryDrainer.start();
+        }
+        
+        if (this.busWorker != null)
+        {
+            this.busWorker.start();
+        }
+        
+        if (this.metricsServer != null)
+        {
+            this.metricsServer.start();
+        }
+        
+        if (this.commandServer != null)
+        {
+            this.commandServer.start();
+        }
+        
+        if (this.dashboardServer != null)
+        {
+            this.dashboardServer.start();
+        }
+        
+        // ...und zum Schluss den ControlLoop starten...
+        if (this.controlLoop != null)
+        {
+            this.controlLoop.start();
+        }
     }
      
     /**
-     * 
-     * @param listener
+     * doCycle() - der eigentliche Regelzyklus, wird im Thread des ControlLoop ausgefuehrt...
+     * <p>
+     * Der Zyklus wird in einem festen Takt durch den Arduino angestossen (GPIO-Flanke) 
+     * oder durch die Eigentaktung des ControlLoop. Innerhalb des Zyklus ist die 
+     * Kommunikation mit dem Arduino und die Berechnung der Regelalgorithmen vorzunehmen.
+     * </p>
      */
-    public void addPropertyChangeListener(PropertyChangeListener listener)
+    private void doCycle()
     {
-        this.support.addPropertyChangeListener(listener);
-    }
+        //////////////////////////////////////////////////////////////////////////
+        // Die Taktung durch den ArduinoI2C hat einen Referenzpunkt 
+        // erreicht.
+        // Variable now dient zur zeitlichen Einordnung des Ereignisses...
+        // Jetzt werden die Kenngroesse der Taktung ermittelt:
+        // - now: der jetzige Zeitpunkt, 
+        // -      die Zeitdauer ergibt sich dann
+        //        durch Differenzbildung zu this.past...
+        // now wird im weiteren Verlauf im Zustand this.past 
+        // abgelegt. 
+        final long now = System.nanoTime();
+        final PhaseTimers phases = this.phaseTimers;
+        phases.start(now);
+        this.cycleFlags = 0;
+        
+        // this.past: Zeitpunkt der letzten Taktung...
+        if (!this.hasPast)
+        {
+            // Erste Beauftragung: this.past noch nicht gesetzt...
+            this.past = now;
+            this.hasPast = true;
+        }
+        // this.cycleTimeNanos: Taktzeit aus der Differenz now - past.
+        // Ablage der aktuell gemessenen Taktzeit in der Zustandsgroesse cycleTimeNanos...
+        this.cycleTimeNanos = now - this.past; 
+        
+        // ...und Ablage des aktuelle Zeitpunktes...
+        this.past = now;
+        //////////////////////////////////////////////////////////////////////////
 
-    /**
-     * 
-     * @param listener
-     */
-    public void removePropertyChangeListener(PropertyChangeListener listener)
-    {
-        this.support.removePropertyChangeListener(listener);
-    }
+        // Start, Stop und Reset (doStart(), doStop(), doReset()) uebernehmen...
+        applyRunRequests();
 
-    /**
-     * setProperty(String key, Object newValue) - Die View wird informiert...
-     * 
-     * @param key
-     * @param newValue
-     */
-    public void setProperty(String key, Object newValue)
-    {
-        if (this.dataMap.containsKey(key))
+        // Steht ein Austausch des Regelgesetzes an, wird das neue Regelgesetz
+        // zurueckgesetzt und uebernommen (zwischen zwei Zyklen)...
         {
-            Object oldValue = this.dataMap.get(key); 
-            this.dataMap.put(key, newValue);
-            
-            if (Model.DESTINATION_KEY.equals(key))
+            final ControlStrategy strategy = this.pendingControlStrategy.getAndSet(null);
+            if (strategy != null)
             {
-                if (newValue instanceof String)
+                if ((strategy == this.relayAutotuner) && (this.controlStrategy != this.relayAutotuner))
                 {
-                    logger.debug("destination=" + newValue);
+                    this.strategyBeforeAutotune = this.controlStrategy;
+                }
+                final ControlStrategy previous = this.controlStrategy;
+                strategy.reset();
+                this.controlStrategy = strategy;
+                if (strategy != previous)
+                {
+                    // Die Auswahl in der View dem aktiven Regelgesetz nachfuehren...
+                    publishControlStrategy(strategy);
                 }
             }
-            
-            if (Model.NUMBER_SET_POINT_KEY.equals(key))
+        }
+        
+        // Die Beauftragung durch Inkrementierung des Zaehlers 
+        // this.counter 'dokumentieren'...
+        // this.counter inkrementieren oder zu 1L setzen...
+        this.counter = ((this.counter + 1L) > 0L)? (this.counter + 1L) : 1L;  
+        phases.lap(PhaseTimers.Phase.CYCLE);
+        
+        label:
+        {
+            //////////////////////////////////////////////////////////////////////////////
+            // Es folgt die Beauftragung der Kommunikation mit dem Arduino...
+            // 1.) Wenn statusI2C == NOP, dann keine Beauftragung...
+            //
+            if (ArduinoI2C.Status.NOP == this.i2cStatus)
             {
-            
-            }    
-                
-            if (Model.VALUE_MA_KEY.equals(key))
+                // Eine evtl. noch vorliegende Antwort des BusWorker verwerfen...
+                this.hasBusJob = false;
+                this.pwmSampleNanos = 0L;
+                break label;
+            }
+            if (ArduinoI2C.Status.INITIAL == this.i2cStatus)
             {
-                if (newValue instanceof BigDecimal)
-                {
-                    this.valueMA = (BigDecimal) newValue;
-                    
-                    logger.debug("valueMA=" + this.valueMA.toString());
-                }    
+                // INITIAL wurde durch den Start-Button gesetzt.
+                // 1.) Als token 0L einstellen...
+                this.token = 0L;
+                // 2.) Fehlerbehandlung neu beginnen...
+                this.busRecovery.reset();
+                // 3.) Kommunikation beginnen...
             }
-            
-            if (Model.VALUE_MB_KEY.equals(key))
+            final BusRecovery.State recoveryState = this.busRecovery.getState();
+            if ((BusRecovery.State.HOLD == recoveryState) || (BusRecovery.State.FAILED == recoveryState))
             {
-                if (newValue instanceof BigDecimal)
+                // Fehlerbehandlung: Ist das Anhalten der Motoren nach dem Busfehler 
+                // fehlgeschlagen, wird es in jedem Zyklus wiederholt (im Pipeline-Betrieb
+                // erst, wenn der BusWorker keinen Auftrag mehr bearbeitet)...
+                if (!this.motorsHalted && ((this.busWorker == null) || this.busWorker.isIdle()))
                 {
-                    this.valueMB = (BigDecimal) newValue;
-                    
-                    logger.debug("valueMB=" + this.valueMB.toString());
-                }    
+                    holdMotors();
+                }
             }
-
-            if (Model.MAX_VALUE_MA_KEY.equals(key))
+            if (!this.busRecovery.isReady(now))
             {
-                if (newValue instanceof BigDecimal)
-                {
-                    this.maxValueMA = (BigDecimal) newValue;
-                    
-                    logger.debug("maxValueMA=" + this.maxValueMA.toString());
-                }    
+                // Fehlerbehandlung: Waehrend der Wartezeit (bzw. nach erfolglosen 
+                // Versuchen) keine Kommunikation, die Motoren stehen...
+                break label;
             }
-            
-            if (Model.MAX_VALUE_MB_KEY.equals(key))
+            if (BusRecovery.State.HOLD == recoveryState)
             {
-                if (newValue instanceof BigDecimal)
-                {
-                    this.maxValueMB = (BigDecimal) newValue;
-                    
-                    logger.debug("maxValueMB=" + this.maxValueMB.toString());
-                }    
+                // Uebergang HOLD -> RESYNC: eine evtl. noch vorliegende Antwort 
+                // des BusWorker stammt aus der Zeit vor der Wartezeit...
+                this.hasBusJob = false;
             }
-            
-            if (Model.CONTROL_KEY.equals(key))
+            if (this.busWorker != null)
             {
-                if (newValue instanceof Boolean)
-                {
-                    this.isControlled = Boolean.TRUE.equals(newValue);
-                    
-                    logger.debug("isControlled=" + this.isControlled);
-                }
+                // Pipeline-Betrieb: Bus-Transaktionen im BusWorker...
+                doPipelinedExchange(now);
+                break label;
             }
-            
-            if (Model.ENHANCEMENT_KEY.equals(key))
+            try
             {
-                if (newValue instanceof BigDecimal)
+                //////////////////////////////////////////////////////////////////////////
+                // tokenToArduino: Lokale Variable, die vier unteren Bytes 
+                //                 der long-Instanzvariable this.token...
+                final long tokenToArduino = (this.token & 0xFFFFFFFFL);
+                final ArduinoResponse request = this.arduinoResponse;
+                final long exchangeStart = System.nanoTime();
+                // Senden und Lesen (je nach Protokoll in einer Transaktion)...
+                this.arduinoDevice.exchange(tokenToArduino, this.i2cStatus, request);
+                phases.lap(PhaseTimers.Phase.EXCHANGE);
+                if (logger.isDebugEnabled())
                 {
-                    // Die Verstaerkung (enhancement) findet sich nicht im Model,
-                    // sondern im PositionController, daher Zugriff ueber 'Delegate'...
-                    setEnhancement((BigDecimal) newValue);
+                    logger.debug("i2c-Bus: " + tokenToArduino + " gesendet, " + request.toString() + " gelesen...");
+                }
+                if (acceptResponse(now, tokenToArduino, request))
+                {
+                    doControl(now, exchangeStart, request);
+                    phases.lap(PhaseTimers.Phase.CONTROL);
                     
-                    logger.debug("enhancement=" + getEnhancement().toString());
-                }    
+                    //
+                    final float speedMA = (float)this.outputMA;
+                    final float speedMB = (float)this.outputMB;
+                    
+                    this.motorDriver.setPwmMA(speedMA);
+                    this.motorDriver.setPwmMB(speedMB);
+                    phases.lap(PhaseTimers.Phase.PWM);
+                    
+                    // Latenz: Beginn des Token-Austauschs bis zur Ausgabe der Stellgroessen...
+                    this.latencyStats.add(System.nanoTime() - exchangeStart);
+                }
+                else
+                {
+                    this.motorDriver.setPwmMA(0.0F);
+                    this.motorDriver.setPwmMB(0.0F);
+                    this.motorsHalted = true;
+                }
+            } 
+            catch (IOException exception)
+            {
+                logger.error(exception.toString(), exception);
+                System.err.println(exception.toString());
+                onBusFailure(now);
+                // Motoren anhalten...
+                holdMotors();
             }
-            
-            ////////////////////////////////////////////////////////////////////////
-            // Evtl. Kein Logging an dieser Stelle...
-            // if (oldValue == null || newValue == null || !oldValue.equals(newValue))
-            // {
-            //     logger.debug(key + ": " + oldValue + " => " + newValue);
-            // }
-            ////////////////////////////////////////////////////////////////////////
-            
-            support.firePropertyChange(key, oldValue, newValue);
+        }
+        //
+        //////////////////////////////////////////////////////////////////////////
+        
+        //////////////////////////////////////////////////////////////////////////
+        // Zustandsgroessen des Zyklus in den naechsten CycleRecord eintragen
+        // und veroeffentlichen (kein neues Objekt, kein Event an die View).
+        // Sollwert, Istwerte und Stellgroessen protokolliert der TelemetryLogger...
+        {
+            final CycleRecord record = this.telemetryRing.claim();
+            record.set(this.counter, 
+                       now,
+                       this.cycleTimeNanos,
+                       this.token,
+                       this.i2cStatus,
+                       this.totalMA[1],
+                       this.totalMB[1],
+                       this.referenceSetPoint,
+                       this.numberMA,
+                       this.numberMB,
+                       this.outputMA,
+                       this.outputMB);
+            record.setEstimate(this.estimatorMA.getPosition(), this.estimatorMA.getVelocity(),
+                               this.estimatorMB.getPosition(), this.estimatorMB.getVelocity());
+            final ControlInput input = this.controlInput;
+            record.setControl(this.cycleFlags, 
+                              input.getSampleTimeNanos(),
+                              input.getMaxValueMA(), input.getMaxValueMB(), 
+                              input.getReferenceVelocity(), input.getReferenceAcceleration());
+            // Regelgesetz und Verstaerkung, damit die ReplayEngine Wechsel 
+            // (z.B. nach dem Relaisversuch) nachvollziehen kann...
+            record.setStrategy(CycleRecord.getStrategyId(this.controlStrategy.getName()), 
+                               this.enhancementValue);
+            this.telemetryRing.publish();
+            phases.lap(PhaseTimers.Phase.TELEMETRY);
+        }
+        //////////////////////////////////////////////////////////////////////////
+        
+        {
+            //////////////////////////////////////////////////////////////////////////////////////////////////
+            // Dauer der Bearbeitung von doCycle() (typisch 0.001 ... 0.006s) und Periode 
+            // in die Histogramme eintragen...
+            this.cycleTiming.record(this.cycleTimeNanos, System.nanoTime() - now);
+            //////////////////////////////////////////////////////////////////////////////////////////////////
         }
     }
-    
+
     /**
-     * 
-     * @param speed
-     * @throws IOException 
+     * applyRunRequests() - Anforderungen aus doStart(), doStop() und doReset()
+     * umsetzen (im Regelzyklus bzw. ohne ControlLoop direkt)...
+     * <p>
+     * Die Anforderungen werden zu Beginn eines Zyklus uebernommen, d.h. nie
+     * waehrend eines Token-Austauschs. Beim Uebergang nach NOP werden die
+     * Motoren angehalten (der Zweig NOP in doCycle() gibt keine Stellgroesse
+     * mehr aus).
+     * </p>
      */
-    public void setPwmMA(float speed) throws IOException
+    private void applyRunRequests()
     {
-        if (this.motorDriverHAT != null)
+        final int request = this.runRequest.getAndSet(RUN_NONE);
+        if (RUN_STOP == request)
         {
-            this.motorDriverHAT.setPwmMA(speed);
+            setI2cStatus(ArduinoI2C.Status.NOP);
+            doClear();
+            haltMotors();
         }
-        else
+        else if (RUN_START == request)
         {
-            logger.error("Fehler setPwmMA()!");   
+            setI2cStatus(ArduinoI2C.Status.INITIAL);
+            // Bahnplanung und Schaetzung ab der aktuellen Lage der Motoren...
+            this.profileRequest.set(PROFILE_FROM_ACTUAL);
+            this.estimatorReset.set(true);
+            // Statistik des Regelzyklus fuer diesen Lauf...
+            this.latencyStats.reset();
+            this.busOverruns = 0L;
+            this.cycleTiming.requestReset();
+            this.phaseTimers.requestReset();
+        }
+        if (this.resetRequest.getAndSet(false))
+        {
+            this.token = 0L;
+            this.numberMA = 0L;
+            this.numberMB = 0L;
+            // Bahnplanung ab der (zurueckgesetzten) Lage der Motoren...
+            this.profileRequest.set(PROFILE_FROM_ACTUAL);
+            // Zustandsgroessen zuruecksetzen...
+            doClear();
         }
     }
-    
+
     /**
-     * 
-     * @param speed
-     * @throws IOException 
+     * haltMotors() - Stellgroessen 0 an beide Motoren ausgeben...
      */
-    public void setPwmMB(float speed) throws IOException
+    private void haltMotors()
     {
-        if (this.motorDriverHAT != null)
+        if (this.busWorker != null)
         {
-            this.motorDriverHAT.setPwmMB(speed);
+            // Pipeline-Betrieb: Stellgroessen des laufenden Auftrags verwerfen und
+            // dessen Ende abwarten, erst dann den Motortreiber direkt ansprechen...
+            this.busWorker.cancelPwm();
+            if (!this.busWorker.await(BUS_TIMEOUT_NANOS))
+            {
+                // ...der BusWorker gibt nach dem Token-Austausch selbst 0 aus.
+                return;
+            }
         }
-        else
+        try
         {
-            logger.error("Fehler setPwmMB()!");   
+            setPwmMA(0.0F);
+            setPwmMB(0.0F);
+        }
+        catch (IOException exception)
+        {
+            logger.error(exception.toString(), exception);
+            System.err.println(exception.toString());
         }
     }
 
     /**
-     * 
-     * @param destination
+     * acceptResponse(long now, long tokenToArduino, ArduinoResponse response) - Pruefung 
+     * der Antwort des Arduino, setzt i2cStatus und token...
+     * <p>
+     * Der Arduino wird den token inkrementieren und als neuen Token zurueckschicken. 
+     * Wenn die Differenz gleich 1L ist, kann man davon ausgehen, dass auf dem Arduino 
+     * alles korrekt laeuft...
+     * </p>
+     * <p>
+     * Waehrend der Fehlerbehandlung (vgl. BusRecovery) wird der token des Arduino 
+     * uebernommen und die Impulszaehler neu aufgesetzt, die Motoren bleiben stehen,
+     * bis genuegend konsistente Antworten vorliegen.
+     * </p>
+     * @param now Zeitpunkt des Zyklus (System.nanoTime())
+     * @param tokenToArduino gesendeter token
+     * @param response Antwort des Arduino
+     * @return true, falls die Antwort gueltig ist und geregelt werden darf
      */
-    public void calculateNumberSetPoint(BigDecimal destination)
+    private boolean acceptResponse(long now, long tokenToArduino, ArduinoResponse response)
     {
-        this.numberSetPoint = destination.multiply(BigDecimal.valueOf(Model.CIRCUMFERENCE)).setScale(0, BigDecimal.ROUND_UP).longValue();
-        setProperty(Model.NUMBER_SET_POINT_KEY, Long.valueOf(this.numberSetPoint));
+        final long tokenFromArduino = response.getToken();
+        final ArduinoI2C.Status statusFromArduino = response.getStatus();
+        final boolean isConsistent = (tokenFromArduino - tokenToArduino == 1L) 
+                                  && (ArduinoI2C.Status.SUCCESS == statusFromArduino);
+        if (this.busRecovery.isRecovering())
+        {
+            if (ArduinoI2C.Status.SUCCESS != statusFromArduino)
+            {
+                onBusFailure(now);
+                return false;
+            }
+            // token des Arduino uebernehmen (Resynchronisation)...
+            this.token = (tokenFromArduino & 0xFFFFFFFFL);
+            resyncCounts(response);
+            if (this.busRecovery.onResync(now, isConsistent))
+            {
+                setI2cStatus(ArduinoI2C.Status.SUCCESS);
+                // Bahnplanung, Schaetzung und Regelgesetz ab der aktuellen Lage...
+                this.profileRequest.set(PROFILE_FROM_ACTUAL);
+                this.estimatorReset.set(true);
+                this.pendingControlStrategy.compareAndSet(null, this.controlStrategy);
+                logger.info("i2c-Bus: Kommunikation wieder aufgenommen " + this.busRecovery.toString());
+            }
+            return false;
+        }
+        if (isConsistent)
+        {
+            setI2cStatus(ArduinoI2C.Status.SUCCESS);
+            this.token = (tokenFromArduino & 0xFFFFFFFFL);
+            return true;
+        }
+        onBusFailure(now);
+        return false;
     }
     
     /**
-     * 
-     * @param numberSetPoint
+     * setI2cStatus(ArduinoI2C.Status status) - setzt i2cStatus und zaehlt den Uebergang
+     * (nur bei einer Aenderung)...
+     * @param status neuer Status
      */
-    public void setNumberSetPoint(long numberSetPoint)
+    private void setI2cStatus(ArduinoI2C.Status status)
     {
-        this.numberSetPoint = numberSetPoint;
+        final ArduinoI2C.Status previous = this.i2cStatus;
+        if (previous != status)
+        {
+            this.i2cStatus = status;
+            this.i2cTransitions.incrementAndGet(previous.ordinal() * I2C_STATUS.length + status.ordinal());
+        }
     }
     
     /**
-     * 
-     * @return
+     * onBusFailure(long now) - Busfehler bzw. inkonsistente Antwort: i2cStatus ERROR,
+     * Fehlerbehandlung mit Wartezeit (vgl. BusRecovery)...
+     * @param now Zeitpunkt des Zyklus (System.nanoTime())
      */
-    public PositionController getPositionController()
+    private void onBusFailure(long now)
     {
-        return this.positionController;
-    }
-    
+        setI2cStatus(ArduinoI2C.Status.ERROR);
+        // Bis zur erfolgreichen Ausgabe von 0 (holdMotors()) gelten die Motoren als laufend...
+        this.motorsHalted = false;
+        final boolean isFirst = !this.busRecovery.isRecovering();
+        this.busRecovery.onFailure(now);
+        if (isFirst)
+        {
+            logger.warn("i2c-Bus: Fehler, Motoren angehalten " + this.busRecovery.toString());
+        }
+        else if (BusRecovery.State.FAILED == this.busRecovery.getState())
+        {
+            logger.error("i2c-Bus: Wiederaufnahme erfolglos, Neustart erforderlich " + this.busRecovery.toString());
+        }
+    }
+    
+    /**
+     * holdMotors() - 0 an beide Motoren ausgeben, motorsHalted erst nach
+     * erfolgreicher Ausgabe setzen (sonst Wiederholung im naechsten Zyklus)...
+     * <p>
+     * Im Pipeline-Betrieb nur aufrufen, wenn der BusWorker keinen Auftrag 
+     * bearbeitet (BusWorker.isIdle()).
+     * </p>
+     */
+    private void holdMotors()
+    {
+        try
+        {
+            this.motorDriver.setPwmMA(0.0F);
+            this.motorDriver.setPwmMB(0.0F);
+            this.motorsHalted = true;
+        }
+        catch (IOException exception)
+        {
+            // ...der Bus ist gestoert, naechster Versuch im naechsten Zyklus...
+            this.motorsHalted = false;
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Motoren anhalten fehlgeschlagen: " + exception.toString());
+            }
+        }
+    }
+    
+    /**
+     * resyncCounts(ArduinoResponse response) - Impulszaehler waehrend der 
+     * Fehlerbehandlung neu aufsetzen...
+     * <p>
+     * Die seit der letzten gueltigen Antwort gezaehlten Impulse werden mit der 
+     * Drehrichtung der letzten Stellgroesse uebernommen (auslaufende Motoren). 
+     * Ist der Zaehler des Arduino kleiner geworden (Neustart des Arduino), 
+     * gilt nur der neue Zaehlerstand als Bezug.
+     * </p>
+     * @param response Antwort des Arduino
+     */
+    private void resyncCounts(ArduinoResponse response)
+    {
+        final long countMA = response.getNumberMA();
+        final long countMB = response.getNumberMB();
+        if (countMA >= this.totalMA[1])
+        {
+            this.numberMA += (long)Math.signum(this.controlMA[1]) * (countMA - this.totalMA[1]);
+        }
+        if (countMB >= this.totalMB[1])
+        {
+            this.numberMB += (long)Math.signum(this.controlMB[1]) * (countMB - this.totalMB[1]);
+        }
+        this.totalMA[0] = countMA;
+        this.totalMA[1] = countMA;
+        this.totalMB[0] = countMB;
+        this.totalMB[1] = countMB;
+    }
+    
+    /**
+     * doControl(long now, long sampleNanos, ArduinoResponse response) - Lage der Motoren 
+     * aus den Impulszaehlern der (gueltigen) Antwort, Schaetzung, Bahnplanung und 
+     * Regelgesetz, Ergebnis in outputMA/outputMB...
+     * @param now Zeitpunkt des Zyklus (System.nanoTime())
+     * @param sampleNanos Beginn des Token-Austauschs der Antwort (System.nanoTime())
+     * @param response Antwort des Arduino
+     */
+    private void doControl(long now, long sampleNanos, ArduinoResponse response)
+    {
+        // dt: Zeit seit der vorherigen ausgewerteten Antwort (nicht seit dem letzten Zyklus)...
+        this.sampleTimeNanos = (this.lastSampleNanos != 0L)? (sampleNanos - this.lastSampleNanos) : 0L;
+        this.lastSampleNanos = sampleNanos;
+        
+        // numberMAFromArduino: Anzahl Impulse Motor A...
+        final int numberMAFromArduino = response.getNumberMA();
+        // numberMBFromArduino: Anzahl Impulse Motor B...
+        final int numberMBFromArduino = response.getNumberMB();
+        
+        // "Umschiften..."
+        this.totalMA[0] = this.totalMA[1];
+        this.totalMA[1] = numberMAFromArduino;
+        this.controlMA[0] = this.controlMA[1];
+        // diffMA => Zuwachs Motor A:
+        final long diffMA = this.totalMA[1] - this.totalMA[0];
+                
+        this.totalMB[0] = this.totalMB[1];
+        this.totalMB[1] = numberMBFromArduino;
+        this.controlMB[0] = this.controlMB[1];
+        // diffMB => Zuwachs Motor B:
+        final long diffMB = this.totalMB[1] - this.totalMB[0];
+        
+        final int signumMA = (int)Math.signum(this.controlMA[0]);
+        final int signumMB = (int)Math.signum(this.controlMB[0]);
+        
+        // numberMA/numberMB - absolute Lage der Motoren in Impulse:
+        this.numberMA += signumMA * diffMA;
+        this.numberMB += signumMB * diffMB;
+        
+        // Schaetzung von Lage und Geschwindigkeit nachfuehren...
+        if (this.estimatorReset.getAndSet(false))
+        {
+            this.estimatorMA.reset(this.numberMA);
+            this.estimatorMB.reset(this.numberMB);
+        }
+        else
+        {
+            this.estimatorMA.update(this.numberMA, this.sampleTimeNanos);
+            this.estimatorMB.update(this.numberMB, this.sampleTimeNanos);
+        }
+        
+        // Fuehrungsgroesse aus der Bahnplanung...
+        final MotionProfile profile = sampleMotionProfile(now);
+        
+        // Aktives Regelgesetz mit primitiven Werten, Ergebnis in this.controlOutput...
+        final ControlInput input = this.controlInput;
+        input.set(this.referenceSetPoint,
+                  this.numberMA, this.numberMB,
+                  this.maxValueMA, this.maxValueMB,
+                  this.sampleTimeNanos,
+                  profile.getVelocity(),
+                  profile.getAcceleration());
+        input.setEstimate(this.estimatorMA.getPosition(), this.estimatorMA.getVelocity(),
+                          this.estimatorMB.getPosition(), this.estimatorMB.getVelocity());
+        final ControlOutput output = this.controlOutput;
+        this.controlStrategy.doControl(input, output);
+        if (this.controlStrategy == this.relayAutotuner && this.relayAutotuner.isFinished())
+        {
+            // Relaisversuch beendet: im naechsten Zyklus mit dem eingestellten PidController
+            // weiter, nach einem erfolglosen Versuch mit dem vorher aktiven Regelgesetz...
+            final boolean isTuned = (RelayAutotuner.State.FINISHED == this.relayAutotuner.getState());
+            this.pendingControlStrategy.compareAndSet(null, isTuned? this.pidController : this.strategyBeforeAutotune);
+            if (isTuned)
+            {
+                // Die ermittelte Verstaerkung als enhancement melden, damit die Anzeige und
+                // spaetere Vorgaben der Verstaerkung zum eingestellten Kp passen...
+                publishEnhancement(BigDecimal.valueOf(this.relayAutotuner.getRecommendedEnhancement())
+                                             .setScale(SCALE_ENHANCEMENT, BigDecimal.ROUND_HALF_UP));
+            }
+        }
+        if (this.isSynchronized)
+        {
+            // Gleichlauf: Kreuzkopplung auf die Lagedifferenz MA - MB...
+            this.crossCoupling.apply(input, output);
+        }
+        
+        this.outputMA = this.isControlled? output.getOutputMA() : 0.0;
+        this.outputMB = this.isControlled? output.getOutputMB() : 0.0;
+        this.cycleFlags = CycleRecord.FLAG_CONTROL 
+                        | (this.isControlled? CycleRecord.FLAG_CONTROLLED : 0) 
+                        | (this.isSynchronized? CycleRecord.FLAG_SYNCHRONIZED : 0);
+        
+        // outputMA und outputMB merken (die Drehrichtung der Impulse im naechsten 
+        // Zyklus ergibt sich daraus). Im Pipeline-Betrieb wirkt die Stellgroesse
+        // erst einen Zyklus spaeter, daher die Verzoegerung ueber delayedMA/delayedMB...
+        if (this.busWorker != null)
+        {
+            this.controlMA[1] = this.delayedMA;
+            this.controlMB[1] = this.delayedMB;
+            this.delayedMA = this.outputMA;
+            this.delayedMB = this.outputMB;
+        }
+        else
+        {
+            this.controlMA[1] = this.outputMA;
+            this.controlMB[1] = this.outputMB;
+        }
+    }
+    
+    /**
+     * doPipelinedExchange(long now) - Zyklus im Pipeline-Betrieb (vgl. BusWorker)...
+     * <p>
+     * Die Antwort des im vorherigen Zyklus beauftragten Token-Austauschs wird
+     * ausgewertet, der naechste Token-Austausch beauftragt und waehrend dieser
+     * laeuft die Stellgroesse berechnet. Die Ausgabe der Stellgroesse erfolgt im
+     * BusWorker nach dem Token-Austausch, d.h. mit einem Zyklus Verzoegerung.
+     * Ist der vorherige Auftrag nach BUS_TIMEOUT_NANOS nicht abgeschlossen, 
+     * entfaellt der Zyklus (busOverruns), der Bus gilt als gestoert (vgl. 
+     * BusRecovery): Die Antwort des Auftrags wird verworfen, der BusWorker 
+     * gibt nach dem Token-Austausch 0 an die Motoren aus. Fuehrt die Antwort
+     * zu einem Busfehler, wird bis zum Ablauf der Wartezeit kein neuer Auftrag
+     * beauftragt, die Motoren werden direkt angehalten.
+     * </p>
+     * @param now Zeitpunkt des Zyklus (System.nanoTime())
+     */
+    private void doPipelinedExchange(long now)
+    {
+        final BusWorker worker = this.busWorker;
+        if (!worker.await(BUS_TIMEOUT_NANOS))
+        {
+            this.busOverruns++;
+            worker.cancelPwm();
+            this.hasBusJob = false;
+            this.pwmSampleNanos = 0L;
+            logger.error("i2c-Bus: BusWorker nach " + (BUS_TIMEOUT_NANOS / 1_000_000L) + "ms nicht fertig");
+            onBusFailure(now);
+            return;
+        }
+        
+        // 1.) Antwort des vorherigen Auftrags...
+        final ArduinoResponse response = this.arduinoResponse;
+        boolean isValid = false;
+        long sampleNanos = 0L;
+        if (this.hasBusJob)
+        {
+            if (this.pwmSampleNanos != 0L)
+            {
+                // Latenz: Beginn des Token-Austauschs der verwendeten Antwort bis zur Ausgabe...
+                this.latencyStats.add(worker.getPwmDoneNanos() - this.pwmSampleNanos);
+            }
+            final IOException failure = worker.getFailure();
+            if (failure != null)
+            {
+                logger.error(failure.toString(), failure);
+                System.err.println(failure.toString());
+                onBusFailure(now);
+            }
+            else if ((ArduinoI2C.Status.INITIAL != this.i2cStatus) || (ArduinoI2C.Status.INITIAL == worker.getStatus()))
+            {
+                // Im Status INITIAL gilt nur die Antwort auf einen INITIAL-Auftrag...
+                final ArduinoResponse result = worker.getResponse();
+                response.set(result.getToken(), 
+                             result.getStatus(), 
+                             result.getValue(), 
+                             result.getNumberMA(), 
+                             result.getNumberMB());
+                if (logger.isDebugEnabled())
+                {
+                    logger.debug("i2c-Bus: " + worker.getToken() + " gesendet, " + response.toString() + " gelesen...");
+                }
+                isValid = acceptResponse(now, worker.getToken(), response);
+                sampleNanos = worker.getExchangeStartNanos();
+            }
+        }
+        
+        final BusRecovery.State recoveryState = this.busRecovery.getState();
+        if ((BusRecovery.State.HOLD == recoveryState) || (BusRecovery.State.FAILED == recoveryState))
+        {
+            // Busfehler: keine Beauftragung vor Ablauf der Wartezeit (vgl. BusRecovery),
+            // der BusWorker ist frei, die Motoren werden direkt angehalten...
+            this.hasBusJob = false;
+            this.pwmSampleNanos = 0L;
+            holdMotors();
+            return;
+        }
+        
+        // 2.) Naechsten Token-Austausch beauftragen...
+        worker.submitExchange((this.token & 0xFFFFFFFFL), this.i2cStatus);
+        this.hasBusJob = true;
+        this.phaseTimers.lap(PhaseTimers.Phase.BUS_WAIT);
+        
+        // 3.) Waehrenddessen die Stellgroesse berechnen und uebergeben...
+        if (isValid)
+        {
+            doControl(now, sampleNanos, response);
+            worker.postPwm((float)this.outputMA, (float)this.outputMB);
+            this.phaseTimers.lap(PhaseTimers.Phase.CONTROL);
+            this.pwmSampleNanos = sampleNanos;
+        }
+        else
+        {
+            worker.postPwm(0.0F, 0.0F);
+            this.pwmSampleNanos = 0L;
+        }
+    }
+    
+    /**
+     * sampleMotionProfile(long now) - Abtastung der Bahnplanung im Regelzyklus...
+     * <p>
+     * Liegt eine Anforderung vor (neuer Sollwert, Start, Reset), wird zuvor neu 
+     * geplant: ab der aktuellen Fuehrungsgroesse mit deren Geschwindigkeit und 
+     * Beschleunigung (ein neuer Sollwert waehrend der Fahrt wird ohne Sprung 
+     * uebernommen) bzw. ab der aktuellen Lage der Motoren aus der Ruhe. Die 
+     * Fuehrungsgroesse wird in referenceSetPoint abgelegt.
+     * </p>
+     * @param now Zeitpunkt des Zyklus (System.nanoTime())
+     * @return motionProfile
+     */
+    private MotionProfile sampleMotionProfile(long now)
+    {
+        final MotionProfile profile = this.motionProfile;
+        final int request = this.profileRequest.getAndSet(PROFILE_NONE);
+        if (request != PROFILE_NONE)
+        {
+            final boolean isFromActual = (PROFILE_FROM_ACTUAL == request);
+            final double start = isFromActual? (this.numberMA + this.numberMB) / 2.0 
+                                             : profile.getPosition();
+            profile.plan(this.motionProfileType, 
+                         start, 
+                         isFromActual? 0.0 : profile.getVelocity(), 
+                         isFromActual? 0.0 : profile.getAcceleration(), 
+                         this.numberSetPoint, 
+                         this.profileVelocity, 
+                         this.profileAcceleration, 
+                         this.profileJerk);
+            this.profileStartNanos = now;
+        }
+        profile.sample((now - this.profileStartNanos) * 1.0e-9);
+        this.referenceSetPoint = Math.round(profile.getPosition());
+        return profile;
+    }
+    
+    /**
+     * getDataSequence() - laufende Nummer der zuletzt veroeffentlichten Zustandsgroessen
+     * des Regelzyklus...
+     * <p>
+     * Ein Verbraucher (z.B. die View) kann damit pruefen, ob neue Daten vorliegen, 
+     * ohne dass ein Data-Objekt angelegt wird.
+     * </p>
+     * @return laufende Nummer (-1L: noch keine Daten)
+     */
+    public long getDataSequence()
+    {
+        return this.telemetryRing.getSequence();
+    }
+    
+    /**
+     * getData() - liefert eine Momentaufnahme der zuletzt veroeffentlichten 
+     * Zustandsgroessen des Regelzyklus...
+     * <p>
+     * Das Data-Objekt wird erst hier (d.h. auf Anforderung) angelegt. Wurde 
+     * der CycleRecord waehrend des Kopierens vom Regelzyklus ueberschrieben,
+     * wird erneut gelesen.
+     * </p>
+     * @return Data (leeres Data-Objekt, wenn noch keine Daten vorliegen)
+     */
+    public Data getData()
+    {
+        final CycleRecord snapshot = new CycleRecord();
+        return (this.telemetryRing.readLatest(snapshot) < 0L)? new Data() : snapshot.toData();
+    }
+    
+    /**
+     * getTelemetryRing() - Ringpuffer mit den Zustandsgroessen der Regelzyklen,
+     * Verbraucher lesen mit getTelemetryRing().newConsumer()...
+     * @return telemetryRing
+     */
+    public TelemetryRing getTelemetryRing()
+    {
+        return this.telemetryRing;
+    }
+    
+    /**
+     * 
+     * @param listener
+     */
+    public void addPropertyChangeListener(PropertyChangeListener listener)
+    {
+        this.support.addPropertyChangeListener(listener);
+    }
+
+    /**
+     * 
+     * @param listener
+     */
+    public void removePropertyChangeListener(PropertyChangeListener listener)
+    {
+        this.support.removePropertyChangeListener(listener);
+    }
+
+    /**
+     * setProperty(String key, Object newValue) - Die View wird informiert...
+     * <p>
+     * synchronized, da neben der View auch der CommandServer Werte setzt.
+     * </p>
+     * @param key
+     * @param newValue
+     */
+    public synchronized void setProperty(String key, Object newValue)
+    {
+        if (this.dataMap.containsKey(key))
+        {
+            Object oldValue = this.dataMap.get(key); 
+            this.dataMap.put(key, newValue);
+            
+            if (Model.DESTINATION_KEY.equals(key))
+            {
+                if (newValue instanceof String)
+                {
+                    logger.debug("destination=" + newValue);
+                }
+            }
+            
+            if (Model.NUMBER_SET_POINT_KEY.equals(key))
+            {
+            
+            }    
+                
+            if (Model.VALUE_MA_KEY.equals(key))
+            {
+                if (newValue instanceof BigDecimal)
+                {
+                    this.valueMA = (BigDecimal) newValue;
+                    
+                    logger.debug("valueMA=" + this.valueMA.toString());
+                }    
+            }
+            
+            if (Model.VALUE_MB_KEY.equals(key))
+            {
+                if (newValue instanceof BigDecimal)
+                {
+                    this.valueMB = (BigDecimal) newValue;
+                    
+                    logger.debug("valueMB=" + this.valueMB.toString());
+                }    
+            }
+
+            if (Model.MAX_VALUE_MA_KEY.equals(key))
+            {
+                if (newValue instanceof BigDecimal)
+                {
+                    this.maxValueMA = ((BigDecimal) newValue).doubleValue();
+                    
+                    logger.debug("maxValueMA=" + newValue.toString());
+                }    
+            }
+            
+            if (Model.MAX_VALUE_MB_KEY.equals(key))
+            {
+                if (newValue instanceof BigDecimal)
+                {
+                    this.maxValueMB = ((BigDecimal) newValue).doubleValue();
+                    
+                    logger.debug("maxValueMB=" + newValue.toString());
+                }    
+            }
+            
+            if (Model.CONTROL_KEY.equals(key))
+            {
+                if (newValue instanceof Boolean)
+                {
+                    this.isControlled = Boolean.TRUE.equals(newValue);
+                    
+                    logger.debug("isControlled=" + this.isControlled);
+                }
+            }
+            
+            if (Model.SYNC_KEY.equals(key))
+            {
+                if (newValue instanceof Boolean)
+                {
+                    this.isSynchronized = Boolean.TRUE.equals(newValue);
+                    
+                    logger.debug("isSynchronized=" + this.isSynchronized);
+                }
+            }
+            
+            if (Model.ENHANCEMENT_KEY.equals(key))
+            {
+                if (newValue instanceof BigDecimal)
+                {
+                    // Die Verstaerkung (enhancement) findet sich nicht im Model,
+                    // sondern im PositionController, daher Zugriff ueber 'Delegate'...
+                    setEnhancement((BigDecimal) newValue);
+                    
+                    logger.debug("enhancement=" + getEnhancement().toString());
+                }    
+            }
+            
+            if (Model.CONTROL_STRATEGY_KEY.equals(key))
+            {
+                // Nur bei einer Aenderung (die View meldet auch die vom Model 
+                // nachgefuehrte Auswahl zurueck)...
+                if ((newValue instanceof String) && !newValue.equals(oldValue))
+                {
+                    setControlStrategy((String) newValue);
+                    
+                    logger.debug("controlStrategy=" + newValue);
+                }    
+            }
+            
+            ////////////////////////////////////////////////////////////////////////
+            // Evtl. Kein Logging an dieser Stelle...
+            // if (oldValue == null || newValue == null || !oldValue.equals(newValue))
+            // {
+            //     logger.debug(key + ": " + oldValue + " => " + newValue);
+            // }
+            ////////////////////////////////////////////////////////////////////////
+            
+            support.firePropertyChange(key, oldValue, newValue);
+        }
+    }
+    
+    /**
+     * 
+     * @param speed
+     * @throws IOException 
+     */
+    public void setPwmMA(float speed) throws IOException
+    {
+        if (this.motorDriver != null)
+        {
+            this.motorDriver.setPwmMA(speed);
+        }
+        else
+        {
+            logger.error("Fehler setPwmMA()!");   
+        }
+    }
+    
+    /**
+     * 
+     * @param speed
+     * @throws IOException 
+     */
+    public void setPwmMB(float speed) throws IOException
+    {
+        if (this.motorDriver != null)
+        {
+            this.motorDriver.setPwmMB(speed);
+        }
+        else
+        {
+            logger.error("Fehler setPwmMB()!");   
+        }
+    }
+
+    /**
+     * 
+     * @param destination
+     */
+    public void calculateNumberSetPoint(BigDecimal destination)
+    {
+        setNumberSetPoint(destination.multiply(BigDecimal.valueOf(Model.CIRCUMFERENCE)).setScale(0, BigDecimal.ROUND_UP).longValue());
+        setProperty(Model.NUMBER_SET_POINT_KEY, Long.valueOf(this.numberSetPoint));
+    }
+    
+    /**
+     * setDestination(BigDecimal destination) - neuer Sollwert in Umdrehungen
+     * ohne View (vgl. HeadlessMain, CommandServer), entspricht der Eingabe im Textfeld...
+     * <p>
+     * DESTINATION_KEY wird wie vom Controller als formatierter Text gesetzt, 
+     * damit die View das Eingabefeld nachfuehrt.
+     * </p>
+     * @param destination Sollwert in Umdrehungen
+     */
+    public void setDestination(BigDecimal destination)
+    {
+        setProperty(Model.DESTINATION_KEY, new DecimalFormat(FORMATTED_TEXT_FIELD_PATTERN).format(destination));
+        calculateNumberSetPoint(destination);
+    }
+    
+    /**
+     * setNumberSetPoint(long numberSetPoint) - neuer Sollwert, der Regelzyklus 
+     * plant die Bahn dorthin ab der aktuellen Fuehrungsgroesse (vgl. MotionProfile)...
+     * @param numberSetPoint
+     */
+    public void setNumberSetPoint(long numberSetPoint)
+    {
+        this.numberSetPoint = numberSetPoint;
+        this.profileRequest.compareAndSet(PROFILE_NONE, PROFILE_FROM_REFERENCE);
+    }
+    
+    /**
+     * getNumberSetPoint()
+     * @return Sollwert in Impulsen
+     */
+    public long getNumberSetPoint()
+    {
+        return this.numberSetPoint;
+    }
+    
+    /**
+     * setMotionProfileType(MotionProfile.Type type) - Art der Bahnplanung, 
+     * gilt ab dem naechsten Sollwert...
+     * @param type
+     */
+    public void setMotionProfileType(MotionProfile.Type type)
+    {
+        this.motionProfileType = (type != null)? type : MotionProfile.Type.STEP;
+    }
+    
+    /**
+     * @return Art der Bahnplanung
+     */
+    public MotionProfile.Type getMotionProfileType()
+    {
+        return this.motionProfileType;
+    }
+    
     /**
-     * setEnhancement(BigDecimal enhancement) - Delegate...
+     * 
+     * @return
+     */
+    public PositionController getPositionController()
+    {
+        return this.positionController;
+    }
+    
+    /**
+     * setEnhancement(BigDecimal enhancement) - Reglerverstaerkung an alle 
+     * registrierten Regelgesetze weiterreichen...
      * @param enhancement 
      */
     public void setEnhancement(BigDecimal enhancement)
     {
-        this.positionController.setEnhancement(enhancement);
+        this.enhancement = (enhancement != null)? enhancement : BigDecimal.ZERO;
+        this.enhancementValue = this.enhancement.doubleValue();
+        synchronized (this.controlStrategies)
+        {
+            for (ControlStrategy strategy: this.controlStrategies.values())
+            {
+                strategy.setEnhancement(this.enhancement);
+            }
+        }
     }
     
     /**
-     * getEnhancement() - Delegate...
-     * @return enhancement (Reglerverstaerkung) des PositionController
+     * getEnhancement()
+     * @return enhancement (Reglerverstaerkung)
      */
     public BigDecimal getEnhancement()
     {
-        return this.positionController.getEnhancement();
+        return this.enhancement;
+    }
+    
+    /**
+     * registerControlStrategy(ControlStrategy strategy) - Regelgesetz registrieren, 
+     * es steht dann unter seinem Namen zur Auswahl (vgl. setControlStrategy())...
+     * @param strategy
+     */
+    public void registerControlStrategy(ControlStrategy strategy)
+    {
+        Objects.requireNonNull(strategy, "strategy must not be null!");
+        synchronized (this.controlStrategies)
+        {
+            strategy.setEnhancement(this.enhancement);
+            this.controlStrategies.put(strategy.getName(), strategy);
+        }
+    }
+    
+    /**
+     * getControlStrategyNames() - Namen der registrierten Regelgesetze (z.B. zur Auswahl in der View)
+     * @return String[]
+     */
+    public String[] getControlStrategyNames()
+    {
+        synchronized (this.controlStrategies)
+        {
+            return this.controlStrategies.keySet().toArray(new String[this.controlStrategies.size()]);
+        }
+    }
+    
+    /**
+     * setControlStrategy(String name) - Austausch des Regelgesetzes...
+     * <p>
+     * Das Regelgesetz wird im Regelzyklus zwischen zwei Zyklen uebernommen, 
+     * der ControlLoop laeuft weiter, die Lage der Motoren bleibt erhalten.
+     * Ohne laufenden ControlLoop erfolgt die Uebernahme sofort.
+     * </p>
+     * @param name Name des Regelgesetzes
+     * @return true, wenn das Regelgesetz registriert ist
+     */
+    public boolean setControlStrategy(String name)
+    {
+        final ControlStrategy strategy;
+        synchronized (this.controlStrategies)
+        {
+            strategy = this.controlStrategies.get(name);
+        }
+        if (strategy == null)
+        {
+            logger.error("setControlStrategy(): " + name + " unbekannt!");
+            return false;
+        }
+        if (this.controlLoop == null)
+        {
+            strategy.reset();
+            this.controlStrategy = strategy;
+            return true;
+        }
+        final ControlStrategy pending = this.pendingControlStrategy.get();
+        if ((strategy == this.controlStrategy) && ((pending == null) || (pending == strategy)))
+        {
+            // Das Regelgesetz ist bereits aktiv...
+            return true;
+        }
+        this.pendingControlStrategy.set(strategy);
+        return true;
+    }
+    
+    /**
+     * selectControlStrategy(String name) - Auswahl des Regelgesetzes ausserhalb 
+     * der View (z.B. CommandServer), ueber setProperty(), damit die Auswahl in 
+     * der View folgt...
+     * @param name Name des Regelgesetzes
+     * @return true, wenn das Regelgesetz registriert ist
+     */
+    public synchronized boolean selectControlStrategy(String name)
+    {
+        synchronized (this.controlStrategies)
+        {
+            if (!this.controlStrategies.containsKey(name))
+            {
+                logger.error("selectControlStrategy(): " + name + " unbekannt!");
+                return false;
+            }
+        }
+        setProperty(CONTROL_STRATEGY_KEY, name);
+        return true;
+    }
+    
+    /**
+     * publishEnhancement(BigDecimal enhancement) - Verstaerkung aus dem Regelzyklus 
+     * (nach dem Relaisversuch) unter ENHANCEMENT_KEY melden (im propertyExecutor), 
+     * setProperty() reicht sie an alle Regelgesetze weiter...
+     * @param enhancement Verstaerkung
+     */
+    private void publishEnhancement(final BigDecimal enhancement)
+    {
+        try
+        {
+            this.propertyExecutor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    setProperty(ENHANCEMENT_KEY, enhancement);
+                }
+            });
+        }
+        catch (RejectedExecutionException exception)
+        {
+            // ...shutdown() laeuft bereits.
+        }
+    }
+    
+    /**
+     * publishControlStrategy(ControlStrategy strategy) - Namen des im Regelzyklus 
+     * uebernommenen Regelgesetzes unter CONTROL_STRATEGY_KEY melden (im propertyExecutor)...
+     * <p>
+     * Ist inzwischen ein anderes Regelgesetz ausgewaehlt, entfaellt die Meldung,
+     * dessen Uebernahme wird wiederum gemeldet.
+     * </p>
+     * @param strategy uebernommenes Regelgesetz
+     */
+    private void publishControlStrategy(final ControlStrategy strategy)
+    {
+        try
+        {
+            this.propertyExecutor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    synchronized (Model.this)
+                    {
+                        final ControlStrategy pending = Model.this.pendingControlStrategy.get();
+                        if ((Model.this.controlStrategy == strategy) && ((pending == null) || (pending == strategy)))
+                        {
+                            setProperty(CONTROL_STRATEGY_KEY, strategy.getName());
+                        }
+                    }
+                }
+            });
+        }
+        catch (RejectedExecutionException exception)
+        {
+            // ...shutdown() laeuft bereits.
+        }
+    }
+    
+    /**
+     * getControlStrategy()
+     * @return aktives Regelgesetz
+     */
+    public ControlStrategy getControlStrategy()
+    {
+        return this.controlStrategy;
     }
     
     /**
@@ -1180,17 +2979,13 @@ public class Model
     {
         logger.debug("doStart()...");
         
-        // Kommunikations-Status setzen...
-        this.i2cStatus = ArduinoI2C.Status.INITIAL;
+        // Kommunikations-Status INITIAL, Bahnplanung und Schaetzung ab der 
+        // aktuellen Lage: setzt der Regelzyklus zu Beginn des naechsten Zyklus...
+        this.runRequest.set(RUN_START);
+        applyWithoutControlLoop();
         
         // Zustandsgroessen initial in der View setzen...
-        setProperty(Model.DATA_KEY, new Data(this.counter, 
-                                             this.cycleTime, 
-                                             this.token,
-                                             this.numberMA,
-                                             this.numberMB,
-                                             this.outputMA,
-                                             this.outputMB));
+        setProperty(Model.DATA_KEY, getData());
         
         // Status der GUI setzen..
         setProperty(GUI_STATUS_KEY, GuiStatus.START);        
@@ -1203,58 +2998,71 @@ public class Model
     {
         logger.debug("doReset()...");
         
-        this.token = 0L;
-        
-        this.numberMA = 0L;
-        this.numberMB = 0L;
-        
-        // Zustandsgroessen zuruecksetzen...
-        doClear();
+        // token und Lage der Motoren setzt der Regelzyklus zurueck...
+        this.resetRequest.set(true);
+        applyWithoutControlLoop();
         
         // isControlled: Mit Regelung... 
         this.isControlled = false;
         setProperty(Model.CONTROL_KEY, Boolean.valueOf(this.isControlled));
         
-        setProperty(Model.DATA_KEY, new Data(this.counter, 
-                                             this.cycleTime, 
-                                             this.token,
-                                             this.numberMA,
-                                             this.numberMB,
-                                             this.outputMA,
-                                             this.outputMB));
+        final Data data = getData();
+        setProperty(Model.DATA_KEY, new Data(data.getCounter().longValue(), 
+                                             data.getCycleTime(), 
+                                             0L,
+                                             0L,
+                                             0L,
+                                             0.0,
+                                             0.0));
     }
     
     /**
      * doStop() - Methode zum Unterbrechen des Geschaeftsprozess 
      * und der Kommunikation mit derm Arduino.
+     * <p>
+     * Kommunikations-Status NOP und Stellgroessen 0 setzt der Regelzyklus 
+     * zu Beginn des naechsten Zyklus (vgl. applyRunRequests()).
+     * </p>
      */
     public void doStop()
     {
         logger.debug("doStop()...");
         
-        // Kommunikations-Status setzen...
-        this.i2cStatus = ArduinoI2C.Status.NOP;
+        this.runRequest.set(RUN_STOP);
+        if ((this.controlLoop != null) && (ControlLoop.Mode.TRIGGERED == this.controlLoop.getMode()))
+        {
+            // Die Motoren auch dann anhalten, wenn der Takt des Arduino ausbleibt...
+            this.controlLoop.trigger();
+        }
+        applyWithoutControlLoop();
+        
         // Status der GUI setzen...
         setProperty(GUI_STATUS_KEY, GuiStatus.STOP); 
         
-        // Zustandsgroessen zuruecksetzen...
-        doClear();
-        
-        try
+        if (this.controlLoop != null)
         {
-            setPwmMA(0.0F);
-            setPwmMB(0.0F);
+            logger.debug("ControlLoop: " + this.controlLoop.toString());
+            logger.info(getCycleStatistics());
         }
-        catch(IOException exception)
+    }
+    
+    /**
+     * applyWithoutControlLoop() - ohne ControlLoop (kein Arduino) werden die 
+     * Anforderungen sofort umgesetzt...
+     */
+    private void applyWithoutControlLoop()
+    {
+        if (this.controlLoop == null)
         {
-            logger.error(exception.toString(), exception);
-            System.err.println(exception.toString());
+            applyRunRequests();
         }
     }
     
     /**
      * shutdown()...
      * <p>
+     * Zuerst werden ControlLoop und BusWorker beendet, erst danach werden die 
+     * Motoren angehalten (kein Zyklus kann die Stellgroessen mehr ueberschreiben).
      * Der gpioController wird auf dem Raspi heruntergefahren...
      * </p>
      */
@@ -1262,20 +3070,58 @@ public class Model
     {
         logger.debug("shutdown()..."); 
 
-        // Kommunikations-Status setzen...
-        this.i2cStatus = ArduinoI2C.Status.NOP;
+        if (this.controlLoop != null)
+        {
+            this.controlLoop.stop();
+        }
+        
+        if (this.busWorker != null)
+        {
+            this.busWorker.stop();
+        }
+        
+        this.propertyExecutor.shutdown();
+        
+        // Kommunikations-Status setzen und Motoren anhalten...
+        this.runRequest.set(RUN_STOP);
+        applyRunRequests();
 
         setProperty(GUI_STATUS_KEY, GuiStatus.END);        
-
-        try
+        
+        // Zeitverhalten des Regelzyklus protokollieren...
+        logger.info(getCycleStatistics());
+        logger.info(this.phaseTimers.toString());
+        
+        if (this.metricsServer != null)
         {
-            setPwmMA(0.0F);
-            setPwmMB(0.0F);
+            this.metricsServer.stop();
         }
-        catch(IOException exception)
+        
+        if (this.commandServer != null)
         {
-            logger.error(exception.toString(), exception);
-            System.err.println(exception.toString());
+            this.commandServer.stop();
+        }
+        
+        if (this.dashboardServer != null)
+        {
+            this.dashboardServer.stop();
+        }
+        
+        if (this.telemetryLogger != null)
+        {
+            this.telemetryLogger.stop();
+        }
+        
+        if (this.flightRecorderDrainer != null)
+        {
+            // Der Drainer liest zum Schluss die restlichen Eintraege...
+            this.flightRecorderDrainer.stop();
+            this.flightRecorder.close();
+        }
+        
+        if (this.telemetryHistoryDrainer != null)
+        {
+            this.telemetryHistoryDrainer.stop();
         }
         
         if (isRaspi)
@@ -1283,6 +3129,255 @@ public class Model
             this.gpioController.shutdown();  
         }
     }
+    
+    /**
+     * getCycleStatistics() - Latenz der aktiven Regelzyklen sowie Periode, Jitter und
+     * Ausfuehrungszeit (CycleTiming) seit doStart() (zum Vergleich sequentieller 
+     * Betrieb / Pipeline-Betrieb)...
+     * @return Statistik als String
+     */
+    public String getCycleStatistics()
+    {
+        return new StringBuilder().append((this.busWorker != null)? "pipelined " : "sequential ")
+                                  .append(this.latencyStats.toString())
+                                  .append(" busOverruns=")
+                                  .append(this.busOverruns)
+                                  .append(" recovery=")
+                                  .append(this.busRecovery.toString())
+                                  .append(" ")
+                                  .append(this.cycleTiming.toString())
+                                  .toString();
+    }
+    
+    /**
+     * getCycleTiming()
+     * @return Zeitverhalten des Regelzyklus (Histogramme)
+     */
+    public CycleTiming getCycleTiming()
+    {
+        return this.cycleTiming;
+    }
+    
+    /**
+     * getPhaseTimers()
+     * @return Dauer der Phasen des Regelzyklus (Histogramme, zur Laufzeit abfragbar)
+     */
+    public PhaseTimers getPhaseTimers()
+    {
+        return this.phaseTimers;
+    }
+    
+    /**
+     * getBusRecovery()
+     * @return Fehlerbehandlung der Kommunikation mit dem Arduino (Zustand und Zaehler)
+     */
+    public BusRecovery getBusRecovery()
+    {
+        return this.busRecovery;
+    }
+    
+    /**
+     * getI2cStatus()
+     * @return aktueller Status der Kommunikation mit dem Arduino
+     */
+    public ArduinoI2C.Status getI2cStatus()
+    {
+        return this.i2cStatus;
+    }
+    
+    /**
+     * getI2cTransitions(ArduinoI2C.Status from, ArduinoI2C.Status to)
+     * @param from bisheriger Status
+     * @param to neuer Status
+     * @return Anzahl der Uebergaenge von i2cStatus seit Programmstart
+     */
+    public long getI2cTransitions(ArduinoI2C.Status from, ArduinoI2C.Status to)
+    {
+        return this.i2cTransitions.get(from.ordinal() * I2C_STATUS.length + to.ordinal());
+    }
+    
+    /**
+     * getBusOverruns()
+     * @return Anzahl der ausgelassenen Zyklen im Pipeline-Betrieb (seit doStart())
+     */
+    public long getBusOverruns()
+    {
+        return this.busOverruns;
+    }
+    
+    /**
+     * getCrcErrors()
+     * @return Anzahl der Antworten des Arduino mit falscher Pruefsumme 
+     *         (0, falls ohne kombinierte Transaktion)
+     */
+    public long getCrcErrors()
+    {
+        return (this.arduinoDevice instanceof ArduinoFrameDevice)? ((ArduinoFrameDevice)this.arduinoDevice).getCrcErrors() : 0L;
+    }
+    
+    /**
+     * getFlightRecorder()
+     * @return flightRecorder (null, wenn nicht aufgezeichnet wird)
+     */
+    public FlightRecorder getFlightRecorder()
+    {
+        return this.flightRecorder;
+    }
+    
+    /**
+     * getRelayAutotuner()
+     * @return relayAutotuner (Regelgesetz RelayAutotuner.NAME)
+     */
+    public RelayAutotuner getRelayAutotuner()
+    {
+        return this.relayAutotuner;
+    }
+    
+    /**
+     * getTelemetryHistory()
+     * @return telemetryHistory (null, wenn nicht eingerichtet)
+     */
+    public TelemetryHistory getTelemetryHistory()
+    {
+        return this.telemetryHistory;
+    }
+    
+    /**
+     * getControlLoop()
+     * @return controlLoop (null, wenn kein Regelzyklus laeuft)
+     */
+    public ControlLoop getControlLoop()
+    {
+        return this.controlLoop;
+    }
+    
+    /**
+     * isSimulation()
+     * @return true, wenn der Lauf mit simuliertem Arduino und virtuellen Motoren erfolgt
+     */
+    public boolean isSimulation()
+    {
+        return this.isSimulation;
+    }
+    
+    /**
+     * getBooleanProperty(Properties properties, String key, boolean defaultValue) - liefert
+     * den boolean-Wert zum key aus den Systemeinstellungen...
+     * @param properties
+     * @param key
+     * @param defaultValue Vorgabe, wenn kein Eintrag vorhanden
+     * @return boolean-Wert
+     */
+    static boolean getBooleanProperty(Properties properties, String key, boolean defaultValue)
+    {
+        final String value = properties.getProperty(key, "").trim();
+        return (value.length() == 0)? defaultValue : Boolean.parseBoolean(value);
+    }
+    
+    /**
+     * getIntProperty(Properties properties, String key, int defaultValue) - liefert
+     * den int-Wert zum key aus den Systemeinstellungen...
+     * @param properties
+     * @param key
+     * @param defaultValue Vorgabe, wenn kein (gueltiger) Eintrag vorhanden
+     * @return int-Wert
+     */
+    static int getIntProperty(Properties properties, String key, int defaultValue)
+    {
+        final String value = properties.getProperty(key, "").trim();
+        if (value.length() == 0)
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException exception)
+        {
+            logger.error(key + ": " + exception.toString());
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * getDoubleProperty(Properties properties, String key, double defaultValue) - liefert
+     * den double-Wert zum key aus den Systemeinstellungen...
+     * @param properties
+     * @param key
+     * @param defaultValue Vorgabe, wenn kein (gueltiger) Eintrag vorhanden
+     * @return double-Wert
+     */
+    static double getDoubleProperty(Properties properties, String key, double defaultValue)
+    {
+        final String value = properties.getProperty(key, "").trim();
+        if (value.length() == 0)
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Double.parseDouble(value);
+        }
+        catch (NumberFormatException exception)
+        {
+            logger.error(key + ": " + exception.toString());
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * getBigDecimalProperty(Properties properties, String key, BigDecimal defaultValue) - liefert
+     * den BigDecimal-Wert zum key aus den Systemeinstellungen...
+     * @param properties
+     * @param key
+     * @param defaultValue Vorgabe, wenn kein (gueltiger) Eintrag vorhanden (auch null)
+     * @return BigDecimal-Wert
+     */
+    static BigDecimal getBigDecimalProperty(Properties properties, String key, BigDecimal defaultValue)
+    {
+        final String value = properties.getProperty(key, "").trim();
+        if (value.length() == 0)
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return new BigDecimal(value);
+        }
+        catch (NumberFormatException exception)
+        {
+            logger.error(key + ": " + value + " " + exception.toString());
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * getEnumProperty(Properties properties, String key, Class&lt;E&gt; enumClass, E defaultValue) - liefert
+     * die Enum-Konstante zum key aus den Systemeinstellungen...
+     * @param properties
+     * @param key
+     * @param enumClass
+     * @param defaultValue Vorgabe, wenn kein (gueltiger) Eintrag vorhanden
+     * @return Enum-Konstante
+     */
+    static <E extends Enum<E>> E getEnumProperty(Properties properties, String key, Class<E> enumClass, E defaultValue)
+    {
+        final String value = properties.getProperty(key, "").trim();
+        if (value.length() == 0)
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Enum.valueOf(enumClass, value.toUpperCase());
+        }
+        catch (IllegalArgumentException exception)
+        {
+            logger.error(key + ": " + exception.toString());
+            return defaultValue;
+        }
+    }
 
     /**
      * doClear() - Zuruecksetzen der rel. Variablen...
@@ -1293,12 +3388,20 @@ public class Model
         this.totalMA[1] = 0L;
         this.totalMB[0] = 0L;
         this.totalMB[1] = 0L;
-        this.controlMA[0] = BigDecimal.ZERO.setScale(SCALE_MX_VALUE);
-        this.controlMA[1] = BigDecimal.ZERO.setScale(SCALE_MX_VALUE);
-        this.controlMB[0] = BigDecimal.ZERO.setScale(SCALE_MX_VALUE);
-        this.controlMB[1] = BigDecimal.ZERO.setScale(SCALE_MX_VALUE);
-        this.outputMA = BigDecimal.ZERO.setScale(SCALE_OUTPUT);
-        this.outputMB = BigDecimal.ZERO.setScale(SCALE_OUTPUT);
+        this.controlMA[0] = 0.0;
+        this.controlMA[1] = 0.0;
+        this.controlMB[0] = 0.0;
+        this.controlMB[1] = 0.0;
+        this.delayedMA = 0.0;
+        this.delayedMB = 0.0;
+        this.lastSampleNanos = 0L;
+        this.outputMA = 0.0;
+        this.outputMB = 0.0;
+        this.controlOutput.clear();
+        // Schaetzung von Lage und Geschwindigkeit im naechsten Zyklus zuruecksetzen...
+        this.estimatorReset.set(true);
+        // Innere Zustandsgroessen des Regelgesetzes im naechsten Zyklus zuruecksetzen...
+        this.pendingControlStrategy.compareAndSet(null, this.controlStrategy);
     }
     
     @Override
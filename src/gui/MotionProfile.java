@@ -0,0 +1,399 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * MotionProfile - Bahnplanung von einem Bewegungszustand zu einer Lage in Ruhe...
+ * <p>
+ * Aus Start- und Ziellage wird unter Beachtung der Grenzen fuer Geschwindigkeit,
+ * Beschleunigung und Ruck (jeweils in Impulsen, Impulse/s, Impulse/s^2, Impulse/s^3)
+ * ein zeitabhaengiger Verlauf von Lage, Geschwindigkeit und Beschleunigung geplant.
+ * Der Regelzyklus tastet den Verlauf mit <code>sample()</code> ab und verwendet
+ * die Lage als Fuehrungsgroesse (Sollwert) des Regelgesetzes.
+ * </p>
+ * <p>
+ * Der Verlauf besteht aus 8 Abschnitten mit jeweils konstantem Ruck:
+ * <pre>
+ *   Ruck:  -J*sgn(a0)  +J  0  -J  0  -J  0  +J      (Type.S_CURVE)
+ *   Beschl:     -       A  A   0  0  -A -A  0       (Type.TRAPEZOID, Ruck unbegrenzt)
+ * </pre>
+ * Der erste Abschnitt baut eine Anfangsbeschleunigung a0 mit begrenztem Ruck ab,
+ * danach wird die Geschwindigkeit auf die Spitzengeschwindigkeit geaendert (bei
+ * Bewegung vom Ziel weg oder zu kurzem Bremsweg zunaechst bis zum Stillstand und
+ * zurueck), gehalten und bis zum Stillstand im Ziel abgebaut. Wird die
+ * Geschwindigkeit (bzw. Beschleunigung) nicht erreicht, entfallen die
+ * entsprechenden Abschnitte (Dauer 0). Die Spitzengeschwindigkeit wird durch eine
+ * feste Anzahl von Intervallhalbierungen bestimmt, die Planung erfolgt in vorab
+ * angelegte Arrays, d.h. plan() und sample() legen keine Objekte an und koennen
+ * im Regelzyklus beauftragt werden.
+ * </p>
+ * <p>
+ * Ein Objekt wird nur von einem Thread (dem Regelzyklus) verwendet.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class MotionProfile
+{
+    /**
+     * SEGMENTS = 8 - Anzahl der Abschnitte...
+     */
+    private final static int SEGMENTS = 8;
+
+    /**
+     * BISECTIONS = 64 - Anzahl der Intervallhalbierungen fuer die Spitzengeschwindigkeit
+     */
+    private final static int BISECTIONS = 64;
+
+    /**
+     * startTime[] - Beginn der Abschnitte in s (startTime[SEGMENTS] = Gesamtdauer)
+     */
+    private final double[] startTime = new double[SEGMENTS + 1];
+
+    /**
+     * jerk[] - Ruck je Abschnitt
+     */
+    private final double[] jerk = new double[SEGMENTS];
+
+    /**
+     * position0[], velocity0[], acceleration0[] - Zustand zu Beginn des Abschnitts
+     */
+    private final double[] position0 = new double[SEGMENTS];
+    private final double[] velocity0 = new double[SEGMENTS];
+    private final double[] acceleration0 = new double[SEGMENTS];
+
+    /**
+     * target - Ziellage
+     */
+    private double target = 0.0;
+
+    /**
+     * segment - aktueller Abschnitt (sample() mit aufsteigender Zeit)
+     */
+    private int segment = 0;
+
+    /**
+     * position, velocity, acceleration - Ergebnis von sample()
+     */
+    private double position = 0.0;
+    private double velocity = 0.0;
+    private double acceleration = 0.0;
+
+    /**
+     * MotionProfile() - ohne Planung steht der Verlauf bei 0.0
+     */
+    public MotionProfile()
+    {
+        plan(Type.STEP, 0.0, 0.0, 0.0, 0.0, 0.0);
+    }
+
+    /**
+     * plan(Type type, double start, double end, double maxVelocity, double maxAcceleration, double maxJerk)
+     * - Planung eines Verlaufs von start nach end (jeweils in Ruhe)...
+     * <p>
+     * Bei ungueltigen Grenzen (&lt;= 0.0) wird wie bei Type.STEP sofort auf end gesprungen.
+     * </p>
+     * @param type Art des Verlaufs
+     * @param start Startlage
+     * @param end Ziellage
+     * @param maxVelocity Grenze der Geschwindigkeit (&gt; 0.0)
+     * @param maxAcceleration Grenze der Beschleunigung (&gt; 0.0)
+     * @param maxJerk Grenze des Rucks (&gt; 0.0, nur bei Type.S_CURVE)
+     */
+    public void plan(Type type, double start, double end, double maxVelocity, double maxAcceleration, double maxJerk)
+    {
+        plan(type, start, 0.0, 0.0, end, maxVelocity, maxAcceleration, maxJerk);
+    }
+
+    /**
+     * plan(Type type, double start, double startVelocity, double startAcceleration, double end,
+     * double maxVelocity, double maxAcceleration, double maxJerk) - Planung eines Verlaufs
+     * vom Zustand (start, startVelocity, startAcceleration) nach end (in Ruhe)...
+     * <p>
+     * Damit kann eine laufende Bewegung ohne Sprung von Geschwindigkeit (und bei
+     * Type.S_CURVE von Beschleunigung) auf ein neues Ziel umgeplant werden. Bei
+     * Type.TRAPEZOID wird startAcceleration nicht beruecksichtigt (Ruck unbegrenzt).
+     * Liegt startVelocity ueber maxVelocity, wird mit maxAcceleration auf maxVelocity
+     * gebremst. Bei ungueltigen Grenzen (&lt;= 0.0) wird wie bei Type.STEP sofort auf
+     * end gesprungen.
+     * </p>
+     * @param type Art des Verlaufs
+     * @param start Startlage
+     * @param startVelocity Geschwindigkeit zu Beginn
+     * @param startAcceleration Beschleunigung zu Beginn
+     * @param end Ziellage
+     * @param maxVelocity Grenze der Geschwindigkeit (&gt; 0.0)
+     * @param maxAcceleration Grenze der Beschleunigung (&gt; 0.0)
+     * @param maxJerk Grenze des Rucks (&gt; 0.0, nur bei Type.S_CURVE)
+     */
+    public void plan(Type type, double start, double startVelocity, double startAcceleration, double end,
+                     double maxVelocity, double maxAcceleration, double maxJerk)
+    {
+        final boolean isValid = maxVelocity > 0.0 && maxAcceleration > 0.0
+                             && (Type.TRAPEZOID == type || (Type.S_CURVE == type && maxJerk > 0.0));
+        final boolean isCurve = isValid && Type.S_CURVE == type;
+        final double velocity0 = isValid? startVelocity : 0.0;
+        final double acceleration0 = isCurve? startAcceleration : 0.0;
+
+        // Abschnitt 0: Abbau der Anfangsbeschleunigung mit begrenztem Ruck (nur S_CURVE)...
+        final double t0 = isCurve? Math.abs(acceleration0) / maxJerk : 0.0;
+        final double j0 = isCurve? -Math.signum(acceleration0) * maxJerk : 0.0;
+        set(0, t0, j0, acceleration0);
+        // Zustand am Ende von Abschnitt 0 (Beschleunigung 0)...
+        final double v1 = velocity0 + acceleration0 * t0 + j0 * t0 * t0 / 2.0;
+        final double p1 = start + velocity0 * t0 + acceleration0 * t0 * t0 / 2.0 + j0 * t0 * t0 * t0 / 6.0;
+
+        double change = 0.0;
+        double changeDirection = 0.0;
+        double tv = 0.0;
+        double peakVelocity = 0.0;
+        double direction = 0.0;
+
+        if (isValid)
+        {
+            final double distance = end - p1;
+            // Bremsweg aus v1 (mit Vorzeichen) entscheidet ueber die Richtung der Fahrt zum Ziel...
+            final double stop = v1 * changeDuration(type, Math.abs(v1), maxAcceleration, maxJerk) / 2.0;
+            direction = (distance > stop)? 1.0 : (distance < stop)? -1.0 : ((v1 < 0.0)? -1.0 : 1.0);
+            // ...weiter in Fahrtrichtung normiert: u Anfangsgeschwindigkeit, s Strecke...
+            final double u = direction * v1;
+            final double s = direction * distance;
+
+            // Spitzengeschwindigkeit zwischen low mit travel(low) <= s und high = maxVelocity
+            // (ist u groesser als maxVelocity, wird nur soweit gebremst, wie die Strecke erlaubt)...
+            double low = Math.max(0.0, u);
+            double high = maxVelocity;
+            if (travel(type, u, high, maxAcceleration, maxJerk) <= s)
+            {
+                peakVelocity = high;
+            }
+            else
+            {
+                for (int count = 0; count < BISECTIONS; count++)
+                {
+                    final double middle = (low + high) / 2.0;
+                    if (travel(type, u, middle, maxAcceleration, maxJerk) <= s)
+                    {
+                        low = middle;
+                    }
+                    else
+                    {
+                        high = middle;
+                    }
+                }
+                peakVelocity = low;
+            }
+            change = Math.abs(peakVelocity - u);
+            changeDirection = (peakVelocity < u)? -direction : direction;
+            if (peakVelocity > 0.0)
+            {
+                tv = Math.max(0.0, (s - travel(type, u, peakVelocity, maxAcceleration, maxJerk)) / peakVelocity);
+            }
+        }
+
+        // Dauer, Ruck und Beschleunigung zu Beginn je Abschnitt...
+        setChange(1, type, change, changeDirection, maxAcceleration, maxJerk);
+        set(4, tv, 0.0, 0.0);
+        setChange(5, type, peakVelocity, -direction, maxAcceleration, maxJerk);
+
+        // Zustand zu Beginn der Abschnitte durch Integration...
+        double p = start;
+        double v = velocity0;
+        this.startTime[0] = 0.0;
+        for (int index = 0; index < SEGMENTS; index++)
+        {
+            final double duration = this.startTime[index + 1];
+            this.startTime[index + 1] = this.startTime[index] + duration;
+            this.position0[index] = p;
+            this.velocity0[index] = v;
+            final double a = this.acceleration0[index];
+            final double j = this.jerk[index];
+            p += v * duration + a * duration * duration / 2.0 + j * duration * duration * duration / 6.0;
+            v += a * duration + j * duration * duration / 2.0;
+        }
+        this.target = end;
+        this.segment = 0;
+        sample(0.0);
+    }
+
+    /**
+     * set(int index, double duration, double jerk, double acceleration) - Abschnitt index setzen,
+     * die Dauer wird zunaechst in startTime[index + 1] abgelegt...
+     * @param index Abschnitt
+     * @param duration Dauer in s
+     * @param jerk Ruck
+     * @param acceleration Beschleunigung zu Beginn des Abschnitts
+     */
+    private void set(int index, double duration, double jerk, double acceleration)
+    {
+        this.startTime[index + 1] = duration;
+        this.jerk[index] = jerk;
+        this.acceleration0[index] = acceleration;
+    }
+
+    /**
+     * setChange(...) - drei Abschnitte ab index fuer eine Aenderung der Geschwindigkeit
+     * um change (Beschleunigung zu Beginn und Ende 0)...
+     * @param index erster Abschnitt
+     * @param type Art des Verlaufs
+     * @param change Betrag der Aenderung
+     * @param direction Vorzeichen der Beschleunigung (+1.0/-1.0)
+     * @param maxAcceleration Grenze der Beschleunigung
+     * @param maxJerk Grenze des Rucks
+     */
+    private void setChange(int index, Type type, double change, double direction, double maxAcceleration, double maxJerk)
+    {
+        // Dauer der Abschnitte mit Ruck (tj) und konstanter Beschleunigung (ta), Spitzenwert der Beschleunigung...
+        double tj = 0.0;
+        double ta = 0.0;
+        double peak = 0.0;
+        if (change > 0.0 && Type.S_CURVE == type)
+        {
+            if (change >= maxAcceleration * maxAcceleration / maxJerk)
+            {
+                tj = maxAcceleration / maxJerk;
+                ta = change / maxAcceleration - tj;
+            }
+            else
+            {
+                tj = Math.sqrt(change / maxJerk);
+            }
+            peak = maxJerk * tj;
+        }
+        if (change > 0.0 && Type.TRAPEZOID == type)
+        {
+            ta = change / maxAcceleration;
+            peak = maxAcceleration;
+        }
+        final double j = (Type.S_CURVE == type)? direction * maxJerk : 0.0;
+        final double a = direction * peak;
+        set(index, tj, +j, 0.0);
+        set(index + 1, ta, 0.0, a);
+        set(index + 2, tj, -j, a);
+    }
+
+    /**
+     * changeDuration(...) - Dauer einer Aenderung der Geschwindigkeit um change
+     * (Beschleunigung zu Beginn und Ende 0)...
+     * @return Dauer in s
+     */
+    private static double changeDuration(Type type, double change, double maxAcceleration, double maxJerk)
+    {
+        if (Type.S_CURVE != type)
+        {
+            return change / maxAcceleration;
+        }
+        final double limit = maxAcceleration * maxAcceleration / maxJerk;
+        return (change >= limit)? (change / maxAcceleration + maxAcceleration / maxJerk)
+                                : (2.0 * Math.sqrt(change / maxJerk));
+    }
+
+    /**
+     * travel(...) - Strecke von Anfangsgeschwindigkeit u ueber peakVelocity bis zum
+     * Stillstand (ohne Abschnitt konstanter Geschwindigkeit)... Der Verlauf einer
+     * Aenderung ist punktsymmetrisch, die mittlere Geschwindigkeit ist daher der
+     * Mittelwert von Anfangs- und Endgeschwindigkeit.
+     * @return Strecke
+     */
+    private static double travel(Type type, double u, double peakVelocity, double maxAcceleration, double maxJerk)
+    {
+        return (u + peakVelocity) * changeDuration(type, Math.abs(peakVelocity - u), maxAcceleration, maxJerk) / 2.0
+             + peakVelocity * changeDuration(type, peakVelocity, maxAcceleration, maxJerk) / 2.0;
+    }
+
+    /**
+     * sample(double time) - Abtastung des Verlaufs zum Zeitpunkt time (in s
+     * seit Beginn)... Das Ergebnis liefern getPosition(), getVelocity(), getAcceleration().
+     * @param time Zeit in s (aufsteigend, sonst wird der Abschnitt erneut gesucht)
+     */
+    public void sample(double time)
+    {
+        if (time >= this.startTime[SEGMENTS])
+        {
+            this.position = this.target;
+            this.velocity = 0.0;
+            this.acceleration = 0.0;
+            return;
+        }
+        if (time < this.startTime[this.segment])
+        {
+            this.segment = 0;
+        }
+        while (this.segment < SEGMENTS - 1 && time >= this.startTime[this.segment + 1])
+        {
+            this.segment++;
+        }
+        final int index = this.segment;
+        final double t = Math.max(0.0, time - this.startTime[index]);
+        final double a0 = this.acceleration0[index];
+        final double j0 = this.jerk[index];
+        this.position = this.position0[index] + this.velocity0[index] * t + a0 * t * t / 2.0 + j0 * t * t * t / 6.0;
+        this.velocity = this.velocity0[index] + a0 * t + j0 * t * t / 2.0;
+        this.acceleration = a0 + j0 * t;
+    }
+
+    /**
+     * @return Gesamtdauer in s
+     */
+    public double getDuration()
+    {
+        return this.startTime[SEGMENTS];
+    }
+
+    /**
+     * @return the target
+     */
+    public double getTarget()
+    {
+        return this.target;
+    }
+
+    /**
+     * @return the position (Ergebnis von sample())
+     */
+    public double getPosition()
+    {
+        return this.position;
+    }
+
+    /**
+     * @return the velocity (Ergebnis von sample())
+     */
+    public double getVelocity()
+    {
+        return this.velocity;
+    }
+
+    /**
+     * @return the acceleration (Ergebnis von sample())
+     */
+    public double getAcceleration()
+    {
+        return this.acceleration;
+    }
+
+    /**
+     * Type - Art des Verlaufs
+     * <ul>
+     *  <li>STEP - Sprung auf die Ziellage (bisheriges Verhalten)</li>
+     *  <li>TRAPEZOID - Trapezprofil der Geschwindigkeit (Beschleunigung begrenzt)</li>
+     *  <li>S_CURVE - S-Kurve (zusaetzlich Ruck begrenzt)</li>
+     * </ul>
+     */
+    public enum Type
+    {
+        /**
+         * STEP - Sprung...
+         */
+        STEP,
+        /**
+         * TRAPEZOID - Trapezprofil...
+         */
+        TRAPEZOID,
+        /**
+         * S_CURVE - S-Kurve...
+         */
+        S_CURVE;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * 
+ */
+package gui;
+
+import java.io.IOException;
+
+/**
+ * Interface MotorDriver - Abstraktion der PWM-Ausgabe an die Motoren A und B...
+ * <p>
+ * Implementierungen:
+ * <ul>
+ *  <li>MotorDriverHATDevice - Ausgabe ueber den MotorDriverHAT</li>
+ *  <li>SimulatedMotors - virtuelle Motoren im Prozess</li>
+ * </ul>
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public interface MotorDriver
+{
+    /**
+     * setPwmMA(float speed) - Stellgroesse Motor A
+     * @param speed Bereich -1.0 ... 0.0 ... +1.0
+     * @throws IOException
+     */
+    public void setPwmMA(float speed) throws IOException;
+    
+    /**
+     * setPwmMB(float speed) - Stellgroesse Motor B
+     * @param speed Bereich -1.0 ... 0.0 ... +1.0
+     * @throws IOException
+     */
+    public void setPwmMB(float speed) throws IOException;
+}
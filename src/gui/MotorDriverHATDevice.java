@@ -0,0 +1,44 @@
+/**
+ * 
+ */
+package gui;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import raspi.hardware.i2c.MotorDriverHAT;
+
+/**
+ * MotorDriverHATDevice - Implementierung von MotorDriver mit dem MotorDriverHAT...
+ * 
+ * @author Detlef Tribius
+ *
+ */
+public class MotorDriverHATDevice implements MotorDriver
+{
+    /**
+     * motorDriverHAT - Referenz auf den MotorDriverHAT...
+     */
+    private final MotorDriverHAT motorDriverHAT;
+    
+    /**
+     * MotorDriverHATDevice(MotorDriverHAT motorDriverHAT)
+     * @param motorDriverHAT
+     */
+    public MotorDriverHATDevice(MotorDriverHAT motorDriverHAT)
+    {
+        this.motorDriverHAT = Objects.requireNonNull(motorDriverHAT, "motorDriverHAT must not be null!");
+    }
+
+    @Override
+    public void setPwmMA(float speed) throws IOException
+    {
+        this.motorDriverHAT.setPwmMA(speed);
+    }
+
+    @Override
+    public void setPwmMB(float speed) throws IOException
+    {
+        this.motorDriverHAT.setPwmMB(speed);
+    }
+}
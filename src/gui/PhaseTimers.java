@@ -0,0 +1,138 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * PhaseTimers - Dauer der einzelnen Abschnitte (Phasen) des Regelzyklus...
+ * <p>
+ * Der Regelzyklus setzt zu Beginn mit start() eine Marke, am Ende jeder Phase
+ * traegt lap() die Zeit seit der letzten Marke in das Histogramm der Phase ein
+ * (LogHistogram: min/avg/max und Perzentile) und setzt eine neue Marke.
+ * Je Phase kostet das einen Aufruf von System.nanoTime(), es werden keine
+ * Objekte angelegt.
+ * </p>
+ * <p>
+ * start() und lap() werden nur vom Regelzyklus beauftragt, die Histogramme
+ * koennen jederzeit gelesen werden (vgl. Model.getPhaseTimers()).
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class PhaseTimers
+{
+    /**
+     * PHASES - Phase.values()
+     */
+    private final static Phase[] PHASES = Phase.values();
+
+    /**
+     * histograms - je Phase ein Histogramm
+     */
+    private final LogHistogram[] histograms = new LogHistogram[PHASES.length];
+
+    /**
+     * mark - Zeitpunkt der letzten Marke (System.nanoTime())
+     */
+    private long mark = 0L;
+
+    /**
+     * resetRequested - Kennung, mit dem naechsten start() zuruecksetzen...
+     */
+    private volatile boolean resetRequested = false;
+
+    /**
+     * PhaseTimers()
+     */
+    public PhaseTimers()
+    {
+        for (Phase phase : PHASES)
+        {
+            this.histograms[phase.ordinal()] = new LogHistogram(phase.name().toLowerCase());
+        }
+    }
+
+    /**
+     * start(long now) - Beginn des Zyklus...
+     * @param now Zeitpunkt (System.nanoTime())
+     */
+    public void start(long now)
+    {
+        if (this.resetRequested)
+        {
+            this.resetRequested = false;
+            for (LogHistogram histogram : this.histograms)
+            {
+                histogram.reset();
+            }
+        }
+        this.mark = now;
+    }
+
+    /**
+     * lap(Phase phase) - Ende der Phase phase, Dauer seit der letzten Marke eintragen...
+     * @param phase
+     */
+    public void lap(Phase phase)
+    {
+        final long now = System.nanoTime();
+        this.histograms[phase.ordinal()].record(now - this.mark);
+        this.mark = now;
+    }
+
+    /**
+     * requestReset() - alle Werte mit dem naechsten Zyklus verwerfen...
+     */
+    public void requestReset()
+    {
+        this.resetRequested = true;
+    }
+
+    /**
+     * getHistogram(Phase phase)
+     * @param phase
+     * @return Histogramm der Phase
+     */
+    public LogHistogram getHistogram(Phase phase)
+    {
+        return this.histograms[phase.ordinal()];
+    }
+
+    /**
+     * toString() - eine Zeile je Phase (mit Werten), zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder("phases:");
+        for (LogHistogram histogram : this.histograms)
+        {
+            if (histogram.getCount() > 0L)
+            {
+                builder.append(System.lineSeparator()).append("  ").append(histogram.toString());
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Phase - Abschnitte des Regelzyklus
+     * <ul>
+     *  <li>CYCLE - Taktzeit, Austausch des Regelgesetzes, Pruefungen bis zur Kommunikation</li>
+     *  <li>EXCHANGE - Token-Austausch mit dem Arduino (sequentiell)</li>
+     *  <li>BUS_WAIT - Warten auf den BusWorker und Beauftragung (Pipeline-Betrieb)</li>
+     *  <li>CONTROL - Pruefung der Antwort, Lage, Schaetzung, Bahnplanung, Regelgesetz</li>
+     *  <li>PWM - Ausgabe der Stellgroessen an den Motortreiber (sequentiell)</li>
+     *  <li>TELEMETRY - Eintrag und Veroeffentlichung des CycleRecord</li>
+     * </ul>
+     */
+    public enum Phase
+    {
+        CYCLE,
+        EXCHANGE,
+        BUS_WAIT,
+        CONTROL,
+        PWM,
+        TELEMETRY;
+    }
+}
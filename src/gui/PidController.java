@@ -0,0 +1,284 @@
+/**
+ *
+ */
+package gui;
+
+import java.math.BigDecimal;
+
+/**
+ * Die Klasse PidController realisiert das Regelgesetz "PID" (vgl. ControlStrategy)
+ * fuer beide Motoren, jeweils mit eigenen Zustandsgroessen.
+ * <p>
+ * Struktur (je Motor, e = Sollwert - Istwert, y = Istwert):
+ * <pre>
+ *   u = Kp * e + I + D
+ *   I = I + Kp * dt/Ti * e + dt/Tt * (u_begrenzt - u)      (Anti-Windup durch Rueckrechnung)
+ *   D = Td/(Td + N*dt) * D - Kp*Td*N/(Td + N*dt) * (y - y_alt)  (gefilterter D-Anteil auf den Istwert)
+ * </pre>
+ * Kp ergibt sich wie beim PositionController aus enhancement / wheelSteps,
+ * dt ist die Zeit seit der vorherigen Antwort des Arduino (ControlInput.getSampleTimeNanos()),
+ * y - y_alt die Differenz der Impulse in diesem Intervall. Der I-Anteil wird zusaetzlich auf
+ * den jeweiligen Grenzwert (MX_MAX_VALUES) begrenzt und bei erreichtem Sollwert
+ * (e = 0) verworfen. Der D-Anteil wirkt nur auf den Istwert, ein Sprung des 
+ * Sollwertes fuehrt damit nicht zu einem Stoss.
+ * </p>
+ * <p>
+ * Achtung: Die Geber liefern Impulse ohne Drehrichtung, die Richtung ergibt sich 
+ * im Model aus dem Vorzeichen der Stellgroesse. Bremst der D-Anteil einen noch 
+ * nachlaufenden Motor mit umgekehrter Stellgroesse, werden dessen Impulse falsch 
+ * gezaehlt. Die Vorhaltzeit ist deshalb klein (bzw. 0) zu waehlen.
+ * </p>
+ * <p>
+ * Kp, Ti und Td koennen mit setTuning() (z.B. durch den RelayAutotuner) ohne
+ * Anlegen von Objekten neu eingestellt werden, Kp gilt bis zum naechsten
+ * setEnhancement().
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class PidController implements ControlStrategy
+{
+    /**
+     * NAME = "PID" - Name des Regelgesetzes (vgl. ControlStrategy)
+     */
+    public final static String NAME = "PID";
+
+    /**
+     * MAX_DT = 0.5 - groesstes beruecksichtigtes dt in s (z.B. nach einer Unterbrechung)...
+     */
+    private final static double MAX_DT = 0.5;
+
+    /**
+     * MA = 0, MB = 1 - Index der Zustandsgroessen...
+     */
+    private final static int MA = 0, MB = 1;
+
+    /**
+     * wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
+     */
+    private final int wheelSteps;
+
+    /**
+     * integralTime - Nachstellzeit Ti in s (0.0: ohne I-Anteil)
+     */
+    private volatile double integralTime;
+
+    /**
+     * derivativeTime - Vorhaltzeit Td in s (0.0: ohne D-Anteil)
+     */
+    private volatile double derivativeTime;
+
+    /**
+     * derivativeFilter - Filterkoeffizient N des D-Anteils (Zeitkonstante Td/N)
+     */
+    private final double derivativeFilter;
+
+    /**
+     * trackingTime - Zeitkonstante Tt der Rueckrechnung (Anti-Windup)
+     */
+    private volatile double trackingTime;
+
+    /**
+     * enhancement - Reglerverstaerkung...
+     */
+    private volatile BigDecimal enhancement = BigDecimal.ZERO;
+
+    /**
+     * kp - Verstaerkung pro Impuls (enhancement / wheelSteps)
+     */
+    private volatile double kp = 0.0;
+
+    /**
+     * integral[] - I-Anteil je Motor
+     */
+    private final double[] integral = new double[2];
+
+    /**
+     * derivative[] - D-Anteil je Motor
+     */
+    private final double[] derivative = new double[2];
+
+    /**
+     * lastNumber[] - Istwert je Motor im vorherigen Zyklus
+     */
+    private final long[] lastNumber = new long[2];
+
+    /**
+     * hasLast - Kennung, lastNumber[] ist gesetzt...
+     */
+    private boolean hasLast = false;
+
+    /**
+     * PidController(int wheelSteps, double integralTime, double derivativeTime, double derivativeFilter)
+     * @param wheelSteps Anzahl der Impulse des Gebers pro Umdrehung
+     * @param integralTime Nachstellzeit Ti in s (&lt;= 0.0: ohne I-Anteil)
+     * @param derivativeTime Vorhaltzeit Td in s (&lt;= 0.0: ohne D-Anteil)
+     * @param derivativeFilter Filterkoeffizient N (typisch 5 ... 20)
+     */
+    public PidController(int wheelSteps, double integralTime, double derivativeTime, double derivativeFilter)
+    {
+        this.wheelSteps = (wheelSteps > 1)? wheelSteps : 1;
+        this.derivativeFilter = (derivativeFilter > 0.0)? derivativeFilter : 10.0;
+        setTimes(integralTime, derivativeTime);
+    }
+
+    /**
+     * setTuning(double kp, double integralTime, double derivativeTime) - Einstellung
+     * ohne Anlegen von Objekten (auch im Regelzyklus)...
+     * @param kp Verstaerkung pro Impuls (gilt bis zum naechsten setEnhancement())
+     * @param integralTime Nachstellzeit Ti in s (&lt;= 0.0: ohne I-Anteil)
+     * @param derivativeTime Vorhaltzeit Td in s (&lt;= 0.0: ohne D-Anteil)
+     */
+    public void setTuning(double kp, double integralTime, double derivativeTime)
+    {
+        this.kp = Math.max(0.0, kp);
+        setTimes(integralTime, derivativeTime);
+    }
+
+    /**
+     * setTimes(double integralTime, double derivativeTime) - Ti, Td und Tt setzen...
+     */
+    private void setTimes(double integralTime, double derivativeTime)
+    {
+        this.integralTime = Math.max(0.0, integralTime);
+        this.derivativeTime = Math.max(0.0, derivativeTime);
+        // Faustformel: Tt = sqrt(Ti * Td), ohne D-Anteil Tt = Ti...
+        this.trackingTime = (this.derivativeTime > 0.0)? Math.sqrt(this.integralTime * this.derivativeTime) : this.integralTime;
+    }
+
+    /**
+     * @return Verstaerkung pro Impuls
+     */
+    public double getKp()
+    {
+        return this.kp;
+    }
+
+    /**
+     * @return Nachstellzeit Ti in s
+     */
+    public double getIntegralTime()
+    {
+        return this.integralTime;
+    }
+
+    /**
+     * @return Vorhaltzeit Td in s
+     */
+    public double getDerivativeTime()
+    {
+        return this.derivativeTime;
+    }
+
+    /**
+     * getName() - Name des Regelgesetzes
+     */
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    /**
+     * setEnhancement(BigDecimal enhancement) - Reglerverstaerkung setzen
+     * @param enhancement
+     */
+    @Override
+    public void setEnhancement(BigDecimal enhancement)
+    {
+        this.enhancement = (enhancement != null)? enhancement : BigDecimal.ZERO;
+        this.kp = this.enhancement.doubleValue() / this.wheelSteps;
+    }
+
+    /**
+     * getEnhancement() - Reglerverstaerkung
+     * @return enhancement
+     */
+    public BigDecimal getEnhancement()
+    {
+        return this.enhancement;
+    }
+
+    /**
+     * reset() - I- und D-Anteil zuruecksetzen...
+     */
+    @Override
+    public void reset()
+    {
+        this.integral[MA] = 0.0;
+        this.integral[MB] = 0.0;
+        this.derivative[MA] = 0.0;
+        this.derivative[MB] = 0.0;
+        this.hasLast = false;
+    }
+
+    /**
+     * doControl(ControlInput input, ControlOutput output) - Regelalgorithmus...
+     */
+    @Override
+    public void doControl(ControlInput input, ControlOutput output)
+    {
+        final double dt = Math.min(MAX_DT, input.getSampleTimeNanos() * 1.0e-9);
+        final double kp = this.kp;
+        // Erster Zyklus (bzw. nach reset()): ohne gueltiges dt bzw. y_alt nur P-Anteil...
+        final boolean isValid = this.hasLast && dt > 0.0;
+
+        final long diffMA = input.getNumberSetPoint() - input.getNumberMA();
+        final long diffMB = input.getNumberSetPoint() - input.getNumberMB();
+
+        final double outputMA = control(MA, diffMA, input.getNumberMA(), input.getMaxValueMA(), kp, dt, isValid);
+        final double outputMB = control(MB, diffMB, input.getNumberMB(), input.getMaxValueMB(), kp, dt, isValid);
+
+        this.lastNumber[MA] = input.getNumberMA();
+        this.lastNumber[MB] = input.getNumberMB();
+        this.hasLast = true;
+
+        output.set(diffMA, diffMB, outputMA, outputMB);
+    }
+
+    /**
+     * control(...) - PID-Algorithmus fuer einen Motor...
+     * @param index MA oder MB
+     * @param diff Regeldifferenz in Impulsen
+     * @param number Istwert in Impulsen
+     * @param maxValue Grenzwert der Stellgroesse
+     * @param kp Verstaerkung pro Impuls
+     * @param dt Zeit seit der vorherigen Antwort in s
+     * @param isValid dt und lastNumber[] sind gueltig
+     * @return Stellgroesse (begrenzt und gerundet)
+     */
+    private double control(int index, long diff, long number, double maxValue, double kp, double dt, boolean isValid)
+    {
+        final double max = Math.abs(maxValue);
+        final double derivativeTime = this.derivativeTime;
+        final double integralTime = this.integralTime;
+
+        if (isValid && derivativeTime > 0.0)
+        {
+            final double denominator = derivativeTime + this.derivativeFilter * dt;
+            this.derivative[index] = (derivativeTime / denominator) * this.derivative[index]
+                                   - (kp * derivativeTime * this.derivativeFilter / denominator) * (number - this.lastNumber[index]);
+        }
+
+        final double value = kp * diff + this.integral[index] + this.derivative[index];
+        final double limited = PositionController.limit(value, max);
+
+        if (diff == 0L)
+        {
+            // Ziel erreicht: Die Raeder tragen keine statische Last, der I-Anteil wird
+            // verworfen, sonst pendelt die Lage um den Sollwert...
+            this.integral[index] = 0.0;
+        }
+        else if (isValid && integralTime > 0.0)
+        {
+            // Integration mit Rueckrechnung der Begrenzung, zusaetzlich Begrenzung des I-Anteils...
+            final double integral = this.integral[index]
+                                  + kp * dt / integralTime * diff
+                                  + dt / this.trackingTime * (limited - value);
+            this.integral[index] = PositionController.limit(integral, max);
+        }
+
+        // Rundung der Stellgroesse wie beim PositionController (ROUND_HALF_UP)...
+        return PositionController.round(limited);
+    }
+}
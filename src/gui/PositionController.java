@@ -14,11 +14,19 @@ import org.slf4j.LoggerFactory;
  * der Gleichlaufregelung. Der Algorithmus wird durch Beauftragung der 
  * doControl()-Methode realisiert. Die notwendigen Parameter werden zuvor
  * gesetzt.
+ * <p>
+ * Der PositionController ist das Regelgesetz "P" (vgl. ControlStrategy) und 
+ * ohne innere Zustandsgroessen.
+ * </p>
  * 
  * @author Detlef Tribius
  */
-public class PositionController
+public class PositionController implements ControlStrategy
 {
+    /**
+     * NAME = "P" - Name des Regelgesetzes (vgl. ControlStrategy)
+     */
+    public final static String NAME = "P";
 
     /**
      * logger...
@@ -60,6 +68,29 @@ public class PositionController
      * </p>
      */
     private BigDecimal enhancement;
+    
+    /**
+     * pFactorFixed - Verstaerkungsfaktor pro Impuls (enhancement / wheelSteps) 
+     * als Festkommazahl mit SCALE_INTERN Nachkommastellen, d.h. 
+     * p_factor = pFactorFixed * 10^-SCALE_INTERN.
+     * <p>
+     * Der Wert wird bei setEnhancement() einmalig berechnet. Die Rechnung
+     * in doControl() erfolgt damit ganzzahlig und liefert dieselben Werte 
+     * wie die Rechnung mit BigDecimal.
+     * </p>
+     */
+    private volatile long pFactorFixed = 0L;
+    
+    /**
+     * FIXED_TO_OUTPUT - Teiler von SCALE_INTERN auf SCALE_OUTPUT Nachkommastellen 
+     * (10^(SCALE_INTERN - SCALE_OUTPUT))
+     */
+    private final static long FIXED_TO_OUTPUT = BigDecimal.ONE.movePointRight(SCALE_INTERN - SCALE_OUTPUT).longValueExact();
+    
+    /**
+     * OUTPUT_FACTOR - 10^SCALE_OUTPUT, Umrechnung der Festkommazahl in double
+     */
+    private final static double OUTPUT_FACTOR = BigDecimal.ONE.movePointRight(SCALE_OUTPUT).doubleValue();
 
     /**
      * wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
@@ -79,13 +110,35 @@ public class PositionController
         this.enhancement = BigDecimal.ZERO;
     }
     
+    /**
+     * getName() - Name des Regelgesetzes
+     */
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+    
+    /**
+     * reset() - keine inneren Zustandsgroessen...
+     */
+    @Override
+    public void reset()
+    {
+    }
+    
     /**
      * setEnhancement(BigDecimal enhancement) - Reglerverstaerkung setzen
      * @param enhancement
      */
+    @Override
     public void setEnhancement(BigDecimal enhancement)
     {
         this.enhancement = (enhancement != null)? enhancement : BigDecimal.ZERO;
+        // Verstarkungsfaktor, hier gehen die Impulse pro Umdrehung mit ein.
+        this.pFactorFixed = this.enhancement.divide(BigDecimal.valueOf(this.wheelSteps), SCALE_INTERN, BigDecimal.ROUND_CEILING)
+                                            .unscaledValue()
+                                            .longValue();
     }
     
     /**
@@ -99,11 +152,55 @@ public class PositionController
     
     /**
      * doControl() - Regelalgorithmus...
+     * <p>
+     * Variante mit BigDecimal (z.B. zur Anzeige), die Berechnung erfolgt 
+     * mit doControl(..., ControlOutput output).
+     * </p>
      * @return Output(output)
      */
     public Output doControl(long numberSetPoint,                            // Sollwert
                             long numberMA, long numberMB,                   // jeweiliger Istwert MA, MB 
                             BigDecimal maxValueMA, BigDecimal maxValueMB)   // jeweilige Grenzwerte 
+    {
+        final ControlOutput output = new ControlOutput();
+        doControl(numberSetPoint, numberMA, numberMB, maxValueMA.doubleValue(), maxValueMB.doubleValue(), output);
+        return new Output(BigDecimal.valueOf(output.getDiffValueMA()), 
+                          BigDecimal.valueOf(output.getDiffValueMB()), 
+                          BigDecimal.valueOf(output.getOutputMA()).setScale(SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP), 
+                          BigDecimal.valueOf(output.getOutputMB()).setScale(SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP));
+    }
+    
+    /**
+     * doControl(ControlInput input, ControlOutput output) - Regelalgorithmus (vgl. ControlStrategy)...
+     */
+    @Override
+    public void doControl(ControlInput input, ControlOutput output)
+    {
+        doControl(input.getNumberSetPoint(), 
+                  input.getNumberMA(), input.getNumberMB(), 
+                  input.getMaxValueMA(), input.getMaxValueMB(), 
+                  output);
+    }
+    
+    /**
+     * doControl() - Regelalgorithmus mit primitiven Werten...
+     * <p>
+     * Die Berechnung legt keine Objekte an, das Ergebnis wird in das 
+     * (wiederverwendbare) Objekt <code>output</code> eingetragen. 
+     * Die Stellgroessen werden wie bisher auf SCALE_OUTPUT Nachkommastellen 
+     * gerundet und auf den jeweiligen Grenzwert begrenzt.
+     * </p>
+     * @param numberSetPoint Sollwert
+     * @param numberMA Istwert Motor A
+     * @param numberMB Istwert Motor B
+     * @param maxValueMA Grenzwert Motor A
+     * @param maxValueMB Grenzwert Motor B
+     * @param output nimmt den Reglerausgang auf
+     */
+    public void doControl(long numberSetPoint,                              // Sollwert
+                          long numberMA, long numberMB,                     // jeweiliger Istwert MA, MB 
+                          double maxValueMA, double maxValueMB,             // jeweilige Grenzwerte 
+                          ControlOutput output)
     {
         // diffNumber: Lage-Differenz zwischen Soll - Ist...
         
@@ -113,33 +210,49 @@ public class PositionController
         // diffNumberMB: Regel-Differenz fuer Motor B, wird zu outputMB...
         final long diffNumberMB = numberSetPoint - numberMB;
         
-        // Verstarkungsfaktor, hier gehen die Impulse pro Umdrehung mit ein.
-        final BigDecimal p_factor = this.enhancement.divide(BigDecimal.valueOf(this.wheelSteps), SCALE_INTERN, BigDecimal.ROUND_CEILING);
+        final long p_factor = this.pFactorFixed;
         
-        final BigDecimal valueMA = BigDecimal.valueOf(diffNumberMA).multiply(p_factor).setScale(SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP);
-        // VZ: -1, 0 oder +1
-        final int signumMA = valueMA.signum(); 
-        final boolean isLimitMA = valueMA.abs().compareTo(maxValueMA.abs()) > 0;
-        final BigDecimal outputMA = isLimitMA? ((signumMA < 0)? maxValueMA.negate() : maxValueMA.setScale(SCALE_OUTPUT)) : valueMA;
+        final double outputMA = limit(round(diffNumberMA * p_factor), maxValueMA);
+        final double outputMB = limit(round(diffNumberMB * p_factor), maxValueMB);
         
-        final BigDecimal valueMB = BigDecimal.valueOf(diffNumberMB).multiply(p_factor).setScale(SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP);
-        // VZ: -1, 0 oder +1
-        final int signumMB = valueMB.signum(); 
-        final boolean isLimitMB = valueMB.abs().compareTo(maxValueMB.abs()) > 0;
-        final BigDecimal outputMB = isLimitMB? ((signumMB < 0)? maxValueMB.negate() : maxValueMB.setScale(SCALE_OUTPUT)) : valueMB;
-
-        // *** Anmerkung ***
-        // firstBigDecimal.compareTo(secondBigDecimal) < 0     // "<"
-        // firstBigDecimal.compareTo(secondBigDecimal) > 0     // ">"    
-        // firstBigDecimal.compareTo(secondBigDecimal) == 0    // "=="  
-        // firstBigDecimal.compareTo(secondBigDecimal) >= 0    // ">="
-        
-        return new Output(BigDecimal.valueOf(diffNumberMA), 
-                          BigDecimal.valueOf(diffNumberMB), 
-                          outputMA, 
-                          outputMB);
+        output.set(diffNumberMA, diffNumberMB, outputMA, outputMB);
     }
     
+    /**
+     * round(long fixedValue) - Rundung der Festkommazahl (SCALE_INTERN Nachkommastellen) 
+     * auf SCALE_OUTPUT Nachkommastellen (entspricht BigDecimal.ROUND_HALF_UP)...
+     * @param fixedValue Wert * 10^SCALE_INTERN
+     * @return gerundeter Wert
+     */
+    static double round(long fixedValue)
+    {
+        final long rounded = (Math.abs(fixedValue) + FIXED_TO_OUTPUT / 2L) / FIXED_TO_OUTPUT;
+        return ((fixedValue < 0L)? -rounded : rounded) / OUTPUT_FACTOR;
+    }
+    
+    /**
+     * round(double value) - Rundung einer Stellgroesse auf SCALE_OUTPUT Nachkommastellen,
+     * die Haelfte wird wie bei BigDecimal.ROUND_HALF_UP vom Nullpunkt weg gerundet 
+     * (Math.round() allein rundet negative Haelften in Richtung +unendlich)...
+     * @param value Stellgroesse
+     * @return gerundeter Wert
+     */
+    static double round(double value)
+    {
+        return Math.signum(value) * Math.round(Math.abs(value) * OUTPUT_FACTOR) / OUTPUT_FACTOR;
+    }
+    
+    /**
+     * limit(double value, double maxValue) - Begrenzung auf den Betrag von maxValue...
+     * @param value
+     * @param maxValue
+     * @return begrenzter Wert
+     */
+    static double limit(double value, double maxValue)
+    {
+        final double max = Math.abs(maxValue);
+        return (Math.abs(value) > max)? ((value < 0.0)? -max : max) : value;
+    }
     
     /**
      * Output - Zusammenfassung des Reglerausgangs
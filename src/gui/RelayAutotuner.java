@@ -0,0 +1,419 @@
+/**
+ *
+ */
+package gui;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * RelayAutotuner - Einstellung des PID-Reglers mit einem Relaisversuch (Astroem/Haegglund)
+ * statt durch Ausprobieren der Verstaerkungen (ENHANCEMENTS, MX_MAX_VALUES)...
+ * <p>
+ * Als Regelgesetz (Name "Autotune") schaltet der RelayAutotuner die Stellgroesse beider
+ * Motoren als Zweipunktregler mit Hysterese um den Sollwert (+d bzw. -d, d = amplitude,
+ * hoechstens der Grenzwert des Motors). Der Regelkreis schwingt dann mit der kritischen
+ * Periode Tu. Aus der Amplitude a der Lage (in Impulsen) ergibt sich die kritische
+ * Verstaerkung (Beschreibungsfunktion des Relais mit Hysterese h):
+ * <pre>
+ *   Ku = 4 * d / (pi * sqrt(a^2 - h^2))      (Stellgroesse pro Impuls)
+ * </pre>
+ * Nach SKIPPED_PERIODS Einschwingperioden werden je Motor periods Perioden gemittelt,
+ * uebernommen werden die kleinere kritische Verstaerkung und die laengere Periode beider
+ * Motoren. Daraus berechnet die Einstellregel (Ziegler/Nichols) Kp, Ti und Td.
+ * </p>
+ * <p>
+ * Nach dem Versuch werden die Werte ohne Anlegen von Objekten in den PidController
+ * uebernommen (PidController.setTuning()), die Stellgroessen sind 0 und das Model
+ * tauscht im naechsten Zyklus auf den PidController (vgl. isFinished()). Schwingt der
+ * Regelkreis nicht innerhalb von MAX_SECONDS (State.FAILED), bleibt der PidController
+ * unveraendert und das Model kehrt zum vorher aktiven Regelgesetz zurueck.
+ * Kp gilt bis zur naechsten Vorgabe der Verstaerkung (Model.setEnhancement()), die
+ * entsprechende Verstaerkung wird als getRecommendedEnhancement() bereitgestellt.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class RelayAutotuner implements ControlStrategy
+{
+    /**
+     * logger...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(RelayAutotuner.class);
+
+    /**
+     * NAME = "Autotune" - Name des Regelgesetzes (vgl. ControlStrategy)
+     */
+    public final static String NAME = "Autotune";
+
+    /**
+     * Rule - Einstellregeln nach Ziegler/Nichols...
+     */
+    public enum Rule
+    {
+        /**
+         * P - Kp = 0.5 Ku
+         */
+        P(0.5, 0.0, 0.0),
+        /**
+         * PI - Kp = 0.45 Ku, Ti = Tu / 1.2 (ohne D-Anteil, vgl. PidController zur Drehrichtung)
+         */
+        PI(0.45, 1.0 / 1.2, 0.0),
+        /**
+         * PID - Kp = 0.6 Ku, Ti = 0.5 Tu, Td = 0.125 Tu
+         */
+        PID(0.6, 0.5, 0.125);
+
+        /**
+         * Faktoren bezogen auf Ku bzw. Tu...
+         */
+        private final double gainFactor;
+        private final double integralFactor;
+        private final double derivativeFactor;
+
+        private Rule(double gainFactor, double integralFactor, double derivativeFactor)
+        {
+            this.gainFactor = gainFactor;
+            this.integralFactor = integralFactor;
+            this.derivativeFactor = derivativeFactor;
+        }
+    }
+
+    /**
+     * State - Zustand des Versuchs
+     */
+    public enum State
+    {
+        RELAY,
+        FINISHED,
+        FAILED;
+    }
+
+    /**
+     * SKIPPED_PERIODS = 2 - Perioden zum Einschwingen (nicht ausgewertet)
+     */
+    public final static int SKIPPED_PERIODS = 2;
+
+    /**
+     * MAX_SECONDS = 60.0 - maximale Dauer des Versuchs in s
+     */
+    public final static double MAX_SECONDS = 60.0;
+
+    /**
+     * MA = 0, MB = 1 - Index der Zustandsgroessen...
+     */
+    private final static int MA = 0, MB = 1;
+
+    /**
+     * wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung (fuer die Verstaerkung)
+     */
+    private final int wheelSteps;
+
+    /**
+     * hysteresis - Hysterese h des Relais in Impulsen
+     */
+    private final double hysteresis;
+
+    /**
+     * amplitude - Stellgroesse d des Relais (hoechstens der Grenzwert des Motors)
+     */
+    private final double amplitude;
+
+    /**
+     * periods - Anzahl der ausgewerteten Perioden je Motor
+     */
+    private final int periods;
+
+    /**
+     * rule - Einstellregel
+     */
+    private final Rule rule;
+
+    /**
+     * target - einzustellender PidController
+     */
+    private final PidController target;
+
+    /**
+     * state...
+     */
+    private volatile State state = State.RELAY;
+
+    /**
+     * elapsed - Dauer des Versuchs in s
+     */
+    private double elapsed = 0.0;
+
+    /**
+     * Zustandsgroessen je Motor: Schaltzustand des Relais, Zeitpunkt des letzten
+     * Umschaltens auf +d, Extremwerte der Lage in der laufenden Periode, Anzahl
+     * der Perioden sowie Summen von Periode, Amplitude und Stellgroesse...
+     */
+    private final int[] relay = new int[2];
+    private final double[] lastSwitch = new double[2];
+    private final long[] peakMax = new long[2];
+    private final long[] peakMin = new long[2];
+    private final int[] periodCount = new int[2];
+    private final double[] periodSum = new double[2];
+    private final double[] amplitudeSum = new double[2];
+    private final double[] relaySum = new double[2];
+
+    /**
+     * Ergebnis des Versuchs...
+     */
+    private volatile double ultimateGain = 0.0;
+    private volatile double ultimatePeriod = 0.0;
+    private volatile double kp = 0.0;
+    private volatile double integralTime = 0.0;
+    private volatile double derivativeTime = 0.0;
+
+    /**
+     * RelayAutotuner(...)
+     * @param wheelSteps Anzahl der Impulse des Gebers pro Umdrehung
+     * @param hysteresis Hysterese des Relais in Impulsen (&gt;= 0)
+     * @param amplitude Stellgroesse des Relais (0 ... 1)
+     * @param periods Anzahl der ausgewerteten Perioden (&gt;= 1)
+     * @param rule Einstellregel
+     * @param target einzustellender PidController
+     */
+    public RelayAutotuner(int wheelSteps, double hysteresis, double amplitude, int periods, Rule rule, PidController target)
+    {
+        this.wheelSteps = (wheelSteps > 1)? wheelSteps : 1;
+        this.hysteresis = Math.max(0.0, hysteresis);
+        this.amplitude = Math.max(0.0, Math.min(1.0, amplitude));
+        this.periods = Math.max(1, periods);
+        this.rule = Objects.requireNonNull(rule, "rule must not be null!");
+        this.target = Objects.requireNonNull(target, "target must not be null!");
+    }
+
+    /**
+     * getName() - Name des Regelgesetzes
+     */
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    /**
+     * setEnhancement(BigDecimal enhancement) - ohne Bedeutung fuer den Relaisversuch
+     */
+    @Override
+    public void setEnhancement(BigDecimal enhancement)
+    {
+        // Der Relaisversuch haengt nicht von der Verstaerkung ab...
+    }
+
+    /**
+     * reset() - neuen Versuch beginnen (bei Uebernahme als aktives Regelgesetz)...
+     */
+    @Override
+    public void reset()
+    {
+        this.elapsed = 0.0;
+        for (int index = MA; index <= MB; index++)
+        {
+            this.relay[index] = 0;
+            this.lastSwitch[index] = -1.0;
+            this.peakMax[index] = Long.MIN_VALUE;
+            this.peakMin[index] = Long.MAX_VALUE;
+            this.periodCount[index] = 0;
+            this.periodSum[index] = 0.0;
+            this.amplitudeSum[index] = 0.0;
+            this.relaySum[index] = 0.0;
+        }
+        this.state = State.RELAY;
+    }
+
+    /**
+     * doControl(ControlInput input, ControlOutput output) - Relais bzw. nach dem
+     * Versuch Stellgroesse 0...
+     */
+    @Override
+    public void doControl(ControlInput input, ControlOutput output)
+    {
+        final long diffMA = input.getNumberSetPoint() - input.getNumberMA();
+        final long diffMB = input.getNumberSetPoint() - input.getNumberMB();
+        if (this.state != State.RELAY)
+        {
+            output.set(diffMA, diffMB, 0.0, 0.0);
+            return;
+        }
+        this.elapsed += input.getSampleTimeNanos() * 1.0e-9;
+
+        final double outputMA = relay(MA, diffMA, input.getNumberMA(), input.getMaxValueMA());
+        final double outputMB = relay(MB, diffMB, input.getNumberMB(), input.getMaxValueMB());
+
+        if (this.periodCount[MA] >= SKIPPED_PERIODS + this.periods
+            && this.periodCount[MB] >= SKIPPED_PERIODS + this.periods)
+        {
+            finish();
+            output.set(diffMA, diffMB, 0.0, 0.0);
+            return;
+        }
+        if (this.elapsed > MAX_SECONDS)
+        {
+            this.state = State.FAILED;
+            logger.warn("RelayAutotuner: keine Dauerschwingung nach " + MAX_SECONDS + " s (Perioden MA/MB: "
+                        + this.periodCount[MA] + "/" + this.periodCount[MB] + "), PidController unveraendert");
+            output.set(diffMA, diffMB, 0.0, 0.0);
+            return;
+        }
+        output.set(diffMA, diffMB, outputMA, outputMB);
+    }
+
+    /**
+     * relay(...) - Relais mit Hysterese und Auswertung der Perioden fuer einen Motor...
+     * @param index MA oder MB
+     * @param diff Regeldifferenz in Impulsen
+     * @param number Istwert in Impulsen
+     * @param maxValue Grenzwert der Stellgroesse
+     * @return Stellgroesse
+     */
+    private double relay(int index, long diff, long number, double maxValue)
+    {
+        final double d = Math.min(this.amplitude, Math.abs(maxValue));
+        this.peakMax[index] = Math.max(this.peakMax[index], number);
+        this.peakMin[index] = Math.min(this.peakMin[index], number);
+
+        final int previous = this.relay[index];
+        if (diff > this.hysteresis)
+        {
+            this.relay[index] = 1;
+        }
+        else if (diff < -this.hysteresis)
+        {
+            this.relay[index] = -1;
+        }
+        else if (previous == 0)
+        {
+            this.relay[index] = (diff >= 0L)? 1 : -1;
+        }
+
+        if (previous == -1 && this.relay[index] == 1)
+        {
+            // Umschalten auf +d: eine Periode seit dem letzten Umschalten auf +d...
+            if (this.lastSwitch[index] >= 0.0)
+            {
+                final int count = ++this.periodCount[index];
+                // Nur die ersten periods Perioden nach dem Einschwingen auswerten, 
+                // der andere Motor kann noch schwingen (finish() teilt durch periods)...
+                if (count > SKIPPED_PERIODS && count <= SKIPPED_PERIODS + this.periods)
+                {
+                    this.periodSum[index] += this.elapsed - this.lastSwitch[index];
+                    this.amplitudeSum[index] += (this.peakMax[index] - this.peakMin[index]) / 2.0;
+                    this.relaySum[index] += d;
+                }
+            }
+            this.lastSwitch[index] = this.elapsed;
+            this.peakMax[index] = number;
+            this.peakMin[index] = number;
+        }
+        return this.relay[index] * d;
+    }
+
+    /**
+     * finish() - Ku, Tu und die Einstellung berechnen und in den PidController uebernehmen...
+     */
+    private void finish()
+    {
+        double gain = Double.MAX_VALUE;
+        double period = 0.0;
+        for (int index = MA; index <= MB; index++)
+        {
+            final double a = this.amplitudeSum[index] / this.periods;
+            final double d = this.relaySum[index] / this.periods;
+            final double h = Math.min(this.hysteresis, 0.99 * a);
+            final double ku = 4.0 * d / (Math.PI * Math.sqrt(Math.max(1.0e-9, a * a - h * h)));
+            gain = Math.min(gain, ku);
+            period = Math.max(period, this.periodSum[index] / this.periods);
+        }
+        this.ultimateGain = gain;
+        this.ultimatePeriod = period;
+        this.kp = this.rule.gainFactor * gain;
+        this.integralTime = this.rule.integralFactor * period;
+        this.derivativeTime = this.rule.derivativeFactor * period;
+        this.target.setTuning(this.kp, this.integralTime, this.derivativeTime);
+        this.state = State.FINISHED;
+        logger.info("RelayAutotuner: " + toString());
+    }
+
+    /**
+     * isFinished()
+     * @return true, wenn der Versuch beendet ist (erfolgreich oder nicht)
+     */
+    public boolean isFinished()
+    {
+        return this.state != State.RELAY;
+    }
+
+    /**
+     * @return Zustand des Versuchs
+     */
+    public State getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * @return eingestellter PidController
+     */
+    public PidController getTarget()
+    {
+        return this.target;
+    }
+
+    /**
+     * @return kritische Verstaerkung Ku (Stellgroesse pro Impuls)
+     */
+    public double getUltimateGain()
+    {
+        return this.ultimateGain;
+    }
+
+    /**
+     * @return kritische Periode Tu in s
+     */
+    public double getUltimatePeriod()
+    {
+        return this.ultimatePeriod;
+    }
+
+    /**
+     * getRecommendedEnhancement()
+     * @return Verstaerkung (Kp * wheelSteps) zur Vorgabe ueber Model.setEnhancement()
+     */
+    public double getRecommendedEnhancement()
+    {
+        return this.kp * this.wheelSteps;
+    }
+
+    /**
+     * toString() - Ergebnis zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.state)
+                                  .append(" rule=")
+                                  .append(this.rule)
+                                  .append(" Ku=")
+                                  .append(String.format(java.util.Locale.ROOT, "%.5f", this.ultimateGain))
+                                  .append(" Tu=")
+                                  .append(String.format(java.util.Locale.ROOT, "%.3f", this.ultimatePeriod))
+                                  .append("s Kp=")
+                                  .append(String.format(java.util.Locale.ROOT, "%.5f", this.kp))
+                                  .append(" (enhancement=")
+                                  .append(String.format(java.util.Locale.ROOT, "%.3f", getRecommendedEnhancement()))
+                                  .append(") Ti=")
+                                  .append(String.format(java.util.Locale.ROOT, "%.3f", this.integralTime))
+                                  .append("s Td=")
+                                  .append(String.format(java.util.Locale.ROOT, "%.3f", this.derivativeTime))
+                                  .append("s]")
+                                  .toString();
+    }
+}
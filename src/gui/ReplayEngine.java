@@ -0,0 +1,390 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ReplayEngine - wiederholt eine mit dem FlightRecorder aufgezeichnete Sitzung
+ * mit den (ggf. geaenderten) Regelgesetzen und vergleicht die neuen Stellgroessen
+ * mit den aufgezeichneten...
+ * <p>
+ * Je Satz mit CycleRecord.FLAG_CONTROL wird das Regelgesetz mit den aufgezeichneten
+ * Eingangsgroessen beauftragt: Fuehrungsgroesse, Lage (d.h. die aufsummierten
+ * Impulse), Zykluszeit, Grenzwerte, Bahnplanung und Schaetzung. Der Ablauf haengt
+ * damit nur von der Aufzeichnung ab (keine Uhr, kein Zufall) und erfolgt so schnell
+ * wie moeglich. Die Strecke wird nicht nachgebildet, d.h. geaenderte Stellgroessen
+ * wirken nicht auf die folgenden Istwerte zurueck.
+ * </p>
+ * <p>
+ * Wie im Model wird das Regelgesetz vor dem ersten Zyklus einer zusammenhaengenden
+ * Folge von Regelzyklen zurueckgesetzt (Start, Wiederaufnahme nach Busfehler),
+ * Gleichlauf (Kreuzkopplung) und abgeschaltete Regelung werden aus den Kennungen
+ * des Satzes uebernommen.
+ * </p>
+ * <p>
+ * Das Regelgesetz und die Verstaerkung werden ebenfalls dem Satz entnommen: Wechselt
+ * das aufgezeichnete Regelgesetz (z.B. Auswahl in der View, Ende des Relaisversuchs),
+ * wird das entsprechende Regelgesetz zurueckgesetzt und uebernommen, aendert sich die
+ * Verstaerkung, wird sie (wie mit Model.setEnhancement()) an alle Regelgesetze
+ * weitergereicht. Regelzyklen mit unbekanntem Regelgesetz werden uebersprungen.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class ReplayEngine
+{
+    /**
+     * TOLERANCE = 0.0005 - zulaessige Abweichung der Stellgroessen (halbe Aufloesung,
+     * vgl. PositionController.SCALE_OUTPUT)
+     */
+    public final static double TOLERANCE = 0.0005;
+
+    /**
+     * MAX_REPORTED_MISMATCHES = 10 - Anzahl der einzeln ausgegebenen Abweichungen (main())
+     */
+    private final static int MAX_REPORTED_MISMATCHES = 10;
+
+    /**
+     * strategies - zu pruefende Regelgesetze, Key ist der Name (vgl. ControlStrategy.getName())
+     */
+    private final Map<String, ControlStrategy> strategies = new LinkedHashMap<>();
+
+    /**
+     * strategy - aktives Regelgesetz (null: noch keines)
+     */
+    private ControlStrategy strategy = null;
+
+    /**
+     * enhancement - zuletzt weitergereichte Verstaerkung (NaN: noch keine)
+     */
+    private double enhancement = Double.NaN;
+
+    /**
+     * crossCoupling - Gleichlaufregelung (bei CycleRecord.FLAG_SYNCHRONIZED)
+     */
+    private final CrossCoupling crossCoupling;
+
+    /**
+     * input, output - wiederverwendete Ein- und Ausgangsgroessen
+     */
+    private final ControlInput input = new ControlInput();
+    private final ControlOutput output = new ControlOutput();
+
+    /**
+     * isControlSequence - Kennung, der vorherige Satz war ein Regelzyklus
+     */
+    private boolean isControlSequence = false;
+
+    /**
+     * outputMA, outputMB - Stellgroessen des zuletzt wiederholten Zyklus
+     */
+    private double outputMA = 0.0;
+    private double outputMB = 0.0;
+
+    /**
+     * records, controlCycles, mismatches, skippedCycles, strategyChanges - Zaehler
+     */
+    private long records = 0L;
+    private long controlCycles = 0L;
+    private long mismatches = 0L;
+    private long skippedCycles = 0L;
+    private long strategyChanges = 0L;
+
+    /**
+     * maxDeviation - groesste Abweichung der Stellgroessen
+     */
+    private double maxDeviation = 0.0;
+
+    /**
+     * recordedNanos - Summe der aufgezeichneten Zykluszeiten
+     */
+    private long recordedNanos = 0L;
+
+    /**
+     * replayNanos - Dauer der Wiederholung (nur replay(FlightRecordReader))
+     */
+    private long replayNanos = 0L;
+
+    /**
+     * ReplayEngine(List&lt;ControlStrategy&gt; strategies, CrossCoupling crossCoupling)
+     * @param strategies zu pruefende Regelgesetze (die Verstaerkung wird der Aufzeichnung entnommen)
+     * @param crossCoupling Gleichlaufregelung
+     */
+    public ReplayEngine(List<ControlStrategy> strategies, CrossCoupling crossCoupling)
+    {
+        Objects.requireNonNull(strategies, "strategies must not be null!");
+        for (ControlStrategy strategy: strategies)
+        {
+            Objects.requireNonNull(strategy, "strategy must not be null!");
+            this.strategies.put(strategy.getName(), strategy);
+        }
+        this.crossCoupling = Objects.requireNonNull(crossCoupling, "crossCoupling must not be null!");
+    }
+
+    /**
+     * replay(FlightRecordReader reader) - alle Saetze wiederholen...
+     * @param reader
+     * @throws IOException
+     */
+    public void replay(FlightRecordReader reader) throws IOException
+    {
+        final CycleRecord record = new CycleRecord();
+        final long start = System.nanoTime();
+        while (reader.next(record))
+        {
+            replay(record);
+        }
+        this.replayNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * replay(CycleRecord record) - einen Satz wiederholen...
+     * @param record aufgezeichneter Zyklus
+     * @return true, falls die Stellgroessen innerhalb TOLERANCE uebereinstimmen
+     *         (bzw. kein Regelzyklus)
+     */
+    public boolean replay(CycleRecord record)
+    {
+        this.records++;
+        this.recordedNanos += record.getCycleTimeNanos();
+        if (!record.isFlag(CycleRecord.FLAG_CONTROL))
+        {
+            this.isControlSequence = false;
+            return true;
+        }
+        final String name = CycleRecord.getStrategyName(record.getStrategyId());
+        final ControlStrategy strategy = (name != null)? this.strategies.get(name) : null;
+        if (strategy == null)
+        {
+            // Unbekanntes Regelgesetz, die folgende Folge beginnt neu...
+            this.skippedCycles++;
+            this.isControlSequence = false;
+            return true;
+        }
+        if (record.getEnhancement() != this.enhancement)
+        {
+            this.enhancement = record.getEnhancement();
+            final BigDecimal enhancement = BigDecimal.valueOf(this.enhancement);
+            for (ControlStrategy each: this.strategies.values())
+            {
+                each.setEnhancement(enhancement);
+            }
+        }
+        if (strategy != this.strategy)
+        {
+            if (this.strategy != null)
+            {
+                this.strategyChanges++;
+            }
+            this.strategy = strategy;
+            this.isControlSequence = false;
+        }
+        if (!this.isControlSequence)
+        {
+            strategy.reset();
+            this.isControlSequence = true;
+        }
+        this.controlCycles++;
+
+        final ControlInput input = this.input;
+        input.set(record.getNumberSetPoint(),
+                  record.getNumberMA(), record.getNumberMB(),
+                  record.getMaxValueMA(), record.getMaxValueMB(),
+                  record.getSampleTimeNanos(),
+                  record.getReferenceVelocity(),
+                  record.getReferenceAcceleration());
+        input.setEstimate(record.getEstimatedMA(), record.getVelocityMA(),
+                          record.getEstimatedMB(), record.getVelocityMB());
+        final ControlOutput output = this.output;
+        strategy.doControl(input, output);
+        if (record.isFlag(CycleRecord.FLAG_SYNCHRONIZED))
+        {
+            this.crossCoupling.apply(input, output);
+        }
+        final boolean isControlled = record.isFlag(CycleRecord.FLAG_CONTROLLED);
+        this.outputMA = isControlled? output.getOutputMA() : 0.0;
+        this.outputMB = isControlled? output.getOutputMB() : 0.0;
+
+        final double deviation = Math.max(Math.abs(this.outputMA - record.getOutputMA()),
+                                          Math.abs(this.outputMB - record.getOutputMB()));
+        this.maxDeviation = Math.max(this.maxDeviation, deviation);
+        if (deviation > TOLERANCE)
+        {
+            this.mismatches++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return Stellgroesse Motor A des zuletzt wiederholten Zyklus
+     */
+    public double getOutputMA()
+    {
+        return this.outputMA;
+    }
+
+    /**
+     * @return Stellgroesse Motor B des zuletzt wiederholten Zyklus
+     */
+    public double getOutputMB()
+    {
+        return this.outputMB;
+    }
+
+    /**
+     * @return Anzahl der gelesenen Saetze
+     */
+    public long getRecords()
+    {
+        return this.records;
+    }
+
+    /**
+     * @return Anzahl der wiederholten Regelzyklen
+     */
+    public long getControlCycles()
+    {
+        return this.controlCycles;
+    }
+
+    /**
+     * @return Anzahl der Regelzyklen mit Abweichung &gt; TOLERANCE
+     */
+    public long getMismatches()
+    {
+        return this.mismatches;
+    }
+
+    /**
+     * @return Anzahl der uebersprungenen Regelzyklen (unbekanntes Regelgesetz)
+     */
+    public long getSkippedCycles()
+    {
+        return this.skippedCycles;
+    }
+
+    /**
+     * @return groesste Abweichung der Stellgroessen
+     */
+    public double getMaxDeviation()
+    {
+        return this.maxDeviation;
+    }
+
+    /**
+     * toString() - Ergebnis zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        final double speedup = (this.replayNanos > 0L)? ((double)this.recordedNanos / this.replayNanos) : 0.0;
+        return new StringBuilder().append("[")
+                                  .append(this.strategies.keySet())
+                                  .append(" records=")
+                                  .append(this.records)
+                                  .append(" controlCycles=")
+                                  .append(this.controlCycles)
+                                  .append(" mismatches=")
+                                  .append(this.mismatches)
+                                  .append(" skipped=")
+                                  .append(this.skippedCycles)
+                                  .append(" strategyChanges=")
+                                  .append(this.strategyChanges)
+                                  .append(" maxDeviation=")
+                                  .append(this.maxDeviation)
+                                  .append(" recorded=")
+                                  .append(this.recordedNanos / 1_000_000L)
+                                  .append("ms replay=")
+                                  .append(this.replayNanos / 1_000_000L)
+                                  .append("ms speedup=")
+                                  .append(Math.round(speedup))
+                                  .append("x]")
+                                  .toString();
+    }
+
+    /**
+     * main() - Wiederholung einer Aufzeichnung...
+     * <p>
+     * Aufruf: <code>ReplayEngine &lt;Segmentdatei|Verzeichnis&gt;...</code>, z.B.
+     * <code>ReplayEngine /home/pi/flight</code>. Regelgesetz und Verstaerkung werden der
+     * Aufzeichnung entnommen, die Parameter des PID-Reglers und des Relaisversuchs sowie die
+     * Kopplungsverstaerkung werden aus der Datei system.properties gelesen (vgl. Model).
+     * Der Exit-Code ist 1, falls Abweichungen vorliegen (z.B. fuer Regressionstests).
+     * </p>
+     */
+    public static void main(String[] args)
+    {
+        if (args.length < 1)
+        {
+            System.err.println("Aufruf: ReplayEngine <Segmentdatei|Verzeichnis>...");
+            System.exit(2);
+        }
+        final java.util.Properties properties = new java.util.Properties();
+        try (InputStream inputStream = ReplayEngine.class.getResourceAsStream(SwingMain.PROPERTIES_FILE))
+        {
+            if (inputStream != null)
+            {
+                properties.load(inputStream);
+            }
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Can't read the properties file '" + SwingMain.PROPERTIES_FILE + "'! ");
+        }
+
+        // Die Regelgesetze wie im Model anlegen...
+        final List<ControlStrategy> strategies = new ArrayList<>();
+        strategies.add(new PositionController(Model.CIRCUMFERENCE));
+        final PidController pidController = new PidController(Model.CIRCUMFERENCE,
+                                                              Model.getIntProperty(properties, Model.PID_INTEGRAL_TIME_KEY, Model.DEFAULT_PID_INTEGRAL_TIME) / 1000.0,
+                                                              Model.getIntProperty(properties, Model.PID_DERIVATIVE_TIME_KEY, Model.DEFAULT_PID_DERIVATIVE_TIME) / 1000.0,
+                                                              Model.getIntProperty(properties, Model.PID_DERIVATIVE_FILTER_KEY, Model.DEFAULT_PID_DERIVATIVE_FILTER));
+        strategies.add(pidController);
+        strategies.add(new RelayAutotuner(Model.CIRCUMFERENCE,
+                                          Model.getDoubleProperty(properties, Model.AUTOTUNE_HYSTERESIS_KEY, Model.DEFAULT_AUTOTUNE_HYSTERESIS),
+                                          Model.getDoubleProperty(properties, Model.AUTOTUNE_AMPLITUDE_KEY, Model.DEFAULT_AUTOTUNE_AMPLITUDE),
+                                          Model.getIntProperty(properties, Model.AUTOTUNE_PERIODS_KEY, Model.DEFAULT_AUTOTUNE_PERIODS),
+                                          Model.getEnumProperty(properties, Model.AUTOTUNE_RULE_KEY, RelayAutotuner.Rule.class, RelayAutotuner.Rule.PI),
+                                          pidController));
+        final ReplayEngine engine = new ReplayEngine(strategies,
+                                                     new CrossCoupling(Model.getDoubleProperty(properties, Model.SYNC_GAIN_KEY, Model.DEFAULT_SYNC_GAIN)));
+
+        final List<File> files = new ArrayList<>();
+        for (int index = 0; index < args.length; index++)
+        {
+            files.addAll(FlightRecordReader.listSegments(new File(args[index])));
+        }
+        try
+        {
+            final FlightRecordReader reader = new FlightRecordReader(files);
+            final CycleRecord record = new CycleRecord();
+            final long start = System.nanoTime();
+            while (reader.next(record))
+            {
+                if (!engine.replay(record) && engine.getMismatches() <= MAX_REPORTED_MISMATCHES)
+                {
+                    System.out.println("Abweichung " + record.toString() + " -> " + engine.getOutputMA() + " " + engine.getOutputMB());
+                }
+            }
+            engine.replayNanos = System.nanoTime() - start;
+        }
+        catch (IOException exception)
+        {
+            System.err.println(exception.toString());
+            System.exit(2);
+        }
+        System.out.println(files.size() + " Segmente " + engine.toString());
+        System.exit((engine.getMismatches() > 0L)? 1 : 0);
+    }
+}
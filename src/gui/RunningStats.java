@@ -0,0 +1,147 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * RunningStats - laufende Statistik einer Dauer (Anzahl, Mittelwert,
+ * Standardabweichung, Minimum, Maximum) ohne Speicherung der Einzelwerte...
+ * <p>
+ * Mittelwert und Varianz werden nach Welford fortgeschrieben, add() legt
+ * keine Objekte an. Die Standardabweichung dient als Mass fuer den Jitter.
+ * Geschrieben wird vom Regelzyklus, gelesen z.B. zum Protokollieren,
+ * die Methoden sind deshalb synchronisiert (ohne Konkurrenz guenstig).
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class RunningStats
+{
+    /**
+     * name - Bezeichnung zu Protokollzwecken
+     */
+    private final String name;
+
+    /**
+     * count - Anzahl der Werte
+     */
+    private long count = 0L;
+
+    /**
+     * mean - Mittelwert in ns
+     */
+    private double mean = 0.0;
+
+    /**
+     * sumOfSquares - Summe der quadratischen Abweichungen (Welford)
+     */
+    private double sumOfSquares = 0.0;
+
+    /**
+     * min, max - kleinster und groesster Wert in ns
+     */
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * RunningStats(String name)
+     * @param name Bezeichnung zu Protokollzwecken
+     */
+    public RunningStats(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * add(long nanos) - Wert hinzufuegen...
+     * @param nanos Dauer in ns
+     */
+    public synchronized void add(long nanos)
+    {
+        this.count++;
+        final double delta = nanos - this.mean;
+        this.mean += delta / this.count;
+        this.sumOfSquares += delta * (nanos - this.mean);
+        if (nanos < this.min)
+        {
+            this.min = nanos;
+        }
+        if (nanos > this.max)
+        {
+            this.max = nanos;
+        }
+    }
+
+    /**
+     * reset() - alle Werte verwerfen...
+     */
+    public synchronized void reset()
+    {
+        this.count = 0L;
+        this.mean = 0.0;
+        this.sumOfSquares = 0.0;
+        this.min = Long.MAX_VALUE;
+        this.max = Long.MIN_VALUE;
+    }
+
+    /**
+     * @return Anzahl der Werte
+     */
+    public synchronized long getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * @return Mittelwert in ns
+     */
+    public synchronized double getMean()
+    {
+        return this.mean;
+    }
+
+    /**
+     * @return Standardabweichung (Jitter) in ns
+     */
+    public synchronized double getStandardDeviation()
+    {
+        return (this.count > 1L)? Math.sqrt(this.sumOfSquares / (this.count - 1L)) : 0.0;
+    }
+
+    /**
+     * @return kleinster Wert in ns (0, falls keine Werte)
+     */
+    public synchronized long getMin()
+    {
+        return (this.count > 0L)? this.min : 0L;
+    }
+
+    /**
+     * @return groesster Wert in ns (0, falls keine Werte)
+     */
+    public synchronized long getMax()
+    {
+        return (this.count > 0L)? this.max : 0L;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken, Werte in us...
+     */
+    @Override
+    public synchronized String toString()
+    {
+        return new StringBuilder().append(this.name)
+                                  .append(" [n=")
+                                  .append(this.count)
+                                  .append(" mean=")
+                                  .append(Math.round(this.mean / 1000.0))
+                                  .append("us jitter=")
+                                  .append(Math.round(getStandardDeviation() / 1000.0))
+                                  .append("us min=")
+                                  .append(getMin() / 1000L)
+                                  .append("us max=")
+                                  .append(getMax() / 1000L)
+                                  .append("us]")
+                                  .toString();
+    }
+}
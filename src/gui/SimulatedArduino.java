@@ -0,0 +1,161 @@
+/**
+ * 
+ */
+package gui;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Random;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * SimulatedArduino - Nachbildung des Arduino im Prozess...
+ * <p>
+ * Der token wird wie auf dem Arduino inkrementiert zurueckgeschickt, die 
+ * Impulszaehler werden aus den virtuellen Motoren (SimulatedMotors) gelesen.
+ * Jede Bus-Transaktion (write() und read()) kann mit einer Latenz 
+ * <code>latencyNanos</code> versehen werden, um die Dauer auf dem I2C-Bus
+ * nachzubilden.
+ * </p>
+ * <p>
+ * Mit <code>faultRate</code> werden Busfehler nachgebildet (zum Test der 
+ * Fehlerbehandlung im Model): abwechselnd eine IOException und eine Antwort
+ * mit falschem token.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class SimulatedArduino implements ArduinoDevice
+{
+    /**
+     * motors - Referenz auf die virtuellen Motoren...
+     */
+    private final SimulatedMotors motors;
+    
+    /**
+     * latencyNanos - Dauer einer Bus-Transaktion in ns
+     */
+    private final long latencyNanos;
+    
+    /**
+     * token - zuletzt erhaltener token
+     */
+    private long token = 0L;
+    
+    /**
+     * faultRate - Wahrscheinlichkeit eines Busfehlers je Antwort (0.0: keine Fehler)
+     */
+    private final double faultRate;
+    
+    /**
+     * random - Zufallszahlen zur Nachbildung der Busfehler
+     */
+    private final Random random = new Random();
+    
+    /**
+     * faults - Anzahl der nachgebildeten Busfehler
+     */
+    private long faults = 0L;
+    
+    /**
+     * SimulatedArduino(SimulatedMotors motors, long latencyNanos)
+     * @param motors virtuelle Motoren
+     * @param latencyNanos Dauer einer Bus-Transaktion in ns
+     */
+    public SimulatedArduino(SimulatedMotors motors, long latencyNanos)
+    {
+        this(motors, latencyNanos, 0.0);
+    }
+    
+    /**
+     * SimulatedArduino(SimulatedMotors motors, long latencyNanos, double faultRate)
+     * @param motors virtuelle Motoren
+     * @param latencyNanos Dauer einer Bus-Transaktion in ns
+     * @param faultRate Wahrscheinlichkeit eines Busfehlers je Antwort (0.0 ... 1.0)
+     */
+    public SimulatedArduino(SimulatedMotors motors, long latencyNanos, double faultRate)
+    {
+        this.motors = Objects.requireNonNull(motors, "motors must not be null!");
+        this.latencyNanos = Math.max(0L, latencyNanos);
+        this.faultRate = Math.max(0.0, Math.min(1.0, faultRate));
+    }
+
+    @Override
+    public void write(long token, ArduinoI2C.Status status)
+    {
+        busyWait(this.latencyNanos);
+        this.token = token;
+        if (ArduinoI2C.Status.INITIAL == status)
+        {
+            // Erste Beauftragung, Arduino setzt die Zaehler zurueck...
+            this.motors.resetPulses();
+        }
+    }
+
+    @Override
+    public void read(ArduinoResponse response) throws IOException
+    {
+        busyWait(this.latencyNanos);
+        respond(response);
+    }
+    
+    /**
+     * exchange(...) - Nachbildung der kombinierten Transaktion (vgl. ArduinoFrameDevice),
+     * d.h. nur eine Latenz pro Zyklus...
+     */
+    @Override
+    public void exchange(long token, ArduinoI2C.Status status, ArduinoResponse response) throws IOException
+    {
+        busyWait(this.latencyNanos);
+        this.token = token;
+        if (ArduinoI2C.Status.INITIAL == status)
+        {
+            // Erste Beauftragung, Arduino setzt die Zaehler zurueck...
+            this.motors.resetPulses();
+        }
+        respond(response);
+    }
+    
+    /**
+     * respond(ArduinoResponse response) - Antwort eintragen, ggf. mit nachgebildetem Busfehler...
+     * @param response nimmt die Antwort auf
+     * @throws IOException nachgebildeter Busfehler
+     */
+    private void respond(ArduinoResponse response) throws IOException
+    {
+        long tokenToRaspi = this.token + 1L;
+        if (this.faultRate > 0.0 && this.random.nextDouble() < this.faultRate)
+        {
+            this.faults++;
+            if ((this.faults & 1L) == 1L)
+            {
+                throw new IOException("Simulierter Busfehler (" + this.faults + ")");
+            }
+            // falscher token...
+            tokenToRaspi = this.token;
+        }
+        response.set(tokenToRaspi, 
+                     ArduinoI2C.Status.SUCCESS, 
+                     0, 
+                     this.motors.getPulsesMA(), 
+                     this.motors.getPulsesMB());
+    }
+    
+    /**
+     * busyWait(long nanos) - aktives Warten (genauer als sleep() im Bereich us)...
+     * @param nanos
+     */
+    static void busyWait(long nanos)
+    {
+        if (nanos <= 0L)
+        {
+            return;
+        }
+        final long end = System.nanoTime() + nanos;
+        while (System.nanoTime() - end < 0L)
+        {
+            // aktives Warten...
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * 
+ */
+package gui;
+
+/**
+ * SimulatedMotors - virtuelle Motoren A und B mit Impulsgeber...
+ * <p>
+ * Jeder Motor wird als Verzoegerungsglied 1. Ordnung nachgebildet: 
+ * Die Geschwindigkeit (in Impulse/s) folgt der Stellgroesse (PWM) mit 
+ * der Zeitkonstanten <code>timeConstantNanos</code>, bei PWM = 1.0 wird 
+ * <code>maxSpeed</code> erreicht. Die Impulszaehler zaehlen wie der reale 
+ * Geber ohne Richtungsinformation (Betrag des zurueckgelegten Weges).
+ * </p>
+ * <p>
+ * Die Integration erfolgt jeweils bei Zugriff auf Basis von System.nanoTime(),
+ * die PWM-Vorgabe wird zwischen zwei Zugriffen als konstant angenommen.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class SimulatedMotors implements MotorDriver
+{
+    /**
+     * maxSpeed - Geschwindigkeit (Impulse/s) bei PWM = 1.0
+     */
+    private final double maxSpeed;
+    
+    /**
+     * timeConstantNanos - Zeitkonstante der Motoren in ns
+     */
+    private final double timeConstantNanos;
+    
+    /**
+     * pwm[] - Stellgroesse Motor A (Index 0) und Motor B (Index 1)
+     */
+    private final double pwm[] = { 0.0, 0.0 };
+    
+    /**
+     * velocity[] - Geschwindigkeit (Impulse/s, mit Vorzeichen) Motor A und B
+     */
+    private final double velocity[] = { 0.0, 0.0 };
+    
+    /**
+     * pulses[] - Impulszaehler (Betrag des Weges in Impulsen) Motor A und B
+     */
+    private final double pulses[] = { 0.0, 0.0 };
+    
+    /**
+     * position[] - Lage (Impulse, mit Vorzeichen) Motor A und B, nur zur Kontrolle
+     */
+    private final double position[] = { 0.0, 0.0 };
+    
+    /**
+     * past - Zeitpunkt (System.nanoTime()) der letzten Integration
+     */
+    private long past;
+    
+    /**
+     * SimulatedMotors(double maxSpeed, long timeConstantNanos)
+     * @param maxSpeed Geschwindigkeit (Impulse/s) bei PWM = 1.0
+     * @param timeConstantNanos Zeitkonstante in ns
+     */
+    public SimulatedMotors(double maxSpeed, long timeConstantNanos)
+    {
+        this.maxSpeed = maxSpeed;
+        this.timeConstantNanos = (timeConstantNanos > 0L)? timeConstantNanos : 1L;
+        this.past = System.nanoTime();
+    }
+    
+    @Override
+    public synchronized void setPwmMA(float speed)
+    {
+        update();
+        this.pwm[0] = limit(speed);
+    }
+
+    @Override
+    public synchronized void setPwmMB(float speed)
+    {
+        update();
+        this.pwm[1] = limit(speed);
+    }
+    
+    /**
+     * getPulsesMA() - Impulszaehler Motor A
+     * @return Anzahl Impulse
+     */
+    public synchronized int getPulsesMA()
+    {
+        update();
+        return (int)this.pulses[0];
+    }
+    
+    /**
+     * getPulsesMB() - Impulszaehler Motor B
+     * @return Anzahl Impulse
+     */
+    public synchronized int getPulsesMB()
+    {
+        update();
+        return (int)this.pulses[1];
+    }
+    
+    /**
+     * getPositionMA() - Lage Motor A (mit Vorzeichen), nur zur Kontrolle...
+     * @return Lage in Impulsen
+     */
+    public synchronized double getPositionMA()
+    {
+        update();
+        return this.position[0];
+    }
+
+    /**
+     * getPositionMB() - Lage Motor B (mit Vorzeichen), nur zur Kontrolle...
+     * @return Lage in Impulsen
+     */
+    public synchronized double getPositionMB()
+    {
+        update();
+        return this.position[1];
+    }
+    
+    /**
+     * resetPulses() - Impulszaehler zuruecksetzen (vgl. Arduino nach INITIAL)...
+     */
+    public synchronized void resetPulses()
+    {
+        update();
+        this.pulses[0] = 0.0;
+        this.pulses[1] = 0.0;
+    }
+    
+    /**
+     * update() - Integration bis zum aktuellen Zeitpunkt...
+     */
+    private void update()
+    {
+        final long now = System.nanoTime();
+        final long dtNanos = now - this.past;
+        this.past = now;
+        if (dtNanos <= 0L)
+        {
+            return;
+        }
+        final double dt = dtNanos * 1.0E-9;
+        final double factor = 1.0 - Math.exp(-dtNanos / this.timeConstantNanos);
+        for (int index = 0; index < this.velocity.length; index++)
+        {
+            final double v0 = this.velocity[index];
+            final double v1 = v0 + (this.pwm[index] * this.maxSpeed - v0) * factor;
+            // Trapezregel fuer den zurueckgelegten Weg...
+            final double distance = 0.5 * (v0 + v1) * dt;
+            this.velocity[index] = v1;
+            this.position[index] += distance;
+            this.pulses[index] += Math.abs(distance);
+        }
+    }
+    
+    /**
+     * limit(float speed) - Begrenzung auf -1.0 ... +1.0
+     * @param speed
+     * @return begrenzter Wert
+     */
+    private static double limit(float speed)
+    {
+        return Math.max(-1.0, Math.min(1.0, speed));
+    }
+}
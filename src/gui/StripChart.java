@@ -0,0 +1,247 @@
+/**
+ *
+ */
+package gui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JComponent;
+
+/**
+ * StripChart - Verlauf von Sollwert, numberMA/MB und outputMA/MB der letzten
+ * Sekunden (z.B. zum Einstellen der Verstaerkung: Ueberschwingen, Schwingen)...
+ * <p>
+ * Die Werte liegen in einem Ringpuffer aus Arrays fester Groesse (long/float),
+ * je Zyklus wird nichts angelegt. Beim Zeichnen werden die Koordinaten in
+ * ebenfalls wiederverwendete int-Arrays uebertragen und mit drawPolyline()
+ * gezeichnet: oben Sollwert und Lage beider Motoren (Skala nach den sichtbaren
+ * Werten), unten die Stellgroessen (-1 ... 1).
+ * </p>
+ * <p>
+ * Die StripChart wird ausschliesslich im Event-Dispatch-Thread gefuellt
+ * (TelemetryRing.Handler, vgl. SwingWindow.refreshData()) und gezeichnet,
+ * neu gezeichnet wird nur mit der Bildrate der View. Die Darstellung erfolgt
+ * doppelt gepuffert (JComponent.setDoubleBuffered()).
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class StripChart extends JComponent implements TelemetryRing.Handler
+{
+    /**
+     * serialVersionUID...
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * DEFAULT_SECONDS = 10 - Vorgabe der dargestellten Zeitspanne (in s)
+     */
+    public final static int DEFAULT_SECONDS = 10;
+
+    /**
+     * MAX_SAMPLE_RATE = 1000 - hoechste beruecksichtigte Taktrate (in Hz) fuer
+     * die Groesse des Ringpuffers, bei hoeherer Taktrate wird die Zeitspanne kuerzer
+     */
+    public final static int MAX_SAMPLE_RATE = 1000;
+
+    /**
+     * Farben der Kurven...
+     */
+    private final static Color SET_POINT_COLOR = Color.BLACK;
+    private final static Color MA_COLOR = new Color(0xCC, 0x00, 0x00);
+    private final static Color MB_COLOR = new Color(0x00, 0x00, 0xCC);
+    private final static Color GRID_COLOR = new Color(0xDD, 0xDD, 0xDD);
+
+    /**
+     * MARGIN = 4 - Rand (in Pixel)
+     */
+    private final static int MARGIN = 4;
+
+    /**
+     * windowNanos - dargestellte Zeitspanne in ns
+     */
+    private final long windowNanos;
+
+    /**
+     * mask - capacity - 1 (capacity als Zweierpotenz)
+     */
+    private final int mask;
+
+    /**
+     * Ringpuffer der Werte...
+     */
+    private final long[] timestamps;
+    private final long[] setPoints;
+    private final long[] numbersMA;
+    private final long[] numbersMB;
+    private final float[] outputsMA;
+    private final float[] outputsMB;
+
+    /**
+     * xPoints, yPoints - Koordinaten fuer drawPolyline() (wiederverwendet)
+     */
+    private final int[] xPoints;
+    private final int[] yPoints;
+
+    /**
+     * count - Anzahl aller eingetragenen Werte (Index des naechsten: count &amp; mask)
+     */
+    private long count = 0L;
+
+    /**
+     * StripChart(int seconds)
+     * @param seconds dargestellte Zeitspanne (in s)
+     */
+    public StripChart(int seconds)
+    {
+        final int visibleSeconds = Math.max(1, seconds);
+        this.windowNanos = TimeUnit.SECONDS.toNanos(visibleSeconds);
+        final int capacity = Integer.highestOneBit(visibleSeconds * MAX_SAMPLE_RATE - 1) << 1;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.setPoints = new long[capacity];
+        this.numbersMA = new long[capacity];
+        this.numbersMB = new long[capacity];
+        this.outputsMA = new float[capacity];
+        this.outputsMB = new float[capacity];
+        this.xPoints = new int[capacity];
+        this.yPoints = new int[capacity];
+        setDoubleBuffered(true);
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(520, 420));
+    }
+
+    /**
+     * onRecord(CycleRecord record) - Werte eines Zyklus eintragen (ohne Neuzeichnen)...
+     */
+    @Override
+    public void onRecord(CycleRecord record)
+    {
+        final int index = (int)(this.count & this.mask);
+        this.timestamps[index] = record.getTimestampNanos();
+        this.setPoints[index] = record.getNumberSetPoint();
+        this.numbersMA[index] = record.getNumberMA();
+        this.numbersMB[index] = record.getNumberMB();
+        this.outputsMA[index] = (float)record.getOutputMA();
+        this.outputsMB[index] = (float)record.getOutputMB();
+        this.count++;
+    }
+
+    /**
+     * paintComponent(Graphics graphics)...
+     */
+    @Override
+    protected void paintComponent(Graphics graphics)
+    {
+        final int width = getWidth();
+        final int height = getHeight();
+        graphics.setColor(getBackground());
+        graphics.fillRect(0, 0, width, height);
+
+        // Sichtbarer Bereich: alle Werte innerhalb windowNanos vor dem neuesten...
+        final long last = this.count - 1L;
+        long first = Math.max(0L, this.count - this.timestamps.length);
+        if (last < first)
+        {
+            return;
+        }
+        final long newest = this.timestamps[(int)(last & this.mask)];
+        while (first < last && newest - this.timestamps[(int)(first & this.mask)] > this.windowNanos)
+        {
+            first++;
+        }
+
+        final int plotWidth = width - 2 * MARGIN;
+        final int positionTop = MARGIN;
+        final int positionHeight = (height - 3 * MARGIN) * 2 / 3;
+        final int outputTop = positionTop + positionHeight + MARGIN;
+        final int outputHeight = height - outputTop - MARGIN;
+
+        // x-Koordinaten (fuer alle Kurven gleich)...
+        final long start = newest - this.windowNanos;
+        int points = 0;
+        for (long position = first; position <= last; position++)
+        {
+            final long offset = this.timestamps[(int)(position & this.mask)] - start;
+            this.xPoints[points++] = MARGIN + (int)(offset * plotWidth / this.windowNanos);
+        }
+
+        // Lage: Skala nach Minimum/Maximum der sichtbaren Werte...
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long position = first; position <= last; position++)
+        {
+            final int index = (int)(position & this.mask);
+            min = Math.min(min, Math.min(this.setPoints[index], Math.min(this.numbersMA[index], this.numbersMB[index])));
+            max = Math.max(max, Math.max(this.setPoints[index], Math.max(this.numbersMA[index], this.numbersMB[index])));
+        }
+        if (max - min < 2L)
+        {
+            min -= 1L;
+            max += 1L;
+        }
+        frame(graphics, positionTop, positionHeight, plotWidth);
+        plot(graphics, this.setPoints, first, points, min, max, positionTop, positionHeight, SET_POINT_COLOR);
+        plot(graphics, this.numbersMA, first, points, min, max, positionTop, positionHeight, MA_COLOR);
+        plot(graphics, this.numbersMB, first, points, min, max, positionTop, positionHeight, MB_COLOR);
+
+        // Stellgroessen: feste Skala -1 ... 1...
+        frame(graphics, outputTop, outputHeight, plotWidth);
+        graphics.setColor(GRID_COLOR);
+        graphics.drawLine(MARGIN, outputTop + outputHeight / 2, MARGIN + plotWidth, outputTop + outputHeight / 2);
+        plot(graphics, this.outputsMA, first, points, outputTop, outputHeight, MA_COLOR);
+        plot(graphics, this.outputsMB, first, points, outputTop, outputHeight, MB_COLOR);
+
+        // Beschriftung der Skala der Lage...
+        final FontMetrics fontMetrics = graphics.getFontMetrics();
+        graphics.setColor(Color.DARK_GRAY);
+        graphics.drawString(Long.toString(max), MARGIN + 2, positionTop + fontMetrics.getAscent());
+        graphics.drawString(Long.toString(min), MARGIN + 2, positionTop + positionHeight - fontMetrics.getDescent());
+    }
+
+    /**
+     * frame(Graphics graphics, int top, int height, int width) - Rahmen eines Bereichs...
+     */
+    private static void frame(Graphics graphics, int top, int height, int width)
+    {
+        graphics.setColor(GRID_COLOR);
+        graphics.drawRect(MARGIN, top, width, height);
+    }
+
+    /**
+     * plot(...) - Kurve aus long-Werten (Skala min ... max)...
+     */
+    private void plot(Graphics graphics, long[] values, long first, int points,
+                      long min, long max, int top, int height, Color color)
+    {
+        final double scale = (double)(height - 1) / (max - min);
+        for (int point = 0; point < points; point++)
+        {
+            final long value = values[(int)((first + point) & this.mask)];
+            this.yPoints[point] = top + height - 1 - (int)((value - min) * scale);
+        }
+        graphics.setColor(color);
+        graphics.drawPolyline(this.xPoints, this.yPoints, points);
+    }
+
+    /**
+     * plot(...) - Kurve aus float-Werten (Skala -1 ... 1, begrenzt)...
+     */
+    private void plot(Graphics graphics, float[] values, long first, int points,
+                      int top, int height, Color color)
+    {
+        final double scale = (height - 1) / 2.0;
+        for (int point = 0; point < points; point++)
+        {
+            final float value = Math.max(-1.0f, Math.min(1.0f, values[(int)((first + point) & this.mask)]));
+            this.yPoints[point] = top + (int)((1.0 - value) * scale);
+        }
+        graphics.setColor(color);
+        graphics.drawPolyline(this.xPoints, this.yPoints, points);
+    }
+}
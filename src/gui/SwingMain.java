@@ -34,6 +34,18 @@ public class SwingMain
      */
     private final String iconImageFile;
     
+    /**
+     * FRAME_RATE_KEY - Key unter dem die Bildrate (in Hz) der Anzeige der
+     * Zustandsgroessen abgelegt ist...
+     */
+    public final static String FRAME_RATE_KEY = "frameRate";
+    
+    /**
+     * CHART_SECONDS_KEY - Key unter dem die Zeitspanne (in s) des Verlaufs
+     * (StripChart) abgelegt ist...
+     */
+    public final static String CHART_SECONDS_KEY = "chartSeconds";
+    
     /** 
      * defaultLookAndFeel - boolsche Kennung, es ist kein LookAndFeel ueber die
      * Konfiguration eingestellt worden, verwende dann die 
@@ -89,8 +101,13 @@ public class SwingMain
         }
         // *** Testausgabe... ***
         // System.out.println( javax.swing.UIManager.getSystemLookAndFeelClassName() );
-        final Model model = new Model();
-        SwingWindow swingWindow = new SwingWindow(model);
+        final Model model = new Model(properties);
+        SwingWindow swingWindow = new SwingWindow(model, Model.getIntProperty(properties, 
+                                                                              SwingMain.FRAME_RATE_KEY, 
+                                                                              SwingWindow.DEFAULT_FRAME_RATE),
+                                                     Model.getIntProperty(properties, 
+                                                                          SwingMain.CHART_SECONDS_KEY, 
+                                                                          StripChart.DEFAULT_SECONDS));
         //
         this.iconImageFile = properties.getProperty(SwingMain.ICON_IMAGE_KEY, "");
         try
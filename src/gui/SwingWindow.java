@@ -14,6 +14,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
+import java.util.Objects;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -29,6 +30,7 @@ import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.text.JTextComponent;
 import javax.swing.text.NumberFormatter;
 
@@ -72,9 +74,9 @@ public class SwingWindow extends JFrame implements View
     private final java.util.Map<String, JTextComponent> textComponentMap = new java.util.TreeMap<>();
     
     /**
-     * comboBoxMap - nimmt die Controls vom Typ JComboBox<> auf (Vereinfachung, value vom Typ BigDecimal)...
+     * comboBoxMap - nimmt die Controls vom Typ JComboBox<> auf (value vom Typ BigDecimal bzw. String)...
      */
-    private final java.util.Map<String, JComboBox<BigDecimal>> comboBoxMap = new java.util.TreeMap<>();
+    private final java.util.Map<String, JComboBox<?>> comboBoxMap = new java.util.TreeMap<>();
     
     /**
      * checkBoxMap - nimmt die Controls vom Typ JCheckBox auf...
@@ -118,9 +120,22 @@ public class SwingWindow extends JFrame implements View
         {TEXT_FIELD,            Data.OUTPUT_MA_KEY,         "Stellgroesse Motor A"},
         {TEXT_FIELD,            Data.OUTPUT_MB_KEY,         "Stellgroesse Motor B"},
         {CHECK_BOX,             Model.CONTROL_KEY,          "Mit Regelung?"       },
-        {COMBO_BOX,             Model.ENHANCEMENT_KEY,      "Verstärkung"         }
+        {CHECK_BOX,             Model.SYNC_KEY,             "Gleichlauf?"         },
+        {COMBO_BOX,             Model.ENHANCEMENT_KEY,      "Verstärkung"         },
+        {COMBO_BOX,             Model.CONTROL_STRATEGY_KEY, "Regelgesetz"         }
     };
     
+    /**
+     * controlStrategyNames - Namen der im Model registrierten Regelgesetze 
+     * (Auswahl in der ComboBox CONTROL_STRATEGY_KEY)...
+     */
+    private final String[] controlStrategyNames;
+    
+    /**
+     * selectedControlStrategy - Name des Regelgesetzes beim Programmstart
+     */
+    private final String selectedControlStrategy;
+    
     /**
      * 
      */
@@ -162,19 +177,101 @@ public class SwingWindow extends JFrame implements View
      */
     private JPanel jContentPane = null;
     
+    /**
+     * DEFAULT_FRAME_RATE = 10 - Vorgabe der Bildrate (in Hz), mit der die 
+     * Zustandsgroessen des Regelzyklus in der View aktualisiert werden...
+     */
+    public final static int DEFAULT_FRAME_RATE = 10;
+    
+    /**
+     * MAX_FRAME_RATE = 60 - maximale Bildrate (in Hz)...
+     */
+    public final static int MAX_FRAME_RATE = 60;
+    
+    /**
+     * refreshTimer - holt mit der eingestellten Bildrate die Zustandsgroessen 
+     * des Regelzyklus vom Model (vgl. Model.getTelemetryRing())...
+     * <p>
+     * Der Regelzyklus benachrichtigt die View nicht mehr in jedem Zyklus, 
+     * die View holt sich die Daten selbst (im Event-Dispatch-Thread), und nur 
+     * wenn neue Daten vorliegen. Der Aufwand der View haengt damit nicht mehr 
+     * von der Taktrate des Regelzyklus ab.
+     * </p>
+     */
+    private final javax.swing.Timer refreshTimer;
+    
+    /**
+     * telemetryConsumer - Leseposition der View im TelemetryRing des Model
+     */
+    private final TelemetryRing.Consumer telemetryConsumer;
+    
+    /**
+     * telemetryRecord - nimmt die zuletzt veroeffentlichten Zustandsgroessen auf
+     */
+    private final CycleRecord telemetryRecord = new CycleRecord();
+    
+    /**
+     * stripChart - Verlauf der Zustandsgroessen der letzten Sekunden
+     */
+    private final StripChart stripChart;
+    
+    /**
+     * chartConsumer - Leseposition der StripChart im TelemetryRing des Model
+     * (alle Zyklen, nicht nur der letzte)
+     */
+    private final TelemetryRing.Consumer chartConsumer;
+    
     /**
      * This is the default constructor
      */
     public SwingWindow(Model model)
+    {
+        this(model, DEFAULT_FRAME_RATE);
+    }
+    
+    /**
+     * SwingWindow(Model model, int frameRate)
+     * @param model
+     * @param frameRate Bildrate (in Hz) der Aktualisierung der Zustandsgroessen (1 ... MAX_FRAME_RATE)
+     */
+    public SwingWindow(Model model, int frameRate)
+    {
+        this(model, frameRate, StripChart.DEFAULT_SECONDS);
+    }
+    
+    /**
+     * SwingWindow(Model model, int frameRate, int chartSeconds)
+     * @param model
+     * @param frameRate Bildrate (in Hz) der Aktualisierung der Zustandsgroessen (1 ... MAX_FRAME_RATE)
+     * @param chartSeconds Zeitspanne (in s) der StripChart
+     */
+    public SwingWindow(Model model, int frameRate, int chartSeconds)
     {
         super();
+        this.stripChart = new StripChart(chartSeconds);
+        this.controlStrategyNames = model.getControlStrategyNames();
+        this.selectedControlStrategy = model.getControlStrategy().getName();
         initialize();
+        this.telemetryConsumer = model.getTelemetryRing().newConsumer();
+        this.chartConsumer = model.getTelemetryRing().newConsumer();
+        final int refreshMillis = 1000 / Math.max(1, Math.min(MAX_FRAME_RATE, frameRate));
+        logger.debug("Aktualisierung der View alle " + refreshMillis + " ms");
+        this.refreshTimer = new javax.swing.Timer(refreshMillis, new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent event)
+            {
+                refreshData();
+            }
+        });
+        this.refreshTimer.start();
         addWindowListener(new WindowAdapter()
         {
             @Override
             public void windowClosing(WindowEvent event)
             {
                 logger.debug("windowClosing(WindowEvent)...");
+                SwingWindow.this.refreshTimer.stop();
                 model.shutdown();
                 System.exit(0);
             }
@@ -230,8 +327,9 @@ public class SwingWindow extends JFrame implements View
             }
             
             { // EAST
-                // leeres Panel (Platzhalter)...
-                jContentPane.add(new JPanel(), BorderLayout.EAST);
+                // Verlauf der Zustandsgroessen...
+                this.stripChart.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+                jContentPane.add(this.stripChart, BorderLayout.EAST);
             }
             
             {   // CENTER
@@ -401,7 +499,34 @@ public class SwingWindow extends JFrame implements View
                             });
                         }
                         
-                        if (CHECK_BOX.equals(controlType) && Model.CONTROL_KEY.equals(controlId))
+                        if (COMBO_BOX.equals(controlType) && Model.CONTROL_STRATEGY_KEY.equals(controlId))
+                        {
+                            // Jetzt die Combobox mit den registrierten Regelgesetzen instanziieren...
+                            JComboBox<String> comboBox = new JComboBox<>(this.controlStrategyNames);
+                            comboBox.setName(controlId);
+                            comboBox.setMaximumSize(new Dimension(100, comboBox.getMinimumSize().height));
+                            this.comboBoxMap.put(controlId, comboBox); 
+                            controlPanel.add(comboBox);
+                            controlPanel.add(Box.createRigidArea(new Dimension(4, 0)));
+                            centerPanel.add(controlPanel);
+                            
+                            // Selektion des aktiven Regelgesetzes...
+                            comboBox.setSelectedItem(this.selectedControlStrategy);
+                            
+                            comboBox.addActionListener(new ActionListener() 
+                            {
+                                @Override
+                                public void actionPerformed(ActionEvent event)
+                                {
+                                    JComboBox<?> source = (JComboBox<?>)event.getSource();   
+                                    logger.debug(source.getName() + ": " + event.getActionCommand());   
+                                    
+                                    actionCommandDelegate(event);
+                                }
+                            });
+                        }
+                        
+                        if (CHECK_BOX.equals(controlType))
                         {
                             JCheckBox controlCheckBox = new JCheckBox();
                             controlCheckBox.setName(controlId);
@@ -483,34 +608,43 @@ public class SwingWindow extends JFrame implements View
     /**
      * propertyChange(PropertyChangeEvent event) - wird vom Model her beaufragt
      * und muss die View evtl. nachziehen...  
+     * <p>
+     * Swing-Komponenten duerfen nur im Event-Dispatch-Thread veraendert werden,
+     * Events aus anderen Threads werden deshalb mit invokeLater() weitergereicht.
+     * </p>
      */
     @Override
     public void propertyChange(PropertyChangeEvent event)
     {
+        if (!SwingUtilities.isEventDispatchThread())
+        {
+            SwingUtilities.invokeLater(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    propertyChange(event);
+                }
+            });
+            return;
+        }
+        
         final String propertyName = event.getPropertyName();
         final Object newValue = event.getNewValue();
         
         if (Model.DATA_KEY.equals(propertyName) && (newValue instanceof Data))
         {
-            final Data data = (Data) newValue;
-            for( String key: data.getKeys())
-            {
-                if (this.textComponentMap.containsKey(key))
-                {
-                    final JTextComponent textComponent = this.textComponentMap.get(key);
-                    textComponent.setText(data.getValue(key));
-                    continue;
-                }
-            }
+            showData((Data) newValue);
         }
         
-        if (Model.DESTINATION_KEY.equals(propertyName) && (newValue instanceof BigDecimal))
+        if (Model.DESTINATION_KEY.equals(propertyName) && (newValue instanceof String))
         {
-            // propertyChange vom Model her mit DESTINATION_KEY...
+            // propertyChange vom Model her mit DESTINATION_KEY (Text des Eingabefeldes, 
+            // z.B. Vorgabe ueber den CommandServer)...
             if (this.textComponentMap.containsKey(propertyName))
             {
                 final JTextComponent textComponent = this.textComponentMap.get(propertyName);
-                textComponent.setText((String)newValue);
+                setTextIfChanged(textComponent, (String) newValue);
                 logger.debug("Sollwert Lage: " + newValue);
             }
         }
@@ -521,7 +655,7 @@ public class SwingWindow extends JFrame implements View
             if (this.textComponentMap.containsKey(propertyName))
             {
                 final JTextComponent textComponent = this.textComponentMap.get(propertyName);
-                textComponent.setText(((Long)newValue).toString());
+                setTextIfChanged(textComponent, ((Long)newValue).toString());
                 logger.debug("Sollwert Impulsanzahl: " + newValue);
             }
         }
@@ -536,7 +670,14 @@ public class SwingWindow extends JFrame implements View
             
             if (this.comboBoxMap.containsKey(propertyName))
             {
-                JComboBox<BigDecimal> valueComboBox = this.comboBoxMap.get(propertyName);
+                JComboBox<?> valueComboBox = this.comboBoxMap.get(propertyName);
+                if (Model.ENHANCEMENT_KEY.equals(propertyName))
+                {
+                    // Die Verstaerkung aus dem Relaisversuch steht i.d.R. nicht in der Liste...
+                    @SuppressWarnings("unchecked")
+                    final JComboBox<BigDecimal> enhancementComboBox = (JComboBox<BigDecimal>) valueComboBox;
+                    insertIfAbsent(enhancementComboBox, newData);
+                }
                 // => Achtung!!
                 // => newData muss mit seScale(...) des Listeneintrages uebereinstimmen!
                 valueComboBox.setSelectedItem(newData);
@@ -544,7 +685,16 @@ public class SwingWindow extends JFrame implements View
             }
         }
         
-        if (Model.CONTROL_KEY.equals(propertyName))
+        if (Model.CONTROL_STRATEGY_KEY.equals(propertyName) && (newValue instanceof String))
+        {
+            if (this.comboBoxMap.containsKey(propertyName))
+            {
+                this.comboBoxMap.get(propertyName).setSelectedItem(newValue);
+                logger.debug(propertyName + ": " + newValue);
+            }
+        }
+        
+        if (Model.CONTROL_KEY.equals(propertyName) || Model.SYNC_KEY.equals(propertyName))
         {
             final boolean isSelected = Boolean.TRUE.equals(newValue);
             
@@ -579,6 +729,82 @@ public class SwingWindow extends JFrame implements View
         ////////////////////////////////////////////////////////////////////
     }
 
+    /**
+     * refreshData() - holt die zuletzt veroeffentlichten Zustandsgroessen des 
+     * Regelzyklus aus dem TelemetryRing, wenn neue Daten vorliegen...
+     * <p>
+     * Zwischenzeitliche Zyklen werden uebersprungen, es wird nur der letzte angezeigt.
+     * Die StripChart uebernimmt dagegen alle Zyklen und wird (mit der Bildrate)
+     * neu gezeichnet, wenn neue vorliegen.
+     * </p>
+     */
+    private void refreshData()
+    {
+        if (this.telemetryConsumer.pollLatest(this.telemetryRecord))
+        {
+            showData(this.telemetryRecord.toData());
+        }
+        if (this.chartConsumer.drain(this.stripChart, Integer.MAX_VALUE) > 0)
+        {
+            this.stripChart.repaint();
+        }
+    }
+    
+    /**
+     * showData(Data data) - Anzeige der Zustandsgroessen...
+     * @param data
+     */
+    private void showData(Data data)
+    {
+        for( String key: data.getKeys())
+        {
+            if (this.textComponentMap.containsKey(key))
+            {
+                setTextIfChanged(this.textComponentMap.get(key), data.getValue(key));
+                continue;
+            }
+        }
+    }
+    
+    /**
+     * insertIfAbsent(JComboBox&lt;BigDecimal&gt; comboBox, BigDecimal value) - nimmt value
+     * in die aufsteigend sortierte Liste der ComboBox auf, falls noch nicht enthalten...
+     * @param comboBox
+     * @param value
+     */
+    private static void insertIfAbsent(JComboBox<BigDecimal> comboBox, BigDecimal value)
+    {
+        int index = 0;
+        while (index < comboBox.getItemCount())
+        {
+            final int comparison = comboBox.getItemAt(index).compareTo(value);
+            if (comparison == 0)
+            {
+                return;
+            }
+            if (comparison > 0)
+            {
+                break;
+            }
+            index++;
+        }
+        comboBox.insertItemAt(value, index);
+    }
+    
+    /**
+     * setTextIfChanged(JTextComponent textComponent, String text) - setzt den Text
+     * nur, wenn er sich geaendert hat (kein unnoetiges Neuzeichnen)...
+     * @param textComponent
+     * @param text
+     */
+    private static void setTextIfChanged(JTextComponent textComponent, String text)
+    {
+        if (!Objects.equals(textComponent.getText(), text))
+        {
+            textComponent.setText(text);
+        }
+    }
+    
     /**
      * 
      * @param event
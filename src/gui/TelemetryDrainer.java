@@ -0,0 +1,156 @@
+/**
+ *
+ */
+package gui;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TelemetryDrainer - liest in einem eigenen Thread im festen Intervall alle
+ * neuen Eintraege eines TelemetryRing.Consumer und reicht sie an einen
+ * TelemetryRing.Handler weiter (z.B. TelemetryLogger)...
+ * <p>
+ * Der Regelzyklus wird dadurch nie aufgehalten: Ist der Handler zu langsam,
+ * gehen Eintraege verloren und werden im Ueberlaufzaehler des Consumer gezaehlt.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class TelemetryDrainer
+{
+    /**
+     * logger...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(TelemetryDrainer.class);
+
+    /**
+     * JOIN_TIMEOUT_MILLIS = 1000L - maximale Wartezeit beim Beenden des Threads...
+     */
+    private final static long JOIN_TIMEOUT_MILLIS = 1000L;
+
+    /**
+     * MAX_RECORDS_PER_DRAIN = 4096 - maximale Anzahl der Eintraege je Durchlauf...
+     */
+    private final static int MAX_RECORDS_PER_DRAIN = 4096;
+
+    /**
+     * consumer - Leseposition im TelemetryRing
+     */
+    private final TelemetryRing.Consumer consumer;
+
+    /**
+     * handler - Verarbeitung der Eintraege
+     */
+    private final TelemetryRing.Handler handler;
+
+    /**
+     * intervalNanos - Intervall zwischen zwei Durchlaeufen in ns
+     */
+    private final long intervalNanos;
+
+    /**
+     * thread...
+     */
+    private final Thread thread;
+
+    /**
+     * running - Kennung, der Thread soll laufen...
+     */
+    private volatile boolean running = false;
+
+    /**
+     * TelemetryDrainer(String name, TelemetryRing ring, TelemetryRing.Handler handler, long intervalMillis)
+     * @param name Name des Threads
+     * @param ring TelemetryRing
+     * @param handler Verarbeitung der Eintraege
+     * @param intervalMillis Intervall in ms
+     */
+    public TelemetryDrainer(String name, TelemetryRing ring, TelemetryRing.Handler handler, long intervalMillis)
+    {
+        this.consumer = Objects.requireNonNull(ring, "ring must not be null!").newConsumer();
+        this.handler = Objects.requireNonNull(handler, "handler must not be null!");
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, intervalMillis));
+        this.thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                runDrain();
+            }
+        }, name);
+        this.thread.setPriority(Thread.MIN_PRIORITY);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * start() - Thread starten...
+     */
+    public void start()
+    {
+        this.running = true;
+        this.thread.start();
+    }
+
+    /**
+     * stop() - Thread beenden, es wird maximal JOIN_TIMEOUT_MILLIS gewartet...
+     */
+    public void stop()
+    {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+        try
+        {
+            this.thread.join(JOIN_TIMEOUT_MILLIS);
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+        logger.debug(this.thread.getName() + " beendet: " + this.consumer.toString());
+    }
+
+    /**
+     * runDrain() - Schleife des Threads, zum Schluss wird ein letztes Mal gelesen...
+     */
+    private void runDrain()
+    {
+        while (this.running)
+        {
+            drain();
+            LockSupport.parkNanos(this, this.intervalNanos);
+        }
+        drain();
+    }
+
+    /**
+     * drain() - alle vorliegenden Eintraege verarbeiten, Fehler werden
+     * protokolliert, beenden aber nicht den Thread...
+     */
+    private void drain()
+    {
+        try
+        {
+            while (this.consumer.drain(this.handler, MAX_RECORDS_PER_DRAIN) == MAX_RECORDS_PER_DRAIN)
+            {
+                // weiter, bis keine Eintraege mehr vorliegen...
+            }
+        }
+        catch (RuntimeException exception)
+        {
+            logger.error(exception.toString(), exception);
+        }
+    }
+
+    /**
+     * @return the consumer
+     */
+    public final TelemetryRing.Consumer getConsumer()
+    {
+        return this.consumer;
+    }
+}
@@ -0,0 +1,456 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * TelemetryHistory - Verlauf der Regelzyklen ueber lange Zeit (Stunden, Tage)
+ * in mehreren Aufloesungen, fuer die Anzeige eines beliebigen Zeitfensters mit
+ * einem Aufwand proportional zur Anzahl der Pixel (nicht der Zyklen)...
+ * <p>
+ * Stufe 0 enthaelt die einzelnen Zyklen, jede weitere Stufe fasst FACTOR Eintraege
+ * der vorherigen zu einem zusammen (Minimum, Maximum, Summe je Kanal sowie der
+ * Zeitstempel des ersten Zyklus). Jede Stufe ist ein Ringpuffer mit capacity
+ * Eintraegen, Stufe n reicht damit capacity * FACTOR^n Zyklen zurueck. Der
+ * Speicherbedarf ist fest, je Zyklus wird nichts angelegt.
+ * </p>
+ * <p>
+ * Abfragen waehlen die feinste Stufe mit hoechstens FACTOR Eintraegen je Spalte
+ * bzw. Punkt: minMax() liefert je Spalte Minimum und Maximum (kein Ausreisser
+ * geht verloren), lttb() waehlt mit Largest-Triangle-Three-Buckets aus den
+ * Mittelwerten der Stufe die Punkte einer Linie aus. Eintraege einer Stufe, die
+ * noch nicht vollstaendig sind, fehlen am rechten Rand (hoechstens ein Eintrag
+ * der gewaehlten Stufe).
+ * </p>
+ * <p>
+ * Gefuellt wird als TelemetryRing.Handler (TelemetryDrainer), die Methoden sind
+ * synchronized, Abfragen sind kurz (O(Spalten)).
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class TelemetryHistory implements TelemetryRing.Handler
+{
+    /**
+     * Channel - aufgezeichnete Groessen...
+     */
+    public enum Channel
+    {
+        SET_POINT,
+        NUMBER_MA,
+        NUMBER_MB,
+        OUTPUT_MA,
+        OUTPUT_MB;
+    }
+
+    /**
+     * FACTOR = 4 - Anzahl der Eintraege einer Stufe je Eintrag der naechsten
+     */
+    public final static int FACTOR = 4;
+
+    /**
+     * SHIFT = 2 - log2(FACTOR)
+     */
+    private final static int SHIFT = 2;
+
+    /**
+     * CHANNELS - Anzahl der Kanaele
+     */
+    private final static int CHANNELS = Channel.values().length;
+
+    /**
+     * Level - eine Stufe (Ringpuffer)...
+     */
+    private final static class Level
+    {
+        /**
+         * timestamps - Zeitstempel des ersten Zyklus je Eintrag
+         */
+        private final long[] timestamps;
+
+        /**
+         * min, max, sum - je Kanal und Eintrag
+         */
+        private final double[][] min;
+        private final double[][] max;
+        private final double[][] sum;
+
+        /**
+         * count - Anzahl der vollstaendigen Eintraege seit Beginn
+         */
+        private long count = 0L;
+
+        /**
+         * Zusammenfassung des naechsten Eintrags (aus der vorherigen Stufe)...
+         */
+        private int pending = 0;
+        private long pendingTimestamp = 0L;
+        private final double[] pendingMin = new double[CHANNELS];
+        private final double[] pendingMax = new double[CHANNELS];
+        private final double[] pendingSum = new double[CHANNELS];
+
+        /**
+         * Level(int capacity)
+         */
+        private Level(int capacity)
+        {
+            this.timestamps = new long[capacity];
+            this.min = new double[CHANNELS][capacity];
+            this.max = new double[CHANNELS][capacity];
+            this.sum = new double[CHANNELS][capacity];
+        }
+    }
+
+    /**
+     * levels - Stufe 0 (einzelne Zyklen) ... levels.length - 1
+     */
+    private final Level[] levels;
+
+    /**
+     * capacity, mask - Eintraege je Stufe (Zweierpotenz) und capacity - 1
+     */
+    private final int capacity;
+    private final int mask;
+
+    /**
+     * values - Werte des aktuellen Zyklus (wiederverwendet)
+     */
+    private final double[] values = new double[CHANNELS];
+
+    /**
+     * scratchX, scratchY - Kandidaten fuer lttb() (wiederverwendet)
+     */
+    private final double[] scratchX;
+    private final double[] scratchY;
+
+    /**
+     * TelemetryHistory(int capacity, int levelCount)
+     * @param capacity Eintraege je Stufe (wird auf eine Zweierpotenz aufgerundet)
+     * @param levelCount Anzahl der Stufen (1 ... 16)
+     */
+    public TelemetryHistory(int capacity, int levelCount)
+    {
+        this.capacity = Integer.highestOneBit(Math.max(2 * FACTOR, capacity) - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.levels = new Level[Math.max(1, Math.min(16, levelCount))];
+        for (int index = 0; index < this.levels.length; index++)
+        {
+            this.levels[index] = new Level(this.capacity);
+        }
+        this.scratchX = new double[this.capacity];
+        this.scratchY = new double[this.capacity];
+    }
+
+    /**
+     * onRecord(CycleRecord record) - einen Zyklus eintragen...
+     */
+    @Override
+    public synchronized void onRecord(CycleRecord record)
+    {
+        final double[] values = this.values;
+        values[Channel.SET_POINT.ordinal()] = record.getNumberSetPoint();
+        values[Channel.NUMBER_MA.ordinal()] = record.getNumberMA();
+        values[Channel.NUMBER_MB.ordinal()] = record.getNumberMB();
+        values[Channel.OUTPUT_MA.ordinal()] = record.getOutputMA();
+        values[Channel.OUTPUT_MB.ordinal()] = record.getOutputMB();
+        push(0, record.getTimestampNanos(), values, values, values);
+    }
+
+    /**
+     * push(...) - vollstaendigen Eintrag in Stufe levelIndex eintragen und in
+     * die Zusammenfassung der naechsten Stufe uebernehmen...
+     */
+    private void push(int levelIndex, long timestamp, double[] min, double[] max, double[] sum)
+    {
+        final Level level = this.levels[levelIndex];
+        final int slot = (int)(level.count & this.mask);
+        level.timestamps[slot] = timestamp;
+        for (int channel = 0; channel < CHANNELS; channel++)
+        {
+            level.min[channel][slot] = min[channel];
+            level.max[channel][slot] = max[channel];
+            level.sum[channel][slot] = sum[channel];
+        }
+        level.count++;
+
+        if (levelIndex + 1 >= this.levels.length)
+        {
+            return;
+        }
+        final Level next = this.levels[levelIndex + 1];
+        if (next.pending == 0)
+        {
+            next.pendingTimestamp = timestamp;
+            System.arraycopy(min, 0, next.pendingMin, 0, CHANNELS);
+            System.arraycopy(max, 0, next.pendingMax, 0, CHANNELS);
+            System.arraycopy(sum, 0, next.pendingSum, 0, CHANNELS);
+        }
+        else
+        {
+            for (int channel = 0; channel < CHANNELS; channel++)
+            {
+                next.pendingMin[channel] = Math.min(next.pendingMin[channel], min[channel]);
+                next.pendingMax[channel] = Math.max(next.pendingMax[channel], max[channel]);
+                next.pendingSum[channel] += sum[channel];
+            }
+        }
+        if (++next.pending == FACTOR)
+        {
+            next.pending = 0;
+            push(levelIndex + 1, next.pendingTimestamp, next.pendingMin, next.pendingMax, next.pendingSum);
+        }
+    }
+
+    /**
+     * getCount()
+     * @return Anzahl der eingetragenen Zyklen (Index des naechsten Zyklus)
+     */
+    public synchronized long getCount()
+    {
+        return this.levels[0].count;
+    }
+
+    /**
+     * getOldestIndex()
+     * @return Index des aeltesten noch (in der groebsten Stufe) enthaltenen Zyklus
+     */
+    public synchronized long getOldestIndex()
+    {
+        final int levelIndex = this.levels.length - 1;
+        return oldestBucket(this.levels[levelIndex]) << (SHIFT * levelIndex);
+    }
+
+    /**
+     * getTimestampNanos(long index) - Zeitstempel (System.nanoTime()) zu einem Zyklus...
+     * @param index Index des Zyklus
+     * @return Zeitstempel des Zyklus bzw. (in groeberen Stufen) des ersten Zyklus
+     *         seines Eintrags, 0L, falls nicht (mehr) enthalten
+     */
+    public synchronized long getTimestampNanos(long index)
+    {
+        for (int levelIndex = 0; levelIndex < this.levels.length; levelIndex++)
+        {
+            final Level level = this.levels[levelIndex];
+            final long bucket = index >> (SHIFT * levelIndex);
+            if (bucket >= oldestBucket(level) && bucket < level.count)
+            {
+                return level.timestamps[(int)(bucket & this.mask)];
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * indexAt(long timestampNanos) - Index des ersten Zyklus ab timestampNanos...
+     * @param timestampNanos Zeitstempel (System.nanoTime())
+     * @return Index (in der feinsten Stufe, die timestampNanos noch enthaelt),
+     *         getOldestIndex(), falls timestampNanos aelter ist
+     */
+    public synchronized long indexAt(long timestampNanos)
+    {
+        for (int levelIndex = 0; levelIndex < this.levels.length; levelIndex++)
+        {
+            final Level level = this.levels[levelIndex];
+            long low = oldestBucket(level);
+            long high = level.count;
+            if (low >= high || level.timestamps[(int)(low & this.mask)] > timestampNanos)
+            {
+                continue;
+            }
+            // Binaere Suche nach dem ersten Eintrag mit timestamp >= timestampNanos...
+            while (low < high)
+            {
+                final long middle = (low + high) >>> 1;
+                if (level.timestamps[(int)(middle & this.mask)] < timestampNanos)
+                {
+                    low = middle + 1L;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+            return low << (SHIFT * levelIndex);
+        }
+        return getOldestIndex();
+    }
+
+    /**
+     * minMax(...) - Minimum und Maximum je Spalte...
+     * @param channel Kanal
+     * @param from Index des ersten Zyklus (einschliesslich)
+     * @param to Index des letzten Zyklus (ausschliesslich)
+     * @param columns Anzahl der Spalten (z.B. Breite in Pixel)
+     * @param min nimmt je Spalte das Minimum auf (NaN: keine Werte)
+     * @param max nimmt je Spalte das Maximum auf (NaN: keine Werte)
+     * @return Stufe, aus der die Werte stammen
+     */
+    public synchronized int minMax(Channel channel, long from, long to, int columns, double[] min, double[] max)
+    {
+        final int levelIndex = selectLevel(from, to, columns);
+        final Level level = this.levels[levelIndex];
+        final int shift = SHIFT * levelIndex;
+        final double[] levelMin = level.min[channel.ordinal()];
+        final double[] levelMax = level.max[channel.ordinal()];
+        final long oldest = oldestBucket(level);
+        final long span = Math.max(0L, to - from);
+        for (int column = 0; column < columns; column++)
+        {
+            // Zyklen der Spalte, Eintraege der Stufe, die darin beginnen...
+            final long start = from + span * column / columns;
+            final long end = from + span * (column + 1) / columns;
+            final long first = Math.max(oldest, (start + (1L << shift) - 1L) >> shift);
+            final long last = Math.min(level.count, Math.max(first + 1L, (end + (1L << shift) - 1L) >> shift));
+            double columnMin = Double.NaN;
+            double columnMax = Double.NaN;
+            for (long bucket = first; bucket < last; bucket++)
+            {
+                final int slot = (int)(bucket & this.mask);
+                columnMin = Double.isNaN(columnMin)? levelMin[slot] : Math.min(columnMin, levelMin[slot]);
+                columnMax = Double.isNaN(columnMax)? levelMax[slot] : Math.max(columnMax, levelMax[slot]);
+            }
+            min[column] = columnMin;
+            max[column] = columnMax;
+        }
+        return levelIndex;
+    }
+
+    /**
+     * lttb(...) - Punkte einer Linie nach Largest-Triangle-Three-Buckets...
+     * <p>
+     * Kandidaten sind die Mittelwerte der Eintraege der gewaehlten Stufe
+     * (hoechstens FACTOR je Punkt), der erste und der letzte Kandidat
+     * werden immer uebernommen.
+     * </p>
+     * @param channel Kanal
+     * @param from Index des ersten Zyklus (einschliesslich)
+     * @param to Index des letzten Zyklus (ausschliesslich)
+     * @param points Anzahl der gewuenschten Punkte (mindestens 3)
+     * @param x nimmt je Punkt den Index des Zyklus auf (Mitte des Eintrags)
+     * @param y nimmt je Punkt den Wert auf
+     * @return Anzahl der Punkte (weniger als points, falls es weniger Kandidaten gibt)
+     */
+    public synchronized int lttb(Channel channel, long from, long to, int points, double[] x, double[] y)
+    {
+        final int levelIndex = selectLevel(from, to, points);
+        final Level level = this.levels[levelIndex];
+        final int shift = SHIFT * levelIndex;
+        final double size = 1L << shift;
+        final double[] levelSum = level.sum[channel.ordinal()];
+
+        // Kandidaten: Mittelwerte der Eintraege im Fenster...
+        final long first = Math.max(oldestBucket(level), (from + (1L << shift) - 1L) >> shift);
+        final long last = Math.min(level.count, (to + (1L << shift) - 1L) >> shift);
+        int candidates = 0;
+        for (long bucket = first; bucket < last && candidates < this.capacity; bucket++)
+        {
+            this.scratchX[candidates] = (bucket << shift) + (size - 1.0) / 2.0;
+            this.scratchY[candidates] = levelSum[(int)(bucket & this.mask)] / size;
+            candidates++;
+        }
+        if (candidates <= points || points < 3)
+        {
+            final int count = Math.min(candidates, points);
+            System.arraycopy(this.scratchX, 0, x, 0, count);
+            System.arraycopy(this.scratchY, 0, y, 0, count);
+            return count;
+        }
+
+        // Erster Punkt fest, dann je Bucket der Punkt mit der groessten Dreiecksflaeche
+        // zum zuletzt gewaehlten Punkt und zum Mittelwert des naechsten Bucket...
+        final double bucketSize = (double)(candidates - 2) / (points - 2);
+        int selected = 0;
+        x[0] = this.scratchX[0];
+        y[0] = this.scratchY[0];
+        for (int point = 0; point < points - 2; point++)
+        {
+            final int bucketStart = (int)(point * bucketSize) + 1;
+            final int bucketEnd = (int)((point + 1) * bucketSize) + 1;
+            final int nextStart = bucketEnd;
+            final int nextEnd = Math.min(candidates, (int)((point + 2) * bucketSize) + 1);
+            double averageX = 0.0;
+            double averageY = 0.0;
+            for (int index = nextStart; index < nextEnd; index++)
+            {
+                averageX += this.scratchX[index];
+                averageY += this.scratchY[index];
+            }
+            final int nextCount = Math.max(1, nextEnd - nextStart);
+            averageX /= nextCount;
+            averageY /= nextCount;
+            if (nextEnd <= nextStart)
+            {
+                averageX = this.scratchX[candidates - 1];
+                averageY = this.scratchY[candidates - 1];
+            }
+
+            final double selectedX = this.scratchX[selected];
+            final double selectedY = this.scratchY[selected];
+            double maxArea = -1.0;
+            int maxIndex = bucketStart;
+            for (int index = bucketStart; index < bucketEnd; index++)
+            {
+                final double area = Math.abs((selectedX - averageX) * (this.scratchY[index] - selectedY)
+                                           - (selectedX - this.scratchX[index]) * (averageY - selectedY));
+                if (area > maxArea)
+                {
+                    maxArea = area;
+                    maxIndex = index;
+                }
+            }
+            selected = maxIndex;
+            x[point + 1] = this.scratchX[selected];
+            y[point + 1] = this.scratchY[selected];
+        }
+        x[points - 1] = this.scratchX[candidates - 1];
+        y[points - 1] = this.scratchY[candidates - 1];
+        return points;
+    }
+
+    /**
+     * selectLevel(long from, long to, int columns) - feinste Stufe, die from noch
+     * enthaelt und hoechstens FACTOR Eintraege je Spalte liefert...
+     */
+    private int selectLevel(long from, long to, int columns)
+    {
+        final long span = Math.max(1L, to - from);
+        final long limit = (long)Math.max(1, columns) * FACTOR;
+        for (int levelIndex = 0; levelIndex < this.levels.length - 1; levelIndex++)
+        {
+            final int shift = SHIFT * levelIndex;
+            final boolean isContained = (from >> shift) >= oldestBucket(this.levels[levelIndex]);
+            if (isContained && (span >> shift) <= Math.min(limit, this.capacity))
+            {
+                return levelIndex;
+            }
+        }
+        return this.levels.length - 1;
+    }
+
+    /**
+     * oldestBucket(Level level)
+     * @return Index des aeltesten noch enthaltenen Eintrags der Stufe
+     */
+    private long oldestBucket(Level level)
+    {
+        return Math.max(0L, level.count - this.capacity);
+    }
+
+    /**
+     * toString()...
+     */
+    @Override
+    public synchronized String toString()
+    {
+        return new StringBuilder().append("[count=")
+                                  .append(this.levels[0].count)
+                                  .append(" levels=")
+                                  .append(this.levels.length)
+                                  .append(" capacity=")
+                                  .append(this.capacity)
+                                  .append(" oldest=")
+                                  .append(getOldestIndex())
+                                  .append("]")
+                                  .toString();
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ *
+ */
+package gui;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TelemetryLogger - protokolliert die Zustandsgroessen der Regelzyklen
+ * (Sollwert, Istwerte, Stellgroessen) ausserhalb des Regelzyklus...
+ * <p>
+ * Die Protokollierung erfolgt ueber einen TelemetryDrainer, d.h. im Thread
+ * des Drainer und nur wenn der Logger auf DEBUG steht (vgl. isEnabled()).
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public class TelemetryLogger implements TelemetryRing.Handler
+{
+    /**
+     * logger...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(TelemetryLogger.class);
+
+    /**
+     * isEnabled() - soll protokolliert werden?
+     * @return true, wenn der Logger auf DEBUG steht
+     */
+    public static boolean isEnabled()
+    {
+        return logger.isDebugEnabled();
+    }
+
+    /**
+     * onRecord(CycleRecord record) - Protokollierung eines Eintrags...
+     */
+    @Override
+    public void onRecord(CycleRecord record)
+    {
+        if (logger.isDebugEnabled())
+        {
+            final String msg = new StringBuilder().append("Zyklus ")
+                                                  .append(record.getCounter())
+                                                  .append(": Sollwert=")
+                                                  .append(record.getNumberSetPoint())
+                                                  .append(", Istwerte: ")
+                                                  .append(record.getNumberMA())
+                                                  .append(" ")
+                                                  .append(record.getNumberMB())
+                                                  .append(", Stellgroessen: ")
+                                                  .append(record.getOutputMA())
+                                                  .append(" ")
+                                                  .append(record.getOutputMB())
+                                                  .append(", ")
+                                                  .append(record.getStatus())
+                                                  .toString();
+            logger.debug(msg);
+        }
+    }
+}
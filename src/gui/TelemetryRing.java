@@ -0,0 +1,317 @@
+/**
+ *
+ */
+package gui;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TelemetryRing - Ringpuffer mit den Zustandsgroessen der Regelzyklen
+ * (ein Erzeuger, beliebig viele Verbraucher, ohne Sperren)...
+ * <p>
+ * Der Regelzyklus (einziger Erzeuger) traegt seine Werte mit <code>claim()</code>
+ * in den naechsten, vorab angelegten CycleRecord ein und veroeffentlicht ihn mit
+ * <code>publish()</code> durch eine einzige volatile Speicheroperation
+ * (AtomicLong.set()). Der Erzeuger wartet nie auf einen Verbraucher.
+ * </p>
+ * <p>
+ * Jeder Verbraucher (View, Logger, Recorder...) hat einen eigenen Consumer mit
+ * eigener Leseposition und liest in seinem Tempo. Ist ein Verbraucher zu
+ * langsam, wird er vom Erzeuger ueberholt: Die verlorenen Zyklen werden im
+ * Ueberlaufzaehler des Consumer gezaehlt, gelesen wird ab dem aeltesten noch
+ * gueltigen Eintrag.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class TelemetryRing
+{
+    /**
+     * slots[] - vorab angelegte CycleRecord-Objekte
+     */
+    private final CycleRecord[] slots;
+
+    /**
+     * mask - slots.length - 1 (slots.length ist eine Zweierpotenz)
+     */
+    private final int mask;
+
+    /**
+     * sequence - laufende Nummer des zuletzt veroeffentlichten Eintrags (-1L: noch keiner)
+     */
+    private final AtomicLong sequence = new AtomicLong(-1L);
+
+    /**
+     * readBarrier - wird in read() nach dem Kopieren volatile geschrieben (wie die
+     * Leseposition in Consumer.drain()), damit das Kopieren nicht hinter die Pruefung
+     * verschoben werden kann...
+     */
+    private final AtomicLong readBarrier = new AtomicLong(-1L);
+
+    /**
+     * TelemetryRing(int capacity)
+     * @param capacity Anzahl der Eintraege, wird auf die naechste Zweierpotenz (mind. 4) aufgerundet
+     */
+    public TelemetryRing(int capacity)
+    {
+        final int size = Math.max(4, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        this.slots = new CycleRecord[size];
+        for (int index = 0; index < size; index++)
+        {
+            this.slots[index] = new CycleRecord();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * claim() - liefert den naechsten CycleRecord zum Befuellen,
+     * nur durch den Erzeuger aufzurufen...
+     * @return CycleRecord
+     */
+    public CycleRecord claim()
+    {
+        return this.slots[(int)((this.sequence.get() + 1L) & this.mask)];
+    }
+
+    /**
+     * publish() - veroeffentlicht den mit claim() gelieferten CycleRecord,
+     * nur durch den Erzeuger aufzurufen...
+     * <p>
+     * Volatile Schreiben (nicht lazySet()): Die Eintraege des naechsten claim() 
+     * duerfen erst nach der neuen laufenden Nummer sichtbar werden (z.B. ARM), 
+     * sonst haelt ein Verbraucher mit der vorherigen Nummer den Slot, der gerade
+     * ueberschrieben wird, fuer gueltig (vgl. read())...
+     * </p>
+     */
+    public void publish()
+    {
+        this.sequence.set(this.sequence.get() + 1L);
+    }
+
+    /**
+     * getSequence() - laufende Nummer des zuletzt veroeffentlichten Eintrags
+     * @return laufende Nummer (-1L: noch keiner)
+     */
+    public long getSequence()
+    {
+        return this.sequence.get();
+    }
+
+    /**
+     * getCapacity()
+     * @return Anzahl der Eintraege
+     */
+    public int getCapacity()
+    {
+        return this.slots.length;
+    }
+
+    /**
+     * readLatest(CycleRecord target) - kopiert den zuletzt veroeffentlichten
+     * Eintrag nach target...
+     * @param target nimmt die Kopie auf
+     * @return laufende Nummer des kopierten Eintrags (-1L: noch keiner)
+     */
+    public long readLatest(CycleRecord target)
+    {
+        while (true)
+        {
+            final long current = this.sequence.get();
+            if (current < 0L || read(current, target))
+            {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * read(long position, CycleRecord target) - kopiert den Eintrag position nach target
+     * und prueft anschliessend, ob der Erzeuger den Eintrag waehrend des Kopierens
+     * ueberschrieben haben kann...
+     * @param position laufende Nummer des Eintrags
+     * @param target nimmt die Kopie auf
+     * @return true, wenn die Kopie gueltig ist
+     */
+    private boolean read(long position, CycleRecord target)
+    {
+        target.copyFrom(this.slots[(int)(position & this.mask)]);
+        // Volatile Schreiben vor der Pruefung (vgl. Consumer.drain())...
+        this.readBarrier.set(position);
+        // Der Erzeuger beschreibt den Slot erneut, sobald position + slots.length - 1
+        // veroeffentlicht ist...
+        return this.sequence.get() - position < this.slots.length - 1;
+    }
+
+    /**
+     * newConsumer() - neuer Verbraucher, liest ab dem naechsten veroeffentlichten Eintrag...
+     * @return Consumer
+     */
+    public Consumer newConsumer()
+    {
+        return new Consumer(this.sequence.get() + 1L);
+    }
+
+    /**
+     * Handler - Verarbeitung eines Eintrags durch einen Verbraucher
+     */
+    public interface Handler
+    {
+        /**
+         * onRecord(CycleRecord record) - Verarbeitung eines Eintrags...
+         * <p>
+         * record ist eine Kopie des Consumer und wird beim naechsten Eintrag
+         * wiederverwendet, d.h. die Werte muessen ggf. uebernommen werden.
+         * </p>
+         * @param record
+         */
+        public void onRecord(CycleRecord record);
+    }
+
+    /**
+     * Consumer - Leseposition eines Verbrauchers mit Ueberlaufzaehler...
+     * <p>
+     * Ein Consumer darf nur von einem Thread verwendet werden.
+     * </p>
+     */
+    public final class Consumer
+    {
+        /**
+         * next - laufende Nummer des naechsten zu lesenden Eintrags
+         */
+        private final AtomicLong next;
+
+        /**
+         * overrunCount - Anzahl der Eintraege, die vom Erzeuger ueberschrieben
+         * wurden, bevor sie gelesen werden konnten...
+         */
+        private final AtomicLong overrunCount = new AtomicLong(0L);
+
+        /**
+         * readCount - Anzahl der gelesenen Eintraege
+         */
+        private final AtomicLong readCount = new AtomicLong(0L);
+
+        /**
+         * record - nimmt die Kopie des jeweiligen Eintrags auf
+         */
+        private final CycleRecord record = new CycleRecord();
+
+        /**
+         * Consumer(long next)
+         * @param next laufende Nummer des ersten zu lesenden Eintrags
+         */
+        private Consumer(long next)
+        {
+            this.next = new AtomicLong(next);
+        }
+
+        /**
+         * drain(Handler handler, int maxRecords) - liest alle vorliegenden Eintraege
+         * (maximal maxRecords) und reicht sie an handler weiter...
+         * @param handler Verarbeitung
+         * @param maxRecords maximale Anzahl
+         * @return Anzahl der verarbeiteten Eintraege
+         */
+        public int drain(Handler handler, int maxRecords)
+        {
+            int count = 0;
+            while (count < maxRecords)
+            {
+                final long available = TelemetryRing.this.sequence.get();
+                long position = this.next.get();
+                if (position > available)
+                {
+                    break;
+                }
+                // Bereits ueberschrieben (bzw. gerade in Arbeit)? Dann weiter beim aeltesten gueltigen Eintrag...
+                final long oldest = available - (TelemetryRing.this.slots.length - 2);
+                if (position < oldest)
+                {
+                    this.overrunCount.addAndGet(oldest - position);
+                    position = oldest;
+                }
+                this.record.copyFrom(TelemetryRing.this.slots[(int)(position & TelemetryRing.this.mask)]);
+                // Volatile Schreiben der Leseposition vor der Pruefung, damit das Kopieren
+                // nicht hinter die Pruefung verschoben werden kann...
+                this.next.set(position + 1L);
+                if (TelemetryRing.this.sequence.get() - position >= TelemetryRing.this.slots.length - 1)
+                {
+                    // Waehrend des Kopierens ueberschrieben...
+                    this.overrunCount.incrementAndGet();
+                    continue;
+                }
+                this.readCount.incrementAndGet();
+                handler.onRecord(this.record);
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * pollLatest(CycleRecord target) - kopiert den zuletzt veroeffentlichten Eintrag
+         * nach target und ueberspringt alle dazwischen liegenden Eintraege (z.B. zur Anzeige)...
+         * @param target nimmt die Kopie auf
+         * @return true, wenn ein neuer Eintrag vorlag
+         */
+        public boolean pollLatest(CycleRecord target)
+        {
+            while (true)
+            {
+                final long available = TelemetryRing.this.sequence.get();
+                final long position = this.next.get();
+                if (available < position)
+                {
+                    return false;
+                }
+                target.copyFrom(TelemetryRing.this.slots[(int)(available & TelemetryRing.this.mask)]);
+                this.next.set(available + 1L);
+                if (TelemetryRing.this.sequence.get() - available < TelemetryRing.this.slots.length - 1)
+                {
+                    this.readCount.incrementAndGet();
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return the overrunCount
+         */
+        public long getOverrunCount()
+        {
+            return this.overrunCount.get();
+        }
+
+        /**
+         * @return the readCount
+         */
+        public long getReadCount()
+        {
+            return this.readCount.get();
+        }
+
+        /**
+         * getLag() - Anzahl der veroeffentlichten, noch nicht gelesenen Eintraege
+         * @return Anzahl
+         */
+        public long getLag()
+        {
+            return Math.max(0L, TelemetryRing.this.sequence.get() + 1L - this.next.get());
+        }
+
+        /**
+         * toString() - zu Protokollzwecken...
+         */
+        @Override
+        public String toString()
+        {
+            return new StringBuilder().append("[read=")
+                                      .append(getReadCount())
+                                      .append(" overruns=")
+                                      .append(getOverrunCount())
+                                      .append(" lag=")
+                                      .append(getLag())
+                                      .append("]")
+                                      .toString();
+        }
+    }
+}
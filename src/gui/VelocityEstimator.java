@@ -0,0 +1,139 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * VelocityEstimator - Schaetzung von Lage und Geschwindigkeit eines Motors
+ * aus den Impulsen des Gebers (Alpha-Beta-Filter)...
+ * <p>
+ * Mit CIRCUMFERENCE = 6 Impulsen pro Umdrehung ist die Differenz der Lage
+ * zwischen zwei Zyklen sehr grob (meist 0 oder 1 Impuls). Der Filter
+ * schaetzt deshalb Lage x und Geschwindigkeit v (in Impulse/s) ueber
+ * mehrere Zyklen:
+ * <pre>
+ *   x' = x + v * dt                   (Vorhersage)
+ *   r  = Lage - x'                    (Residuum)
+ *   x  = x' + alpha * r
+ *   v  = v + beta / dt * r
+ * </pre>
+ * Stabil fuer 0 &lt; alpha &lt;= 1 und 0 &lt; beta &lt; 4 - 2 * alpha; kritisch
+ * gedaempft ist beta = alpha^2 / (2 - alpha). Kleine Werte glaetten staerker,
+ * reagieren aber langsamer.
+ * </p>
+ * <p>
+ * Ein Objekt wird nur von einem Thread (dem Regelzyklus) verwendet, update()
+ * legt keine Objekte an.
+ * </p>
+ * @author Detlef Tribius
+ *
+ */
+public final class VelocityEstimator
+{
+    /**
+     * MAX_DT = 0.5 - groesstes beruecksichtigtes dt in s (z.B. nach einer Unterbrechung)...
+     */
+    private final static double MAX_DT = 0.5;
+
+    /**
+     * alpha - Gewicht des Residuums fuer die Lage
+     */
+    private final double alpha;
+
+    /**
+     * beta - Gewicht des Residuums fuer die Geschwindigkeit
+     */
+    private final double beta;
+
+    /**
+     * position - geschaetzte Lage in Impulsen
+     */
+    private double position = 0.0;
+
+    /**
+     * velocity - geschaetzte Geschwindigkeit in Impulse/s
+     */
+    private double velocity = 0.0;
+
+    /**
+     * VelocityEstimator(double alpha, double beta)
+     * @param alpha Gewicht fuer die Lage (0.0 &lt; alpha &lt;= 1.0)
+     * @param beta Gewicht fuer die Geschwindigkeit (0.0 &lt; beta &lt; 4 - 2 * alpha)
+     */
+    public VelocityEstimator(double alpha, double beta)
+    {
+        if (!(alpha > 0.0 && alpha <= 1.0))
+        {
+            throw new IllegalArgumentException("alpha: " + alpha);
+        }
+        if (!(beta > 0.0 && beta < 4.0 - 2.0 * alpha))
+        {
+            throw new IllegalArgumentException("beta: " + beta);
+        }
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    /**
+     * reset(long number) - Schaetzung auf die Lage number in Ruhe setzen...
+     * @param number Lage in Impulsen
+     */
+    public void reset(long number)
+    {
+        this.position = number;
+        this.velocity = 0.0;
+    }
+
+    /**
+     * update(long number, long cycleTimeNanos) - Schaetzung mit der gemessenen
+     * Lage number nachfuehren...
+     * @param number gemessene Lage in Impulsen
+     * @param cycleTimeNanos Zeit seit dem letzten update() in ns
+     */
+    public void update(long number, long cycleTimeNanos)
+    {
+        final double dt = Math.min(MAX_DT, cycleTimeNanos * 1.0e-9);
+        if (dt <= 0.0)
+        {
+            // Ohne gueltiges dt nur die Lage uebernehmen...
+            this.position = number;
+            return;
+        }
+        final double predicted = this.position + this.velocity * dt;
+        final double residual = number - predicted;
+        this.position = predicted + this.alpha * residual;
+        this.velocity += this.beta / dt * residual;
+    }
+
+    /**
+     * @return the position (geschaetzte Lage in Impulsen)
+     */
+    public double getPosition()
+    {
+        return this.position;
+    }
+
+    /**
+     * @return the velocity (geschaetzte Geschwindigkeit in Impulse/s)
+     */
+    public double getVelocity()
+    {
+        return this.velocity;
+    }
+
+    /**
+     * @return the alpha
+     */
+    public double getAlpha()
+    {
+        return this.alpha;
+    }
+
+    /**
+     * @return the beta
+     */
+    public double getBeta()
+    {
+        return this.beta;
+    }
+}